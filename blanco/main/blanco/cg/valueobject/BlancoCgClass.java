@@ -1,5 +1,6 @@
 package blanco.cg.valueobject;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
@@ -152,6 +153,21 @@ public class BlancoCgClass {
      */
     private boolean fJsonCreator = false;
 
+    /**
+     * クラスのフィールド中に記述するテキストを遅延して供給するイテレータです。plainTextListの後に展開され、ソースコード出力時に一度だけ消費されます。
+     *
+     * フィールド: [plainTextSource]。
+     */
+    private Iterator<String> fPlainTextSource;
+
+    /**
+     * クラスのフィールド中に、整形済みのまま出力するファイルのリストです。plainTextSourceの後に、ファイルの内容がそのままコピーされます。
+     *
+     * フィールド: [verbatimFileList]。
+     * デフォルト: [new java.util.ArrayList&lt;blanco.cg.valueobject.BlancoCgVerbatimFile&gt;()]。
+     */
+    private List<BlancoCgVerbatimFile> fVerbatimFileList = new java.util.ArrayList<blanco.cg.valueobject.BlancoCgVerbatimFile>();
+
     /**
      * フィールド [name] の値を設定します。
      *
@@ -566,6 +582,51 @@ public class BlancoCgClass {
         return fJsonCreator;
     }
 
+    /**
+     * フィールド [plainTextSource] の値を設定します。
+     *
+     * フィールドの説明: [クラスのフィールド中に記述するテキストを遅延して供給するイテレータです。plainTextListの後に展開され、ソースコード出力時に一度だけ消費されます。]。
+     *
+     * @param argPlainTextSource フィールド[plainTextSource]に設定する値。
+     */
+    public void setPlainTextSource(final Iterator<String> argPlainTextSource) {
+        fPlainTextSource = argPlainTextSource;
+    }
+
+    /**
+     * フィールド [plainTextSource] の値を取得します。
+     *
+     * フィールドの説明: [クラスのフィールド中に記述するテキストを遅延して供給するイテレータです。plainTextListの後に展開され、ソースコード出力時に一度だけ消費されます。]。
+     *
+     * @return フィールド[plainTextSource]から取得した値。
+     */
+    public Iterator<String> getPlainTextSource() {
+        return fPlainTextSource;
+    }
+
+    /**
+     * フィールド [verbatimFileList] の値を設定します。
+     *
+     * フィールドの説明: [クラスのフィールド中に、整形済みのまま出力するファイルのリストです。plainTextSourceの後に、ファイルの内容がそのままコピーされます。]。
+     *
+     * @param argVerbatimFileList フィールド[verbatimFileList]に設定する値。
+     */
+    public void setVerbatimFileList(final List<BlancoCgVerbatimFile> argVerbatimFileList) {
+        fVerbatimFileList = argVerbatimFileList;
+    }
+
+    /**
+     * フィールド [verbatimFileList] の値を取得します。
+     *
+     * フィールドの説明: [クラスのフィールド中に、整形済みのまま出力するファイルのリストです。plainTextSourceの後に、ファイルの内容がそのままコピーされます。]。
+     * デフォルト: [new java.util.ArrayList&lt;blanco.cg.valueobject.BlancoCgVerbatimFile&gt;()]。
+     *
+     * @return フィールド[verbatimFileList]から取得した値。
+     */
+    public List<BlancoCgVerbatimFile> getVerbatimFileList() {
+        return fVerbatimFileList;
+    }
+
     /**
      * Gets the string representation of this value object.
      *
@@ -599,6 +660,8 @@ public class BlancoCgClass {
         buf.append(",constructorArgList=" + fConstructorArgList);
         buf.append(",plainTextList=" + fPlainTextList);
         buf.append(",jsonCreator=" + fJsonCreator);
+        buf.append(",plainTextSource=" + fPlainTextSource);
+        buf.append(",verbatimFileList=" + fVerbatimFileList);
         buf.append("]");
         return buf.toString();
     }
@@ -675,5 +738,11 @@ public class BlancoCgClass {
         // Name: fJsonCreator
         // Type: boolean
         target.fJsonCreator = this.fJsonCreator;
+        // Name: fPlainTextSource
+        // Type: java.util.Iterator
+        // Field[fPlainTextSource] is an unsupported type[java.util.Iteratorjava.lang.String].
+        // Name: fVerbatimFileList
+        // Type: java.util.List
+        // Field[fVerbatimFileList] is an unsupported type[java.util.Listblanco.cg.valueobject.BlancoCgVerbatimFile].
     }
 }
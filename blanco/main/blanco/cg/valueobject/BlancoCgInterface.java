@@ -95,6 +95,14 @@ public class BlancoCgInterface {
      */
     private Boolean fDefineAnnotation = false;
 
+    /**
+     * インタフェースの中に、整形済みのまま出力するファイルのリストです。plainTextListの後に、ファイルの内容がそのままコピーされます。
+     *
+     * フィールド: [verbatimFileList]。
+     * デフォルト: [new java.util.ArrayList&lt;blanco.cg.valueobject.BlancoCgVerbatimFile&gt;()]。
+     */
+    private List<BlancoCgVerbatimFile> fVerbatimFileList = new java.util.ArrayList<blanco.cg.valueobject.BlancoCgVerbatimFile>();
+
     /**
      * フィールド [name] の値を設定します。
      *
@@ -348,6 +356,29 @@ public class BlancoCgInterface {
         return fDefineAnnotation;
     }
 
+    /**
+     * フィールド [verbatimFileList] の値を設定します。
+     *
+     * フィールドの説明: [インタフェースの中に、整形済みのまま出力するファイルのリストです。plainTextListの後に、ファイルの内容がそのままコピーされます。]。
+     *
+     * @param argVerbatimFileList フィールド[verbatimFileList]に設定する値。
+     */
+    public void setVerbatimFileList(final List<BlancoCgVerbatimFile> argVerbatimFileList) {
+        fVerbatimFileList = argVerbatimFileList;
+    }
+
+    /**
+     * フィールド [verbatimFileList] の値を取得します。
+     *
+     * フィールドの説明: [インタフェースの中に、整形済みのまま出力するファイルのリストです。plainTextListの後に、ファイルの内容がそのままコピーされます。]。
+     * デフォルト: [new java.util.ArrayList&lt;blanco.cg.valueobject.BlancoCgVerbatimFile&gt;()]。
+     *
+     * @return フィールド[verbatimFileList]から取得した値。
+     */
+    public List<BlancoCgVerbatimFile> getVerbatimFileList() {
+        return fVerbatimFileList;
+    }
+
     /**
      * Gets the string representation of this value object.
      *
@@ -374,6 +405,7 @@ public class BlancoCgInterface {
         buf.append(",langDoc=" + fLangDoc);
         buf.append(",plainTextList=" + fPlainTextList);
         buf.append(",defineAnnotation=" + fDefineAnnotation);
+        buf.append(",verbatimFileList=" + fVerbatimFileList);
         buf.append("]");
         return buf.toString();
     }
@@ -429,5 +461,8 @@ public class BlancoCgInterface {
         // Name: fDefineAnnotation
         // Type: java.lang.Boolean
         target.fDefineAnnotation = this.fDefineAnnotation;
+        // Name: fVerbatimFileList
+        // Type: java.util.List
+        // Field[fVerbatimFileList] is an unsupported type[java.util.Listblanco.cg.valueobject.BlancoCgVerbatimFile].
     }
 }
@@ -1,5 +1,6 @@
 package blanco.cg.valueobject;
 
+import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -163,6 +164,13 @@ public class BlancoCgMethod {
      */
     private BlancoCgLangDoc fLangDoc;
 
+    /**
+     * このメソッドに含まれる行を遅延して供給するイテレータです。lineListの後に展開され、ソースコード出力時に一度だけ消費されます。巨大なメソッド本体をメモリ上に保持しないために利用します。
+     *
+     * フィールド: [lineSource]。
+     */
+    private Iterator<String> fLineSource;
+
     /**
      * フィールド [name] の値を設定します。
      *
@@ -619,6 +627,28 @@ public class BlancoCgMethod {
         return fLangDoc;
     }
 
+    /**
+     * フィールド [lineSource] の値を設定します。
+     *
+     * フィールドの説明: [このメソッドに含まれる行を遅延して供給するイテレータです。lineListの後に展開され、ソースコード出力時に一度だけ消費されます。巨大なメソッド本体をメモリ上に保持しないために利用します。]。
+     *
+     * @param argLineSource フィールド[lineSource]に設定する値。
+     */
+    public void setLineSource(final Iterator<String> argLineSource) {
+        fLineSource = argLineSource;
+    }
+
+    /**
+     * フィールド [lineSource] の値を取得します。
+     *
+     * フィールドの説明: [このメソッドに含まれる行を遅延して供給するイテレータです。lineListの後に展開され、ソースコード出力時に一度だけ消費されます。巨大なメソッド本体をメモリ上に保持しないために利用します。]。
+     *
+     * @return フィールド[lineSource]から取得した値。
+     */
+    public Iterator<String> getLineSource() {
+        return fLineSource;
+    }
+
     /**
      * Gets the string representation of this value object.
      *
@@ -654,6 +684,7 @@ public class BlancoCgMethod {
         buf.append(",virtualParameterDefinition=" + fVirtualParameterDefinition);
         buf.append(",virtualParameterList=" + fVirtualParameterList);
         buf.append(",langDoc=" + fLangDoc);
+        buf.append(",lineSource=" + fLineSource);
         buf.append("]");
         return buf.toString();
     }
@@ -736,5 +767,8 @@ public class BlancoCgMethod {
         // Name: fLangDoc
         // Type: blanco.cg.valueobject.BlancoCgLangDoc
         // Field[fLangDoc] is an unsupported type[blanco.cg.valueobject.BlancoCgLangDoc].
+        // Name: fLineSource
+        // Type: java.util.Iterator
+        // Field[fLineSource] is an unsupported type[java.util.Iteratorjava.lang.String].
     }
 }
@@ -114,6 +114,14 @@ public class BlancoCgSourceFile {
      */
     private boolean fIsStrictNullable = false;
 
+    /**
+     * ドキュメント(言語ドキュメントおよび説明のコメント)の展開を省略するかどうかのフラグです。人が読まない中間ソースコードの生成に用います。
+     *
+     * フィールド: [isLean]。
+     * デフォルト: [false]。
+     */
+    private boolean fIsLean = false;
+
     /**
      * フィールド [name] の値を設定します。
      *
@@ -434,6 +442,29 @@ public class BlancoCgSourceFile {
         return fIsStrictNullable;
     }
 
+    /**
+     * フィールド [isLean] の値を設定します。
+     *
+     * フィールドの説明: [ドキュメント(言語ドキュメントおよび説明のコメント)の展開を省略するかどうかのフラグです。人が読まない中間ソースコードの生成に用います。]。
+     *
+     * @param argIsLean フィールド[isLean]に設定する値。
+     */
+    public void setIsLean(final boolean argIsLean) {
+        fIsLean = argIsLean;
+    }
+
+    /**
+     * フィールド [isLean] の値を取得します。
+     *
+     * フィールドの説明: [ドキュメント(言語ドキュメントおよび説明のコメント)の展開を省略するかどうかのフラグです。人が読まない中間ソースコードの生成に用います。]。
+     * デフォルト: [false]。
+     *
+     * @return フィールド[isLean]から取得した値。
+     */
+    public boolean getIsLean() {
+        return fIsLean;
+    }
+
     /**
      * Gets the string representation of this value object.
      *
@@ -463,6 +494,7 @@ public class BlancoCgSourceFile {
         buf.append(",langDoc=" + fLangDoc);
         buf.append(",isImport=" + fIsImport);
         buf.append(",isStrictNullable=" + fIsStrictNullable);
+        buf.append(",isLean=" + fIsLean);
         buf.append("]");
         return buf.toString();
     }
@@ -527,5 +559,11 @@ public class BlancoCgSourceFile {
         // Name: fIsStrictNullable
         // Type: boolean
         target.fIsStrictNullable = this.fIsStrictNullable;
+        // Name: fFragmentCache
+        // Type: blanco.cg.BlancoCgFragmentCache
+        // Field[fFragmentCache] is an unsupported type[blanco.cg.BlancoCgFragmentCache].
+        // Name: fIsLean
+        // Type: boolean
+        target.fIsLean = this.fIsLean;
     }
 }
@@ -0,0 +1,113 @@
+package blanco.cg.valueobject;
+
+/**
+ * ファイルに格納された整形済みのソースコード片を表現するためのバリューオブジェクト。
+ *
+ * 内容は文字列として読み込まれず、整形も行われずに、そのまま出力先へコピーされます。
+ */
+public class BlancoCgVerbatimFile {
+    /**
+     * コピー元のファイルのパスです。
+     *
+     * フィールド: [path]。
+     */
+    private String fPath;
+
+    /**
+     * コピー元のファイルの文字エンコーディングです。未指定の場合は、出力するソースファイルと同じエンコーディングとみなします。
+     *
+     * フィールド: [charset]。
+     */
+    private String fCharset;
+
+    /**
+     * フィールド [path] の値を設定します。
+     *
+     * フィールドの説明: [コピー元のファイルのパスです。]。
+     *
+     * @param argPath フィールド[path]に設定する値。
+     */
+    public void setPath(final String argPath) {
+        fPath = argPath;
+    }
+
+    /**
+     * フィールド [path] の値を取得します。
+     *
+     * フィールドの説明: [コピー元のファイルのパスです。]。
+     *
+     * @return フィールド[path]から取得した値。
+     */
+    public String getPath() {
+        return fPath;
+    }
+
+    /**
+     * フィールド [charset] の値を設定します。
+     *
+     * フィールドの説明: [コピー元のファイルの文字エンコーディングです。未指定の場合は、出力するソースファイルと同じエンコーディングとみなします。]。
+     *
+     * @param argCharset フィールド[charset]に設定する値。
+     */
+    public void setCharset(final String argCharset) {
+        fCharset = argCharset;
+    }
+
+    /**
+     * フィールド [charset] の値を取得します。
+     *
+     * フィールドの説明: [コピー元のファイルの文字エンコーディングです。未指定の場合は、出力するソースファイルと同じエンコーディングとみなします。]。
+     *
+     * @return フィールド[charset]から取得した値。
+     */
+    public String getCharset() {
+        return fCharset;
+    }
+
+    /**
+     * Gets the string representation of this value object.
+     *
+     * <P>Precautions for use</P>
+     * <UL>
+     * <LI>Only the shallow range of the object will be subject to the stringification process.
+     * <LI>Do not use this method if the object has a circular reference.
+     * </UL>
+     *
+     * @return String representation of a value object.
+     */
+    @Override
+    public String toString() {
+        final StringBuffer buf = new StringBuffer();
+        buf.append("blanco.cg.valueobject.BlancoCgVerbatimFile[");
+        buf.append("path=" + fPath);
+        buf.append(",charset=" + fCharset);
+        buf.append("]");
+        return buf.toString();
+    }
+
+    /**
+     * Copies this value object to the specified target.
+     *
+     * <P>Cautions for use</P>
+     * <UL>
+     * <LI>Only the shallow range of the object will be subject to the copying process.
+     * <LI>Do not use this method if the object has a circular reference.
+     * </UL>
+     *
+     * @param target target value object.
+     */
+    public void copyTo(final BlancoCgVerbatimFile target) {
+        if (target == null) {
+            throw new IllegalArgumentException("Bug: BlancoCgVerbatimFile#copyTo(target): argument 'target' is null");
+        }
+
+        // No needs to copy parent class.
+
+        // Name: fPath
+        // Type: java.lang.String
+        target.fPath = this.fPath;
+        // Name: fCharset
+        // Type: java.lang.String
+        target.fCharset = this.fCharset;
+    }
+}
@@ -0,0 +1,36 @@
+#!/bin/sh
+#
+# Compares the startup time of a generator with and without the class data sharing archives.
+#
+# usage: src/cds/benchmark-startup.sh [main class] [count]
+#
+# Run "mvn -Pcds package" beforehand. Every mode uses the same class path (target/cds/classpath.txt),
+# since an archive is rejected if the class path differs from the one at dump time.
+
+MAIN_CLASS=${1:-blanco.cg.BlancoCgWarmUp}
+COUNT=${2:-10}
+CDS_DIR=$(dirname "$0")/../../target/cds
+JAVA=${JAVA_HOME:+$JAVA_HOME/bin/}java
+
+if [ ! -f "$CDS_DIR/classpath.txt" ]; then
+    echo "cds: $CDS_DIR/classpath.txt not found. Run \"mvn -Pcds package\" first." >&2
+    exit 1
+fi
+CLASSPATH=$(cat "$CDS_DIR/classpath.txt")
+
+# Prints the median of the elapsed milliseconds of COUNT runs.
+measure() {
+    i=0
+    while [ $i -lt "$COUNT" ]; do
+        start=$(date +%s%N)
+        "$JAVA" "$@" -cp "$CLASSPATH" "$MAIN_CLASS" > /dev/null
+        end=$(date +%s%N)
+        echo $(( (end - start) / 1000000 ))
+        i=$((i + 1))
+    done | sort -n | awk '{ v[NR] = $1 } END { print v[int((NR + 1) / 2)] }'
+}
+
+echo "cold (-Xshare:off)   : $(measure -Xshare:off) ms"
+echo "default CDS          : $(measure -Xshare:auto) ms"
+echo "static AppCDS archive: $(measure -XX:SharedArchiveFile="$CDS_DIR/blanco-cg-static.jsa") ms"
+echo "dynamic archive      : $(measure -XX:SharedArchiveFile="$CDS_DIR/blanco-cg-dynamic.jsa") ms"
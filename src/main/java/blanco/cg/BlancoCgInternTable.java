@@ -0,0 +1,143 @@
+/*
+ * blanco Framework
+ * Copyright (C) 2004-2017 IGA Tosiki
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ */
+/*
+ * Copyright 2017 Toshiki Iga
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package blanco.cg;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import blanco.cg.util.BlancoCgSourceUtil;
+import blanco.cg.valueobject.BlancoCgType;
+
+/**
+ * A bounded table of canonical names and shared types, used by the interning object factory.
+ *
+ * Once a table is full, it is cleared before the next entry is added, so that a model with an unusual number of
+ * distinct names cannot grow it without bound. The table of the JVM-global factory lives as long as the JVM, and
+ * without the clearing, names of models generated long ago would fill it and stop the names of the current model from
+ * being interned. The value objects created before the clearing keep their strings and types, which are still valid;
+ * they are only no longer shared with the ones created after it.
+ */
+class BlancoCgInternTable {
+    /**
+     * Default maximum number of entries of each table.
+     */
+    static final int DEFAULT_MAX_ENTRIES = 65536;
+
+    /**
+     * Maximum number of entries of each table.
+     */
+    private final int fMaxEntries;
+
+    /**
+     * Canonical names.
+     */
+    private final ConcurrentHashMap<String, String> fNameMap = new ConcurrentHashMap<String, String>();
+
+    /**
+     * Shared types, with the type name as the key.
+     */
+    private final ConcurrentHashMap<String, BlancoCgInternedType> fTypeMap = new ConcurrentHashMap<String, BlancoCgInternedType>();
+
+    /**
+     * Constructor.
+     *
+     * @param argMaxEntries
+     *            Maximum number of entries of each table.
+     */
+    BlancoCgInternTable(final int argMaxEntries) {
+        if (argMaxEntries < 1) {
+            throw new IllegalArgumentException(
+                    "BlancoCgInternTable: the maximum number of entries must be 1 or more: "
+                            + argMaxEntries);
+        }
+        fMaxEntries = argMaxEntries;
+    }
+
+    /**
+     * Gets the canonical string of a name.
+     *
+     * @param argName
+     *            A name. May be null.
+     * @return The canonical string.
+     */
+    String intern(final String argName) {
+        if (argName == null) {
+            return null;
+        }
+        final String canonical = fNameMap.get(argName);
+        if (canonical != null) {
+            return canonical;
+        }
+        if (fNameMap.size() >= fMaxEntries) {
+            // Starts over rather than keeping the names of the old models.
+            fNameMap.clear();
+        }
+        final String previous = fNameMap.putIfAbsent(argName, argName);
+        return previous == null ? argName : previous;
+    }
+
+    /**
+     * Gets the shared type of a type name.
+     *
+     * @param argTypeName
+     *            Type name, possibly with generics.
+     * @return The shared type, or null if the type has generics.
+     */
+    BlancoCgType getType(final String argTypeName) {
+        if (argTypeName == null || argTypeName.indexOf('<') >= 0) {
+            return null;
+        }
+        final BlancoCgInternedType cgType = fTypeMap.get(argTypeName);
+        if (cgType != null) {
+            return cgType;
+        }
+        if (fTypeMap.size() >= fMaxEntries) {
+            // Starts over rather than keeping the types of the old models.
+            fTypeMap.clear();
+        }
+        final BlancoCgInternedType newType = new BlancoCgInternedType(
+                intern(BlancoCgSourceUtil.getTypeNameWithoutGenerics(argTypeName)));
+        final BlancoCgInternedType previous = fTypeMap.putIfAbsent(
+                argTypeName, newType);
+        return previous == null ? newType : previous;
+    }
+
+    /**
+     * Gets the number of the canonical names.
+     *
+     * @return Number of the names.
+     */
+    int getNameCount() {
+        return fNameMap.size();
+    }
+
+    /**
+     * Gets the number of the shared types.
+     *
+     * @return Number of the types.
+     */
+    int getTypeCount() {
+        return fTypeMap.size();
+    }
+}
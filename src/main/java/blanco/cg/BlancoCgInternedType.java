@@ -0,0 +1,131 @@
+/*
+ * blanco Framework
+ * Copyright (C) 2004-2017 IGA Tosiki
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ */
+/*
+ * Copyright 2017 Toshiki Iga
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package blanco.cg;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import blanco.cg.valueobject.BlancoCgType;
+
+/**
+ * An immutable type shared by the interning object factory (flyweight).
+ *
+ * Only a non-generic type without description is shared. Its setters throw UnsupportedOperationException,
+ * since a change would affect every element that refers to the same type.<br>
+ * To change such a type, replace it with a copy obtained by toMutable().
+ */
+public final class BlancoCgInternedType extends BlancoCgType {
+    /**
+     * Constructor.
+     *
+     * @param argName
+     *            Type name. A canonical string is expected.
+     */
+    BlancoCgInternedType(final String argName) {
+        super.setName(argName);
+        super.setGenerics("");
+    }
+
+    /**
+     * Creates a mutable copy of this type.
+     *
+     * @return A new type with the same contents.
+     */
+    public BlancoCgType toMutable() {
+        final BlancoCgType cgType = new BlancoCgType();
+        copyTo(cgType);
+        cgType.setGenericsTree(new ArrayList<BlancoCgType>());
+        return cgType;
+    }
+
+    /**
+     * Gets the value object class of an object, treating a shared type as BlancoCgType.
+     *
+     * @param argValue
+     *            An object.
+     * @return Class of the object.
+     */
+    public static Class<?> getValueObjectClass(final Object argValue) {
+        if (argValue instanceof BlancoCgInternedType) {
+            return BlancoCgType.class;
+        }
+        return argValue.getClass();
+    }
+
+    @Override
+    public List<BlancoCgType> getGenericsTree() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public void setName(final String argName) {
+        throw newUnsupported("name");
+    }
+
+    @Override
+    public void setDescription(final String argDescription) {
+        throw newUnsupported("description");
+    }
+
+    @Override
+    public void setGenerics(final String argGenerics) {
+        throw newUnsupported("generics");
+    }
+
+    @Override
+    public void setGenericsTree(final List<BlancoCgType> argGenericsTree) {
+        throw newUnsupported("genericsTree");
+    }
+
+    @Override
+    public void setArray(final boolean argArray) {
+        throw newUnsupported("array");
+    }
+
+    @Override
+    public void setArrayDimension(final int argArrayDimension) {
+        throw newUnsupported("arrayDimension");
+    }
+
+    @Override
+    public void setConstructorArgs(final String argConstructorArgs) {
+        throw newUnsupported("constructorArgs");
+    }
+
+    /**
+     * Creates an exception for a change of this type.
+     *
+     * @param argField
+     *            Field to be changed.
+     * @return An exception.
+     */
+    private UnsupportedOperationException newUnsupported(final String argField) {
+        return new UnsupportedOperationException("The type [" + getName()
+                + "] is shared by the interning object factory, and its field ["
+                + argField
+                + "] cannot be changed. Replace it with a copy by toMutable().");
+    }
+}
@@ -38,9 +38,18 @@ import blanco.cg.valueobject.*;
  *
  * There used to be a method called createLine, but it has been deprecated.
  *
+ * An interning factory (getInterningInstance()) shares canonical name strings among the created value objects,
+ * and returns a shared immutable type (BlancoCgInternedType) for a non-generic type name.
+ * This reduces the heap of a large model. Since the setters of a shared type throw UnsupportedOperationException,
+ * interning is only used by callers that ask for it; getInstance() always returns an ordinary factory.
+ *
  * @author IGA Tosiki
  */
 public class BlancoCgObjectFactory {
+    /**
+     * Table of canonical names and shared types. Null if this factory does not intern.
+     */
+    private final BlancoCgInternTable fInternTable;
 
     /**
      * Object factory constructor.
@@ -48,6 +57,17 @@ public class BlancoCgObjectFactory {
      * It is made private so that it can only be created anew through a factory.
      */
     private BlancoCgObjectFactory() {
+        this(null);
+    }
+
+    /**
+     * Object factory constructor.
+     *
+     * @param argInternTable
+     *            Table of canonical names and shared types, or null not to intern.
+     */
+    private BlancoCgObjectFactory(final BlancoCgInternTable argInternTable) {
+        fInternTable = argInternTable;
     }
 
     /**
@@ -59,6 +79,62 @@ public class BlancoCgObjectFactory {
         return new BlancoCgObjectFactory();
     }
 
+    /**
+     * Gets the shared interning instance of BlancoCg object factory.
+     *
+     * Each table of the names and the types holds up to 65536 entries, and is cleared when it is full, so the names of
+     * the models generated earlier in a long-running JVM do not stay in it.
+     *
+     * @return The interning instance.
+     */
+    public static BlancoCgObjectFactory getInterningInstance() {
+        return InterningInstanceHolder.INSTANCE;
+    }
+
+    /**
+     * Creates a new interning instance of BlancoCg object factory with its own tables.
+     *
+     * @param argMaxEntries
+     *            Maximum number of entries of each table of the names and the types. A full table is cleared.
+     * @return A new interning instance.
+     */
+    public static BlancoCgObjectFactory getInterningInstance(
+            final int argMaxEntries) {
+        return new BlancoCgObjectFactory(new BlancoCgInternTable(argMaxEntries));
+    }
+
+    /**
+     * Checks whether this factory interns names and types.
+     *
+     * @return True if this factory interns.
+     */
+    public boolean isInterning() {
+        return fInternTable != null;
+    }
+
+    /**
+     * Gets the intern table of this factory.
+     *
+     * @return The table, or null if this factory does not intern.
+     */
+    BlancoCgInternTable getInternTable() {
+        return fInternTable;
+    }
+
+    /**
+     * Gets the canonical string of a name if this factory interns.
+     *
+     * @param argName
+     *            A name.
+     * @return The canonical string, or the name itself.
+     */
+    private String intern(final String argName) {
+        if (fInternTable == null) {
+            return argName;
+        }
+        return fInternTable.intern(argName);
+    }
+
     /**
      * Creates a source file instance.
      *
@@ -74,7 +150,7 @@ public class BlancoCgObjectFactory {
     public BlancoCgSourceFile createSourceFile(final String argPackageName,
             final String argDescription) {
         final BlancoCgSourceFile cgSourceFile = new BlancoCgSourceFile();
-        cgSourceFile.setPackage(argPackageName);
+        cgSourceFile.setPackage(intern(argPackageName));
         cgSourceFile.setDescription(argDescription);
 
         // Creates an instance of language document by default.
@@ -93,13 +169,20 @@ public class BlancoCgObjectFactory {
      * @return Type instance.
      */
     public BlancoCgType createType(final String argTypeName) {
+        if (fInternTable != null) {
+            final BlancoCgType sharedType = fInternTable.getType(argTypeName);
+            if (sharedType != null) {
+                return sharedType;
+            }
+        }
+
         final BlancoCgType cgType = new BlancoCgType();
-        cgType.setName(BlancoCgSourceUtil.getTypeNameWithoutGenerics(argTypeName));
+        cgType.setName(intern(BlancoCgSourceUtil.getTypeNameWithoutGenerics(argTypeName)));
 
         // Description is not set when it is generated from the factory.
 
         // Stores generics, if any.
-        cgType.setGenerics(BlancoCgSourceUtil.getGenericsFromFullName(argTypeName));
+        cgType.setGenerics(intern(BlancoCgSourceUtil.getGenericsFromFullName(argTypeName)));
 
         return cgType;
     }
@@ -117,7 +200,7 @@ public class BlancoCgObjectFactory {
     public BlancoCgClass createClass(final String argClassName,
             final String argDescription) {
         final BlancoCgClass cgClass = new BlancoCgClass();
-        cgClass.setName(argClassName);
+        cgClass.setName(intern(argClassName));
         cgClass.setDescription(argDescription);
 
         // Creates an instance of language document by default.
@@ -139,7 +222,7 @@ public class BlancoCgObjectFactory {
     public BlancoCgInterface createInterface(final String argInterfaceName,
             final String argDescription) {
         final BlancoCgInterface cgInterface = new BlancoCgInterface();
-        cgInterface.setName(argInterfaceName);
+        cgInterface.setName(intern(argInterfaceName));
         cgInterface.setDescription(argDescription);
 
         // Creates an instance of language document by default.
@@ -162,7 +245,7 @@ public class BlancoCgObjectFactory {
     public BlancoCgField createField(final String argName,
             final String argTypeNameWithPackage, final String argDescription) {
         final BlancoCgField cgField = new BlancoCgField();
-        cgField.setName(argName);
+        cgField.setName(intern(argName));
         cgField.setDescription(argDescription);
 
         // Creates an instance of language document by default.
@@ -186,7 +269,7 @@ public class BlancoCgObjectFactory {
     public BlancoCgMethod createMethod(final String methodName,
             final String argDescription) {
         final BlancoCgMethod cgMethod = new BlancoCgMethod();
-        cgMethod.setName(methodName);
+        cgMethod.setName(intern(methodName));
         cgMethod.setDescription(argDescription);
 
         // Creates an instance of language document by default.
@@ -228,7 +311,7 @@ public class BlancoCgObjectFactory {
             final String argFullTypeName, final String argDescription,
             final boolean argNotNull) {
         final BlancoCgParameter cgParameter = new BlancoCgParameter();
-        cgParameter.setName(argName);
+        cgParameter.setName(intern(argName));
         cgParameter.setDescription(argDescription);
         cgParameter.setNotnull(argNotNull);
 
@@ -257,7 +340,7 @@ public class BlancoCgObjectFactory {
             final String argDescription
     ) {
         final BlancoCgVirtualParameter cgParameter = new BlancoCgVirtualParameter();
-        cgParameter.setName(argName);
+        cgParameter.setName(intern(argName));
         cgParameter.setDescription(argDescription);
         // Creates type object and sets informations.
         cgParameter.setType(createType(argFullTypeName));
@@ -272,7 +355,7 @@ public class BlancoCgObjectFactory {
     public BlancoCgLocalVariable createLocalVariable(final String argName,
             final String argType) {
         final BlancoCgLocalVariable cgLocalVariable = new BlancoCgLocalVariable();
-        cgLocalVariable.setName(argName);
+        cgLocalVariable.setName(intern(argName));
 
         // An instance of language document does not exist in the local variable definition instance.
 
@@ -338,7 +421,7 @@ public class BlancoCgObjectFactory {
     public BlancoCgEnum createEnum(final String argEnumName,
             final String argDescription) {
         final BlancoCgEnum cgEnum = new BlancoCgEnum();
-        cgEnum.setName(argEnumName);
+        cgEnum.setName(intern(argEnumName));
         cgEnum.setDescription(argDescription);
 
         // Creates an instance of language document by default.
@@ -359,7 +442,7 @@ public class BlancoCgObjectFactory {
     public BlancoCgEnumElement createEnumElement(
             final String argEnumElementName, final String argDescription) {
         final BlancoCgEnumElement cgEnumElement = new BlancoCgEnumElement();
-        cgEnumElement.setName(argEnumElementName);
+        cgEnumElement.setName(intern(argEnumElementName));
         cgEnumElement.setDescription(argDescription);
 
         return cgEnumElement;
@@ -379,10 +462,41 @@ public class BlancoCgObjectFactory {
     public BlancoCgLangDocTag createLangDocTag(final String argName,
             final String argKey, final String argValue) {
         final BlancoCgLangDocTag cgTag = new BlancoCgLangDocTag();
-        cgTag.setName(argName);
+        cgTag.setName(intern(argName));
         cgTag.setKey(argKey);
         cgTag.setValue(argValue);
 
         return cgTag;
     }
+
+    /**
+     * Creates a verbatim file instance.
+     *
+     * The content of the file is copied to the output as it is, without being formatted.
+     *
+     * @param argPath
+     *            Path of the file.
+     * @param argCharset
+     *            Encoding of the file. Gives null to assume the same encoding as the output source file.
+     * @return Verbatim file instance.
+     */
+    public BlancoCgVerbatimFile createVerbatimFile(final String argPath,
+            final String argCharset) {
+        final BlancoCgVerbatimFile cgVerbatimFile = new BlancoCgVerbatimFile();
+        cgVerbatimFile.setPath(argPath);
+        cgVerbatimFile.setCharset(argCharset);
+
+        return cgVerbatimFile;
+    }
+
+    /**
+     * Holder of the shared interning instance, created on first use.
+     */
+    private static class InterningInstanceHolder {
+        /**
+         * The shared interning instance.
+         */
+        static final BlancoCgObjectFactory INSTANCE = new BlancoCgObjectFactory(
+                new BlancoCgInternTable(BlancoCgInternTable.DEFAULT_MAX_ENTRIES));
+    }
 }
@@ -0,0 +1,175 @@
+/*
+ * blanco Framework
+ * Copyright (C) 2004-2017 IGA Tosiki
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ */
+/*
+ * Copyright 2017 Toshiki Iga
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package blanco.cg;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+
+import blanco.cg.transformer.BlancoCgTransformerFactory;
+import blanco.cg.valueobject.BlancoCgClass;
+import blanco.cg.valueobject.BlancoCgField;
+import blanco.cg.valueobject.BlancoCgInterface;
+import blanco.cg.valueobject.BlancoCgMethod;
+import blanco.cg.valueobject.BlancoCgSourceFile;
+
+/**
+ * Renders a representative model with every language backend.
+ *
+ * This loads the classes of blancoCg, blanco-commons and the formatters, and lets the JIT start compiling the hot paths.
+ * It is used to warm up the generation daemon, and as the training run to create a class data sharing (AppCDS) archive.
+ */
+public class BlancoCgWarmUp {
+    /**
+     * Message prefix to display on the command line.
+     */
+    private static final String CMDLINE_PREFIX = "cg: warm-up: ";
+
+    /**
+     * Renders the model with every language backend into memory.
+     */
+    public static void renderAllBackends() {
+        renderAllBackends(null);
+    }
+
+    /**
+     * Renders the model with every language backend.
+     *
+     * @param argOutputDirectory
+     *            Output root directory. If null is given, the source code is rendered only into memory.
+     */
+    public static void renderAllBackends(final File argOutputDirectory) {
+        for (int lang = BlancoCgSupportedLang.JAVA; lang <= BlancoCgSupportedLang.PHP8; lang++) {
+            try {
+                final BlancoCgTransformer transformer = BlancoCgTransformerFactory
+                        .getSourceTransformer(lang);
+                final BufferedWriter writer = new BufferedWriter(
+                        new StringWriter());
+                transformer.transform(createModel(lang), writer);
+                writer.flush();
+
+                if (argOutputDirectory != null) {
+                    BlancoCgTransformerFactory.getSourceTransformer(lang)
+                            .transform(createModel(lang), argOutputDirectory);
+                }
+            } catch (Exception ex) {
+                // A backend that fails here is still usable, so only reports it.
+                System.out.println(CMDLINE_PREFIX + "language [" + lang
+                        + "] failed: " + ex.toString());
+            }
+        }
+    }
+
+    /**
+     * Creates a representative model.
+     *
+     * A new model is created for each rendering, since the contents of the value object are updated during the conversion.
+     *
+     * @param argLang
+     *            Language of the backend.
+     * @return A source file.
+     */
+    private static BlancoCgSourceFile createModel(final int argLang) {
+        final BlancoCgObjectFactory cgOf = BlancoCgObjectFactory.getInstance();
+
+        final BlancoCgSourceFile cgSourceFile = cgOf.createSourceFile(
+                "blanco.cg.warmup", "Representative model for warming up.");
+        cgSourceFile.setEncoding("UTF-8");
+        cgSourceFile.getImportList().add("java.util.List");
+
+        final BlancoCgClass cgClass = cgOf.createClass("WarmUp",
+                "A class for warming up.");
+        cgSourceFile.getClassList().add(cgClass);
+
+        final BlancoCgField cgField = cgOf.createField("fCount", "int",
+                "A counter.");
+        cgField.setDefault("0");
+        cgClass.getFieldList().add(cgField);
+
+        final BlancoCgMethod cgMethod = cgOf.createMethod("count",
+                "Counts the items.");
+        cgClass.getMethodList().add(cgMethod);
+        cgMethod.getParameterList().add(
+                cgOf.createParameter("argItemList",
+                        "java.util.List<java.lang.String>", "Items."));
+        cgMethod.setReturn(cgOf.createReturn("int", "Number of the items."));
+        cgMethod.getThrowList().add(
+                cgOf.createException("java.io.IOException",
+                        "If an I/O exception occurs."));
+        cgMethod.getLineList().add("fCount = argItemList.size();");
+        cgMethod.getLineList().add("return fCount;");
+
+        if (argLang == BlancoCgSupportedLang.JS) {
+            // There are no interfaces in JavaScript.
+            return cgSourceFile;
+        }
+
+        final BlancoCgInterface cgInterface = cgOf.createInterface(
+                "WarmUpListener", "An interface for warming up.");
+        cgSourceFile.getInterfaceList().add(cgInterface);
+        cgInterface.getMethodList().add(
+                cgOf.createMethod("counted", "Called when counted."));
+
+        return cgSourceFile;
+    }
+
+    /**
+     * Entry point of the training run.
+     *
+     * The source code is also written into a temporary directory, so that the output to files is covered.
+     *
+     * @param args
+     *            Ignored.
+     * @throws IOException
+     *             If the temporary directory cannot be created.
+     */
+    public static void main(final String[] args) throws IOException {
+        final File outputDirectory = Files.createTempDirectory("blanco-cg-")
+                .toFile();
+        try {
+            renderAllBackends(outputDirectory);
+        } finally {
+            delete(outputDirectory);
+        }
+    }
+
+    /**
+     * Deletes a file or directory recursively.
+     *
+     * @param argFile
+     *            A file or directory.
+     */
+    private static void delete(final File argFile) {
+        final File[] children = argFile.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        argFile.delete();
+    }
+}
@@ -0,0 +1,1430 @@
+/*
+ * blanco Framework
+ * Copyright (C) 2004-2017 IGA Tosiki
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ */
+/*
+ * Copyright 2017 Toshiki Iga
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package blanco.cg.batch;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+import blanco.cg.BlancoCgSupportedLang;
+import blanco.cg.BlancoCgTransformer;
+import blanco.cg.transformer.BlancoCgFileOutputTarget;
+import blanco.cg.transformer.BlancoCgOutputTarget;
+import blanco.cg.transformer.BlancoCgSpillOutputStream;
+import blanco.cg.transformer.BlancoCgTransformerFactory;
+import blanco.cg.validator.BlancoCgModelValidator;
+import blanco.cg.validator.BlancoCgViolation;
+import blanco.cg.valueobject.BlancoCgSourceFile;
+
+/**
+ * A command-line driver that generates source code from serialized models in one JVM.
+ *
+ * Usage: java blanco.cg.batch.BlancoCgBatch [options] input...<br>
+ * An input is a model file, a directory containing model files (*.xml or *.bcgm, searched recursively), or "-" for the standard input.<br>
+ * Models are written by BlancoCgModelSerializer, in the XML format or in the compact binary format. Options are:
+ * <ul>
+ * <li>-lang java,ts : Target languages. Default is java.
+ * <li>-threads n : Number of threads to generate. Default is the number of processors.
+ * <li>-out dir : Output root directory. Default is the current directory.
+ * <li>-incremental : Skips inputs not changed since the last run with the same languages.
+ * <li>-summary file : Also writes the summary into the file.
+ * <li>-prune : Deletes the files generated by the previous runs but not by this run.
+ * <li>-prune-report : Only reports such files without deleting them.
+ * <li>-shard i/n : Generates only the i-th (from 0) of n slices of the source files.
+ * <li>-merge : Reads the inputs as summary files of shards, and merges them into one summary.
+ * <li>-validate : Validates the models of this shard for every language before generating, and generates nothing if any violation is found.
+ * </ul>
+ * The summary of counts and timings is printed as a line of JSON at the end of the standard output.<br>
+ * With -incremental or the pruning options, the files generated from each input are recorded in the output root
+ * directory. The files of the inputs skipped or failed in a run are carried forward, so that a stale file is only a
+ * file whose input was removed, or no longer generates it.<br>
+ * A source file belongs to the slice given by a stable hash (CRC32) of its package and file name, so independent
+ * processes with -shard 0/n to n-1/n generate every file exactly once into a shared output root. Each shard keeps its
+ * own stamp and manifest files. The number of slices must be the same among the runs of an output root. The pruning
+ * of a shard deletes only the stale files, and leaves the emptied directories to the other shards. Without -shard, the
+ * emptied directories are deleted as well.
+ */
+public class BlancoCgBatch {
+    /**
+     * Message prefix to display on the command line.
+     */
+    private static final String CMDLINE_PREFIX = "cg: batch: ";
+
+    /**
+     * Name of the file to remember the inputs processed, placed in the output root directory.
+     */
+    public static final String STAMP_FILE = ".blanco-cg-batch.properties";
+
+    /**
+     * Name of the file to remember the files generated from each input, placed in the output root directory.
+     */
+    public static final String MANIFEST_FILE = ".blanco-cg-batch-files.properties";
+
+    /**
+     * Pruning mode: stale files are left as they are.
+     */
+    public static final int PRUNE_NONE = 0;
+
+    /**
+     * Pruning mode: stale files are reported but not deleted.
+     */
+    public static final int PRUNE_REPORT = 1;
+
+    /**
+     * Pruning mode: stale files are deleted.
+     */
+    public static final int PRUNE_DELETE = 2;
+
+    /**
+     * Suffix of the model files in the XML format searched in a directory.
+     */
+    private static final String MODEL_FILE_SUFFIX = ".xml";
+
+    /**
+     * Suffix of the model files in the binary format searched in a directory.
+     */
+    private static final String BINARY_MODEL_FILE_SUFFIX = ".bcgm";
+
+    /**
+     * Name of the input of the standard input.
+     */
+    private static final String STDIN = "-";
+
+    /**
+     * Target languages.
+     */
+    private final List<Integer> fLangList = new ArrayList<Integer>();
+
+    /**
+     * Number of threads to generate.
+     */
+    private int fThreads = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Output root directory.
+     */
+    private File fOutputDirectory = new File(".");
+
+    /**
+     * Whether to skip the inputs not changed.
+     */
+    private boolean fIncremental = false;
+
+    /**
+     * File to write the summary into. Null if not written.
+     */
+    private File fSummaryFile = null;
+
+    /**
+     * Pruning mode of the stale files.
+     */
+    private int fPruneMode = PRUNE_NONE;
+
+    /**
+     * Index of the slice to generate.
+     */
+    private int fShardIndex = 0;
+
+    /**
+     * Number of the slices. 1 if not sharded.
+     */
+    private int fShardCount = 1;
+
+    /**
+     * Whether the inputs are summary files to merge.
+     */
+    private boolean fMerge = false;
+
+    /**
+     * Whether to validate the models before generating.
+     */
+    private boolean fValidate = false;
+
+    /**
+     * Inputs.
+     */
+    private final List<String> fInputList = new ArrayList<String>();
+
+    /**
+     * Adds a target language.
+     *
+     * @param argLang
+     *            Language defined in BlancoCgSupportedLang.
+     */
+    public void addLang(final int argLang) {
+        fLangList.add(argLang);
+    }
+
+    /**
+     * Sets the number of threads to generate.
+     *
+     * @param argThreads
+     *            Number of threads. 1 or more.
+     */
+    public void setThreads(final int argThreads) {
+        if (argThreads < 1) {
+            throw new IllegalArgumentException(
+                    "BlancoCgBatch: the number of threads must be 1 or more: "
+                            + argThreads);
+        }
+        fThreads = argThreads;
+    }
+
+    /**
+     * Sets the output root directory.
+     *
+     * @param argOutputDirectory
+     *            Output root directory.
+     */
+    public void setOutputDirectory(final File argOutputDirectory) {
+        fOutputDirectory = argOutputDirectory;
+    }
+
+    /**
+     * Sets whether to skip the inputs not changed since the last run.
+     *
+     * @param argIncremental
+     *            True to skip.
+     */
+    public void setIncremental(final boolean argIncremental) {
+        fIncremental = argIncremental;
+    }
+
+    /**
+     * Sets the file to write the summary into.
+     *
+     * @param argSummaryFile
+     *            File, or null not to write.
+     */
+    public void setSummaryFile(final File argSummaryFile) {
+        fSummaryFile = argSummaryFile;
+    }
+
+    /**
+     * Sets the pruning mode of the files generated by the previous runs but not by this run.
+     *
+     * @param argPruneMode
+     *            PRUNE_NONE, PRUNE_REPORT or PRUNE_DELETE.
+     */
+    public void setPruneMode(final int argPruneMode) {
+        if (argPruneMode < PRUNE_NONE || argPruneMode > PRUNE_DELETE) {
+            throw new IllegalArgumentException(
+                    "BlancoCgBatch: unknown pruning mode: " + argPruneMode);
+        }
+        fPruneMode = argPruneMode;
+    }
+
+    /**
+     * Sets the slice of the source files to generate.
+     *
+     * @param argShardIndex
+     *            Index of the slice, from 0 to argShardCount - 1.
+     * @param argShardCount
+     *            Number of the slices. 1 or more.
+     */
+    public void setShard(final int argShardIndex, final int argShardCount) {
+        if (argShardCount < 1 || argShardIndex < 0
+                || argShardIndex >= argShardCount) {
+            throw new IllegalArgumentException(
+                    "BlancoCgBatch: invalid shard: " + argShardIndex + "/"
+                            + argShardCount);
+        }
+        fShardIndex = argShardIndex;
+        fShardCount = argShardCount;
+    }
+
+    /**
+     * Sets whether the inputs are summary files of shards to merge, instead of models.
+     *
+     * @param argMerge
+     *            True to merge.
+     */
+    public void setMerge(final boolean argMerge) {
+        fMerge = argMerge;
+    }
+
+    /**
+     * Sets whether to validate the models of this shard before generating.
+     *
+     * @param argValidate
+     *            True to validate. Nothing is generated if a violation is found.
+     */
+    public void setValidate(final boolean argValidate) {
+        fValidate = argValidate;
+    }
+
+    /**
+     * Adds an input.
+     *
+     * @param argInput
+     *            A model file, a directory, or "-" for the standard input.
+     */
+    public void addInput(final String argInput) {
+        fInputList.add(argInput);
+    }
+
+    /**
+     * Parses the command-line arguments into this driver.
+     *
+     * @param args
+     *            Command-line arguments.
+     */
+    public void parseArgs(final String[] args) {
+        for (int index = 0; index < args.length; index++) {
+            final String arg = args[index];
+            if ("-incremental".equals(arg)) {
+                setIncremental(true);
+            } else if ("-prune".equals(arg)) {
+                setPruneMode(PRUNE_DELETE);
+            } else if ("-prune-report".equals(arg)) {
+                setPruneMode(PRUNE_REPORT);
+            } else if ("-merge".equals(arg)) {
+                setMerge(true);
+            } else if ("-validate".equals(arg)) {
+                setValidate(true);
+            } else if ("-lang".equals(arg) || "-threads".equals(arg)
+                    || "-out".equals(arg) || "-summary".equals(arg)
+                    || "-shard".equals(arg)) {
+                if (index + 1 >= args.length) {
+                    throw new IllegalArgumentException(
+                            "BlancoCgBatch: the option [" + arg
+                                    + "] requires a value.");
+                }
+                final String value = args[++index];
+                if ("-lang".equals(arg)) {
+                    for (String lang : value.split(",")) {
+                        addLang(toLang(lang.trim()));
+                    }
+                } else if ("-threads".equals(arg)) {
+                    try {
+                        setThreads(Integer.parseInt(value));
+                    } catch (NumberFormatException ex) {
+                        throw new IllegalArgumentException(
+                                "BlancoCgBatch: the number of threads is not a number: "
+                                        + value);
+                    }
+                } else if ("-out".equals(arg)) {
+                    setOutputDirectory(new File(value));
+                } else if ("-shard".equals(arg)) {
+                    final Matcher matcher = Pattern.compile(
+                            "([0-9]+)/([0-9]+)").matcher(value);
+                    if (matcher.matches() == false) {
+                        throw new IllegalArgumentException(
+                                "BlancoCgBatch: the shard is not in the form of i/n: "
+                                        + value);
+                    }
+                    setShard(Integer.parseInt(matcher.group(1)), Integer
+                            .parseInt(matcher.group(2)));
+                } else {
+                    setSummaryFile(new File(value));
+                }
+            } else if (arg.startsWith("-") && STDIN.equals(arg) == false) {
+                throw new IllegalArgumentException(
+                        "BlancoCgBatch: unknown option [" + arg + "].");
+            } else {
+                addInput(arg);
+            }
+        }
+    }
+
+    /**
+     * Converts a language name (java, cs, ts, ...) into the language defined in BlancoCgSupportedLang.
+     *
+     * A number is also accepted for the languages added by BlancoCgTransformerProvider.
+     *
+     * @param argLang
+     *            Language name. Case is ignored.
+     * @return Language.
+     */
+    static int toLang(final String argLang) {
+        if (argLang.matches("[0-9]+")) {
+            return Integer.parseInt(argLang);
+        }
+        final int lang = new BlancoCgSupportedLang().convertToInt(argLang
+                .toLowerCase());
+        if (lang == BlancoCgSupportedLang.NOT_DEFINED) {
+            throw new IllegalArgumentException(
+                    "BlancoCgBatch: unsupported language [" + argLang + "].");
+        }
+        return lang;
+    }
+
+    /**
+     * Converts a language into its name.
+     *
+     * @param argLang
+     *            Language.
+     * @return Language name, or the number for the languages not defined in BlancoCgSupportedLang.
+     */
+    static String toLangName(final int argLang) {
+        if (argLang < BlancoCgSupportedLang.JAVA
+                || argLang > BlancoCgSupportedLang.PHP8) {
+            return String.valueOf(argLang);
+        }
+        return new BlancoCgSupportedLang().convertToString(argLang);
+    }
+
+    /**
+     * Generates source code from all inputs.
+     *
+     * A failure of an input is reported and counted, and the other inputs are still processed.
+     *
+     * @return Summary of the run.
+     * @throws IOException
+     *             If an input cannot be read, or the summary cannot be written.
+     */
+    public Summary run() throws IOException {
+        if (fInputList.isEmpty()) {
+            throw new IllegalArgumentException(
+                    "BlancoCgBatch: no input is given.");
+        }
+        if (fMerge) {
+            final List<Summary> summaryList = new ArrayList<Summary>();
+            for (String input : fInputList) {
+                summaryList.add(Summary.fromJson(new String(Files
+                        .readAllBytes(new File(input).toPath()), Charset
+                        .forName("UTF-8"))));
+            }
+            final Summary summary = Summary.merge(summaryList);
+            writeSummary(summary);
+            return summary;
+        }
+        if (fLangList.isEmpty()) {
+            fLangList.add(BlancoCgSupportedLang.JAVA);
+        }
+
+        final Summary summary = new Summary();
+        summary.fLangList = new ArrayList<Integer>(fLangList);
+        summary.fThreads = fThreads;
+        summary.fShardIndex = fShardIndex;
+        summary.fShardCount = fShardCount;
+        final long startTime = System.nanoTime();
+
+        // Reads all inputs first.
+        final List<ModelInput> modelInputList = new ArrayList<ModelInput>();
+        for (String input : fInputList) {
+            collectInputs(input, modelInputList);
+        }
+        summary.fSourceCount = modelInputList.size();
+
+        final File stampFile = getStateFile(STAMP_FILE);
+        final Properties stamps = new Properties();
+        if (fIncremental) {
+            loadProperties(stampFile, stamps);
+        }
+        // Map from a generated file to the key of its input, of the previous run.
+        final File manifestFile = getStateFile(MANIFEST_FILE);
+        final boolean isManifestUsed = fIncremental || fPruneMode != PRUNE_NONE;
+        final Properties previousManifest = new Properties();
+        if (isManifestUsed) {
+            loadProperties(manifestFile, previousManifest);
+        }
+        final Set<String> recordedKeySet = new TreeSet<String>();
+        for (String path : previousManifest.stringPropertyNames()) {
+            recordedKeySet.add(previousManifest.getProperty(path));
+        }
+
+        final String langKey = summary.getLangNames();
+        final List<ModelInput> targetList = new ArrayList<ModelInput>();
+        final List<ModelInput> skippedList = new ArrayList<ModelInput>();
+        for (ModelInput modelInput : modelInputList) {
+            modelInput.fDigest = digest(langKey, modelInput.fBytes);
+            // An input whose files are not recorded is generated again, not to prune its files later.
+            if (fIncremental
+                    && modelInput.fDigest.equals(stamps.getProperty(modelInput
+                            .getKey()))
+                    && (fPruneMode == PRUNE_NONE || recordedKeySet
+                            .contains(modelInput.getKey()))) {
+                summary.fSkippedCount++;
+                skippedList.add(modelInput);
+                continue;
+            }
+            targetList.add(modelInput);
+        }
+        summary.fReadNanos = System.nanoTime() - startTime;
+
+        if (fValidate) {
+            summary.fViolationCount = validate(targetList);
+            if (summary.fViolationCount > 0) {
+                summary.fTotalNanos = System.nanoTime() - startTime;
+                writeSummary(summary);
+                return summary;
+            }
+        }
+
+        // Generates the source code. A job is an input and a language, since a model is modified by the transformation.
+        final long generateTime = System.nanoTime();
+        final AtomicInteger modelCount = new AtomicInteger();
+        final AtomicInteger generatedCount = new AtomicInteger();
+        final AtomicInteger[] resultCounts = new AtomicInteger[] {
+                new AtomicInteger(), new AtomicInteger(), new AtomicInteger() };
+        final ExecutorService executor = Executors.newFixedThreadPool(fThreads);
+        try {
+            final List<Future<?>> futureList = new ArrayList<Future<?>>();
+            for (final ModelInput modelInput : targetList) {
+                for (final Integer lang : fLangList) {
+                    futureList.add(executor.submit(() -> {
+                        final List<BlancoCgSourceFile> cgSourceFileList = readShard(modelInput);
+                        if (lang.equals(fLangList.get(0))) {
+                            modelCount.addAndGet(cgSourceFileList.size());
+                        }
+                        final BlancoCgOutputTarget outputTarget = new RecordingOutputTarget(
+                                new BlancoCgFileOutputTarget(fOutputDirectory),
+                                modelInput.fPathSet, resultCounts);
+                        for (BlancoCgSourceFile cgSourceFile : cgSourceFileList) {
+                            final BlancoCgTransformer transformer = BlancoCgTransformerFactory
+                                    .getSourceTransformer(lang);
+                            if (BlancoCgTransformerFactory.transform(
+                                    transformer, cgSourceFile, outputTarget) == false) {
+                                // The files of a transformer added by a provider are not recorded, and never pruned.
+                                transformer.transform(cgSourceFile,
+                                        fOutputDirectory);
+                            }
+                            generatedCount.incrementAndGet();
+                        }
+                        return null;
+                    }));
+                }
+            }
+
+            int index = 0;
+            for (ModelInput modelInput : targetList) {
+                boolean isSucceeded = true;
+                for (Integer lang : fLangList) {
+                    try {
+                        futureList.get(index++).get();
+                    } catch (ExecutionException ex) {
+                        isSucceeded = false;
+                        summary.fFailureCount++;
+                        System.out.println(CMDLINE_PREFIX + "failed: "
+                                + modelInput.fName + " ["
+                                + toLangName(lang) + "]: "
+                                + ex.getCause().toString());
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                        throw new IllegalArgumentException(
+                                "BlancoCgBatch: interrupted.");
+                    }
+                }
+                if (isSucceeded) {
+                    stamps.setProperty(modelInput.getKey(), modelInput.fDigest);
+                } else {
+                    // The files of the last successful run of a failed input are kept.
+                    skippedList.add(modelInput);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        summary.fModelCount = modelCount.get();
+        summary.fGeneratedCount = generatedCount.get();
+        summary.fCreatedCount = resultCounts[BlancoCgOutputTarget.CREATE].get();
+        summary.fUpdatedCount = resultCounts[BlancoCgOutputTarget.UPDATE].get();
+        summary.fUnchangedCount = resultCounts[BlancoCgOutputTarget.SKIP].get();
+        summary.fGenerateNanos = System.nanoTime() - generateTime;
+
+        if (isManifestUsed) {
+            final Properties manifest = new Properties();
+            for (ModelInput modelInput : targetList) {
+                for (String path : modelInput.fPathSet) {
+                    manifest.setProperty(path, modelInput.getKey());
+                }
+            }
+            final Set<String> carriedKeySet = new TreeSet<String>();
+            for (ModelInput modelInput : skippedList) {
+                carriedKeySet.add(modelInput.getKey());
+            }
+            for (String path : new TreeSet<String>(previousManifest
+                    .stringPropertyNames())) {
+                final String key = previousManifest.getProperty(path);
+                if (manifest.getProperty(path) != null) {
+                    continue;
+                }
+                if (carriedKeySet.contains(key)) {
+                    manifest.setProperty(path, key);
+                    continue;
+                }
+                if (new File(fOutputDirectory, path).isFile() == false) {
+                    // Already removed by hand.
+                    continue;
+                }
+                summary.fStaleCount++;
+                if (fPruneMode == PRUNE_DELETE) {
+                    deleteStaleFile(path);
+                    summary.fPrunedCount++;
+                } else {
+                    if (fPruneMode == PRUNE_REPORT) {
+                        System.out.println(CMDLINE_PREFIX + "stale : " + path);
+                    }
+                    // Still remembered without its input, to be reported or deleted by a later run.
+                    manifest.setProperty(path, "");
+                }
+            }
+            fOutputDirectory.mkdirs();
+            storeProperties(manifestFile, manifest, "blancoCg batch files");
+        }
+        if (fIncremental) {
+            fOutputDirectory.mkdirs();
+            storeProperties(stampFile, stamps, "blancoCg batch");
+        }
+        summary.fTotalNanos = System.nanoTime() - startTime;
+
+        writeSummary(summary);
+        return summary;
+    }
+
+    /**
+     * Reads the source files of an input that belong to the slice of this shard.
+     *
+     * @param argModelInput
+     *            Input.
+     * @return Source files of this shard.
+     * @throws IOException
+     *             If the model cannot be read.
+     */
+    private List<BlancoCgSourceFile> readShard(final ModelInput argModelInput)
+            throws IOException {
+        final List<BlancoCgSourceFile> cgSourceFileList = BlancoCgModelSerializer
+                .read(new ByteArrayInputStream(argModelInput.fBytes));
+        if (fShardCount > 1) {
+            for (int index = cgSourceFileList.size() - 1; index >= 0; index--) {
+                if (getShard(cgSourceFileList.get(index), fShardCount) != fShardIndex) {
+                    cgSourceFileList.remove(index);
+                }
+            }
+        }
+        return cgSourceFileList;
+    }
+
+    /**
+     * Validates the models of this shard for every target language, and reports the violations.
+     *
+     * @param argModelInputList
+     *            Inputs to generate.
+     * @return Number of the violations.
+     * @throws IOException
+     *             If a model cannot be read.
+     */
+    private int validate(final List<ModelInput> argModelInputList)
+            throws IOException {
+        int count = 0;
+        for (ModelInput modelInput : argModelInputList) {
+            final List<BlancoCgSourceFile> cgSourceFileList = readShard(modelInput);
+            for (Integer lang : fLangList) {
+                for (BlancoCgViolation violation : new BlancoCgModelValidator(
+                        lang).validate(cgSourceFileList)) {
+                    System.out.println(CMDLINE_PREFIX + "invalid: "
+                            + modelInput.fName + " [" + toLangName(lang)
+                            + "]: " + violation.toString());
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Writes the summary into the summary file, if it is given.
+     *
+     * @param argSummary
+     *            Summary.
+     * @throws IOException
+     *             If the summary cannot be written.
+     */
+    private void writeSummary(final Summary argSummary) throws IOException {
+        if (fSummaryFile == null) {
+            return;
+        }
+        final Writer writer = new OutputStreamWriter(new FileOutputStream(
+                fSummaryFile), Charset.forName("UTF-8"));
+        try {
+            writer.write(argSummary.toJson());
+            writer.write("\n");
+        } finally {
+            writer.close();
+        }
+    }
+
+    /**
+     * Gets a file to keep the state of the runs in the output root directory.
+     *
+     * A shard has its own file, such as .blanco-cg-batch.shard-0-of-4.properties.
+     *
+     * @param argName
+     *            Name of the file when not sharded.
+     * @return File.
+     */
+    private File getStateFile(final String argName) {
+        if (fShardCount == 1) {
+            return new File(fOutputDirectory, argName);
+        }
+        final int dot = argName.lastIndexOf('.');
+        return new File(fOutputDirectory, argName.substring(0, dot)
+                + ".shard-" + fShardIndex + "-of-" + fShardCount
+                + argName.substring(dot));
+    }
+
+    /**
+     * Gets the slice a source file belongs to.
+     *
+     * The slice is decided by CRC32 of the package and the file name (or the name of the first class, interface or
+     * enumeration if the file name is not given), so it is the same in every process.
+     *
+     * @param argSourceFile
+     *            Source file.
+     * @param argShardCount
+     *            Number of the slices.
+     * @return Index of the slice.
+     */
+    static int getShard(final BlancoCgSourceFile argSourceFile,
+            final int argShardCount) {
+        String name = argSourceFile.getName();
+        if (name == null && argSourceFile.getClassList().size() > 0) {
+            name = argSourceFile.getClassList().get(0).getName();
+        }
+        if (name == null && argSourceFile.getInterfaceList().size() > 0) {
+            name = argSourceFile.getInterfaceList().get(0).getName();
+        }
+        if (name == null && argSourceFile.getEnumList().size() > 0) {
+            name = argSourceFile.getEnumList().get(0).getName();
+        }
+        final CRC32 crc = new CRC32();
+        crc.update((argSourceFile.getPackage() + "/" + name).getBytes(Charset
+                .forName("UTF-8")));
+        return (int) (crc.getValue() % argShardCount);
+    }
+
+    /**
+     * Deletes a stale file.
+     *
+     * The directories emptied by the deletion are deleted up to the output root directory. In a sharded run they are
+     * left as they are, since the output root directory is shared by the shards, and another shard may be writing into
+     * the same directory at the same time.
+     *
+     * @param argPath
+     *            Path of the file relative to the output root directory.
+     */
+    private void deleteStaleFile(final String argPath) {
+        final File file = new File(fOutputDirectory, argPath);
+        if (file.delete() == false) {
+            throw new IllegalArgumentException(
+                    "BlancoCgBatch: failed to delete the stale file ["
+                            + file.getAbsolutePath() + "].");
+        }
+        System.out.println(CMDLINE_PREFIX + "delete: " + argPath);
+        if (fShardCount > 1) {
+            return;
+        }
+        final File root = fOutputDirectory.getAbsoluteFile();
+        for (File directory = file.getAbsoluteFile().getParentFile(); directory != null
+                && directory.equals(root) == false; directory = directory
+                .getParentFile()) {
+            final String[] names = directory.list();
+            if (names == null || names.length > 0 || directory.delete() == false) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Loads a properties file if it exists.
+     *
+     * @param argFile
+     *            File.
+     * @param argProperties
+     *            Properties to load into.
+     * @throws IOException
+     *             If the file cannot be read.
+     */
+    private static void loadProperties(final File argFile,
+            final Properties argProperties) throws IOException {
+        if (argFile.isFile() == false) {
+            return;
+        }
+        final InputStream inStream = new FileInputStream(argFile);
+        try {
+            argProperties.load(inStream);
+        } finally {
+            inStream.close();
+        }
+    }
+
+    /**
+     * Stores properties into a file.
+     *
+     * @param argFile
+     *            File.
+     * @param argProperties
+     *            Properties.
+     * @param argComment
+     *            Comment of the file.
+     * @throws IOException
+     *             If the file cannot be written.
+     */
+    private static void storeProperties(final File argFile,
+            final Properties argProperties, final String argComment)
+            throws IOException {
+        final OutputStream outStream = new FileOutputStream(argFile);
+        try {
+            argProperties.store(outStream, argComment);
+        } finally {
+            outStream.close();
+        }
+    }
+
+    /**
+     * Collects the model inputs of an input.
+     *
+     * @param argInput
+     *            A model file, a directory, or "-" for the standard input.
+     * @param argModelInputList
+     *            List to add the model inputs to.
+     * @throws IOException
+     *             If an input cannot be read.
+     */
+    private void collectInputs(final String argInput,
+            final List<ModelInput> argModelInputList) throws IOException {
+        if (STDIN.equals(argInput)) {
+            final ByteArrayOutputStream outStream = new ByteArrayOutputStream();
+            final byte[] buf = new byte[8192];
+            for (int length = System.in.read(buf); length >= 0; length = System.in
+                    .read(buf)) {
+                outStream.write(buf, 0, length);
+            }
+            argModelInputList.add(new ModelInput(STDIN, outStream
+                    .toByteArray()));
+            return;
+        }
+
+        final File file = new File(argInput);
+        if (file.isDirectory()) {
+            collectDirectory(file, argModelInputList);
+        } else if (file.isFile()) {
+            argModelInputList.add(new ModelInput(file.getPath(), Files
+                    .readAllBytes(file.toPath())));
+        } else {
+            throw new IllegalArgumentException("BlancoCgBatch: the input ["
+                    + argInput + "] does not exist.");
+        }
+    }
+
+    /**
+     * Collects the model files in a directory recursively, in the order of the names.
+     *
+     * @param argDirectory
+     *            Directory.
+     * @param argModelInputList
+     *            List to add the model inputs to.
+     * @throws IOException
+     *             If a file cannot be read.
+     */
+    private void collectDirectory(final File argDirectory,
+            final List<ModelInput> argModelInputList) throws IOException {
+        final File[] files = argDirectory.listFiles();
+        if (files == null) {
+            return;
+        }
+        Arrays.sort(files);
+        for (File file : files) {
+            if (file.isDirectory()) {
+                collectDirectory(file, argModelInputList);
+            } else if (file.getName().endsWith(MODEL_FILE_SUFFIX)
+                    || file.getName().endsWith(BINARY_MODEL_FILE_SUFFIX)) {
+                argModelInputList.add(new ModelInput(file.getPath(), Files
+                        .readAllBytes(file.toPath())));
+            }
+        }
+    }
+
+    /**
+     * Computes the digest of an input for the incremental mode.
+     *
+     * @param argLangKey
+     *            Names of the target languages.
+     * @param argBytes
+     *            Content of the input.
+     * @return Digest in hexadecimal.
+     */
+    private static String digest(final String argLangKey, final byte[] argBytes) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalArgumentException(
+                    "BlancoCgBatch: SHA-256 is not available. " + ex.toString());
+        }
+        digest.update(argLangKey.getBytes(Charset.forName("UTF-8")));
+        digest.update((byte) 0);
+        final StringBuilder buf = new StringBuilder();
+        for (byte value : digest.digest(argBytes)) {
+            buf.append(String.format("%02x", value & 0xff));
+        }
+        return buf.toString();
+    }
+
+    /**
+     * Entry point.
+     *
+     * The exit status is 0 on success, 1 if any input failed or any violation was found, and 2 on a usage error.
+     *
+     * @param args
+     *            Command-line arguments.
+     * @throws IOException
+     *             If an input cannot be read.
+     */
+    public static void main(final String[] args) throws IOException {
+        final BlancoCgBatch batch = new BlancoCgBatch();
+        final Summary summary;
+        try {
+            batch.parseArgs(args);
+            summary = batch.run();
+        } catch (IllegalArgumentException ex) {
+            System.err.println(CMDLINE_PREFIX + ex.getMessage());
+            System.err.println("usage: java blanco.cg.batch.BlancoCgBatch [-lang java,ts] [-threads n] [-out dir] [-incremental] [-prune | -prune-report] [-shard i/n] [-validate] [-summary file] input...");
+            System.err.println("       java blanco.cg.batch.BlancoCgBatch -merge [-summary file] summary...");
+            System.exit(2);
+            return;
+        }
+        System.out.println(summary.toJson());
+        if (summary.getFailureCount() > 0 || summary.getViolationCount() > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * An input read into memory.
+     */
+    private static class ModelInput {
+        /**
+         * Name of the input.
+         */
+        private final String fName;
+
+        /**
+         * Content of the input.
+         */
+        private final byte[] fBytes;
+
+        /**
+         * Digest of the input for the incremental mode.
+         */
+        private String fDigest;
+
+        /**
+         * Paths of the files generated from the input, relative to the output root directory.
+         */
+        private final Set<String> fPathSet = Collections
+                .synchronizedSet(new TreeSet<String>());
+
+        ModelInput(final String argName, final byte[] argBytes) {
+            fName = argName;
+            fBytes = argBytes;
+        }
+
+        /**
+         * Gets the key in the stamp file.
+         *
+         * @return Absolute path of the input, or "-" for the standard input.
+         */
+        String getKey() {
+            return STDIN.equals(fName) ? STDIN : new File(fName)
+                    .getAbsolutePath();
+        }
+    }
+
+    /**
+     * An output target that records the paths written, including the files not changed.
+     */
+    private static class RecordingOutputTarget implements BlancoCgOutputTarget {
+        /**
+         * Output target to write into.
+         */
+        private final BlancoCgOutputTarget fTarget;
+
+        /**
+         * Set to record the paths into.
+         */
+        private final Set<String> fPathSet;
+
+        /**
+         * Counts of the results of the writes, indexed by SKIP, CREATE and UPDATE.
+         */
+        private final AtomicInteger[] fResultCounts;
+
+        RecordingOutputTarget(final BlancoCgOutputTarget argTarget,
+                final Set<String> argPathSet,
+                final AtomicInteger[] argResultCounts) {
+            fTarget = argTarget;
+            fPathSet = argPathSet;
+            fResultCounts = argResultCounts;
+        }
+
+        public int write(final String argPath, final byte[] argContent)
+                throws IOException {
+            fPathSet.add(argPath);
+            final int result = fTarget.write(argPath, argContent);
+            fResultCounts[result].incrementAndGet();
+            return result;
+        }
+
+        @Override
+        public int write(final String argPath,
+                final BlancoCgSpillOutputStream argContent) throws IOException {
+            fPathSet.add(argPath);
+            final int result = fTarget.write(argPath, argContent);
+            fResultCounts[result].incrementAndGet();
+            return result;
+        }
+
+        public String getLocation(final String argPath) {
+            return fTarget.getLocation(argPath);
+        }
+
+        @Override
+        public void report(final String argMessage) {
+            fTarget.report(argMessage);
+        }
+    }
+
+    /**
+     * Summary of a run.
+     */
+    public static class Summary {
+        /**
+         * Target languages.
+         */
+        private List<Integer> fLangList;
+
+        /**
+         * Number of threads.
+         */
+        private int fThreads;
+
+        /**
+         * Index of the slice generated.
+         */
+        private int fShardIndex = 0;
+
+        /**
+         * Number of the slices. 1 if not sharded.
+         */
+        private int fShardCount = 1;
+
+        /**
+         * Number of the inputs.
+         */
+        private int fSourceCount;
+
+        /**
+         * Number of the inputs skipped by the incremental mode.
+         */
+        private int fSkippedCount;
+
+        /**
+         * Number of the models read.
+         */
+        private int fModelCount;
+
+        /**
+         * Number of the source files generated, for all languages.
+         */
+        private int fGeneratedCount;
+
+        /**
+         * Number of the source files created.
+         */
+        private int fCreatedCount;
+
+        /**
+         * Number of the source files updated.
+         */
+        private int fUpdatedCount;
+
+        /**
+         * Number of the source files not rewritten since their content has not changed.
+         */
+        private int fUnchangedCount;
+
+        /**
+         * Number of the failed jobs.
+         */
+        private int fFailureCount;
+
+        /**
+         * Number of the violations found by the validation.
+         */
+        private int fViolationCount;
+
+        /**
+         * Number of the stale files found.
+         */
+        private int fStaleCount;
+
+        /**
+         * Number of the stale files deleted.
+         */
+        private int fPrunedCount;
+
+        /**
+         * Time to read the inputs in nanoseconds.
+         */
+        private long fReadNanos;
+
+        /**
+         * Time to generate in nanoseconds.
+         */
+        private long fGenerateNanos;
+
+        /**
+         * Total time in nanoseconds.
+         */
+        private long fTotalNanos;
+
+        /**
+         * Gets the number of the inputs.
+         *
+         * @return Number.
+         */
+        public int getSourceCount() {
+            return fSourceCount;
+        }
+
+        /**
+         * Gets the number of the inputs skipped by the incremental mode.
+         *
+         * @return Number.
+         */
+        public int getSkippedCount() {
+            return fSkippedCount;
+        }
+
+        /**
+         * Gets the number of the models read.
+         *
+         * @return Number.
+         */
+        public int getModelCount() {
+            return fModelCount;
+        }
+
+        /**
+         * Gets the number of the source files generated, for all languages.
+         *
+         * @return Number.
+         */
+        public int getGeneratedCount() {
+            return fGeneratedCount;
+        }
+
+        /**
+         * Gets the number of the source files created.
+         *
+         * @return Number.
+         */
+        public int getCreatedCount() {
+            return fCreatedCount;
+        }
+
+        /**
+         * Gets the number of the source files updated.
+         *
+         * @return Number.
+         */
+        public int getUpdatedCount() {
+            return fUpdatedCount;
+        }
+
+        /**
+         * Gets the number of the source files not rewritten since their content has not changed.
+         *
+         * @return Number.
+         */
+        public int getUnchangedCount() {
+            return fUnchangedCount;
+        }
+
+        /**
+         * Gets the number of the failed jobs.
+         *
+         * @return Number.
+         */
+        public int getFailureCount() {
+            return fFailureCount;
+        }
+
+        /**
+         * Gets the number of the violations found by the validation.
+         *
+         * @return Number.
+         */
+        public int getViolationCount() {
+            return fViolationCount;
+        }
+
+        /**
+         * Gets the number of the stale files found: the files generated by the previous runs but not by this run.
+         *
+         * @return Number.
+         */
+        public int getStaleCount() {
+            return fStaleCount;
+        }
+
+        /**
+         * Gets the number of the stale files deleted.
+         *
+         * @return Number.
+         */
+        public int getPrunedCount() {
+            return fPrunedCount;
+        }
+
+        /**
+         * Gets the names of the target languages separated by commas.
+         *
+         * @return Names of the languages.
+         */
+        String getLangNames() {
+            final StringBuilder buf = new StringBuilder();
+            for (Integer lang : fLangList) {
+                if (buf.length() > 0) {
+                    buf.append(',');
+                }
+                buf.append(toLangName(lang));
+            }
+            return buf.toString();
+        }
+
+        /**
+         * Gets the summary as a line of JSON.
+         *
+         * @return JSON.
+         */
+        public String toJson() {
+            final StringBuilder buf = new StringBuilder();
+            buf.append("{\"languages\":[");
+            boolean isFirst = true;
+            for (String lang : getLangNames().split(",")) {
+                if (isFirst == false) {
+                    buf.append(',');
+                }
+                isFirst = false;
+                buf.append('"').append(lang).append('"');
+            }
+            buf.append("],\"threads\":").append(fThreads);
+            if (fShardCount > 1) {
+                buf.append(",\"shard\":\"").append(fShardIndex).append('/')
+                        .append(fShardCount).append('"');
+            }
+            buf.append(",\"sources\":").append(fSourceCount);
+            buf.append(",\"skipped\":").append(fSkippedCount);
+            buf.append(",\"models\":").append(fModelCount);
+            buf.append(",\"generated\":").append(fGeneratedCount);
+            buf.append(",\"created\":").append(fCreatedCount);
+            buf.append(",\"updated\":").append(fUpdatedCount);
+            buf.append(",\"unchanged\":").append(fUnchangedCount);
+            buf.append(",\"failures\":").append(fFailureCount);
+            buf.append(",\"violations\":").append(fViolationCount);
+            buf.append(",\"stale\":").append(fStaleCount);
+            buf.append(",\"pruned\":").append(fPrunedCount);
+            buf.append(",\"readMillis\":").append(fReadNanos / 1000000);
+            buf.append(",\"generateMillis\":").append(fGenerateNanos / 1000000);
+            buf.append(",\"totalMillis\":").append(fTotalNanos / 1000000);
+            buf.append('}');
+            return buf.toString();
+        }
+
+        /**
+         * Reads a summary written by toJson().
+         *
+         * @param argJson
+         *            JSON.
+         * @return Summary. The timings are in milliseconds.
+         */
+        static Summary fromJson(final String argJson) {
+            final Matcher langMatcher = Pattern.compile(
+                    "\"languages\":\\[([^\\]]*)\\]").matcher(argJson);
+            if (langMatcher.find() == false) {
+                throw new IllegalArgumentException(
+                        "BlancoCgBatch: not a summary: " + argJson);
+            }
+            final Summary summary = new Summary();
+            summary.fLangList = new ArrayList<Integer>();
+            for (String lang : langMatcher.group(1).split(",")) {
+                summary.fLangList.add(toLang(lang.trim().replace("\"", "")));
+            }
+            final Matcher shardMatcher = Pattern.compile(
+                    "\"shard\":\"([0-9]+)/([0-9]+)\"").matcher(argJson);
+            if (shardMatcher.find()) {
+                summary.fShardIndex = Integer.parseInt(shardMatcher.group(1));
+                summary.fShardCount = Integer.parseInt(shardMatcher.group(2));
+            }
+            final Matcher matcher = Pattern.compile("\"([a-zA-Z]+)\":([0-9]+)")
+                    .matcher(argJson);
+            while (matcher.find()) {
+                final String key = matcher.group(1);
+                final int value = Integer.parseInt(matcher.group(2));
+                if ("threads".equals(key)) {
+                    summary.fThreads = value;
+                } else if ("sources".equals(key)) {
+                    summary.fSourceCount = value;
+                } else if ("skipped".equals(key)) {
+                    summary.fSkippedCount = value;
+                } else if ("models".equals(key)) {
+                    summary.fModelCount = value;
+                } else if ("generated".equals(key)) {
+                    summary.fGeneratedCount = value;
+                } else if ("created".equals(key)) {
+                    summary.fCreatedCount = value;
+                } else if ("updated".equals(key)) {
+                    summary.fUpdatedCount = value;
+                } else if ("unchanged".equals(key)) {
+                    summary.fUnchangedCount = value;
+                } else if ("failures".equals(key)) {
+                    summary.fFailureCount = value;
+                } else if ("violations".equals(key)) {
+                    summary.fViolationCount = value;
+                } else if ("stale".equals(key)) {
+                    summary.fStaleCount = value;
+                } else if ("pruned".equals(key)) {
+                    summary.fPrunedCount = value;
+                } else if ("readMillis".equals(key)) {
+                    summary.fReadNanos = value * 1000000L;
+                } else if ("generateMillis".equals(key)) {
+                    summary.fGenerateNanos = value * 1000000L;
+                } else if ("totalMillis".equals(key)) {
+                    summary.fTotalNanos = value * 1000000L;
+                }
+            }
+            return summary;
+        }
+
+        /**
+         * Merges the summaries of the shards of a run into one.
+         *
+         * The counts of the source files and the threads are added up. Since every shard reads all inputs, the counts
+         * of the inputs and the timings are the largest of the shards.<br>
+         * The summaries must be of the same run: every shard i/n of the same n and the same languages, each exactly
+         * once.
+         *
+         * @param argSummaryList
+         *            Summaries of the shards.
+         * @return Merged summary.
+         */
+        static Summary merge(final List<Summary> argSummaryList) {
+            if (argSummaryList.isEmpty()) {
+                throw new IllegalArgumentException(
+                        "BlancoCgBatch: no summary to merge.");
+            }
+            final Summary first = argSummaryList.get(0);
+            final Set<Integer> langSet = new HashSet<Integer>(first.fLangList);
+            final boolean[] isMerged = new boolean[first.fShardCount];
+            for (Summary summary : argSummaryList) {
+                if (summary.fShardCount != first.fShardCount) {
+                    throw new IllegalArgumentException(
+                            "BlancoCgBatch: the summaries are of different numbers of shards: "
+                                    + first.fShardCount + " and "
+                                    + summary.fShardCount + ".");
+                }
+                if (langSet.equals(new HashSet<Integer>(summary.fLangList)) == false) {
+                    throw new IllegalArgumentException(
+                            "BlancoCgBatch: the summaries are of different languages: "
+                                    + first.getLangNames() + " and "
+                                    + summary.getLangNames() + ".");
+                }
+                if (summary.fShardIndex < 0
+                        || summary.fShardIndex >= first.fShardCount
+                        || isMerged[summary.fShardIndex]) {
+                    throw new IllegalArgumentException(
+                            "BlancoCgBatch: the shard " + summary.fShardIndex
+                                    + "/" + summary.fShardCount
+                                    + " is given more than once.");
+                }
+                isMerged[summary.fShardIndex] = true;
+            }
+            for (int index = 0; index < isMerged.length; index++) {
+                if (isMerged[index] == false) {
+                    throw new IllegalArgumentException(
+                            "BlancoCgBatch: the summary of the shard " + index
+                                    + "/" + first.fShardCount
+                                    + " is not given.");
+                }
+            }
+
+            final Summary merged = new Summary();
+            merged.fLangList = first.fLangList;
+            for (Summary summary : argSummaryList) {
+                merged.fThreads += summary.fThreads;
+                merged.fSourceCount = Math.max(merged.fSourceCount,
+                        summary.fSourceCount);
+                merged.fSkippedCount = Math.max(merged.fSkippedCount,
+                        summary.fSkippedCount);
+                merged.fModelCount += summary.fModelCount;
+                merged.fGeneratedCount += summary.fGeneratedCount;
+                merged.fCreatedCount += summary.fCreatedCount;
+                merged.fUpdatedCount += summary.fUpdatedCount;
+                merged.fUnchangedCount += summary.fUnchangedCount;
+                merged.fFailureCount += summary.fFailureCount;
+                merged.fViolationCount += summary.fViolationCount;
+                merged.fStaleCount += summary.fStaleCount;
+                merged.fPrunedCount += summary.fPrunedCount;
+                merged.fReadNanos = Math.max(merged.fReadNanos,
+                        summary.fReadNanos);
+                merged.fGenerateNanos = Math.max(merged.fGenerateNanos,
+                        summary.fGenerateNanos);
+                merged.fTotalNanos = Math.max(merged.fTotalNanos,
+                        summary.fTotalNanos);
+            }
+            return merged;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * blanco Framework
+ * Copyright (C) 2004-2017 IGA Tosiki
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ */
+/*
+ * Copyright 2017 Toshiki Iga
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package blanco.cg.batch;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Definitions of the compact binary format of models.
+ *
+ * The format is as follows. Integers are written as variable-length integers (7 bits per byte).
+ * <ul>
+ * <li>Header: the magic "BCGM" and the version.
+ * <li>Models: each model starts with MODEL, and the stream ends with END or at the end of the stream.
+ * <li>Strings: an index into the string table. A new string is written as the next index followed by its UTF-8 bytes, and is added to the table.
+ * <li>Objects: an index into the class table. A new class is written with its name and field names, so that a reader can skip the fields it does not know.
+ * </ul>
+ * The tables are shared by all models in a stream, so a stream must be read from the beginning.
+ */
+class BlancoCgModelFormat {
+    /**
+     * Magic at the beginning of a stream.
+     */
+    static final byte[] MAGIC = new byte[] { 'B', 'C', 'G', 'M' };
+
+    /**
+     * Version of the format.
+     */
+    static final int VERSION = 1;
+
+    /**
+     * Package of the classes that can be written.
+     */
+    static final String VALUE_OBJECT_PACKAGE = "blanco.cg.valueobject.";
+
+    /**
+     * Maximum length in bytes of a string in a stream.
+     */
+    static final int MAX_STRING_LENGTH = 16 * 1024 * 1024;
+
+    /**
+     * End of the stream.
+     */
+    static final int END = 0;
+
+    /**
+     * Beginning of a model.
+     */
+    static final int MODEL = 1;
+
+    /**
+     * Tag of null.
+     */
+    static final int TAG_NULL = 0;
+
+    /**
+     * Tag of a string.
+     */
+    static final int TAG_STRING = 1;
+
+    /**
+     * Tag of an integer.
+     */
+    static final int TAG_INT = 2;
+
+    /**
+     * Tag of true.
+     */
+    static final int TAG_TRUE = 3;
+
+    /**
+     * Tag of false.
+     */
+    static final int TAG_FALSE = 4;
+
+    /**
+     * Tag of a list, followed by its size and elements.
+     */
+    static final int TAG_LIST = 5;
+
+    /**
+     * Tag of a map, followed by its size and pairs of keys and values.
+     */
+    static final int TAG_MAP = 6;
+
+    /**
+     * Tag of a value object.
+     */
+    static final int TAG_OBJECT = 7;
+
+    /**
+     * Map from a class to its fields to be written.
+     */
+    private static final Map<Class<?>, Field[]> FIELD_MAP = new ConcurrentHashMap<Class<?>, Field[]>();
+
+    /**
+     * Checks whether a class is a value object of blancoCg, which can be written and read.
+     *
+     * Only the classes directly in the package are value objects; a class of a subpackage is not.
+     *
+     * @param argClassName
+     *            Class name.
+     * @return True if the class is a value object.
+     */
+    static boolean isValueObjectClass(final String argClassName) {
+        return argClassName.startsWith(VALUE_OBJECT_PACKAGE)
+                && argClassName.indexOf('.', VALUE_OBJECT_PACKAGE.length()) < 0;
+    }
+
+    /**
+     * Gets the fields of a value object to be written.
+     *
+     * @param argClass
+     *            Class of a value object.
+     * @return Fields.
+     */
+    static Field[] getFields(final Class<?> argClass) {
+        Field[] fields = FIELD_MAP.get(argClass);
+        if (fields == null) {
+            final List<Field> fieldList = new ArrayList<Field>();
+            for (Field field : argClass.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers())) {
+                    continue;
+                }
+                field.setAccessible(true);
+                fieldList.add(field);
+            }
+            fields = fieldList.toArray(new Field[fieldList.size()]);
+            FIELD_MAP.put(argClass, fields);
+        }
+        return fields;
+    }
+}
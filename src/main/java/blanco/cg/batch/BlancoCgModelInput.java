@@ -0,0 +1,401 @@
+/*
+ * blanco Framework
+ * Copyright (C) 2004-2017 IGA Tosiki
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ */
+/*
+ * Copyright 2017 Toshiki Iga
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package blanco.cg.batch;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import blanco.cg.valueobject.BlancoCgSourceFile;
+
+/**
+ * Reads models (BlancoCgSourceFile) written by BlancoCgModelOutput, one by one.
+ *
+ * Since a model is read only when requested, a large stream can be processed without holding all models in memory.<br>
+ * Fields unknown to this version of blancoCg are skipped, and fields not in the stream keep their defaults.
+ */
+public class BlancoCgModelInput {
+    /**
+     * Encoding of the strings.
+     */
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    /**
+     * Largest capacity allocated for a list before its elements are read.
+     */
+    private static final int INITIAL_CAPACITY = 256;
+
+    /**
+     * Input stream.
+     */
+    private final InputStream fInStream;
+
+    /**
+     * String table.
+     */
+    private final List<String> fStringList = new ArrayList<String>();
+
+    /**
+     * Class table.
+     */
+    private final List<ClassEntry> fClassList = new ArrayList<ClassEntry>();
+
+    /**
+     * Whether the end of the stream has been reached.
+     */
+    private boolean fIsEnd = false;
+
+    /**
+     * Constructor. The header is read here.
+     *
+     * @param argInStream
+     *            Input stream.
+     * @throws IOException
+     *             If an I/O exception occurs.
+     */
+    public BlancoCgModelInput(final InputStream argInStream) throws IOException {
+        fInStream = new BufferedInputStream(argInStream);
+        for (byte magic : BlancoCgModelFormat.MAGIC) {
+            if (fInStream.read() != magic) {
+                throw new IllegalArgumentException(
+                        "BlancoCgModelInput: the stream is not in the binary format of models.");
+            }
+        }
+        final int version = readInt();
+        if (version > BlancoCgModelFormat.VERSION) {
+            throw new IllegalArgumentException(
+                    "BlancoCgModelInput: the version of the format [" + version
+                            + "] is not supported. Supported up to ["
+                            + BlancoCgModelFormat.VERSION + "].");
+        }
+    }
+
+    /**
+     * Checks whether the stream begins with the binary format of models.
+     *
+     * The stream must support mark and reset, and its position is not changed.
+     *
+     * @param argInStream
+     *            Input stream.
+     * @return True if the stream is in the binary format.
+     * @throws IOException
+     *             If an I/O exception occurs.
+     */
+    public static boolean isBinary(final InputStream argInStream)
+            throws IOException {
+        argInStream.mark(BlancoCgModelFormat.MAGIC.length);
+        try {
+            for (byte magic : BlancoCgModelFormat.MAGIC) {
+                if (argInStream.read() != magic) {
+                    return false;
+                }
+            }
+            return true;
+        } finally {
+            argInStream.reset();
+        }
+    }
+
+    /**
+     * Reads the next model.
+     *
+     * @return A model, or null at the end of the stream.
+     * @throws IOException
+     *             If an I/O exception occurs.
+     */
+    public BlancoCgSourceFile readModel() throws IOException {
+        if (fIsEnd) {
+            return null;
+        }
+        final int marker = fInStream.read();
+        if (marker < 0 || marker == BlancoCgModelFormat.END) {
+            fIsEnd = true;
+            return null;
+        }
+        if (marker != BlancoCgModelFormat.MODEL) {
+            throw new IllegalArgumentException(
+                    "BlancoCgModelInput: broken stream. Unexpected marker ["
+                            + marker + "].");
+        }
+        final Object model = readValue();
+        if (model instanceof BlancoCgSourceFile == false) {
+            throw new IllegalArgumentException(
+                    "BlancoCgModelInput: the model is not BlancoCgSourceFile.");
+        }
+        return (BlancoCgSourceFile) model;
+    }
+
+    /**
+     * Reads a value.
+     *
+     * @return A value.
+     * @throws IOException
+     *             If an I/O exception occurs.
+     */
+    private Object readValue() throws IOException {
+        final int tag = readInt();
+        switch (tag) {
+        case BlancoCgModelFormat.TAG_NULL:
+            return null;
+        case BlancoCgModelFormat.TAG_STRING:
+            return readString();
+        case BlancoCgModelFormat.TAG_INT:
+            final int value = readInt();
+            return (value >>> 1) ^ -(value & 1);
+        case BlancoCgModelFormat.TAG_TRUE:
+            return Boolean.TRUE;
+        case BlancoCgModelFormat.TAG_FALSE:
+            return Boolean.FALSE;
+        case BlancoCgModelFormat.TAG_LIST: {
+            final int size = readSize("list");
+            // The size is not trusted until the elements are read, so the list grows as they are.
+            final List<Object> list = new ArrayList<Object>(Math.min(size,
+                    INITIAL_CAPACITY));
+            for (int index = 0; index < size; index++) {
+                list.add(readValue());
+            }
+            return list;
+        }
+        case BlancoCgModelFormat.TAG_MAP: {
+            final int size = readSize("map");
+            // The same class as the defaults of the value objects.
+            final Map<Object, Object> map = new HashMap<Object, Object>();
+            for (int index = 0; index < size; index++) {
+                final Object key = readValue();
+                map.put(key, readValue());
+            }
+            return map;
+        }
+        case BlancoCgModelFormat.TAG_OBJECT:
+            return readObject();
+        default:
+            throw new IllegalArgumentException(
+                    "BlancoCgModelInput: broken stream. Unknown tag [" + tag
+                            + "].");
+        }
+    }
+
+    /**
+     * Reads a value object.
+     *
+     * @return A value object.
+     * @throws IOException
+     *             If an I/O exception occurs.
+     */
+    private Object readObject() throws IOException {
+        final int index = readInt();
+        final ClassEntry entry;
+        if (index < fClassList.size()) {
+            entry = fClassList.get(index);
+        } else if (index == fClassList.size()) {
+            entry = readClassEntry();
+            fClassList.add(entry);
+        } else {
+            throw new IllegalArgumentException(
+                    "BlancoCgModelInput: broken stream. Class index [" + index
+                            + "] is out of the table.");
+        }
+
+        final Object result;
+        try {
+            result = entry.fClass.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalArgumentException(
+                    "BlancoCgModelInput: the class [" + entry.fClass.getName()
+                            + "] cannot be instantiated. " + ex.toString());
+        }
+        for (Field field : entry.fFields) {
+            final Object value = readValue();
+            if (field == null) {
+                // A field unknown to this version.
+                continue;
+            }
+            try {
+                if (value == null && field.getType().isPrimitive()) {
+                    continue;
+                }
+                field.set(result, value);
+            } catch (IllegalAccessException | IllegalArgumentException ex) {
+                throw new IllegalArgumentException(
+                        "BlancoCgModelInput: the field [" + field.getName()
+                                + "] of [" + entry.fClass.getName()
+                                + "] cannot be set. " + ex.toString());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Reads a new entry of the class table.
+     *
+     * @return An entry.
+     * @throws IOException
+     *             If an I/O exception occurs.
+     */
+    private ClassEntry readClassEntry() throws IOException {
+        final String className = readString();
+        // Only the value objects of blancoCg are instantiated, as by the XML format.
+        if (BlancoCgModelFormat.isValueObjectClass(className) == false) {
+            throw new IllegalArgumentException(
+                    "BlancoCgModelInput: the class [" + className
+                            + "] is not a value object of blancoCg.");
+        }
+        final Class<?> clazz;
+        try {
+            clazz = Class.forName(className, false,
+                    BlancoCgModelInput.class.getClassLoader());
+        } catch (ClassNotFoundException ex) {
+            throw new IllegalArgumentException(
+                    "BlancoCgModelInput: the class [" + className
+                            + "] is not found. " + ex.toString());
+        }
+
+        final Map<String, Field> fieldMap = new HashMap<String, Field>();
+        for (Field field : BlancoCgModelFormat.getFields(clazz)) {
+            fieldMap.put(field.getName(), field);
+        }
+        final int count = readSize("field list");
+        final List<Field> fieldList = new ArrayList<Field>(Math.min(count,
+                INITIAL_CAPACITY));
+        for (int index = 0; index < count; index++) {
+            fieldList.add(fieldMap.get(readString()));
+        }
+        return new ClassEntry(clazz, fieldList.toArray(new Field[count]));
+    }
+
+    /**
+     * Reads a string using the string table.
+     *
+     * @return A string.
+     * @throws IOException
+     *             If an I/O exception occurs.
+     */
+    private String readString() throws IOException {
+        final int index = readInt();
+        if (index < fStringList.size()) {
+            return fStringList.get(index);
+        }
+        if (index != fStringList.size()) {
+            throw new IllegalArgumentException(
+                    "BlancoCgModelInput: broken stream. String index ["
+                            + index + "] is out of the table.");
+        }
+        final int byteLength = readSize("string");
+        if (byteLength > BlancoCgModelFormat.MAX_STRING_LENGTH) {
+            throw new IOException(
+                    "BlancoCgModelInput: broken stream. The length of a string ["
+                            + byteLength + "] exceeds the limit ["
+                            + BlancoCgModelFormat.MAX_STRING_LENGTH + "].");
+        }
+        // The buffer grows as the bytes are read, so a broken length ends with the stream rather than allocating it.
+        byte[] bytes = new byte[Math.min(byteLength, 8192)];
+        for (int offset = 0; offset < byteLength;) {
+            if (offset == bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.min(byteLength,
+                        bytes.length * 2));
+            }
+            final int length = fInStream.read(bytes, offset, bytes.length
+                    - offset);
+            if (length < 0) {
+                throw new EOFException(
+                        "BlancoCgModelInput: unexpected end of the stream.");
+            }
+            offset += length;
+        }
+        final String result = new String(bytes, UTF8);
+        fStringList.add(result);
+        return result;
+    }
+
+    /**
+     * Reads the size of a list, a map or a string.
+     *
+     * @param argKind
+     *            What the size is of, for the message.
+     * @return A size.
+     * @throws IOException
+     *             If an I/O exception occurs, or the size is negative.
+     */
+    private int readSize(final String argKind) throws IOException {
+        final int size = readInt();
+        if (size < 0) {
+            throw new IOException("BlancoCgModelInput: broken stream. The size of a "
+                    + argKind + " [" + size + "] is negative.");
+        }
+        return size;
+    }
+
+    /**
+     * Reads a non-negative variable-length integer.
+     *
+     * @return An integer.
+     * @throws IOException
+     *             If an I/O exception occurs.
+     */
+    private int readInt() throws IOException {
+        int result = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            final int value = fInStream.read();
+            if (value < 0) {
+                throw new EOFException(
+                        "BlancoCgModelInput: unexpected end of the stream.");
+            }
+            result |= (value & 0x7f) << shift;
+            if ((value & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IllegalArgumentException(
+                "BlancoCgModelInput: broken stream. Too long integer.");
+    }
+
+    /**
+     * An entry of the class table.
+     */
+    private static class ClassEntry {
+        /**
+         * Class of the value object.
+         */
+        private final Class<?> fClass;
+
+        /**
+         * Fields in the order of the stream. Null for a field unknown to this version.
+         */
+        private final Field[] fFields;
+
+        ClassEntry(final Class<?> argClass, final Field[] argFields) {
+            fClass = argClass;
+            fFields = argFields;
+        }
+    }
+}
@@ -0,0 +1,236 @@
+/*
+ * blanco Framework
+ * Copyright (C) 2004-2017 IGA Tosiki
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ */
+/*
+ * Copyright 2017 Toshiki Iga
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package blanco.cg.batch;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import blanco.cg.BlancoCgInternedType;
+import blanco.cg.valueobject.BlancoCgSourceFile;
+
+/**
+ * Writes models (BlancoCgSourceFile) in the compact binary format.
+ *
+ * Repeated names and types are written only once, using the string table. See BlancoCgModelFormat for the format.<br>
+ * Lazy line sources (BlancoCgMethod#getLineSource() etc.) cannot be written.
+ */
+public class BlancoCgModelOutput {
+    /**
+     * Encoding of the strings.
+     */
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    /**
+     * Output stream.
+     */
+    private final OutputStream fOutStream;
+
+    /**
+     * String table. Map from a string to its index.
+     */
+    private final Map<String, Integer> fStringMap = new HashMap<String, Integer>();
+
+    /**
+     * Class table. Map from a class to its index.
+     */
+    private final Map<Class<?>, Integer> fClassMap = new IdentityHashMap<Class<?>, Integer>();
+
+    /**
+     * Constructor. The header is written here.
+     *
+     * @param argOutStream
+     *            Output stream.
+     * @throws IOException
+     *             If an I/O exception occurs.
+     */
+    public BlancoCgModelOutput(final OutputStream argOutStream)
+            throws IOException {
+        fOutStream = new BufferedOutputStream(argOutStream);
+        fOutStream.write(BlancoCgModelFormat.MAGIC);
+        writeInt(BlancoCgModelFormat.VERSION);
+    }
+
+    /**
+     * Writes a model.
+     *
+     * @param argSourceFile
+     *            A model.
+     * @throws IOException
+     *             If an I/O exception occurs.
+     */
+    public void writeModel(final BlancoCgSourceFile argSourceFile)
+            throws IOException {
+        if (argSourceFile == null) {
+            throw new IllegalArgumentException(
+                    "BlancoCgModelOutput: a null model cannot be written.");
+        }
+        writeInt(BlancoCgModelFormat.MODEL);
+        writeValue(argSourceFile);
+    }
+
+    /**
+     * Writes the end of the stream and flushes it. The underlying stream is not closed.
+     *
+     * @throws IOException
+     *             If an I/O exception occurs.
+     */
+    public void finish() throws IOException {
+        writeInt(BlancoCgModelFormat.END);
+        fOutStream.flush();
+    }
+
+    /**
+     * Writes a value.
+     *
+     * @param argValue
+     *            A value.
+     * @throws IOException
+     *             If an I/O exception occurs.
+     */
+    private void writeValue(final Object argValue) throws IOException {
+        if (argValue == null) {
+            writeInt(BlancoCgModelFormat.TAG_NULL);
+        } else if (argValue instanceof String) {
+            writeInt(BlancoCgModelFormat.TAG_STRING);
+            writeString((String) argValue);
+        } else if (argValue instanceof Integer) {
+            writeInt(BlancoCgModelFormat.TAG_INT);
+            final int value = (Integer) argValue;
+            // Zigzag encoding, so that a negative number is also short.
+            writeInt((value << 1) ^ (value >> 31));
+        } else if (argValue instanceof Boolean) {
+            writeInt(((Boolean) argValue) ? BlancoCgModelFormat.TAG_TRUE
+                    : BlancoCgModelFormat.TAG_FALSE);
+        } else if (argValue instanceof List) {
+            final List<?> list = (List<?>) argValue;
+            writeInt(BlancoCgModelFormat.TAG_LIST);
+            writeInt(list.size());
+            for (Object element : list) {
+                writeValue(element);
+            }
+        } else if (argValue instanceof Map) {
+            final Map<?, ?> map = (Map<?, ?>) argValue;
+            writeInt(BlancoCgModelFormat.TAG_MAP);
+            writeInt(map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                writeValue(entry.getKey());
+                writeValue(entry.getValue());
+            }
+        } else if (argValue instanceof Iterator) {
+            throw new IllegalArgumentException(
+                    "BlancoCgModelOutput: a lazy line source cannot be written.");
+        } else if (BlancoCgModelFormat.isValueObjectClass(BlancoCgInternedType
+                .getValueObjectClass(argValue).getName())) {
+            writeInt(BlancoCgModelFormat.TAG_OBJECT);
+            writeObject(argValue);
+        } else {
+            throw new IllegalArgumentException(
+                    "BlancoCgModelOutput: an unsupported value cannot be written: "
+                            + argValue.getClass().getName());
+        }
+    }
+
+    /**
+     * Writes a value object.
+     *
+     * @param argValue
+     *            A value object.
+     * @throws IOException
+     *             If an I/O exception occurs.
+     */
+    private void writeObject(final Object argValue) throws IOException {
+        // A shared type is written as an ordinary type.
+        final Class<?> clazz = BlancoCgInternedType.getValueObjectClass(argValue);
+        final Field[] fields = BlancoCgModelFormat.getFields(clazz);
+        final Integer index = fClassMap.get(clazz);
+        if (index != null) {
+            writeInt(index);
+        } else {
+            fClassMap.put(clazz, fClassMap.size());
+            writeInt(fClassMap.size() - 1);
+            writeString(clazz.getName());
+            writeInt(fields.length);
+            for (Field field : fields) {
+                writeString(field.getName());
+            }
+        }
+
+        for (Field field : fields) {
+            try {
+                writeValue(field.get(argValue));
+            } catch (IllegalAccessException ex) {
+                throw new IllegalArgumentException(
+                        "BlancoCgModelOutput: the field [" + field.getName()
+                                + "] cannot be read. " + ex.toString());
+            }
+        }
+    }
+
+    /**
+     * Writes a string using the string table.
+     *
+     * @param argString
+     *            A string.
+     * @throws IOException
+     *             If an I/O exception occurs.
+     */
+    private void writeString(final String argString) throws IOException {
+        final Integer index = fStringMap.get(argString);
+        if (index != null) {
+            writeInt(index);
+            return;
+        }
+        fStringMap.put(argString, fStringMap.size());
+        writeInt(fStringMap.size() - 1);
+        final byte[] bytes = argString.getBytes(UTF8);
+        writeInt(bytes.length);
+        fOutStream.write(bytes);
+    }
+
+    /**
+     * Writes a non-negative variable-length integer.
+     *
+     * @param argValue
+     *            An integer. Treated as unsigned.
+     * @throws IOException
+     *             If an I/O exception occurs.
+     */
+    private void writeInt(final int argValue) throws IOException {
+        int value = argValue;
+        while ((value & ~0x7f) != 0) {
+            fOutStream.write((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        fOutStream.write(value);
+    }
+}
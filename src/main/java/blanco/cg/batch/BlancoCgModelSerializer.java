@@ -0,0 +1,408 @@
+/*
+ * blanco Framework
+ * Copyright (C) 2004-2017 IGA Tosiki
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ */
+/*
+ * Copyright 2017 Toshiki Iga
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package blanco.cg.batch;
+
+import java.beans.Encoder;
+import java.beans.ExceptionListener;
+import java.beans.Expression;
+import java.beans.PersistenceDelegate;
+import java.beans.XMLDecoder;
+import java.beans.XMLEncoder;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParserFactory;
+
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+import blanco.cg.BlancoCgInternedType;
+import blanco.cg.BlancoCgObjectFactory;
+import blanco.cg.valueobject.BlancoCgSourceFile;
+import blanco.cg.valueobject.BlancoCgType;
+
+/**
+ * Serializes models (BlancoCgSourceFile) into a stream, and reads them back.
+ *
+ * Models are written in the XML format of java.beans.XMLEncoder, since the value objects of blancoCg are JavaBeans,
+ * or in the compact binary format of BlancoCgModelOutput. The format is detected when reading.<br>
+ * A stream may contain any number of models. Lazy line sources (BlancoCgMethod#getLineSource() etc.) cannot be serialized.<br>
+ * java.beans.XMLDecoder calls any constructor and method an XML document describes, so a document is checked before
+ * it is decoded: only the value objects of blancoCg, their properties, the add and put methods of their lists and maps,
+ * and plain values are accepted.
+ */
+public class BlancoCgModelSerializer {
+    /**
+     * Elements of plain values accepted in an XML document.
+     */
+    private static final Set<String> VALUE_ELEMENT_SET = new HashSet<String>(
+            Arrays.asList("string", "boolean", "int", "long", "short",
+                    "byte", "float", "double", "char", "null"));
+
+    /**
+     * Writes models into a stream.
+     *
+     * The stream is not closed.
+     *
+     * @param argSourceFileList
+     *            Models to write.
+     * @param argOutStream
+     *            Output stream.
+     * @throws IOException
+     *             If an I/O exception occurs.
+     */
+    public static void write(final List<BlancoCgSourceFile> argSourceFileList,
+            final OutputStream argOutStream) throws IOException {
+        final List<Exception> exceptionList = new ArrayList<Exception>();
+        final XMLEncoder encoder = new XMLEncoder(new NonClosingOutputStream(
+                argOutStream));
+        encoder.setExceptionListener(new ExceptionListener() {
+            public void exceptionThrown(final Exception ex) {
+                exceptionList.add(ex);
+            }
+        });
+        // A shared type is written as an ordinary type created by the factory.
+        encoder.setPersistenceDelegate(BlancoCgInternedType.class,
+                new PersistenceDelegate() {
+                    @Override
+                    protected Expression instantiate(final Object argOldInstance,
+                            final Encoder argOut) {
+                        return new Expression(argOldInstance,
+                                BlancoCgObjectFactory.getInstance(),
+                                "createType", new Object[] { ((BlancoCgType) argOldInstance)
+                                        .getName() });
+                    }
+
+                    @Override
+                    protected boolean mutatesTo(final Object argOldInstance,
+                            final Object argNewInstance) {
+                        // The contents of a shared type are determined by its name.
+                        return argNewInstance instanceof BlancoCgType
+                                && ((BlancoCgType) argOldInstance).getName()
+                                        .equals(((BlancoCgType) argNewInstance)
+                                                .getName());
+                    }
+
+                    @Override
+                    protected void initialize(final Class<?> argType,
+                            final Object argOldInstance,
+                            final Object argNewInstance, final Encoder argOut) {
+                        // Nothing to set after createType().
+                    }
+                });
+        encoder.setPersistenceDelegate(BlancoCgObjectFactory.class,
+                new PersistenceDelegate() {
+                    @Override
+                    protected Expression instantiate(final Object argOldInstance,
+                            final Encoder argOut) {
+                        return new Expression(argOldInstance,
+                                BlancoCgObjectFactory.class, "getInstance",
+                                new Object[0]);
+                    }
+                });
+        for (BlancoCgSourceFile cgSourceFile : argSourceFileList) {
+            if (cgSourceFile == null) {
+                throw new IllegalArgumentException(
+                        "BlancoCgModelSerializer: a null model cannot be written.");
+            }
+            encoder.writeObject(cgSourceFile);
+        }
+        encoder.close();
+        argOutStream.flush();
+        if (exceptionList.isEmpty() == false) {
+            throw new IllegalArgumentException(
+                    "BlancoCgModelSerializer: an exception occurred in the process of writing the models. "
+                            + exceptionList.get(0).toString());
+        }
+    }
+
+    /**
+     * Writes models into a stream in the compact binary format.
+     *
+     * The stream is not closed.
+     *
+     * @param argSourceFileList
+     *            Models to write.
+     * @param argOutStream
+     *            Output stream.
+     * @throws IOException
+     *             If an I/O exception occurs.
+     */
+    public static void writeBinary(
+            final List<BlancoCgSourceFile> argSourceFileList,
+            final OutputStream argOutStream) throws IOException {
+        final BlancoCgModelOutput output = new BlancoCgModelOutput(
+                argOutStream);
+        for (BlancoCgSourceFile cgSourceFile : argSourceFileList) {
+            output.writeModel(cgSourceFile);
+        }
+        output.finish();
+    }
+
+    /**
+     * Reads all models from a stream.
+     *
+     * The stream is not closed.
+     *
+     * @param argInStream
+     *            Input stream.
+     * @return Models read.
+     * @throws IOException
+     *             If an I/O exception occurs.
+     */
+    public static List<BlancoCgSourceFile> read(final InputStream argInStream)
+            throws IOException {
+        final InputStream inStream = new BufferedInputStream(
+                new NonClosingInputStream(argInStream));
+        final List<BlancoCgSourceFile> result = new ArrayList<BlancoCgSourceFile>();
+        if (BlancoCgModelInput.isBinary(inStream)) {
+            final BlancoCgModelInput input = new BlancoCgModelInput(inStream);
+            for (BlancoCgSourceFile cgSourceFile = input.readModel(); cgSourceFile != null; cgSourceFile = input
+                    .readModel()) {
+                result.add(cgSourceFile);
+            }
+            return result;
+        }
+
+        // The whole document is checked before anything is decoded.
+        final ByteArrayOutputStream outStream = new ByteArrayOutputStream();
+        final byte[] buf = new byte[8192];
+        for (int length = inStream.read(buf); length >= 0; length = inStream
+                .read(buf)) {
+            outStream.write(buf, 0, length);
+        }
+        final byte[] document = outStream.toByteArray();
+        checkXml(document);
+
+        final List<Exception> exceptionList = new ArrayList<Exception>();
+        final XMLDecoder decoder = new XMLDecoder(new ByteArrayInputStream(
+                document), null,
+                new ExceptionListener() {
+                    public void exceptionThrown(final Exception ex) {
+                        exceptionList.add(ex);
+                    }
+                }, BlancoCgModelSerializer.class.getClassLoader());
+        try {
+            for (;;) {
+                final Object model;
+                try {
+                    model = decoder.readObject();
+                } catch (ArrayIndexOutOfBoundsException ex) {
+                    // XMLDecoder reports the end of the objects in this way.
+                    break;
+                }
+                if (model instanceof BlancoCgSourceFile == false) {
+                    throw new IllegalArgumentException(
+                            "BlancoCgModelSerializer: the stream contains an object which is not BlancoCgSourceFile: "
+                                    + (model == null ? "null" : model
+                                            .getClass().getName()));
+                }
+                result.add((BlancoCgSourceFile) model);
+            }
+        } finally {
+            decoder.close();
+        }
+        if (exceptionList.isEmpty() == false) {
+            throw new IllegalArgumentException(
+                    "BlancoCgModelSerializer: an exception occurred in the process of reading the models. "
+                            + exceptionList.get(0).toString());
+        }
+        return result;
+    }
+
+    /**
+     * Checks that an XML document describes only value objects of blancoCg.
+     *
+     * @param argDocument
+     *            XML document.
+     * @throws IOException
+     *             If the document cannot be parsed.
+     */
+    private static void checkXml(final byte[] argDocument) throws IOException {
+        try {
+            final SAXParserFactory factory = SAXParserFactory.newInstance();
+            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            factory.setFeature(
+                    "http://apache.org/xml/features/disallow-doctype-decl",
+                    true);
+            factory.newSAXParser().parse(
+                    new ByteArrayInputStream(argDocument),
+                    new ModelXmlChecker());
+        } catch (ParserConfigurationException ex) {
+            throw new IOException(
+                    "BlancoCgModelSerializer: an XML parser cannot be created. "
+                            + ex.toString());
+        } catch (SAXException ex) {
+            throw new IllegalArgumentException(
+                    "BlancoCgModelSerializer: the XML document is not a model. "
+                            + ex.getMessage());
+        }
+    }
+
+    /**
+     * A SAX handler that rejects the elements which are not written by write() for value objects.
+     */
+    private static class ModelXmlChecker extends DefaultHandler {
+        @Override
+        public void startElement(final String argUri,
+                final String argLocalName, final String argQName,
+                final Attributes argAttributes) throws SAXException {
+            if ("java".equals(argQName)) {
+                checkAttributes(argQName, argAttributes, "version", "class");
+                final String className = argAttributes.getValue("class");
+                if (className != null
+                        && XMLDecoder.class.getName().equals(className) == false) {
+                    throw new SAXException("The class [" + className
+                            + "] is not allowed.");
+                }
+            } else if ("object".equals(argQName)) {
+                checkAttributes(argQName, argAttributes, "class", "id",
+                        "idref");
+                checkObject(argAttributes.getValue("class"));
+            } else if ("void".equals(argQName)) {
+                checkAttributes(argQName, argAttributes, "class", "property",
+                        "method", "id", "idref");
+                final String className = argAttributes.getValue("class");
+                final String property = argAttributes.getValue("property");
+                final String method = argAttributes.getValue("method");
+                if (className != null) {
+                    // A shared type is written as BlancoCgObjectFactory.getInstance().createType(name).
+                    if (BlancoCgObjectFactory.class.getName().equals(className) == false
+                            || "instance".equals(property) == false) {
+                        throw new SAXException("The class [" + className
+                                + "] is not allowed.");
+                    }
+                } else if ("class".equals(property)) {
+                    throw new SAXException("The property [class] is not allowed.");
+                }
+                if (method != null && "add".equals(method) == false
+                        && "put".equals(method) == false
+                        && "createType".equals(method) == false) {
+                    throw new SAXException("The method [" + method
+                            + "] is not allowed.");
+                }
+            } else if ("char".equals(argQName)) {
+                checkAttributes(argQName, argAttributes, "code");
+            } else if (VALUE_ELEMENT_SET.contains(argQName)) {
+                checkAttributes(argQName, argAttributes);
+            } else {
+                throw new SAXException("The element [" + argQName
+                        + "] is not allowed.");
+            }
+        }
+
+        /**
+         * Checks the class of an object element.
+         *
+         * @param argClassName
+         *            Value of the class attribute, or null for a reference.
+         * @throws SAXException
+         *             If the object is not allowed.
+         */
+        private static void checkObject(final String argClassName)
+                throws SAXException {
+            if (argClassName == null) {
+                return;
+            }
+            if (BlancoCgModelFormat.isValueObjectClass(argClassName) == false) {
+                throw new SAXException("The class [" + argClassName
+                        + "] is not allowed.");
+            }
+        }
+
+        /**
+         * Checks that an element has only the given attributes.
+         *
+         * @param argQName
+         *            Name of the element.
+         * @param argAttributes
+         *            Attributes of the element.
+         * @param argNames
+         *            Names of the attributes allowed.
+         * @throws SAXException
+         *             If another attribute is found.
+         */
+        private static void checkAttributes(final String argQName,
+                final Attributes argAttributes, final String... argNames)
+                throws SAXException {
+            for (int index = 0; index < argAttributes.getLength(); index++) {
+                if (Arrays.asList(argNames).contains(
+                        argAttributes.getQName(index)) == false) {
+                    throw new SAXException("The attribute ["
+                            + argAttributes.getQName(index) + "] of ["
+                            + argQName + "] is not allowed.");
+                }
+            }
+        }
+    }
+
+    /**
+     * An output stream that does not close the underlying stream.
+     */
+    private static class NonClosingOutputStream extends FilterOutputStream {
+        NonClosingOutputStream(final OutputStream argOutStream) {
+            super(argOutStream);
+        }
+
+        @Override
+        public void write(final byte[] argBytes, final int argOffset,
+                final int argLength) throws IOException {
+            out.write(argBytes, argOffset, argLength);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+
+    /**
+     * An input stream that does not close the underlying stream.
+     */
+    private static class NonClosingInputStream extends FilterInputStream {
+        NonClosingInputStream(final InputStream argInStream) {
+            super(argInStream);
+        }
+
+        @Override
+        public void close() {
+            // Leaves the underlying stream open.
+        }
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * blanco Framework
+ * Copyright (C) 2004-2017 IGA Tosiki
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ */
+/*
+ * Copyright 2017 Toshiki Iga
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package blanco.cg.compiler;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+/**
+ * The result of the compilation by BlancoCgJavaCompiler.
+ */
+public class BlancoCgJavaCompileResult {
+    /**
+     * Whether the compilation succeeded.
+     */
+    private final boolean fSuccess;
+
+    /**
+     * Map from a relative path to the generated source code.
+     */
+    private final Map<String, String> fSourceFileMap;
+
+    /**
+     * Diagnostics reported by the compiler.
+     */
+    private final List<Diagnostic<? extends JavaFileObject>> fDiagnosticList;
+
+    /**
+     * Map from a binary class name to the content of the class file.
+     */
+    private final Map<String, byte[]> fClassFileMap;
+
+    /**
+     * Constructor.
+     *
+     * @param argSuccess
+     *            Whether the compilation succeeded.
+     * @param argSourceFileMap
+     *            Map from a relative path to the generated source code.
+     * @param argDiagnosticList
+     *            Diagnostics reported by the compiler.
+     * @param argClassFileMap
+     *            Map from a binary class name to the content of the class file.
+     */
+    BlancoCgJavaCompileResult(final boolean argSuccess,
+            final Map<String, String> argSourceFileMap,
+            final List<Diagnostic<? extends JavaFileObject>> argDiagnosticList,
+            final Map<String, byte[]> argClassFileMap) {
+        fSuccess = argSuccess;
+        fSourceFileMap = Collections.unmodifiableMap(argSourceFileMap);
+        fDiagnosticList = Collections.unmodifiableList(argDiagnosticList);
+        fClassFileMap = Collections.unmodifiableMap(argClassFileMap);
+    }
+
+    /**
+     * Whether the compilation succeeded.
+     *
+     * @return True if no error was reported.
+     */
+    public boolean isSuccess() {
+        return fSuccess;
+    }
+
+    /**
+     * Gets the generated source code.
+     *
+     * @return A map from a relative path separated by a slash, such as "blanco/cg/Foo.java", to the source code.
+     */
+    public Map<String, String> getSourceFileMap() {
+        return fSourceFileMap;
+    }
+
+    /**
+     * Gets all the diagnostics reported by the compiler.
+     *
+     * @return A list of diagnostics.
+     */
+    public List<Diagnostic<? extends JavaFileObject>> getDiagnosticList() {
+        return fDiagnosticList;
+    }
+
+    /**
+     * Gets the diagnostics reported for a source file.
+     *
+     * @param argPath
+     *            A relative path of the source file, such as "blanco/cg/Foo.java".
+     * @return A list of diagnostics.
+     */
+    public List<Diagnostic<? extends JavaFileObject>> getDiagnosticList(
+            final String argPath) {
+        final List<Diagnostic<? extends JavaFileObject>> result = new ArrayList<Diagnostic<? extends JavaFileObject>>();
+        for (Diagnostic<? extends JavaFileObject> diagnostic : fDiagnosticList) {
+            if (argPath.equals(getPath(diagnostic))) {
+                result.add(diagnostic);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets the compiled class files.
+     *
+     * @return A map from a binary class name to the content of the class file. Empty if the compilation failed.
+     */
+    public Map<String, byte[]> getClassFileMap() {
+        return fClassFileMap;
+    }
+
+    /**
+     * Creates a class loader that defines the compiled classes.
+     *
+     * @param argParent
+     *            The parent class loader.
+     * @return A class loader.
+     */
+    public ClassLoader createClassLoader(final ClassLoader argParent) {
+        return new ClassLoader(argParent) {
+            @Override
+            protected Class<?> findClass(final String argName)
+                    throws ClassNotFoundException {
+                final byte[] classFile = fClassFileMap.get(argName);
+                if (classFile == null) {
+                    throw new ClassNotFoundException(argName);
+                }
+                return defineClass(argName, classFile, 0, classFile.length);
+            }
+        };
+    }
+
+    /**
+     * Formats the diagnostics as lines, like "blanco/cg/Foo.java:12: error: message".
+     *
+     * @return A list of lines.
+     */
+    public List<String> formatDiagnostics() {
+        final List<String> result = new ArrayList<String>();
+        for (Diagnostic<? extends JavaFileObject> diagnostic : fDiagnosticList) {
+            final String path = getPath(diagnostic);
+            result.add((path == null ? "" : path + ":"
+                    + diagnostic.getLineNumber() + ": ")
+                    + diagnostic.getKind().toString().toLowerCase(Locale.ENGLISH)
+                    + ": " + diagnostic.getMessage(Locale.ENGLISH));
+        }
+        return result;
+    }
+
+    /**
+     * Gets the relative path of the source file of a diagnostic.
+     *
+     * @param argDiagnostic
+     *            A diagnostic.
+     * @return A relative path, or null if the diagnostic is not about a generated source file.
+     */
+    private static String getPath(
+            final Diagnostic<? extends JavaFileObject> argDiagnostic) {
+        if (argDiagnostic.getSource() == null) {
+            return null;
+        }
+        final String path = argDiagnostic.getSource().toUri().getPath();
+        if (path == null || path.startsWith("/") == false) {
+            return path;
+        }
+        return path.substring(1);
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * blanco Framework
+ * Copyright (C) 2004-2017 IGA Tosiki
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ */
+/*
+ * Copyright 2017 Toshiki Iga
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package blanco.cg.compiler;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.ToolProvider;
+
+import blanco.cg.transformer.BlancoCgOutputTarget;
+import blanco.cg.transformer.java.BlancoCgJavaSourceTransformer;
+import blanco.cg.valueobject.BlancoCgSourceFile;
+import blanco.commons.util.BlancoStringUtil;
+
+/**
+ * Generates Java source code and compiles it in the same JVM.
+ *
+ * The source code is rendered into memory by BlancoCgJavaSourceTransformer and compiled by javax.tools.JavaCompiler, so
+ * no source file is written to the disk and no javac process is started.<br>
+ * The class files are kept in the result. They are also written to the class output target, if it is set.<br>
+ * A JDK is required; the compiler is not available on a JRE.
+ */
+public class BlancoCgJavaCompiler {
+    /**
+     * Options given to the compiler, such as "-classpath" or "--release".
+     */
+    private final List<String> fOptionList = new ArrayList<String>();
+
+    /**
+     * An output target of the class files. Null if the class files are not written.
+     */
+    private BlancoCgOutputTarget fClassOutputTarget = null;
+
+    /**
+     * Gets the options given to the compiler.
+     *
+     * Options can be added to the returned list. If "-classpath" is not given, the class path of this JVM is used.
+     *
+     * @return A list of options.
+     */
+    public List<String> getOptionList() {
+        return fOptionList;
+    }
+
+    /**
+     * Sets the output target of the class files.
+     *
+     * A class file is written as a relative path such as "blanco/cg/Foo.class", only when the compilation succeeds.
+     *
+     * @param argClassOutputTarget
+     *            An output target, or null not to write the class files.
+     */
+    public void setClassOutputTarget(
+            final BlancoCgOutputTarget argClassOutputTarget) {
+        fClassOutputTarget = argClassOutputTarget;
+    }
+
+    /**
+     * Generates the source code of the source files and compiles them together.
+     *
+     * @param argSourceFileList
+     *            Source file value objects.
+     * @return The result of the compilation.
+     */
+    public BlancoCgJavaCompileResult compile(
+            final List<BlancoCgSourceFile> argSourceFileList) {
+        if (argSourceFileList == null) {
+            throw new IllegalArgumentException(
+                    "A list of source files was given as null. Aborts the process.");
+        }
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            throw new IllegalArgumentException(
+                    "The Java compiler was not found. A JDK is required to compile the generated source code.");
+        }
+
+        // Renders the source code into memory.
+        final Map<String, String> sourceFileMap = new LinkedHashMap<String, String>();
+        final SourceCollector collector = new SourceCollector(sourceFileMap);
+        final BlancoCgJavaSourceTransformer transformer = new BlancoCgJavaSourceTransformer();
+        for (BlancoCgSourceFile cgSourceFile : argSourceFileList) {
+            collector.fCharset = (BlancoStringUtil.null2Blank(
+                    cgSourceFile.getEncoding()).length() == 0) ? Charset
+                    .defaultCharset() : Charset.forName(cgSourceFile
+                    .getEncoding());
+            transformer.transform(cgSourceFile, collector);
+        }
+
+        final List<JavaFileObject> sourceObjectList = new ArrayList<JavaFileObject>();
+        for (Map.Entry<String, String> entry : sourceFileMap.entrySet()) {
+            sourceObjectList.add(BlancoCgMemoryJavaFileManager
+                    .createSourceFile(entry.getKey(), entry.getValue()));
+        }
+
+        final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
+        final BlancoCgMemoryJavaFileManager fileManager = new BlancoCgMemoryJavaFileManager(
+                compiler.getStandardFileManager(diagnostics, null, null));
+        try {
+            final boolean success = compiler.getTask(null, fileManager,
+                    diagnostics, fOptionList, null, sourceObjectList).call()
+                    .booleanValue();
+            final Map<String, byte[]> classFileMap = fileManager
+                    .getClassFileMap();
+            if (success == false) {
+                classFileMap.clear();
+            } else if (fClassOutputTarget != null) {
+                for (Map.Entry<String, byte[]> entry : classFileMap.entrySet()) {
+                    fClassOutputTarget.write(entry.getKey().replace('.', '/')
+                            + ".class", entry.getValue());
+                }
+            }
+            return new BlancoCgJavaCompileResult(success, sourceFileMap,
+                    diagnostics.getDiagnostics(), classFileMap);
+        } catch (IOException ex) {
+            throw new IllegalArgumentException(
+                    "An exception occurred in the process of writing the class files."
+                            + ex.toString());
+        } finally {
+            try {
+                fileManager.close();
+            } catch (IOException ex) {
+                // Nothing to do: the class files are already in memory.
+            }
+        }
+    }
+
+    /**
+     * An output target that decodes the rendered source code into strings.
+     */
+    private static final class SourceCollector implements BlancoCgOutputTarget {
+        /**
+         * Map from a relative path to the source code.
+         */
+        private final Map<String, String> fSourceFileMap;
+
+        /**
+         * Encoding of the source file being rendered.
+         */
+        private Charset fCharset;
+
+        /**
+         * Constructor.
+         *
+         * @param argSourceFileMap
+         *            Map to store the source code.
+         */
+        SourceCollector(final Map<String, String> argSourceFileMap) {
+            fSourceFileMap = argSourceFileMap;
+        }
+
+        public int write(final String argPath, final byte[] argContent) {
+            final String previous = fSourceFileMap.put(argPath, new String(
+                    argContent, fCharset));
+            return previous == null ? CREATE : UPDATE;
+        }
+
+        public String getLocation(final String argPath) {
+            return "memory:" + argPath;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * blanco Framework
+ * Copyright (C) 2004-2017 IGA Tosiki
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ */
+/*
+ * Copyright 2017 Toshiki Iga
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package blanco.cg.compiler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+
+/**
+ * A file manager that keeps the class files produced by the compiler in memory.
+ *
+ * Source files are given as in-memory file objects, and the class path is looked up by the standard file manager.
+ */
+class BlancoCgMemoryJavaFileManager extends
+        ForwardingJavaFileManager<StandardJavaFileManager> {
+    /**
+     * Map from a binary class name to the content of the class file.
+     */
+    private final Map<String, byte[]> fClassFileMap = new TreeMap<String, byte[]>();
+
+    /**
+     * Constructor.
+     *
+     * @param argFileManager
+     *            The standard file manager of the compiler.
+     */
+    BlancoCgMemoryJavaFileManager(final StandardJavaFileManager argFileManager) {
+        super(argFileManager);
+    }
+
+    @Override
+    public JavaFileObject getJavaFileForOutput(final Location argLocation,
+            final String argClassName, final JavaFileObject.Kind argKind,
+            final FileObject argSibling) throws IOException {
+        if (argLocation == StandardLocation.CLASS_OUTPUT
+                && argKind == JavaFileObject.Kind.CLASS) {
+            return new ClassFileObject(argClassName);
+        }
+        return super.getJavaFileForOutput(argLocation, argClassName, argKind,
+                argSibling);
+    }
+
+    /**
+     * Gets the class files produced so far.
+     *
+     * @return A map from a binary class name to the content of the class file.
+     */
+    Map<String, byte[]> getClassFileMap() {
+        return fClassFileMap;
+    }
+
+    /**
+     * Creates a source file object from source code in memory.
+     *
+     * @param argPath
+     *            A relative path of the source file, such as "blanco/cg/Foo.java".
+     * @param argSource
+     *            Source code.
+     * @return A source file object.
+     */
+    static JavaFileObject createSourceFile(final String argPath,
+            final String argSource) {
+        return new SourceFileObject(argPath, argSource);
+    }
+
+    /**
+     * A source file in memory.
+     */
+    private static final class SourceFileObject extends SimpleJavaFileObject {
+        /**
+         * Source code.
+         */
+        private final String fSource;
+
+        /**
+         * Constructor.
+         *
+         * @param argPath
+         *            A relative path of the source file.
+         * @param argSource
+         *            Source code.
+         */
+        SourceFileObject(final String argPath, final String argSource) {
+            super(URI.create("string:///" + argPath), Kind.SOURCE);
+            fSource = argSource;
+        }
+
+        @Override
+        public CharSequence getCharContent(final boolean argIgnoreEncodingErrors) {
+            return fSource;
+        }
+    }
+
+    /**
+     * A class file written into memory.
+     */
+    private final class ClassFileObject extends SimpleJavaFileObject {
+        /**
+         * Binary class name.
+         */
+        private final String fClassName;
+
+        /**
+         * Constructor.
+         *
+         * @param argClassName
+         *            Binary class name.
+         */
+        ClassFileObject(final String argClassName) {
+            super(URI.create("bytes:///" + argClassName.replace('.', '/')
+                    + Kind.CLASS.extension), Kind.CLASS);
+            fClassName = argClassName;
+        }
+
+        @Override
+        public OutputStream openOutputStream() {
+            return new ByteArrayOutputStream() {
+                @Override
+                public void close() throws IOException {
+                    super.close();
+                    fClassFileMap.put(fClassName, toByteArray());
+                }
+            };
+        }
+    }
+}
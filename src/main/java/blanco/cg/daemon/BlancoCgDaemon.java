@@ -0,0 +1,705 @@
+/*
+ * blanco Framework
+ * Copyright (C) 2004-2017 IGA Tosiki
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ */
+/*
+ * Copyright 2017 Toshiki Iga
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package blanco.cg.daemon;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.nio.charset.Charset;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import blanco.cg.BlancoCgWarmUp;
+
+/**
+ * A long-running generation daemon.
+ *
+ * The daemon stays resident and runs the main method of generators (e.g. blanco.cg.cg.BlancoCgCg) sent from BlancoCgDaemonClient.
+ * Since the classes are already loaded and the hot paths are already compiled by the JIT, a job runs much faster than a new JVM.<br>
+ * The generators must be on the class path of the daemon.
+ *
+ * Notes:
+ * <UL>
+ * <LI>The daemon listens only on the loopback address, and accepts only requests with the token written to the token
+ * file, which is readable only by the owner.
+ * <LI>Only the generator classes in the allow-list are run. A generator is rejected if its main method may reach a call
+ * of System.exit(), Runtime.exit() or Runtime.halt(), since it would stop the daemon, and the client runs it by itself.
+ * See BlancoCgExitCheck for what the check can find.
+ * <LI>A connection that does not send its request within the request timeout is closed, so that an idle client does
+ * not hold back the other jobs.
+ * <LI>The output of a job, and of the threads the job starts, is forwarded to the client. The other threads of the
+ * daemon keep writing to the original standard output and error.
+ * <LI>Jobs are run one at a time. The client runs a job by itself only if the daemon has not accepted it.
+ * <LI>The working directory of a JVM cannot be changed, so a job sent from another directory is rejected and the client runs it by itself.
+ * </UL>
+ */
+public class BlancoCgDaemon {
+    /**
+     * Message prefix to display on the command line.
+     */
+    private static final String CMDLINE_PREFIX = "cg: daemon: ";
+
+    /**
+     * Encoding of the protocol.
+     */
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    /**
+     * Default timeout in milliseconds to receive a request after a connection is accepted.
+     */
+    private static final int DEFAULT_REQUEST_TIMEOUT = 10000;
+
+    /**
+     * Server socket.
+     */
+    private final ServerSocket fServerSocket;
+
+    /**
+     * Working directory of the daemon.
+     */
+    private final File fWorkingDirectory;
+
+    /**
+     * Token file.
+     */
+    private final Path fTokenFile;
+
+    /**
+     * Token that every request must have.
+     */
+    private final byte[] fToken;
+
+    /**
+     * Class names of the generators that may be run.
+     */
+    private final Set<String> fAllowedClassSet;
+
+    /**
+     * Timeout in milliseconds to receive a request after a connection is accepted.
+     */
+    private volatile int fRequestTimeout = DEFAULT_REQUEST_TIMEOUT;
+
+    /**
+     * Class names of the generators that have passed the check of System.exit().
+     */
+    private final Set<String> fCheckedClassSet = new HashSet<String>();
+
+    /**
+     * Whether the daemon has been requested to stop.
+     */
+    private volatile boolean fIsStopped = false;
+
+    /**
+     * Constructor with the token file and the allow-list given by the system properties.
+     *
+     * The token file is given by blanco.cg.daemon.token, or is ~/.blanco-cg/daemon-port.token. The allow-list is given by
+     * blanco.cg.daemon.allow as class names separated by commas.
+     *
+     * @param argPort
+     *            Port number to listen on. 0 to choose a free port.
+     * @throws IOException
+     *             If the port cannot be bound, or the token file cannot be written.
+     */
+    public BlancoCgDaemon(final int argPort) throws IOException {
+        this(argPort, null, getAllowedClassSet());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param argPort
+     *            Port number to listen on. 0 to choose a free port.
+     * @param argTokenFile
+     *            Token file to be written. If null, the file given by the system property or the default file is used.
+     * @param argAllowedClassSet
+     *            Class names of the generators that may be run.
+     * @throws IOException
+     *             If the port cannot be bound, or the token file cannot be written.
+     */
+    public BlancoCgDaemon(final int argPort, final Path argTokenFile,
+            final Set<String> argAllowedClassSet) throws IOException {
+        if (argAllowedClassSet == null) {
+            throw new IllegalArgumentException(
+                    "The allow-list of the generator classes has been given a null value.");
+        }
+        fServerSocket = new ServerSocket(argPort, 50, InetAddress
+                .getLoopbackAddress());
+        fWorkingDirectory = new File(".").getCanonicalFile();
+        fAllowedClassSet = Collections.unmodifiableSet(new HashSet<String>(
+                argAllowedClassSet));
+        fTokenFile = (argTokenFile != null) ? argTokenFile
+                : BlancoCgDaemonProtocol.getTokenFile(getPort());
+
+        final byte[] random = new byte[32];
+        new SecureRandom().nextBytes(random);
+        final StringBuilder buf = new StringBuilder();
+        for (byte value : random) {
+            buf.append(String.format("%02x", value & 0xff));
+        }
+        fToken = buf.toString().getBytes(UTF8);
+        try {
+            writeTokenFile(fTokenFile, fToken);
+        } catch (IOException ex) {
+            fServerSocket.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Gets the port number the daemon is listening on.
+     *
+     * @return Port number.
+     */
+    public int getPort() {
+        return fServerSocket.getLocalPort();
+    }
+
+    /**
+     * Gets the token file of the daemon.
+     *
+     * @return Token file.
+     */
+    public Path getTokenFile() {
+        return fTokenFile;
+    }
+
+    /**
+     * Sets the timeout to receive a request after a connection is accepted.
+     *
+     * @param argTimeout
+     *            Timeout in milliseconds. Must be positive.
+     */
+    public void setRequestTimeout(final int argTimeout) {
+        if (argTimeout <= 0) {
+            throw new IllegalArgumentException(
+                    "The request timeout must be positive: " + argTimeout);
+        }
+        fRequestTimeout = argTimeout;
+    }
+
+    /**
+     * Renders a small model with every language backend, so that the classes are loaded and the JIT has started compiling.
+     */
+    public void warmUp() {
+        BlancoCgWarmUp.renderAllBackends();
+    }
+
+    /**
+     * Accepts and runs jobs until the daemon is stopped.
+     *
+     * @throws IOException
+     *             If an I/O exception occurs on the server socket.
+     */
+    public void serve() throws IOException {
+        final PrintStream originalOut = System.out;
+        final PrintStream originalErr = System.err;
+        final ThreadRoutingStream out = new ThreadRoutingStream(originalOut);
+        final ThreadRoutingStream err = new ThreadRoutingStream(originalErr);
+        System.setOut(new PrintStream(out, true));
+        System.setErr(new PrintStream(err, true));
+        try {
+            while (fIsStopped == false) {
+                final Socket socket;
+                try {
+                    socket = fServerSocket.accept();
+                } catch (SocketException ex) {
+                    if (fIsStopped) {
+                        // The server socket was closed by stop().
+                        break;
+                    }
+                    throw ex;
+                }
+                try {
+                    // An idle connection must not hold back the later jobs.
+                    socket.setSoTimeout(fRequestTimeout);
+                    handle(socket, out, err);
+                } catch (SocketTimeoutException ex) {
+                    System.out.println(CMDLINE_PREFIX
+                            + "no request within the timeout, closes the connection.");
+                } catch (IOException ex) {
+                    // The client has gone. Continues to serve the other clients.
+                    System.out.println(CMDLINE_PREFIX + "connection lost: "
+                            + ex.toString());
+                } finally {
+                    socket.close();
+                }
+            }
+        } finally {
+            System.setOut(originalOut);
+            System.setErr(originalErr);
+        }
+    }
+
+    /**
+     * Stops the daemon.
+     *
+     * @throws IOException
+     *             If an I/O exception occurs.
+     */
+    public void stop() throws IOException {
+        fIsStopped = true;
+        fServerSocket.close();
+        Files.deleteIfExists(fTokenFile);
+    }
+
+    /**
+     * Handles a single request.
+     *
+     * @param argSocket
+     *            Connection from the client.
+     * @param argOut
+     *            The standard output of the JVM.
+     * @param argErr
+     *            The standard error of the JVM.
+     * @throws IOException
+     *             If an I/O exception occurs.
+     */
+    private void handle(final Socket argSocket, final ThreadRoutingStream argOut,
+            final ThreadRoutingStream argErr) throws IOException {
+        final BufferedReader reader = new BufferedReader(new InputStreamReader(
+                argSocket.getInputStream(), UTF8));
+        final BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(
+                argSocket.getOutputStream(), UTF8));
+
+        final String request = reader.readLine();
+        if (request == null) {
+            return;
+        }
+        final List<java.lang.String> fieldList = BlancoCgDaemonProtocol
+                .split(request);
+        if (fieldList.size() < 2
+                || MessageDigest.isEqual(fToken, fieldList.get(1).getBytes(
+                        UTF8)) == false) {
+            respond(writer, BlancoCgDaemonProtocol.REJECT,
+                    "The token is not valid.");
+            return;
+        }
+        final String command = fieldList.get(0);
+        if (BlancoCgDaemonProtocol.PING.equals(command)) {
+            respond(writer, BlancoCgDaemonProtocol.PONG);
+        } else if (BlancoCgDaemonProtocol.STOP.equals(command)) {
+            respond(writer, BlancoCgDaemonProtocol.BYE);
+            stop();
+        } else if (BlancoCgDaemonProtocol.RUN.equals(command)
+                && fieldList.size() >= 4) {
+            run(fieldList, writer, argOut, argErr);
+        } else {
+            respond(writer, BlancoCgDaemonProtocol.REJECT,
+                    "Unknown request: " + command);
+        }
+    }
+
+    /**
+     * Runs a job.
+     *
+     * @param argFieldList
+     *            Fields of the RUN request.
+     * @param argWriter
+     *            Writer to the client.
+     * @param argOut
+     *            The standard output of the JVM.
+     * @param argErr
+     *            The standard error of the JVM.
+     * @throws IOException
+     *             If an I/O exception occurs.
+     */
+    private void run(final List<java.lang.String> argFieldList,
+            final BufferedWriter argWriter, final ThreadRoutingStream argOut,
+            final ThreadRoutingStream argErr) throws IOException {
+        final File directory = new File(argFieldList.get(2))
+                .getCanonicalFile();
+        if (directory.equals(fWorkingDirectory) == false) {
+            respond(argWriter, BlancoCgDaemonProtocol.REJECT,
+                    "The working directory of the daemon is ["
+                            + fWorkingDirectory.getPath() + "].");
+            return;
+        }
+
+        final String className = argFieldList.get(3);
+        if (fAllowedClassSet.contains(className) == false) {
+            respond(argWriter, BlancoCgDaemonProtocol.REJECT, "The class ["
+                    + className + "] is not allowed on the daemon.");
+            return;
+        }
+        final Method mainMethod;
+        try {
+            mainMethod = getMainMethod(className);
+            if (fCheckedClassSet.contains(className) == false) {
+                checkNoExit(mainMethod);
+                fCheckedClassSet.add(className);
+            }
+        } catch (IllegalArgumentException ex) {
+            respond(argWriter, BlancoCgDaemonProtocol.REJECT, ex.getMessage());
+            return;
+        }
+        final String[] args = argFieldList.subList(4, argFieldList.size())
+                .toArray(new String[argFieldList.size() - 4]);
+
+        // From here on, the client does not run the job by itself.
+        respond(argWriter, BlancoCgDaemonProtocol.ACCEPT);
+
+        final LineForwardingStream out = new LineForwardingStream(argWriter,
+                BlancoCgDaemonProtocol.OUT);
+        final LineForwardingStream err = new LineForwardingStream(argWriter,
+                BlancoCgDaemonProtocol.ERR);
+        int exitCode = 0;
+        // Only the output of this thread, and of the threads started by the job, is forwarded.
+        argOut.setTarget(out);
+        argErr.setTarget(err);
+        try {
+            mainMethod.invoke(null, (Object) args);
+        } catch (InvocationTargetException ex) {
+            ex.getCause().printStackTrace();
+            exitCode = 1;
+        } catch (IllegalAccessException ex) {
+            ex.printStackTrace();
+            exitCode = 1;
+        } finally {
+            System.out.flush();
+            System.err.flush();
+            argOut.setTarget(null);
+            argErr.setTarget(null);
+        }
+        out.close();
+        err.close();
+        respond(argWriter, BlancoCgDaemonProtocol.EXIT, String
+                .valueOf(exitCode));
+    }
+
+    /**
+     * Writes a response line to the client.
+     *
+     * @param argWriter
+     *            Writer to the client.
+     * @param argFields
+     *            Fields of the response.
+     * @throws IOException
+     *             If an I/O exception occurs.
+     */
+    private static void respond(final BufferedWriter argWriter,
+            final String... argFields) throws IOException {
+        argWriter.write(BlancoCgDaemonProtocol.join(argFields));
+        argWriter.write('\n');
+        argWriter.flush();
+    }
+
+    /**
+     * Gets the main method of a generator.
+     *
+     * @param argClassName
+     *            Class name of the generator.
+     * @return Main method.
+     */
+    static Method getMainMethod(final String argClassName) {
+        try {
+            final Class<?> mainClass = Class.forName(argClassName);
+            final Method mainMethod = mainClass.getMethod("main",
+                    String[].class);
+            if (Modifier.isStatic(mainMethod.getModifiers()) == false) {
+                throw new IllegalArgumentException("The main method of ["
+                        + argClassName + "] is not static.");
+            }
+            return mainMethod;
+        } catch (ClassNotFoundException ex) {
+            throw new IllegalArgumentException("The class [" + argClassName
+                    + "] was not found.");
+        } catch (NoSuchMethodException ex) {
+            throw new IllegalArgumentException("The class [" + argClassName
+                    + "] does not have a main method.");
+        }
+    }
+
+    /**
+     * Checks that the main method of a generator does not call System.exit(), Runtime.exit() or Runtime.halt().
+     *
+     * @param argMainMethod
+     *            Main method of a generator.
+     */
+    static void checkNoExit(final Method argMainMethod) {
+        final Class<?> mainClass = argMainMethod.getDeclaringClass();
+        final String caller;
+        try {
+            caller = new BlancoCgExitCheck(mainClass.getClassLoader())
+                    .findExit(mainClass.getName(), "main",
+                            "([Ljava/lang/String;)V");
+        } catch (IOException ex) {
+            throw new IllegalArgumentException("The class files used by ["
+                    + mainClass.getName() + "] cannot be read. "
+                    + ex.toString());
+        }
+        if (caller != null) {
+            throw new IllegalArgumentException("The class ["
+                    + mainClass.getName() + "] calls System.exit() in ["
+                    + caller + "], which would stop the daemon.");
+        }
+    }
+
+    /**
+     * Writes a token file readable only by the owner.
+     *
+     * @param argTokenFile
+     *            Token file.
+     * @param argToken
+     *            Token.
+     * @throws IOException
+     *             If the file cannot be written.
+     */
+    private static void writeTokenFile(final Path argTokenFile,
+            final byte[] argToken) throws IOException {
+        final Path parent = argTokenFile.toAbsolutePath().getParent();
+        final boolean isPosix = FileSystems.getDefault()
+                .supportedFileAttributeViews().contains("posix");
+        if (parent != null && Files.exists(parent) == false) {
+            if (isPosix) {
+                Files.createDirectories(parent, PosixFilePermissions
+                        .asFileAttribute(PosixFilePermissions
+                                .fromString("rwx------")));
+            } else {
+                Files.createDirectories(parent);
+            }
+        }
+
+        // The file is created anew, so that the permissions are set before the token is written.
+        Files.deleteIfExists(argTokenFile);
+        if (isPosix) {
+            Files.createFile(argTokenFile, PosixFilePermissions
+                    .asFileAttribute(PosixFilePermissions
+                            .fromString("rw-------")));
+        } else {
+            Files.createFile(argTokenFile);
+            final File file = argTokenFile.toFile();
+            file.setReadable(false, false);
+            file.setWritable(false, false);
+            file.setReadable(true, true);
+            file.setWritable(true, true);
+        }
+        Files.write(argTokenFile, argToken);
+    }
+
+    /**
+     * Gets the allow-list given by the system property.
+     *
+     * @return Class names.
+     */
+    private static Set<String> getAllowedClassSet() {
+        final Set<String> allowedClassSet = new HashSet<String>();
+        final String allow = System
+                .getProperty(BlancoCgDaemonProtocol.ALLOW_PROPERTY);
+        if (allow != null) {
+            for (String className : allow.split(",")) {
+                if (className.trim().length() > 0) {
+                    allowedClassSet.add(className.trim());
+                }
+            }
+        }
+        return allowedClassSet;
+    }
+
+    /**
+     * Entry point of the daemon.
+     *
+     * Run it in the directory where the generators are run. The generators that may be run are given by the system
+     * property blanco.cg.daemon.allow.
+     *
+     * @param args
+     *            Port number (optional). The system property blanco.cg.daemon.port is used if omitted.
+     * @throws IOException
+     *             If an I/O exception occurs on the server socket.
+     */
+    public static void main(final String[] args) throws IOException {
+        final int port = (args.length > 0) ? Integer.parseInt(args[0])
+                : BlancoCgDaemonProtocol.getPort();
+        final BlancoCgDaemon daemon = new BlancoCgDaemon(port);
+        if (daemon.fAllowedClassSet.isEmpty()) {
+            System.out.println(CMDLINE_PREFIX
+                    + "no generator is allowed. Set the system property ["
+                    + BlancoCgDaemonProtocol.ALLOW_PROPERTY + "].");
+        }
+        daemon.warmUp();
+        System.out.println(CMDLINE_PREFIX + "listening on port ["
+                + daemon.getPort() + "] in ["
+                + daemon.fWorkingDirectory.getPath() + "].");
+        daemon.serve();
+        System.out.println(CMDLINE_PREFIX + "stopped.");
+    }
+
+    /**
+     * An output stream that writes to the stream of the current job, or to the original stream outside of jobs.
+     *
+     * The stream of a job is inherited by the threads started by the job.
+     */
+    private static class ThreadRoutingStream extends OutputStream {
+        /**
+         * The original stream.
+         */
+        private final PrintStream fOriginal;
+
+        /**
+         * The stream of the job of the current thread.
+         */
+        private final InheritableThreadLocal<OutputStream> fTarget = new InheritableThreadLocal<OutputStream>();
+
+        /**
+         * Constructor.
+         *
+         * @param argOriginal
+         *            The original stream.
+         */
+        ThreadRoutingStream(final PrintStream argOriginal) {
+            fOriginal = argOriginal;
+        }
+
+        /**
+         * Sets the stream of the job of the current thread.
+         *
+         * @param argTarget
+         *            Stream, or null at the end of the job.
+         */
+        void setTarget(final OutputStream argTarget) {
+            if (argTarget == null) {
+                fTarget.remove();
+            } else {
+                fTarget.set(argTarget);
+            }
+        }
+
+        /**
+         * Gets the stream of the current thread.
+         *
+         * @return Stream.
+         */
+        private OutputStream getStream() {
+            final OutputStream target = fTarget.get();
+            return (target != null) ? target : fOriginal;
+        }
+
+        @Override
+        public void write(final int argByte) throws IOException {
+            getStream().write(argByte);
+        }
+
+        @Override
+        public void write(final byte[] argBytes, final int argOffset,
+                final int argLength) throws IOException {
+            getStream().write(argBytes, argOffset, argLength);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            getStream().flush();
+        }
+    }
+
+    /**
+     * An output stream that forwards each line to the client.
+     */
+    private static class LineForwardingStream extends OutputStream {
+        /**
+         * Writer to the client.
+         */
+        private final BufferedWriter fWriter;
+
+        /**
+         * Kind of the response line.
+         */
+        private final String fKind;
+
+        /**
+         * Bytes of the current line.
+         */
+        private final ByteArrayOutputStream fLine = new ByteArrayOutputStream();
+
+        /**
+         * Constructor.
+         *
+         * @param argWriter
+         *            Writer to the client.
+         * @param argKind
+         *            Kind of the response line. OUT or ERR.
+         */
+        LineForwardingStream(final BufferedWriter argWriter,
+                final String argKind) {
+            fWriter = argWriter;
+            fKind = argKind;
+        }
+
+        @Override
+        public synchronized void write(final int argByte) throws IOException {
+            if (argByte == '\n') {
+                forwardLine();
+                return;
+            }
+            fLine.write(argByte);
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            if (fLine.size() > 0) {
+                forwardLine();
+            }
+        }
+
+        /**
+         * Forwards the current line.
+         *
+         * @throws IOException
+         *             If an I/O exception occurs.
+         */
+        private void forwardLine() throws IOException {
+            // The job writes with the default charset of the platform.
+            String line = new String(fLine.toByteArray(), Charset
+                    .defaultCharset());
+            if (line.endsWith("\r")) {
+                line = line.substring(0, line.length() - 1);
+            }
+            fLine.reset();
+            synchronized (fWriter) {
+                respond(fWriter, fKind, line);
+            }
+        }
+    }
+}
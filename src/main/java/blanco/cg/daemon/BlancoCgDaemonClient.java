@@ -0,0 +1,329 @@
+/*
+ * blanco Framework
+ * Copyright (C) 2004-2017 IGA Tosiki
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ */
+/*
+ * Copyright 2017 Toshiki Iga
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package blanco.cg.daemon;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.lang.reflect.InvocationTargetException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A thin launcher of generators that uses the generation daemon if it is running.
+ *
+ * Usage: java blanco.cg.daemon.BlancoCgDaemonClient mainClass [args...]<br>
+ * If the daemon (BlancoCgDaemon) is not running, or it rejects the job, the generator is run in this JVM as usual. Once
+ * the daemon has accepted the job, the job is never run again in this JVM, since the daemon may have written a part of
+ * the output.<br>
+ * The requests are authenticated with the token in the token file of the daemon.
+ */
+public class BlancoCgDaemonClient {
+    /**
+     * Message prefix to display on the command line.
+     */
+    private static final String CMDLINE_PREFIX = "cg: daemon: ";
+
+    /**
+     * Timeout in milliseconds to connect to the daemon.
+     */
+    private static final int CONNECT_TIMEOUT = 500;
+
+    /**
+     * Encoding of the protocol.
+     */
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    /**
+     * Port number of the daemon.
+     */
+    private final int fPort;
+
+    /**
+     * Token file of the daemon.
+     */
+    private final Path fTokenFile;
+
+    /**
+     * Constructor with the port number given by the system property blanco.cg.daemon.port.
+     */
+    public BlancoCgDaemonClient() {
+        this(BlancoCgDaemonProtocol.getPort());
+    }
+
+    /**
+     * Constructor with the token file given by the system property blanco.cg.daemon.token, or the default token file.
+     *
+     * @param argPort
+     *            Port number of the daemon.
+     */
+    public BlancoCgDaemonClient(final int argPort) {
+        this(argPort, BlancoCgDaemonProtocol.getTokenFile(argPort));
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param argPort
+     *            Port number of the daemon.
+     * @param argTokenFile
+     *            Token file of the daemon.
+     */
+    public BlancoCgDaemonClient(final int argPort, final Path argTokenFile) {
+        if (argTokenFile == null) {
+            throw new IllegalArgumentException(
+                    "The token file of the daemon has been given a null value.");
+        }
+        fPort = argPort;
+        fTokenFile = argTokenFile;
+    }
+
+    /**
+     * Runs a generator, on the daemon if possible.
+     *
+     * @param argMainClass
+     *            Class name of the generator that has a main method.
+     * @param args
+     *            Arguments to the main method.
+     * @return Exit code of the job. 0 if the generator ended normally.
+     */
+    public int run(final String argMainClass, final String[] args) {
+        final Integer exitCode = runOnDaemon(argMainClass, args);
+        if (exitCode != null) {
+            return exitCode.intValue();
+        }
+        return runInProcess(argMainClass, args);
+    }
+
+    /**
+     * Checks whether the daemon is running.
+     *
+     * @return True if the daemon responded.
+     */
+    public boolean ping() {
+        try {
+            final List<java.lang.String> response = request(
+                    BlancoCgDaemonProtocol.PING, null);
+            return response != null
+                    && BlancoCgDaemonProtocol.PONG.equals(response.get(0));
+        } catch (IOException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Stops the daemon.
+     *
+     * @return True if the daemon accepted the request.
+     */
+    public boolean stopDaemon() {
+        try {
+            final List<java.lang.String> response = request(
+                    BlancoCgDaemonProtocol.STOP, null);
+            return response != null
+                    && BlancoCgDaemonProtocol.BYE.equals(response.get(0));
+        } catch (IOException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Runs a generator on the daemon.
+     *
+     * @param argMainClass
+     *            Class name of the generator.
+     * @param args
+     *            Arguments to the main method.
+     * @return Exit code, or null if the job was not run on the daemon.
+     */
+    private Integer runOnDaemon(final String argMainClass, final String[] args) {
+        final List<java.lang.String> fieldList = new ArrayList<java.lang.String>();
+        fieldList.add(new File(".").getAbsolutePath());
+        fieldList.add(argMainClass);
+        fieldList.addAll(Arrays.asList(args));
+
+        final boolean[] isStarted = new boolean[] { false };
+        try {
+            final List<java.lang.String> response = request(
+                    BlancoCgDaemonProtocol.RUN, isStarted, fieldList
+                            .toArray(new String[fieldList.size()]));
+            if (response == null) {
+                return null;
+            }
+            if (BlancoCgDaemonProtocol.EXIT.equals(response.get(0))) {
+                return Integer.valueOf(response.get(1));
+            }
+            // Rejected. The job has not been run.
+            System.out.println(CMDLINE_PREFIX + "runs in process: "
+                    + (response.size() > 1 ? response.get(1) : ""));
+            return null;
+        } catch (IOException ex) {
+            if (isStarted[0]) {
+                // The daemon has accepted the job and may have written a part of the output, so it cannot be run again.
+                throw new IllegalArgumentException(
+                        "The connection to the daemon was lost during the job. "
+                                + ex.toString());
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Sends a request to the daemon and relays the output of the job.
+     *
+     * @param argCommand
+     *            Command of the request.
+     * @param argIsStarted
+     *            Set to true when the daemon has accepted the job. May be null.
+     * @param argFields
+     *            Fields following the token.
+     * @return Fields of the final response, or null if the daemon is not running.
+     * @throws IOException
+     *             If the connection is lost.
+     */
+    private List<java.lang.String> request(final String argCommand,
+            final boolean[] argIsStarted, final String... argFields)
+            throws IOException {
+        final String token = BlancoCgDaemonProtocol.readToken(fTokenFile);
+        if (token == null) {
+            // The daemon is not running, or is run by another user.
+            return null;
+        }
+        final String[] requestFields = new String[argFields.length + 2];
+        requestFields[0] = argCommand;
+        requestFields[1] = token;
+        System.arraycopy(argFields, 0, requestFields, 2, argFields.length);
+        final String requestLine = BlancoCgDaemonProtocol.join(requestFields);
+
+        final Socket socket = new Socket();
+        try {
+            try {
+                socket.connect(new InetSocketAddress(InetAddress
+                        .getLoopbackAddress(), fPort), CONNECT_TIMEOUT);
+            } catch (IOException ex) {
+                // The daemon is not running.
+                return null;
+            }
+
+            final BufferedWriter writer = new BufferedWriter(
+                    new OutputStreamWriter(socket.getOutputStream(), UTF8));
+            writer.write(requestLine);
+            writer.write('\n');
+            writer.flush();
+
+            final BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(socket.getInputStream(), UTF8));
+            for (String line = reader.readLine(); line != null; line = reader
+                    .readLine()) {
+                final List<java.lang.String> fieldList = BlancoCgDaemonProtocol
+                        .split(line);
+                final String kind = fieldList.get(0);
+                if (BlancoCgDaemonProtocol.ACCEPT.equals(kind)) {
+                    markStarted(argIsStarted);
+                } else if (BlancoCgDaemonProtocol.OUT.equals(kind)) {
+                    System.out.println(fieldList.get(1));
+                } else if (BlancoCgDaemonProtocol.ERR.equals(kind)) {
+                    System.err.println(fieldList.get(1));
+                } else {
+                    return fieldList;
+                }
+            }
+            throw new IOException("The daemon closed the connection without a response.");
+        } finally {
+            socket.close();
+        }
+    }
+
+    /**
+     * Records that the daemon has accepted the job.
+     *
+     * @param argIsStarted
+     *            Flag. May be null.
+     */
+    private static void markStarted(final boolean[] argIsStarted) {
+        if (argIsStarted != null) {
+            argIsStarted[0] = true;
+        }
+    }
+
+    /**
+     * Runs a generator in this JVM.
+     *
+     * @param argMainClass
+     *            Class name of the generator.
+     * @param args
+     *            Arguments to the main method.
+     * @return Exit code. Always 0, since an exception from the generator is thrown as it is.
+     */
+    private static int runInProcess(final String argMainClass,
+            final String[] args) {
+        try {
+            BlancoCgDaemon.getMainMethod(argMainClass).invoke(null,
+                    (Object) args);
+            return 0;
+        } catch (InvocationTargetException ex) {
+            final Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalArgumentException("The generator [" + argMainClass
+                    + "] threw an exception. " + cause.toString(), cause);
+        } catch (IllegalAccessException ex) {
+            throw new IllegalArgumentException("The main method of ["
+                    + argMainClass + "] is not accessible. " + ex.toString());
+        }
+    }
+
+    /**
+     * Entry point of the launcher.
+     *
+     * @param args
+     *            Class name of the generator followed by its arguments.
+     */
+    public static void main(final String[] args) {
+        if (args.length == 0) {
+            System.out.println("Usage: java " + BlancoCgDaemonClient.class.getName()
+                    + " mainClass [args...]");
+            System.exit(2);
+        }
+        final int exitCode = new BlancoCgDaemonClient().run(args[0], Arrays
+                .copyOfRange(args, 1, args.length));
+        if (exitCode != 0) {
+            System.exit(exitCode);
+        }
+    }
+}
@@ -0,0 +1,262 @@
+/*
+ * blanco Framework
+ * Copyright (C) 2004-2017 IGA Tosiki
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ */
+/*
+ * Copyright 2017 Toshiki Iga
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package blanco.cg.daemon;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The request protocol between the generation daemon and its clients.
+ *
+ * A message is a single line of UTF-8 text whose fields are separated by tabs.
+ * Backslashes, tabs, CRs and LFs in a field are escaped as \\, \t, \r and \n.
+ *
+ * <pre>
+ * client: PING token                        server: PONG
+ * client: STOP token                        server: BYE
+ * client: RUN  token  dir  mainClass  arg...  server: OUT  line   (repeated)
+ *                                                   ERR  line   (repeated)
+ *                                                   EXIT code
+ *                                              or   REJECT reason
+ * </pre>
+ *
+ * The token is a random secret written by the daemon to a file readable only by its owner, so that only the user
+ * running the daemon can send requests. A request with a wrong token is rejected.<br>
+ * A rejected job has not been run at all, so the client may run it by itself.
+ */
+final class BlancoCgDaemonProtocol {
+    /**
+     * Default port number of the daemon.
+     */
+    static final int DEFAULT_PORT = 41959;
+
+    /**
+     * System property to specify the port number of the daemon.
+     */
+    static final String PORT_PROPERTY = "blanco.cg.daemon.port";
+
+    /**
+     * System property to specify the token file of the daemon.
+     */
+    static final String TOKEN_PROPERTY = "blanco.cg.daemon.token";
+
+    /**
+     * System property to specify the generator classes the daemon may run, separated by commas.
+     */
+    static final String ALLOW_PROPERTY = "blanco.cg.daemon.allow";
+
+    /**
+     * Command: checks whether the daemon is alive.
+     */
+    static final String PING = "PING";
+
+    /**
+     * Response to PING.
+     */
+    static final String PONG = "PONG";
+
+    /**
+     * Command: stops the daemon.
+     */
+    static final String STOP = "STOP";
+
+    /**
+     * Response to STOP.
+     */
+    static final String BYE = "BYE";
+
+    /**
+     * Command: runs a job.
+     */
+    static final String RUN = "RUN";
+
+    /**
+     * Response: the job has been accepted and is run now. The client must not run the job again after this.
+     */
+    static final String ACCEPT = "ACCEPT";
+
+    /**
+     * Response: a line written to the standard output by the job.
+     */
+    static final String OUT = "OUT";
+
+    /**
+     * Response: a line written to the standard error by the job.
+     */
+    static final String ERR = "ERR";
+
+    /**
+     * Response: the job has ended with the exit code.
+     */
+    static final String EXIT = "EXIT";
+
+    /**
+     * Response: the job was not run.
+     */
+    static final String REJECT = "REJECT";
+
+    /**
+     * Field separator.
+     */
+    private static final char SEPARATOR = '\t';
+
+    /**
+     * This class is not instantiated.
+     */
+    private BlancoCgDaemonProtocol() {
+    }
+
+    /**
+     * Gets the port number of the daemon from the system property.
+     *
+     * @return Port number.
+     */
+    static int getPort() {
+        final String port = System.getProperty(PORT_PROPERTY);
+        if (port == null || port.trim().length() == 0) {
+            return DEFAULT_PORT;
+        }
+        try {
+            return Integer.parseInt(port.trim());
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("The system property ["
+                    + PORT_PROPERTY + "] is not a number: [" + port + "].");
+        }
+    }
+
+    /**
+     * Gets the token file of the daemon on the given port.
+     *
+     * @param argPort
+     *            Port number.
+     * @return The file given by the system property, or a file under the directory .blanco-cg in the home directory.
+     */
+    static Path getTokenFile(final int argPort) {
+        final String file = System.getProperty(TOKEN_PROPERTY);
+        if (file != null && file.trim().length() > 0) {
+            return Paths.get(file.trim());
+        }
+        return Paths.get(System.getProperty("user.home"), ".blanco-cg",
+                "daemon-" + argPort + ".token");
+    }
+
+    /**
+     * Reads the token from a token file.
+     *
+     * @param argTokenFile
+     *            Token file.
+     * @return Token, or null if the file cannot be read.
+     */
+    static String readToken(final Path argTokenFile) {
+        try {
+            return new String(Files.readAllBytes(argTokenFile), Charset
+                    .forName("UTF-8")).trim();
+        } catch (IOException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Joins fields into a message line.
+     *
+     * @param argFields
+     *            Fields.
+     * @return A message line without a line break.
+     */
+    static String join(final String... argFields) {
+        final StringBuilder buf = new StringBuilder();
+        for (int index = 0; index < argFields.length; index++) {
+            if (index > 0) {
+                buf.append(SEPARATOR);
+            }
+            final String field = argFields[index];
+            for (int pos = 0; pos < field.length(); pos++) {
+                final char ch = field.charAt(pos);
+                switch (ch) {
+                case '\\':
+                    buf.append("\\\\");
+                    break;
+                case '\t':
+                    buf.append("\\t");
+                    break;
+                case '\r':
+                    buf.append("\\r");
+                    break;
+                case '\n':
+                    buf.append("\\n");
+                    break;
+                default:
+                    buf.append(ch);
+                    break;
+                }
+            }
+        }
+        return buf.toString();
+    }
+
+    /**
+     * Splits a message line into fields.
+     *
+     * @param argLine
+     *            A message line.
+     * @return Fields.
+     */
+    static List<java.lang.String> split(final String argLine) {
+        final List<java.lang.String> fieldList = new ArrayList<java.lang.String>();
+        final StringBuilder buf = new StringBuilder();
+        for (int pos = 0; pos < argLine.length(); pos++) {
+            final char ch = argLine.charAt(pos);
+            if (ch == SEPARATOR) {
+                fieldList.add(buf.toString());
+                buf.setLength(0);
+            } else if (ch == '\\' && pos + 1 < argLine.length()) {
+                final char escaped = argLine.charAt(++pos);
+                switch (escaped) {
+                case 't':
+                    buf.append('\t');
+                    break;
+                case 'r':
+                    buf.append('\r');
+                    break;
+                case 'n':
+                    buf.append('\n');
+                    break;
+                default:
+                    buf.append(escaped);
+                    break;
+                }
+            } else {
+                buf.append(ch);
+            }
+        }
+        fieldList.add(buf.toString());
+        return fieldList;
+    }
+}
@@ -0,0 +1,593 @@
+/*
+ * blanco Framework
+ * Copyright (C) 2004-2017 IGA Tosiki
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ */
+/*
+ * Copyright 2017 Toshiki Iga
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package blanco.cg.daemon;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A static check that the methods reachable from a method do not end the JVM.
+ *
+ * The invoke instructions of the class files on the class path are followed from the given method, and a call to
+ * System.exit(), Runtime.exit() or Runtime.halt() is found. The static initializers of the classes used are followed
+ * as well, and the implementation methods of lambdas and method references are followed for every invokedynamic.
+ *
+ * Notes:
+ * <UL>
+ * <LI>A call through reflection, or through a class of the JDK (e.g. a callback called back by a collection), is not
+ * found.
+ * <LI>A virtual call is followed to the method the static type declares or inherits, not to overrides in subclasses.
+ * </UL>
+ */
+class BlancoCgExitCheck {
+    /**
+     * Class loader to read the class files with.
+     */
+    private final ClassLoader fLoader;
+
+    /**
+     * Classes read so far by internal name. A class that cannot be read is mapped to null.
+     */
+    private final Map<String, ClassInfo> fClassMap = new HashMap<String, ClassInfo>();
+
+    /**
+     * Constructor.
+     *
+     * @param argLoader
+     *            Class loader to read the class files with, or null for the system class loader.
+     */
+    BlancoCgExitCheck(final ClassLoader argLoader) {
+        fLoader = (argLoader != null) ? argLoader : ClassLoader
+                .getSystemClassLoader();
+    }
+
+    /**
+     * Finds a call that ends the JVM among the methods reachable from a method.
+     *
+     * @param argClassName
+     *            Binary name of the class, e.g. myprog.MyGenerator.
+     * @param argMethodName
+     *            Name of the method.
+     * @param argDescriptor
+     *            Descriptor of the method, e.g. ([Ljava/lang/String;)V.
+     * @return The method calling System.exit(), Runtime.exit() or Runtime.halt() as class.method, or null if none is
+     *         found.
+     * @throws IOException
+     *             If a class file cannot be read.
+     */
+    String findExit(final String argClassName, final String argMethodName,
+            final String argDescriptor) throws IOException {
+        if (getClassInfo(argClassName.replace('.', '/')) == null) {
+            throw new IOException("The class file of [" + argClassName
+                    + "] is not found.");
+        }
+        final Set<String> visitedSet = new HashSet<String>();
+        final LinkedList<String[]> queue = new LinkedList<String[]>();
+        queue.add(new String[] { argClassName.replace('.', '/'),
+                argMethodName, argDescriptor });
+        while (queue.isEmpty() == false) {
+            final String[] target = queue.removeFirst();
+            if (visitedSet.add(target[0] + "." + target[1] + target[2]) == false
+                    || isPlatformClass(target[0])) {
+                continue;
+            }
+            final ClassInfo classInfo = getClassInfo(target[0]);
+            if (classInfo == null) {
+                continue;
+            }
+            // The static initializer runs when the class is used first.
+            queue.add(new String[] { target[0], "<clinit>", "()V" });
+
+            final MethodInfo methodInfo = resolve(classInfo, target[1]
+                    + target[2]);
+            if (methodInfo == null) {
+                continue;
+            }
+            for (String[] call : methodInfo.fCallList) {
+                if (isExit(call)) {
+                    return methodInfo.fOwner.replace('/', '.') + "."
+                            + target[1];
+                }
+                queue.add(call);
+            }
+            if (methodInfo.fHasInvokeDynamic) {
+                for (String[] handle : methodInfo.fHandleList) {
+                    if (isExit(handle)) {
+                        return methodInfo.fOwner.replace('/', '.') + "."
+                                + target[1];
+                    }
+                    queue.add(handle);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Finds the method a call resolves to in a class and its supertypes.
+     *
+     * @param argClassInfo
+     *            The class named in the call.
+     * @param argKey
+     *            Name and descriptor of the method.
+     * @return Method, or null if it is not found in the class files on the class path.
+     * @throws IOException
+     *             If a class file cannot be read.
+     */
+    private MethodInfo resolve(final ClassInfo argClassInfo, final String argKey)
+            throws IOException {
+        final MethodInfo methodInfo = argClassInfo.fMethodMap.get(argKey);
+        if (methodInfo != null) {
+            return methodInfo;
+        }
+        final List<String> superList = new ArrayList<String>();
+        if (argClassInfo.fSuperName != null) {
+            superList.add(argClassInfo.fSuperName);
+        }
+        superList.addAll(argClassInfo.fInterfaceList);
+        for (String superName : superList) {
+            if (isPlatformClass(superName)) {
+                continue;
+            }
+            final ClassInfo superInfo = getClassInfo(superName);
+            if (superInfo != null) {
+                final MethodInfo superMethod = resolve(superInfo, argKey);
+                if (superMethod != null) {
+                    return superMethod;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets a class read from its class file.
+     *
+     * @param argName
+     *            Internal name of the class, separated by slashes.
+     * @return Class, or null if the class file is not found.
+     * @throws IOException
+     *             If the class file cannot be read.
+     */
+    private ClassInfo getClassInfo(final String argName) throws IOException {
+        if (fClassMap.containsKey(argName)) {
+            return fClassMap.get(argName);
+        }
+        ClassInfo classInfo = null;
+        final InputStream inStream = fLoader.getResourceAsStream(argName
+                + ".class");
+        if (inStream != null) {
+            try {
+                classInfo = readClass(new DataInputStream(inStream));
+            } finally {
+                inStream.close();
+            }
+        }
+        fClassMap.put(argName, classInfo);
+        return classInfo;
+    }
+
+    /**
+     * Checks whether a call ends the JVM.
+     *
+     * @param argCall
+     *            Owner, name and descriptor of the method called.
+     * @return True for System.exit, Runtime.exit or Runtime.halt.
+     */
+    private static boolean isExit(final String[] argCall) {
+        if ("java/lang/System".equals(argCall[0])) {
+            return "exit".equals(argCall[1]);
+        }
+        if ("java/lang/Runtime".equals(argCall[0])) {
+            return "exit".equals(argCall[1]) || "halt".equals(argCall[1]);
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether a class belongs to the JDK.
+     *
+     * @param argName
+     *            Internal name of a class, separated by slashes.
+     * @return True for a class of the JDK.
+     */
+    private static boolean isPlatformClass(final String argName) {
+        return argName.startsWith("java/") || argName.startsWith("javax/")
+                || argName.startsWith("jdk/") || argName.startsWith("sun/")
+                || argName.startsWith("com/sun/") || argName.startsWith("[");
+    }
+
+    /**
+     * Reads the methods and their calls from a class file.
+     *
+     * @param argInput
+     *            Class file.
+     * @return Class.
+     * @throws IOException
+     *             If the class file cannot be read.
+     */
+    private static ClassInfo readClass(final DataInputStream argInput)
+            throws IOException {
+        // Skips the magic and the version.
+        argInput.readInt();
+        argInput.readInt();
+        final int count = argInput.readUnsignedShort();
+        final int[] tagArray = new int[count];
+        final String[] utf8Array = new String[count];
+        final int[] firstArray = new int[count];
+        final int[] secondArray = new int[count];
+        for (int index = 1; index < count; index++) {
+            final int tag = argInput.readUnsignedByte();
+            tagArray[index] = tag;
+            switch (tag) {
+            case 1: // Utf8
+                utf8Array[index] = argInput.readUTF();
+                break;
+            case 7: // Class
+            case 8: // String
+            case 16: // MethodType
+            case 19: // Module
+            case 20: // Package
+                firstArray[index] = argInput.readUnsignedShort();
+                break;
+            case 15: // MethodHandle
+                argInput.readUnsignedByte();
+                firstArray[index] = argInput.readUnsignedShort();
+                break;
+            case 3: // Integer
+            case 4: // Float
+                argInput.readInt();
+                break;
+            case 5: // Long
+            case 6: // Double
+                argInput.readLong();
+                // Takes two entries.
+                index++;
+                break;
+            case 9: // Fieldref
+            case 10: // Methodref
+            case 11: // InterfaceMethodref
+            case 12: // NameAndType
+            case 17: // Dynamic
+            case 18: // InvokeDynamic
+                firstArray[index] = argInput.readUnsignedShort();
+                secondArray[index] = argInput.readUnsignedShort();
+                break;
+            default:
+                throw new IOException("Unknown constant pool tag: " + tag);
+            }
+        }
+        final ConstantPool pool = new ConstantPool(tagArray, utf8Array,
+                firstArray, secondArray);
+
+        final ClassInfo classInfo = new ClassInfo();
+        argInput.readUnsignedShort();
+        classInfo.fName = pool.getClassName(argInput.readUnsignedShort());
+        final int superIndex = argInput.readUnsignedShort();
+        classInfo.fSuperName = (superIndex == 0) ? null : pool
+                .getClassName(superIndex);
+        final int interfaceCount = argInput.readUnsignedShort();
+        for (int index = 0; index < interfaceCount; index++) {
+            classInfo.fInterfaceList.add(pool.getClassName(argInput
+                    .readUnsignedShort()));
+        }
+
+        // The targets of the method handles, followed for invokedynamic.
+        final List<String[]> handleList = new ArrayList<String[]>();
+        for (int index = 1; index < count; index++) {
+            if (tagArray[index] == 15) {
+                final int reference = firstArray[index];
+                if (tagArray[reference] == 10 || tagArray[reference] == 11) {
+                    handleList.add(pool.getMethod(reference));
+                }
+            }
+        }
+
+        final int fieldCount = argInput.readUnsignedShort();
+        for (int index = 0; index < fieldCount; index++) {
+            argInput.readUnsignedShort();
+            argInput.readUnsignedShort();
+            argInput.readUnsignedShort();
+            skipAttributes(argInput);
+        }
+        final int methodCount = argInput.readUnsignedShort();
+        for (int index = 0; index < methodCount; index++) {
+            argInput.readUnsignedShort();
+            final String name = utf8Array[argInput.readUnsignedShort()];
+            final String descriptor = utf8Array[argInput.readUnsignedShort()];
+            final MethodInfo methodInfo = new MethodInfo();
+            methodInfo.fOwner = classInfo.fName;
+            methodInfo.fHandleList = handleList;
+            final int attributeCount = argInput.readUnsignedShort();
+            for (int attribute = 0; attribute < attributeCount; attribute++) {
+                final String attributeName = utf8Array[argInput
+                        .readUnsignedShort()];
+                final int length = argInput.readInt();
+                if ("Code".equals(attributeName) == false) {
+                    skipFully(argInput, length);
+                    continue;
+                }
+                argInput.readUnsignedShort();
+                argInput.readUnsignedShort();
+                final byte[] code = new byte[argInput.readInt()];
+                argInput.readFully(code);
+                readCalls(code, pool, methodInfo);
+                skipFully(argInput, length - 8 - code.length);
+            }
+            classInfo.fMethodMap.put(name + descriptor, methodInfo);
+        }
+        return classInfo;
+    }
+
+    /**
+     * Reads the calls of the bytecode of a method.
+     *
+     * @param argCode
+     *            Bytecode.
+     * @param argPool
+     *            Constant pool.
+     * @param argMethodInfo
+     *            Method to add the calls to.
+     * @throws IOException
+     *             If the bytecode is not valid.
+     */
+    private static void readCalls(final byte[] argCode,
+            final ConstantPool argPool, final MethodInfo argMethodInfo)
+            throws IOException {
+        int pc = 0;
+        while (pc < argCode.length) {
+            final int opcode = argCode[pc] & 0xff;
+            switch (opcode) {
+            case 0xb6: // invokevirtual
+            case 0xb7: // invokespecial
+            case 0xb8: // invokestatic
+            case 0xb9: // invokeinterface
+                argMethodInfo.fCallList.add(argPool.getMethod(readShort(
+                        argCode, pc + 1)));
+                break;
+            case 0xba: // invokedynamic
+                argMethodInfo.fHasInvokeDynamic = true;
+                break;
+            case 0xb2: // getstatic
+            case 0xb3: // putstatic
+            case 0xbb: // new
+                // Runs the static initializer of the class.
+                argMethodInfo.fCallList.add(new String[] {
+                        argPool.getMemberOwner(readShort(argCode, pc + 1)),
+                        "<clinit>", "()V" });
+                break;
+            default:
+                break;
+            }
+            pc += getInstructionLength(argCode, pc);
+        }
+    }
+
+    /**
+     * Gets the length of an instruction.
+     *
+     * @param argCode
+     *            Bytecode.
+     * @param argPc
+     *            Offset of the instruction.
+     * @return Length in bytes.
+     * @throws IOException
+     *             If the instruction is not valid.
+     */
+    private static int getInstructionLength(final byte[] argCode,
+            final int argPc) throws IOException {
+        final int opcode = argCode[argPc] & 0xff;
+        switch (opcode) {
+        case 0x10: // bipush
+        case 0x12: // ldc
+        case 0xbc: // newarray
+        case 0xa9: // ret
+            return 2;
+        case 0x11: // sipush
+        case 0x13: // ldc_w
+        case 0x14: // ldc2_w
+        case 0x84: // iinc
+        case 0xb2: // getstatic
+        case 0xb3: // putstatic
+        case 0xb4: // getfield
+        case 0xb5: // putfield
+        case 0xb6: // invokevirtual
+        case 0xb7: // invokespecial
+        case 0xb8: // invokestatic
+        case 0xbb: // new
+        case 0xbd: // anewarray
+        case 0xc0: // checkcast
+        case 0xc1: // instanceof
+        case 0xc6: // ifnull
+        case 0xc7: // ifnonnull
+            return 3;
+        case 0xc5: // multianewarray
+            return 4;
+        case 0xb9: // invokeinterface
+        case 0xba: // invokedynamic
+        case 0xc8: // goto_w
+        case 0xc9: // jsr_w
+            return 5;
+        case 0xc4: // wide
+            return ((argCode[argPc + 1] & 0xff) == 0x84) ? 6 : 4;
+        case 0xaa: { // tableswitch
+            final int base = (argPc + 4) & ~3;
+            final int low = readInt(argCode, base + 4);
+            final int high = readInt(argCode, base + 8);
+            return base + 12 + (high - low + 1) * 4 - argPc;
+        }
+        case 0xab: { // lookupswitch
+            final int base = (argPc + 4) & ~3;
+            final int pairCount = readInt(argCode, base + 4);
+            return base + 8 + pairCount * 8 - argPc;
+        }
+        default:
+            if (opcode >= 0x15 && opcode <= 0x19) {
+                // xload
+                return 2;
+            }
+            if (opcode >= 0x36 && opcode <= 0x3a) {
+                // xstore
+                return 2;
+            }
+            if (opcode >= 0x99 && opcode <= 0xa8) {
+                // if, goto and jsr
+                return 3;
+            }
+            if (opcode > 0xc9) {
+                throw new IOException("Unknown opcode: " + opcode);
+            }
+            return 1;
+        }
+    }
+
+    private static int readShort(final byte[] argCode, final int argOffset) {
+        return ((argCode[argOffset] & 0xff) << 8)
+                | (argCode[argOffset + 1] & 0xff);
+    }
+
+    private static int readInt(final byte[] argCode, final int argOffset) {
+        return (readShort(argCode, argOffset) << 16)
+                | readShort(argCode, argOffset + 2);
+    }
+
+    private static void skipAttributes(final DataInputStream argInput)
+            throws IOException {
+        final int attributeCount = argInput.readUnsignedShort();
+        for (int attribute = 0; attribute < attributeCount; attribute++) {
+            argInput.readUnsignedShort();
+            skipFully(argInput, argInput.readInt());
+        }
+    }
+
+    private static void skipFully(final DataInputStream argInput,
+            final int argLength) throws IOException {
+        int remaining = argLength;
+        while (remaining > 0) {
+            final int skipped = argInput.skipBytes(remaining);
+            if (skipped <= 0) {
+                throw new IOException("The class file ended unexpectedly.");
+            }
+            remaining -= skipped;
+        }
+    }
+
+    /**
+     * The entries of a constant pool.
+     */
+    private static class ConstantPool {
+        private final int[] fTagArray;
+
+        private final String[] fUtf8Array;
+
+        private final int[] fFirstArray;
+
+        private final int[] fSecondArray;
+
+        ConstantPool(final int[] argTagArray, final String[] argUtf8Array,
+                final int[] argFirstArray, final int[] argSecondArray) {
+            fTagArray = argTagArray;
+            fUtf8Array = argUtf8Array;
+            fFirstArray = argFirstArray;
+            fSecondArray = argSecondArray;
+        }
+
+        /**
+         * Gets the internal name of a Class entry.
+         */
+        String getClassName(final int argIndex) {
+            return fUtf8Array[fFirstArray[argIndex]];
+        }
+
+        /**
+         * Gets the owner, name and descriptor of a Methodref or InterfaceMethodref entry.
+         */
+        String[] getMethod(final int argIndex) {
+            final int nameAndType = fSecondArray[argIndex];
+            return new String[] { getClassName(fFirstArray[argIndex]),
+                    fUtf8Array[fFirstArray[nameAndType]],
+                    fUtf8Array[fSecondArray[nameAndType]] };
+        }
+
+        /**
+         * Gets the class of a Fieldref entry, or of a Class entry for new.
+         */
+        String getMemberOwner(final int argIndex) {
+            if (fTagArray[argIndex] == 7) {
+                return getClassName(argIndex);
+            }
+            return getClassName(fFirstArray[argIndex]);
+        }
+    }
+
+    /**
+     * A class read from its class file.
+     */
+    private static class ClassInfo {
+        private String fName;
+
+        private String fSuperName;
+
+        private final List<String> fInterfaceList = new ArrayList<String>();
+
+        /**
+         * Methods by name and descriptor.
+         */
+        private final Map<String, MethodInfo> fMethodMap = new HashMap<String, MethodInfo>();
+    }
+
+    /**
+     * A method read from its class file.
+     */
+    private static class MethodInfo {
+        /**
+         * Internal name of the class declaring the method.
+         */
+        private String fOwner;
+
+        /**
+         * Owner, name and descriptor of the methods called.
+         */
+        private final List<String[]> fCallList = new ArrayList<String[]>();
+
+        /**
+         * Whether the method has invokedynamic.
+         */
+        private boolean fHasInvokeDynamic = false;
+
+        /**
+         * Targets of the method handles of the class.
+         */
+        private List<String[]> fHandleList;
+    }
+}
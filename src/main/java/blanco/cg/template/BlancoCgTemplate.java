@@ -0,0 +1,376 @@
+/*
+ * blanco Framework
+ * Copyright (C) 2004-2017 IGA Tosiki
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ */
+/*
+ * Copyright 2017 Toshiki Iga
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package blanco.cg.template;
+
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import blanco.cg.BlancoCgSupportedLang;
+import blanco.cg.transformer.BlancoCgMemoryOutputTarget;
+import blanco.cg.transformer.BlancoCgOutputTarget;
+import blanco.cg.transformer.BlancoCgSourceWriter;
+import blanco.cg.transformer.BlancoCgTransformerFactory;
+import blanco.cg.valueobject.BlancoCgSourceFile;
+
+/**
+ * A source file expanded once for a target language, with named holes to be filled in later.
+ *
+ * The model of a template is an ordinary source file value object, in which the names and the types that differ by
+ * instance are given as holes (see #hole(String)). The model is expanded, formatted and resolved once at compile time,
+ * and each instance is rendered only by binding the values of the holes to the expanded text.<br>
+ * The values are inserted as they are. No import is added for a type bound to a hole, so bind a type that needs no
+ * import or a fully qualified name. In the directory part of the output path, the package separators of a value (dots,
+ * or backslashes for PHP) are replaced with slashes, so that a package name can be bound. Bind a namespace of PHP
+ * without the leading backslash.<br>
+ * Kotlin is not supported, since ktfmt wraps the lines depending on the length of the names, so that a value longer or
+ * shorter than its hole would be formatted differently from a fresh expansion.<br>
+ * A compiled template is not modified afterwards, so it can be rendered by several threads.
+ */
+public class BlancoCgTemplate {
+    /**
+     * Pattern of a hole in the expanded text.
+     *
+     * A hole consists only of letters, digits and underscores, so that it is not changed by the formatters and is
+     * valid as a name in every language.
+     */
+    private static final Pattern HOLE_PATTERN = Pattern
+            .compile("BlancoCgHole_([A-Za-z0-9]+)_");
+
+    /**
+     * Pattern of a hole name.
+     */
+    private static final Pattern NAME_PATTERN = Pattern
+            .compile("[A-Za-z0-9]+");
+
+    /**
+     * Encoding of the output.
+     */
+    private final Charset fCharset;
+
+    /**
+     * The relative path of the output, separated by a slash.
+     */
+    private final BlancoCgTemplateText fPath;
+
+    /**
+     * The expanded source code.
+     */
+    private final BlancoCgTemplateText fContent;
+
+    /**
+     * The names of the holes, in the order of appearance.
+     */
+    private final List<String> fHoleNameList;
+
+    /**
+     * Constructor.
+     *
+     * @param argCharset
+     *            Encoding of the output.
+     * @param argPackageSeparator
+     *            The separator of a package name of the target language.
+     * @param argPath
+     *            The relative path of the output.
+     * @param argContent
+     *            The expanded source code.
+     */
+    private BlancoCgTemplate(final Charset argCharset,
+            final char argPackageSeparator, final String argPath,
+            final String argContent) {
+        fCharset = argCharset;
+        final int directoryEnd = argPath.lastIndexOf('/');
+        fPath = new BlancoCgTemplateText(argPath, directoryEnd,
+                argPackageSeparator);
+        fContent = new BlancoCgTemplateText(argContent, -1,
+                argPackageSeparator);
+
+        final Set<String> holeNameSet = new LinkedHashSet<String>();
+        fPath.collectHoleNames(holeNameSet);
+        fContent.collectHoleNames(holeNameSet);
+        fHoleNameList = Collections
+                .unmodifiableList(new ArrayList<String>(holeNameSet));
+    }
+
+    /**
+     * Gets the hole of the given name, to be set to a name or a type of the model of a template.
+     *
+     * @param argName
+     *            The name of the hole. Only letters and digits can be used.
+     * @return A string representing the hole.
+     */
+    public static String hole(final String argName) {
+        if (argName == null || NAME_PATTERN.matcher(argName).matches() == false) {
+            throw new IllegalArgumentException(
+                    "The name of a hole must consist only of letters and digits. ["
+                            + argName + "]");
+        }
+        return "BlancoCgHole_" + argName + "_";
+    }
+
+    /**
+     * Compiles a template by expanding the model with the transformer of the target language.
+     *
+     * The model is modified by the expansion, as with the transformers, so do not use it again.
+     *
+     * @param argTargetLang
+     *            Target language defined in BlancoCgSupportedLang.
+     * @param argSourceFile
+     *            The model of the template.
+     * @return A compiled template.
+     */
+    public static BlancoCgTemplate compile(final int argTargetLang,
+            final BlancoCgSourceFile argSourceFile) {
+        if (argSourceFile == null) {
+            throw new IllegalArgumentException(
+                    "The model of the template has been given a null value.");
+        }
+        if (argTargetLang == BlancoCgSupportedLang.KOTLIN) {
+            throw new IllegalArgumentException(
+                    "Templates are not supported in Kotlin, since ktfmt wraps the lines depending on the bound values.");
+        }
+        final Charset charset;
+        try {
+            charset = BlancoCgSourceWriter.toCharset(argSourceFile
+                    .getEncoding());
+        } catch (UnsupportedEncodingException ex) {
+            throw new IllegalArgumentException(
+                    "An unsupported encoding was specified. " + ex.toString());
+        }
+
+        final BlancoCgMemoryOutputTarget target = new BlancoCgMemoryOutputTarget();
+        if (BlancoCgTransformerFactory.transform(BlancoCgTransformerFactory
+                .getSourceTransformer(argTargetLang), argSourceFile, target) == false) {
+            throw new IllegalArgumentException(
+                    "The transformer of the language (" + argTargetLang
+                            + ") does not support templates.");
+        }
+
+        final Map<String, byte[]> fileMap = target.getFileMap();
+        if (fileMap.size() != 1) {
+            throw new IllegalArgumentException(
+                    "A template must be expanded into exactly one file, but was expanded into "
+                            + fileMap.size() + " files.");
+        }
+        final Map.Entry<String, byte[]> entry = fileMap.entrySet().iterator()
+                .next();
+        // PHP separates a namespace by a backslash, and the other languages separate a package by a dot.
+        return new BlancoCgTemplate(charset,
+                argTargetLang == BlancoCgSupportedLang.PHP ? '\\' : '.',
+                entry.getKey(), new String(entry.getValue(), charset));
+    }
+
+    /**
+     * Gets the names of the holes of this template.
+     *
+     * @return The names in the order of appearance.
+     */
+    public List<String> getHoleNameList() {
+        return fHoleNameList;
+    }
+
+    /**
+     * Gets the relative path of the output of an instance.
+     *
+     * @param argBindingMap
+     *            Map from the name of a hole to its value.
+     * @return A relative path separated by a slash.
+     */
+    public String getPath(final Map<String, String> argBindingMap) {
+        checkBindingMap(argBindingMap);
+        return fPath.render(argBindingMap);
+    }
+
+    /**
+     * Renders the source code of an instance.
+     *
+     * @param argBindingMap
+     *            Map from the name of a hole to its value.
+     * @return Source code.
+     */
+    public String render(final Map<String, String> argBindingMap) {
+        checkBindingMap(argBindingMap);
+        return fContent.render(argBindingMap);
+    }
+
+    /**
+     * Renders an instance and outputs it to the output target.
+     *
+     * @param argBindingMap
+     *            Map from the name of a hole to its value.
+     * @param argOutputTarget
+     *            An output target.
+     * @return The result of the write, defined in BlancoCgOutputTarget.
+     * @throws IOException
+     *             If an I/O exception has occurred.
+     */
+    public int write(final Map<String, String> argBindingMap,
+            final BlancoCgOutputTarget argOutputTarget) throws IOException {
+        if (argOutputTarget == null) {
+            throw new IllegalArgumentException(
+                    "An output target was given as null. Aborts the process.");
+        }
+        checkBindingMap(argBindingMap);
+        return argOutputTarget.write(fPath.render(argBindingMap), fContent
+                .render(argBindingMap).getBytes(fCharset));
+    }
+
+    /**
+     * Checks that the binding map binds exactly the holes of this template.
+     *
+     * @param argBindingMap
+     *            Map from the name of a hole to its value.
+     */
+    private void checkBindingMap(final Map<String, String> argBindingMap) {
+        if (argBindingMap == null) {
+            throw new IllegalArgumentException(
+                    "The binding map has been given a null value.");
+        }
+        for (String name : fHoleNameList) {
+            if (argBindingMap.get(name) == null) {
+                throw new IllegalArgumentException("The hole [" + name
+                        + "] is not bound.");
+            }
+        }
+        for (String name : argBindingMap.keySet()) {
+            if (fHoleNameList.contains(name) == false) {
+                throw new IllegalArgumentException("The hole [" + name
+                        + "] does not exist in the template.");
+            }
+        }
+    }
+
+    /**
+     * A text split into the literal parts and the holes between them.
+     */
+    private static class BlancoCgTemplateText {
+        /**
+         * The literal parts. There is one more literal part than holes.
+         */
+        private final String[] fLiteralArray;
+
+        /**
+         * The names of the holes.
+         */
+        private final String[] fHoleArray;
+
+        /**
+         * Whether each hole is in the directory part of a path.
+         */
+        private final boolean[] fDirectoryArray;
+
+        /**
+         * The separator of a package name, replaced with a slash in the directory part of a path.
+         */
+        private final char fPackageSeparator;
+
+        /**
+         * The total length of the literal parts.
+         */
+        private final int fLiteralLength;
+
+        /**
+         * Constructor.
+         *
+         * @param argText
+         *            The expanded text.
+         * @param argDirectoryEnd
+         *            The index of the end of the directory part of a path, or -1 if the text is not a path.
+         * @param argPackageSeparator
+         *            The separator of a package name.
+         */
+        BlancoCgTemplateText(final String argText, final int argDirectoryEnd,
+                final char argPackageSeparator) {
+            fPackageSeparator = argPackageSeparator;
+            final List<String> literalList = new ArrayList<String>();
+            final List<String> holeList = new ArrayList<String>();
+            final List<Boolean> directoryList = new ArrayList<Boolean>();
+            final Matcher matcher = HOLE_PATTERN.matcher(argText);
+            int start = 0;
+            while (matcher.find()) {
+                literalList.add(argText.substring(start, matcher.start()));
+                holeList.add(matcher.group(1));
+                directoryList.add(matcher.start() < argDirectoryEnd);
+                start = matcher.end();
+            }
+            literalList.add(argText.substring(start));
+
+            fLiteralArray = literalList.toArray(new String[literalList.size()]);
+            fHoleArray = holeList.toArray(new String[holeList.size()]);
+            fDirectoryArray = new boolean[directoryList.size()];
+            for (int index = 0; index < fDirectoryArray.length; index++) {
+                fDirectoryArray[index] = directoryList.get(index);
+            }
+            int literalLength = 0;
+            for (String literal : fLiteralArray) {
+                literalLength += literal.length();
+            }
+            fLiteralLength = literalLength;
+        }
+
+        /**
+         * Adds the names of the holes to the given set.
+         *
+         * @param argHoleNameSet
+         *            A set of names.
+         */
+        void collectHoleNames(final Set<String> argHoleNameSet) {
+            for (String hole : fHoleArray) {
+                argHoleNameSet.add(hole);
+            }
+        }
+
+        /**
+         * Renders the text by binding the values to the holes.
+         *
+         * @param argBindingMap
+         *            Map from the name of a hole to its value. Every hole must be bound.
+         * @return The rendered text.
+         */
+        String render(final Map<String, String> argBindingMap) {
+            final StringBuilder buf = new StringBuilder(fLiteralLength
+                    + fHoleArray.length * 16);
+            buf.append(fLiteralArray[0]);
+            for (int index = 0; index < fHoleArray.length; index++) {
+                final String value = argBindingMap.get(fHoleArray[index]);
+                if (fDirectoryArray[index]) {
+                    buf.append(value.replace(fPackageSeparator, '/'));
+                } else {
+                    buf.append(value);
+                }
+                buf.append(fLiteralArray[index + 1]);
+            }
+            return buf.toString();
+        }
+    }
+}
@@ -24,13 +24,6 @@
  */
 package blanco.cg.transformer;
 
-import blanco.cg.valueobject.BlancoCgSourceFile;
-import blanco.commons.util.BlancoFileUtil;
-import blanco.commons.util.BlancoStringUtil;
-
-import java.io.*;
-import java.util.List;
-
 /**
  * A Java/C#.net-style abstract transformer.
  *
@@ -38,11 +31,6 @@ import java.util.List;
  */
 public abstract class AbstractBlancoCgJavaStyleTransformer extends
         AbstractBlancoCgTransformer {
-    /**
-     * Whether to run in debug mode.
-     */
-    private static final boolean IS_DEBUG = false;
-
     /**
      * Number of tabs.
      */
@@ -57,119 +45,7 @@ public abstract class AbstractBlancoCgJavaStyleTransformer extends
     }
 
     /**
-     * Converts the source file value object to Java source code and outputs it to the destination directory.
-     *
-     * Considers the package structure as a directory structure in this API.
-     *
-     * @param argSourceFile
-     *            Source file value object.
-     * @param outputDirectory
-     *            An output destination root directory.
-     */
-    public void transform(final BlancoCgSourceFile argSourceFile,
-            final File outputDirectory) {
-        if (argSourceFile == null) {
-            throw new IllegalArgumentException("Source file was given as null. Aborts the process.");
-        }
-        if (outputDirectory == null) {
-            throw new IllegalArgumentException(
-                    "An output destination root directory was given as null. Aborts the process.");
-        }
-
-        if (outputDirectory.exists() == false) {
-            if (outputDirectory.mkdirs() == false) {
-                throw new IllegalArgumentException("An output destination root directory ["
-                        + outputDirectory.getAbsolutePath()
-                        + "] does not exist, so we tried to create it, but failed. Aborts the process.");
-            }
-        }
-        if (outputDirectory.isDirectory() == false) {
-            throw new IllegalArgumentException("A file [" + outputDirectory.getAbsolutePath()
-                + "] that is not a directory was given as the output root directory. Aborts the process.");
-        }
-
-        if (argSourceFile.getName() == null) {
-            // Since the file name has not been determined, derives it from the class or interface name.
-            decideFilenameFromClassOrInterfaceName(argSourceFile);
-        }
-
-        try {
-            // Converts a package name to a directory name.
-            String strSubdirectory = BlancoStringUtil.replaceAll(
-                    BlancoStringUtil.null2Blank(argSourceFile.getPackage()),
-                    '.', '/');
-            if (strSubdirectory.length() > 0) {
-                // Adds a slash only if subdirectories exist.
-                strSubdirectory = "/" + strSubdirectory;
-            }
-
-            final File targetPackageDirectory = new File(outputDirectory
-                    .getAbsolutePath()
-                    + strSubdirectory);
-            if (targetPackageDirectory.exists() == false) {
-                if (targetPackageDirectory.mkdirs() == false) {
-                    throw new IllegalArgumentException("Failed to generate the output destination package directory ["
-                            + targetPackageDirectory.getAbsolutePath() + "].");
-                }
-            }
-
-            // Finalizes the output destination file.
-            final File fileTarget = new File(targetPackageDirectory
-                    .getAbsolutePath()
-                    + "/" + argSourceFile.getName() + getSourceFileExt());
-
-            // Performs the actual source code output process.
-            final ByteArrayOutputStream outStream = new ByteArrayOutputStream();
-
-            // Feature to specify encoding for auto-generated source code.
-            OutputStreamWriter streamWriter = null;
-            if (BlancoStringUtil.null2Blank(argSourceFile.getEncoding())
-                    .length() == 0) {
-                streamWriter = new OutputStreamWriter(outStream);
-            } else {
-                streamWriter = new OutputStreamWriter(outStream, argSourceFile
-                        .getEncoding());
-            }
-
-            final BufferedWriter writer = new BufferedWriter(streamWriter);
-            try {
-                transform(argSourceFile, writer);
-                writer.flush();
-                outStream.flush();
-
-                switch (BlancoFileUtil.bytes2FileIfNecessary(outStream
-                        .toByteArray(), fileTarget)) {
-                case 0:
-                    if (IS_DEBUG) {
-                        // Outputs "skip" to stdout only when debugging.
-                        System.out.println(CMDLINE_PREFIX + "skip  : "
-                                + fileTarget.getAbsolutePath());
-                    }
-                    break;
-                case 1:
-                    System.out.println(CMDLINE_PREFIX + "create: "
-                            + fileTarget.getAbsolutePath());
-                    break;
-                case 2:
-                    System.out.println(CMDLINE_PREFIX + "update: "
-                            + fileTarget.getAbsolutePath());
-                    break;
-                }
-            } finally {
-                // An instance of ByteArrayOutputStream is automatically closed when the writer is closed, due to the stream chain mechanism.
-
-                if (writer != null) {
-                    writer.close();
-                }
-            }
-        } catch (IOException ex) {
-            throw new IllegalArgumentException("An exception occurred in the process of outputting the source code."
-                    + ex.toString());
-        }
-    }
-
-    /**
-     * Formats the source code list.
+     * Creates a formatter of the source code list.
      *
      * Performs formatting for Java and C#.NET.
      *
@@ -177,21 +53,22 @@ public abstract class AbstractBlancoCgJavaStyleTransformer extends
      * Note that "{" and "}" have a special meaning in this process. If a comment is added at the end of a line, the expected behavior will not be achieved.<br>
      * TODO: Formatting, such as adding curly brackets to the end of a statement, is not yet implemented.
      *
-     * @param argSourceLines
-     *            A source code line list.
+     * @return A formatter of source code lines.
      */
-    protected void formatSource(final List<java.lang.String> argSourceLines) {
-        int sourceIndent = 0;
-        int curlyIndented = 0;
-        int roundIndented = 0;
-        for (int index = 0; index < argSourceLines.size(); index++) {
-            String strLine = argSourceLines.get(index);
-            // Spaces before and after are removed beforehand.
-            strLine = strLine.trim();
+    protected SourceLineFormatter createSourceLineFormatter() {
+        return new SourceLineFormatter() {
+            private int sourceIndent = 0;
+            private int curlyIndented = 0;
+            private int roundIndented = 0;
+
+            public String formatLine(final String argLine) {
+                // Spaces before and after are removed beforehand.
+                String strLine = argLine.trim();
+                if (strLine.length() == 0) {
+                    // Blank line.
+                    return argLine;
+                }
 
-            if (strLine.length() == 0) {
-                // Blank line.
-            } else {
                 boolean isBeginIndent = false;
                 boolean isEndIndent = false;
                 boolean isBeginDoubleIndent = false;
@@ -253,7 +130,7 @@ public abstract class AbstractBlancoCgJavaStyleTransformer extends
 
                 StringBuffer indentWidth = new StringBuffer();
                 // Determines the indentation width. The default is 4 tabs.
-                for (int width = 0; width < this.tabs; width++) {
+                for (int width = 0; width < tabs; width++) {
                     indentWidth.append(" ");
                 }
 
@@ -269,9 +146,8 @@ public abstract class AbstractBlancoCgJavaStyleTransformer extends
                     sourceIndent += 2;
                 }
 
-                // Refreshes the list with the updated line image.
-                argSourceLines.set(index, strLine);
+                return strLine;
             }
-        }
+        };
     }
 }
@@ -25,7 +25,10 @@
 package blanco.cg.transformer;
 
 import java.io.BufferedWriter;
+import java.io.File;
 import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.Iterator;
 import java.util.List;
 
 import blanco.cg.BlancoCgTransformer;
@@ -33,6 +36,8 @@ import blanco.cg.valueobject.BlancoCgClass;
 import blanco.cg.valueobject.BlancoCgEnum;
 import blanco.cg.valueobject.BlancoCgInterface;
 import blanco.cg.valueobject.BlancoCgSourceFile;
+import blanco.cg.valueobject.BlancoCgVerbatimFile;
+import blanco.commons.util.BlancoStringUtil;
 
 /**
  * This is an abstract transformer that spans programming language type.
@@ -52,6 +57,136 @@ abstract class AbstractBlancoCgTransformer implements BlancoCgTransformer {
      */
     protected abstract String getSourceFileExt();
 
+    /**
+     * Converts the source file value object to source code and outputs it to the destination directory.
+     *
+     * Considers the package structure as a directory structure in this API.
+     *
+     * @param argSourceFile
+     *            Source file value object.
+     * @param outputDirectory
+     *            An output destination root directory.
+     */
+    public void transform(final BlancoCgSourceFile argSourceFile,
+            final File outputDirectory) {
+        if (argSourceFile == null) {
+            throw new IllegalArgumentException("Source file was given as null. Aborts the process.");
+        }
+        transform(argSourceFile, new BlancoCgFileOutputTarget(outputDirectory));
+    }
+
+    /**
+     * Converts the source file value object to source code and outputs it to the output target.
+     *
+     * Considers the package structure as a directory structure in this API. The relative path given to the output
+     * target is made of the directory by getSourceFileDirectory, the file name and getSourceFileExt.
+     *
+     * @param argSourceFile
+     *            Source file value object.
+     * @param argOutputTarget
+     *            An output target.
+     */
+    public void transform(final BlancoCgSourceFile argSourceFile,
+            final BlancoCgOutputTarget argOutputTarget) {
+        if (argSourceFile == null) {
+            throw new IllegalArgumentException("Source file was given as null. Aborts the process.");
+        }
+        if (argOutputTarget == null) {
+            throw new IllegalArgumentException(
+                    "An output target was given as null. Aborts the process.");
+        }
+
+        if (argSourceFile.getName() == null) {
+            // Since the file name has not been determined, derives it from the class or interface name.
+            decideFilenameFromClassOrInterfaceName(argSourceFile);
+        }
+
+        try {
+            String strPath = getSourceFileDirectory(argSourceFile);
+            if (strPath.length() > 0) {
+                // Adds a slash only if subdirectories exist.
+                strPath += "/";
+            }
+            strPath += argSourceFile.getName() + getSourceFileExt();
+
+            // Performs the actual source code output process.
+            // Above the threshold, the content is spilled to a temporary file, so that a huge file is not held on the heap.
+            final BlancoCgSpillOutputStream outStream = new BlancoCgSpillOutputStream(
+                    BlancoCgSpillOutputStream.getThreshold());
+            final int result;
+            try {
+                // Feature to specify encoding for auto-generated source code.
+                // Pre-formatted files are copied into the stream without being decoded.
+                final BlancoCgSourceWriter writer = new BlancoCgSourceWriter(
+                        outStream, argSourceFile.getEncoding());
+                try {
+                    transform(argSourceFile, writer);
+                    writer.flush();
+                    outStream.flush();
+                } finally {
+                    // The stream is also closed when the writer is closed, due to the stream chain mechanism.
+                    writer.close();
+                }
+
+                if (outStream.isSpilled()) {
+                    result = argOutputTarget.write(strPath, outStream);
+                } else {
+                    result = argOutputTarget.write(strPath,
+                            outStream.toByteArray());
+                }
+            } finally {
+                outStream.delete();
+            }
+
+            switch (result) {
+            case BlancoCgOutputTarget.SKIP:
+                if (isDebug()) {
+                    // Reports "skip" only when debugging.
+                    argOutputTarget.report(CMDLINE_PREFIX + "skip  : "
+                            + argOutputTarget.getLocation(strPath));
+                }
+                break;
+            case BlancoCgOutputTarget.CREATE:
+                argOutputTarget.report(CMDLINE_PREFIX + "create: "
+                        + argOutputTarget.getLocation(strPath));
+                break;
+            case BlancoCgOutputTarget.UPDATE:
+                argOutputTarget.report(CMDLINE_PREFIX + "update: "
+                        + argOutputTarget.getLocation(strPath));
+                break;
+            }
+        } catch (IOException ex) {
+            throw new IllegalArgumentException("An exception occurred in the process of outputting the source code."
+                    + ex.toString());
+        }
+    }
+
+    /**
+     * Gets the directory of the source file relative to the output destination root directory.
+     *
+     * Converts the package name to a directory name.
+     *
+     * @param argSourceFile
+     *            Source file value object.
+     * @return A directory separated by a slash, or a zero-length string if the source file has no package.
+     */
+    protected String getSourceFileDirectory(
+            final BlancoCgSourceFile argSourceFile) {
+        return BlancoStringUtil.replaceAll(BlancoStringUtil
+                .null2Blank(argSourceFile.getPackage()), '.', '/');
+    }
+
+    /**
+     * Whether to run in debug mode.
+     *
+     * In debug mode, source files that were not changed are also displayed.
+     *
+     * @return True if debug mode.
+     */
+    protected boolean isDebug() {
+        return false;
+    }
+
     /**
      * Derives the file name from the class or interface name.
      *
@@ -105,6 +240,77 @@ abstract class AbstractBlancoCgTransformer implements BlancoCgTransformer {
         argSourceFile.setName(className);
     }
 
+    /**
+     * Creates a formatter that formats the source code one line at a time.
+     *
+     * The formatter holds the state of indentation, so a new instance must be created for each source file.
+     *
+     * @return A formatter of source code lines.
+     */
+    protected abstract SourceLineFormatter createSourceLineFormatter();
+
+    /**
+     * Formats the source code list.
+     *
+     * Lazy line sources contained in the list are consumed and expanded here.
+     *
+     * @param argSourceLines
+     *            A source code line list.
+     */
+    protected void formatSource(final List<java.lang.String> argSourceLines) {
+        BlancoCgSourceLineList.materialize(argSourceLines);
+
+        final SourceLineFormatter formatter = createSourceLineFormatter();
+        for (int index = 0; index < argSourceLines.size(); index++) {
+            // Refreshes the list with the updated line image.
+            argSourceLines.set(index, formatter.formatLine(argSourceLines
+                    .get(index)));
+        }
+    }
+
+    /**
+     * Formats the source code and outputs it to the writer.
+     *
+     * This has the same result as calling formatSource and source2Writer in order, but each line is formatted just before it is output.<br>
+     * Lazy line sources contained in the list are consumed only here, so their lines are never held in the list.<br>
+     * Pre-formatted files contained in the list are copied to the writer as they are, without being formatted.
+     *
+     * @param argSourceLines
+     *            Source code line list.
+     * @param writer
+     *            Output destination writer.
+     * @throws IOException
+     *             If an I/O exception occurs.
+     */
+    protected void formatSource2Writer(
+            final List<java.lang.String> argSourceLines,
+            final BufferedWriter writer) throws IOException {
+        final SourceLineFormatter formatter = createSourceLineFormatter();
+        final SourceLineWriter lineWriter = new SourceLineWriter(writer);
+        final BlancoCgSourceLineList lineList = (argSourceLines instanceof BlancoCgSourceLineList) ? (BlancoCgSourceLineList) argSourceLines
+                : null;
+        for (int index = 0; index < argSourceLines.size(); index++) {
+            final String line = argSourceLines.get(index);
+            final BlancoCgVerbatimFile verbatimFile = (lineList == null) ? null
+                    : lineList.getVerbatimFile(line);
+            if (verbatimFile != null) {
+                lineWriter.writeVerbatim(verbatimFile);
+                continue;
+            }
+            final Iterator<java.lang.String> lineSource = (lineList == null) ? null
+                    : lineList.getLineSource(line);
+            if (lineSource == null) {
+                lineWriter.write(formatter.formatLine(line));
+                continue;
+            }
+
+            // Consumes the lazy line source here.
+            while (lineSource.hasNext()) {
+                lineWriter.write(formatter.formatLine(lineSource.next()));
+            }
+        }
+    }
+
     /**
      * Outputs the source code to the writer.
      *
@@ -119,54 +325,223 @@ abstract class AbstractBlancoCgTransformer implements BlancoCgTransformer {
      */
     protected void source2Writer(final List<java.lang.String> argSourceLines,
             final BufferedWriter writer) throws IOException {
-        boolean isPastLineBlank = false;
-        boolean isPastBlockStart = false;
-        String lineSeparator = System.getProperty("line.separator");
-        /*
-         * for debugging
-         */
-        String lineSeparatorMark = "other, use system default.";
-        if ("\n".equals(lineSeparator)) {
-            lineSeparatorMark = "LF";
-        } else if ("\r\n".equals(lineSeparator)) {
-            lineSeparatorMark = "CRLF";
-        } else if ("\r".equals(lineSeparator)) {
-            lineSeparatorMark = "CR";
-        } else {
-            lineSeparator = System.lineSeparator();
-        }
-//        System.out.println(CMDLINE_PREFIX + "lineSeparator = " + lineSeparatorMark);
+        final SourceLineWriter lineWriter = new SourceLineWriter(writer);
         for (int index = 0; index < argSourceLines.size(); index++) {
-            final String line = argSourceLines.get(index);
+            lineWriter.write(argSourceLines.get(index));
+        }
+    }
 
+    /**
+     * A formatter that formats the source code one line at a time.
+     */
+    protected interface SourceLineFormatter {
+        /**
+         * Formats a single line.
+         *
+         * A blank line is returned as it is.
+         *
+         * @param argLine
+         *            An unformatted line.
+         * @return A formatted line.
+         */
+        String formatLine(final String argLine);
+    }
+
+    /**
+     * A formatter that indents lines by the block keywords found by a classifier.
+     *
+     * Used by the Python and Ruby styles, whose chains of keywords are long. The indentation is 4 spaces per level.
+     */
+    protected static class KeywordIndentFormatter implements SourceLineFormatter {
+        /**
+         * Indent prefixes precomputed for each level.
+         */
+        private static final String[] INDENTS = new String[32];
+
+        static {
+            INDENTS[0] = "";
+            for (int level = 1; level < INDENTS.length; level++) {
+                INDENTS[level] = INDENTS[level - 1] + "    ";
+            }
+        }
+
+        /**
+         * Classifier of the lines.
+         */
+        private final BlancoCgLineClassifier fClassifier;
+
+        /**
+         * Current indent level.
+         */
+        private int fSourceIndent = 0;
+
+        /**
+         * Constructor.
+         *
+         * @param argClassifier
+         *            Classifier of the lines.
+         */
+        KeywordIndentFormatter(final BlancoCgLineClassifier argClassifier) {
+            fClassifier = argClassifier;
+        }
+
+        public String formatLine(final String argLine) {
+            // Spaces before and after are removed beforehand.
+            final String strLine = argLine.trim();
+            if (strLine.length() == 0) {
+                // Blank line.
+                return argLine;
+            }
+
+            final int action = fClassifier.classify(strLine);
+            if ((action & BlancoCgLineClassifier.END) != 0) {
+                // Reflects one indent per flag.
+                fSourceIndent--;
+            }
+            final String result = getIndent(fSourceIndent) + strLine;
+            if ((action & BlancoCgLineClassifier.BEGIN) != 0) {
+                fSourceIndent++;
+            }
+            return result;
+        }
+
+        /**
+         * Gets the indent prefix of a level.
+         *
+         * @param argLevel
+         *            Indent level. A negative level is treated as 0.
+         * @return Indent prefix.
+         */
+        private static String getIndent(final int argLevel) {
+            if (argLevel <= 0) {
+                return "";
+            }
+            if (argLevel < INDENTS.length) {
+                return INDENTS[argLevel];
+            }
+            final StringBuilder buf = new StringBuilder(argLevel * 4);
+            for (int level = 0; level < argLevel; level++) {
+                buf.append("    ");
+            }
+            return buf.toString();
+        }
+    }
+
+    /**
+     * Outputs formatted lines to the writer one by one.
+     */
+    private static class SourceLineWriter {
+        /**
+         * Output destination writer.
+         */
+        private final BufferedWriter fWriter;
+
+        /**
+         * Line separator.
+         */
+        private String fLineSeparator = System.getProperty("line.separator");
+
+        /**
+         * Whether the last line was blank.
+         */
+        private boolean fIsPastLineBlank = false;
+
+        /**
+         * Whether the last line was the start of a block.
+         */
+        private boolean fIsPastBlockStart = false;
+
+        /**
+         * Constructor.
+         *
+         * @param argWriter
+         *            Output destination writer.
+         */
+        SourceLineWriter(final BufferedWriter argWriter) {
+            fWriter = argWriter;
+            /*
+             * for debugging
+             */
+            String lineSeparatorMark = "other, use system default.";
+            if ("\n".equals(fLineSeparator)) {
+                lineSeparatorMark = "LF";
+            } else if ("\r\n".equals(fLineSeparator)) {
+                lineSeparatorMark = "CRLF";
+            } else if ("\r".equals(fLineSeparator)) {
+                lineSeparatorMark = "CR";
+            } else {
+                fLineSeparator = System.lineSeparator();
+            }
+//            System.out.println(CMDLINE_PREFIX + "lineSeparator = " + lineSeparatorMark);
+        }
+
+        /**
+         * Outputs a single line.
+         *
+         * @param line
+         *            A formatted line.
+         * @throws IOException
+         *             If an I/O exception occurs.
+         */
+        void write(final String line) throws IOException {
             // Suppresses the output of consecutive blank lines.
             if (line.length() == 0) {
-                if (isPastLineBlank) {
+                if (fIsPastLineBlank) {
                     // It passes the output this time since it is a blank line again.
-                    continue;
+                    return;
                 }
                 // This time it was a blank line.
-                isPastLineBlank = true;
+                fIsPastLineBlank = true;
             } else {
                 // This time it is not a blank line.
-                isPastLineBlank = false;
+                fIsPastLineBlank = false;
             }
 
-            if (isPastBlockStart && line.length() == 0) {
+            if (fIsPastBlockStart && line.length() == 0) {
                 // If the last time was the start of a block and this time is a blank line, it passes the output.
-                continue;
+                return;
             }
 
             if (line.endsWith("{")) {
-                isPastBlockStart = true;
+                fIsPastBlockStart = true;
             } else {
-                isPastBlockStart = false;
+                fIsPastBlockStart = false;
             }
 
             // Outputs a single line.
-            writer.write(line);
-//            writer.newLine();
-            writer.write(lineSeparator);
+            fWriter.write(line);
+//            fWriter.newLine();
+            fWriter.write(fLineSeparator);
+        }
+
+        /**
+         * Copies a pre-formatted file as it is.
+         *
+         * @param argVerbatimFile
+         *            A pre-formatted file.
+         * @throws IOException
+         *             If an I/O exception occurs.
+         */
+        void writeVerbatim(final BlancoCgVerbatimFile argVerbatimFile)
+                throws IOException {
+            boolean isLineTerminated = false;
+            if (fWriter instanceof BlancoCgSourceWriter) {
+                isLineTerminated = ((BlancoCgSourceWriter) fWriter)
+                        .writeVerbatim(argVerbatimFile);
+            } else {
+                // The underlying byte stream is unknown, so copies it as characters.
+                isLineTerminated = BlancoCgSourceWriter.copyVerbatim(
+                        argVerbatimFile, BlancoCgSourceWriter
+                                .getVerbatimCharset(argVerbatimFile, Charset
+                                        .defaultCharset()), fWriter);
+            }
+            if (isLineTerminated == false) {
+                fWriter.write(fLineSeparator);
+            }
+
+            // The content of the file is not inspected, so the following lines are treated as a new start.
+            fIsPastLineBlank = false;
+            fIsPastBlockStart = false;
         }
     }
 }
@@ -0,0 +1,97 @@
+/*
+ * blanco Framework
+ * Copyright (C) 2004-2017 IGA Tosiki
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ */
+/*
+ * Copyright 2017 Toshiki Iga
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package blanco.cg.transformer;
+
+import java.io.File;
+import java.io.IOException;
+
+import blanco.commons.util.BlancoFileUtil;
+
+/**
+ * An output target that writes source files under a directory of java.io.File.
+ *
+ * A file is rewritten only if its content has changed. This is the output target used by transform(sourceFile, File).
+ */
+public class BlancoCgFileOutputTarget implements BlancoCgOutputTarget {
+    /**
+     * An output destination root directory.
+     */
+    private final File fOutputDirectory;
+
+    /**
+     * Constructor.
+     *
+     * @param argOutputDirectory
+     *            An output destination root directory. It is created if it does not exist.
+     */
+    public BlancoCgFileOutputTarget(final File argOutputDirectory) {
+        if (argOutputDirectory == null) {
+            throw new IllegalArgumentException(
+                    "An output destination root directory was given as null. Aborts the process.");
+        }
+        if (argOutputDirectory.exists() == false) {
+            // Another thread or process may have created it in the meantime.
+            if (argOutputDirectory.mkdirs() == false
+                    && argOutputDirectory.isDirectory() == false) {
+                throw new IllegalArgumentException("An output destination root directory ["
+                        + argOutputDirectory.getAbsolutePath()
+                        + "] does not exist, so we tried to create it, but failed. Aborts the process.");
+            }
+        }
+        if (argOutputDirectory.isDirectory() == false) {
+            throw new IllegalArgumentException("A file [" + argOutputDirectory.getAbsolutePath()
+                    + "] that is not a directory was given as the output root directory. Aborts the process.");
+        }
+        fOutputDirectory = argOutputDirectory;
+    }
+
+    public int write(final String argPath, final byte[] argContent)
+            throws IOException {
+        final File fileTarget = new File(getLocation(argPath));
+        final File targetPackageDirectory = fileTarget.getParentFile();
+        if (targetPackageDirectory.exists() == false) {
+            if (targetPackageDirectory.mkdirs() == false
+                    && targetPackageDirectory.isDirectory() == false) {
+                throw new IllegalArgumentException("Failed to generate the output destination package directory ["
+                        + targetPackageDirectory.getAbsolutePath() + "].");
+            }
+        }
+        return BlancoFileUtil.bytes2FileIfNecessary(argContent, fileTarget);
+    }
+
+    @Override
+    public int write(final String argPath,
+            final BlancoCgSpillOutputStream argContent) throws IOException {
+        if (argContent.isSpilled() == false) {
+            return write(argPath, argContent.toByteArray());
+        }
+        return new BlancoCgPathOutputTarget(fOutputDirectory.toPath()).write(
+                argPath, argContent);
+    }
+
+    public String getLocation(final String argPath) {
+        return fOutputDirectory.getAbsolutePath() + "/" + argPath;
+    }
+}
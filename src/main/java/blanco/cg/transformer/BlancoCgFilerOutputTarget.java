@@ -0,0 +1,339 @@
+/*
+ * blanco Framework
+ * Copyright (C) 2004-2017 IGA Tosiki
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ */
+/*
+ * Copyright 2017 Toshiki Iga
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package blanco.cg.transformer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.UnsupportedEncodingException;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.Element;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * An output target that writes source files through the Filer of an annotation processor.
+ *
+ * This lets an annotation processor drive the transformers, so that the source code is generated inside the
+ * compilation, and the generated Java source files are compiled in the same run.<br>
+ * A Java source file is created as a source file of the Filer, with the originating elements given for incremental
+ * compilation. Any other file is created as a resource in SOURCE_OUTPUT. The content is decoded with the encoding of
+ * the models and written through openWriter(), so the Filer encodes it with the encoding of the compilation.<br>
+ * kapt compiles the Kotlin source files in the directory given by the option "kapt.kotlin.generated", so a Kotlin
+ * source file is written there as it is if the option is given. Such a file bypasses the Filer: no originating element
+ * is recorded for it, and incremental annotation processing does not know which elements it depends on. Kotlin
+ * reads source files as UTF-8, so a Kotlin source file is always written in UTF-8, whatever the encoding of the
+ * models.<br>
+ * The Filer does not allow a file to be created twice in a compilation, so every write is reported as CREATE. Only if
+ * the option "blanco.cg.verbose" is true, each report is given to the Messager of the annotation processor as a note.
+ * Otherwise the reports are counted, and reportSummary() gives them as a single note, e.g. once per round.
+ */
+public class BlancoCgFilerOutputTarget implements BlancoCgOutputTarget {
+    /**
+     * The option of kapt giving the output directory of Kotlin source files.
+     */
+    public static final String KAPT_KOTLIN_GENERATED_OPTION = "kapt.kotlin.generated";
+
+    /**
+     * The option of the annotation processor to report every file written as a note.
+     */
+    public static final String VERBOSE_OPTION = "blanco.cg.verbose";
+
+    /**
+     * The Filer of the annotation processor.
+     */
+    private final Filer fFiler;
+
+    /**
+     * The Messager of the annotation processor.
+     */
+    private final Messager fMessager;
+
+    /**
+     * The encoding of the source files given by the models.
+     */
+    private final Charset fCharset;
+
+    /**
+     * The elements that caused the generation.
+     */
+    private final Element[] fOriginatingElements;
+
+    /**
+     * An output target of Kotlin source files, or null if they are created as resources.
+     */
+    private final BlancoCgOutputTarget fKotlinTarget;
+
+    /**
+     * Whether every report is given to the Messager.
+     */
+    private final boolean fIsVerbose;
+
+    /**
+     * Number of the reports not given to the Messager yet.
+     */
+    private int fReportCount = 0;
+
+    /**
+     * Constructor.
+     *
+     * @param argProcessingEnv
+     *            The processing environment of the annotation processor.
+     * @param argEncoding
+     *            The encoding of the source files, i.e. BlancoCgSourceFile.encoding of the models. If null or blank is
+     *            given, the default charset of the platform is used, as the transformers do.
+     * @param argOriginatingElements
+     *            The elements that caused the generation, such as the annotated types. Null is treated as none.
+     * @throws UnsupportedEncodingException
+     *             If the encoding is not supported.
+     */
+    public BlancoCgFilerOutputTarget(
+            final ProcessingEnvironment argProcessingEnv,
+            final String argEncoding, final Element... argOriginatingElements)
+            throws UnsupportedEncodingException {
+        if (argProcessingEnv == null) {
+            throw new IllegalArgumentException(
+                    "A processing environment was given as null. Aborts the process.");
+        }
+        fFiler = argProcessingEnv.getFiler();
+        fMessager = argProcessingEnv.getMessager();
+        fCharset = BlancoCgSourceWriter.toCharset(argEncoding);
+        fOriginatingElements = (argOriginatingElements == null) ? new Element[0]
+                : argOriginatingElements.clone();
+
+        final String kotlinDirectory = argProcessingEnv.getOptions().get(
+                KAPT_KOTLIN_GENERATED_OPTION);
+        if (kotlinDirectory == null) {
+            fKotlinTarget = null;
+        } else {
+            fKotlinTarget = new BlancoCgPathOutputTarget(Paths
+                    .get(kotlinDirectory));
+        }
+        fIsVerbose = Boolean.parseBoolean(argProcessingEnv.getOptions().get(
+                VERBOSE_OPTION));
+    }
+
+    public int write(final String argPath, final byte[] argContent)
+            throws IOException {
+        if (argPath.endsWith(".kt")) {
+            if (fCharset.equals(StandardCharsets.UTF_8)) {
+                return writeKotlin(argPath, argContent);
+            }
+            return writeKotlin(argPath, new String(argContent, fCharset)
+                    .getBytes(StandardCharsets.UTF_8));
+        }
+        final Writer writer = createFile(argPath).openWriter();
+        try {
+            writer.write(new String(argContent, fCharset));
+        } finally {
+            writer.close();
+        }
+        return CREATE;
+    }
+
+    @Override
+    public int write(final String argPath,
+            final BlancoCgSpillOutputStream argContent) throws IOException {
+        if (argPath.endsWith(".kt")) {
+            if (fCharset.equals(StandardCharsets.UTF_8)) {
+                return writeKotlin(argPath, argContent);
+            }
+            // Converted to UTF-8 through another stream, which spills as well.
+            final BlancoCgSpillOutputStream utf8Content = new BlancoCgSpillOutputStream(
+                    BlancoCgSpillOutputStream.getThreshold());
+            try {
+                final Writer writer = new OutputStreamWriter(utf8Content,
+                        StandardCharsets.UTF_8);
+                try {
+                    copy(argContent, writer);
+                } finally {
+                    writer.close();
+                }
+                return writeKotlin(argPath, utf8Content);
+            } finally {
+                utf8Content.delete();
+            }
+        }
+        final Writer writer = createFile(argPath).openWriter();
+        try {
+            copy(argContent, writer);
+        } finally {
+            writer.close();
+        }
+        return CREATE;
+    }
+
+    public String getLocation(final String argPath) {
+        if (fKotlinTarget != null && argPath.endsWith(".kt")) {
+            return fKotlinTarget.getLocation(argPath);
+        }
+        return "filer:" + argPath;
+    }
+
+    @Override
+    public void report(final String argMessage) {
+        if (fIsVerbose) {
+            fMessager.printMessage(Diagnostic.Kind.NOTE, argMessage);
+        } else {
+            fReportCount++;
+        }
+    }
+
+    /**
+     * Gives the reports counted since the last call to the Messager as a single note.
+     *
+     * An annotation processor calls this at the end of a round. Nothing is given if no file has been written, or if
+     * every report has been given already because the option "blanco.cg.verbose" is true.
+     */
+    public void reportSummary() {
+        if (fReportCount == 0) {
+            return;
+        }
+        fMessager.printMessage(Diagnostic.Kind.NOTE,
+                AbstractBlancoCgTransformer.CMDLINE_PREFIX + fReportCount
+                        + " file(s) written through the Filer.");
+        fReportCount = 0;
+    }
+
+    /**
+     * Writes a Kotlin source file in UTF-8.
+     *
+     * @param argPath
+     *            A relative path separated by a slash.
+     * @param argContent
+     *            The content encoded in UTF-8.
+     * @return CREATE, or the result of the output target of kapt.
+     * @throws IOException
+     *             If the file cannot be written.
+     */
+    private int writeKotlin(final String argPath, final byte[] argContent)
+            throws IOException {
+        if (fKotlinTarget != null) {
+            return fKotlinTarget.write(argPath, argContent);
+        }
+        // Written as bytes, not to be encoded with the encoding of the compilation.
+        final OutputStream outStream = createFile(argPath).openOutputStream();
+        try {
+            outStream.write(argContent);
+        } finally {
+            outStream.close();
+        }
+        return CREATE;
+    }
+
+    /**
+     * Writes a Kotlin source file in UTF-8 from a stream that may be spilled.
+     *
+     * @param argPath
+     *            A relative path separated by a slash.
+     * @param argContent
+     *            The content encoded in UTF-8.
+     * @return CREATE, or the result of the output target of kapt.
+     * @throws IOException
+     *             If the file cannot be written.
+     */
+    private int writeKotlin(final String argPath,
+            final BlancoCgSpillOutputStream argContent) throws IOException {
+        if (fKotlinTarget != null) {
+            return fKotlinTarget.write(argPath, argContent);
+        }
+        final OutputStream outStream = createFile(argPath).openOutputStream();
+        try {
+            final InputStream inStream = argContent.openInputStream();
+            try {
+                final byte[] buf = new byte[8192];
+                for (int length = inStream.read(buf); length >= 0; length = inStream
+                        .read(buf)) {
+                    outStream.write(buf, 0, length);
+                }
+            } finally {
+                inStream.close();
+            }
+        } finally {
+            outStream.close();
+        }
+        return CREATE;
+    }
+
+    /**
+     * Decodes the content of a stream with the encoding of the models, and copies it to a writer.
+     *
+     * @param argContent
+     *            The content encoded with the encoding of the models.
+     * @param argWriter
+     *            A writer.
+     * @throws IOException
+     *             If the content cannot be read or written.
+     */
+    private void copy(final BlancoCgSpillOutputStream argContent,
+            final Writer argWriter) throws IOException {
+        final Reader reader = new InputStreamReader(argContent.openInputStream(),
+                fCharset);
+        try {
+            final char[] buf = new char[8192];
+            for (int length = reader.read(buf); length >= 0; length = reader
+                    .read(buf)) {
+                argWriter.write(buf, 0, length);
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Creates a file of the Filer for a relative path.
+     *
+     * @param argPath
+     *            A relative path separated by a slash.
+     * @return A file object to be written.
+     * @throws IOException
+     *             If the file cannot be created, e.g. it has already been created in this compilation.
+     */
+    private FileObject createFile(final String argPath) throws IOException {
+        final int nameStart = argPath.lastIndexOf('/') + 1;
+        final String packageName = argPath.substring(0,
+                Math.max(nameStart - 1, 0)).replace('/', '.');
+        if (argPath.endsWith(".java")) {
+            final String simpleName = argPath.substring(nameStart, argPath
+                    .length()
+                    - ".java".length());
+            return fFiler.createSourceFile(packageName.length() == 0 ? simpleName
+                    : packageName + "." + simpleName, fOriginatingElements);
+        }
+        return fFiler.createResource(StandardLocation.SOURCE_OUTPUT,
+                packageName, argPath.substring(nameStart), fOriginatingElements);
+    }
+}
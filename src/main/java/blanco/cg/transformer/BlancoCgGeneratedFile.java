@@ -0,0 +1,94 @@
+/*
+ * blanco Framework
+ * Copyright (C) 2004-2017 IGA Tosiki
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ */
+/*
+ * Copyright 2017 Toshiki Iga
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package blanco.cg.transformer;
+
+/**
+ * A source file generated by BlancoCgTransformPublisher.
+ */
+public final class BlancoCgGeneratedFile {
+    /**
+     * Relative path separated by a slash.
+     */
+    private final String fPath;
+
+    /**
+     * Language defined in BlancoCgSupportedLang.
+     */
+    private final int fLang;
+
+    /**
+     * Encoded content.
+     */
+    private final byte[] fContent;
+
+    /**
+     * Result of the write: BlancoCgOutputTarget.SKIP, CREATE or UPDATE.
+     */
+    private final int fStatus;
+
+    BlancoCgGeneratedFile(final String argPath, final int argLang,
+            final byte[] argContent, final int argStatus) {
+        fPath = argPath;
+        fLang = argLang;
+        fContent = argContent;
+        fStatus = argStatus;
+    }
+
+    /**
+     * Gets the relative path of the source file, such as "blanco/cg/Foo.java".
+     *
+     * @return Path separated by a slash.
+     */
+    public String getPath() {
+        return fPath;
+    }
+
+    /**
+     * Gets the language of the source file.
+     *
+     * @return Language defined in BlancoCgSupportedLang.
+     */
+    public int getLang() {
+        return fLang;
+    }
+
+    /**
+     * Gets the encoded content of the source file.
+     *
+     * @return Content. It must not be modified.
+     */
+    public byte[] getContent() {
+        return fContent;
+    }
+
+    /**
+     * Gets the result of writing the source file to the output target.
+     *
+     * @return BlancoCgOutputTarget.SKIP, CREATE or UPDATE. CREATE if no output target is given.
+     */
+    public int getStatus() {
+        return fStatus;
+    }
+}
@@ -0,0 +1,452 @@
+/*
+ * blanco Framework
+ * Copyright (C) 2004-2017 IGA Tosiki
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ */
+/*
+ * Copyright 2017 Toshiki Iga
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package blanco.cg.transformer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A table-driven classifier that decides whether a line opens or closes a block.
+ *
+ * The keywords of all rules are found in a single scan of the line with an Aho-Corasick automaton, which is built once per language.<br>
+ * The ordered rules are evaluated like a chain of if-else: only the first rule that matches takes effect.
+ * The additional rules take effect whenever they match, in addition to the ordered rule.
+ */
+final class BlancoCgLineClassifier {
+    /**
+     * The line opens a block. The following lines are indented.
+     */
+    static final int BEGIN = 1;
+
+    /**
+     * The line closes a block. The line itself is unindented.
+     */
+    static final int END = 2;
+
+    /**
+     * The line starts with the keyword.
+     */
+    private static final int KIND_PREFIX = 0;
+
+    /**
+     * The line is equal to the keyword.
+     */
+    private static final int KIND_EQUALS = 1;
+
+    /**
+     * The line contains the keyword.
+     */
+    private static final int KIND_CONTAINS = 2;
+
+    /**
+     * The line contains the keyword as a whole word (as \b of java.util.regex).
+     */
+    private static final int KIND_WORD = 3;
+
+    /**
+     * Number of the characters in the transition table. Keywords consist of ASCII characters only.
+     */
+    private static final int ALPHABET = 128;
+
+    /**
+     * Character class of each ASCII character. Characters not used in the keywords are class 0.
+     */
+    private final int[] fCharClass = new int[ALPHABET];
+
+    /**
+     * Number of the character classes.
+     */
+    private final int fClassCount;
+
+    /**
+     * Transition table of the automaton, including the transitions by the failure function.
+     *
+     * A state is represented by the offset of its row (state number * fClassCount), so the next state is at (state +
+     * class). The states where keywords end are numbered last.
+     */
+    private final int[] fTransition;
+
+    /**
+     * The smallest offset of the states where keywords end.
+     */
+    private final int fFirstOutput;
+
+    /**
+     * Keywords that end at each state, including those reached by the failure function. Indexed by the state number.
+     */
+    private final int[][] fOutput;
+
+    /**
+     * Length of each keyword.
+     */
+    private final int[] fKeywordLength;
+
+    /**
+     * Rules of each keyword.
+     */
+    private final Rule[][] fKeywordRules;
+
+    /**
+     * Constructor.
+     *
+     * @param argOrderedRules
+     *            Rules evaluated like a chain of if-else, in this order.
+     * @param argAdditionalRules
+     *            Rules that take effect whenever they match.
+     */
+    BlancoCgLineClassifier(final Rule[] argOrderedRules,
+            final Rule[] argAdditionalRules) {
+        // Groups the rules by keyword, keeping their priorities.
+        final Map<String, List<Rule>> keywordMap = new LinkedHashMap<String, List<Rule>>();
+        int priority = 0;
+        for (Rule rule : argOrderedRules) {
+            addRule(keywordMap, rule.withPriority(priority++));
+        }
+        for (Rule rule : argAdditionalRules) {
+            addRule(keywordMap, rule.withPriority(Rule.ADDITIONAL));
+        }
+
+        // Gives a class to each character used in the keywords, to keep the table small.
+        int classCount = 1;
+        for (String keyword : keywordMap.keySet()) {
+            for (int index = 0; index < keyword.length(); index++) {
+                if (fCharClass[keyword.charAt(index)] == 0) {
+                    fCharClass[keyword.charAt(index)] = classCount++;
+                }
+            }
+        }
+        fClassCount = classCount;
+
+        // Builds the trie of the keywords.
+        final List<int[]> gotoList = new ArrayList<int[]>();
+        final List<List<Integer>> outputList = new ArrayList<List<Integer>>();
+        gotoList.add(newRow(fClassCount));
+        outputList.add(new ArrayList<Integer>());
+        final List<String> keywordList = new ArrayList<String>(keywordMap.keySet());
+        fKeywordLength = new int[keywordList.size()];
+        fKeywordRules = new Rule[keywordList.size()][];
+        for (int keyword = 0; keyword < keywordList.size(); keyword++) {
+            final String text = keywordList.get(keyword);
+            fKeywordLength[keyword] = text.length();
+            final List<Rule> ruleList = keywordMap.get(text);
+            fKeywordRules[keyword] = ruleList.toArray(new Rule[ruleList.size()]);
+
+            int state = 0;
+            for (int index = 0; index < text.length(); index++) {
+                final int charClass = fCharClass[text.charAt(index)];
+                if (gotoList.get(state)[charClass] < 0) {
+                    gotoList.get(state)[charClass] = gotoList.size();
+                    gotoList.add(newRow(fClassCount));
+                    outputList.add(new ArrayList<Integer>());
+                }
+                state = gotoList.get(state)[charClass];
+            }
+            outputList.get(state).add(keyword);
+        }
+
+        // Completes the transitions with the failure function, in breadth-first order.
+        final int[][] table = gotoList.toArray(new int[gotoList.size()][]);
+        final int[] failure = new int[table.length];
+        final List<Integer> queue = new ArrayList<Integer>();
+        for (int charClass = 0; charClass < fClassCount; charClass++) {
+            // Class 0 never appears in the keywords, so it always goes back to the root.
+            if (table[0][charClass] < 0) {
+                table[0][charClass] = 0;
+            } else {
+                queue.add(table[0][charClass]);
+            }
+        }
+        for (int head = 0; head < queue.size(); head++) {
+            final int state = queue.get(head);
+            outputList.get(state).addAll(outputList.get(failure[state]));
+            for (int charClass = 0; charClass < fClassCount; charClass++) {
+                final int next = table[state][charClass];
+                if (next < 0) {
+                    table[state][charClass] = table[failure[state]][charClass];
+                } else {
+                    failure[next] = table[failure[state]][charClass];
+                    queue.add(next);
+                }
+            }
+        }
+
+        // Renumbers the states so that the states without output come first.
+        final int[] number = new int[table.length];
+        int stateCount = 0;
+        for (int pass = 0; pass < 2; pass++) {
+            for (int state = 0; state < table.length; state++) {
+                if (outputList.get(state).isEmpty() == (pass == 0)) {
+                    number[state] = stateCount++;
+                }
+            }
+        }
+        int firstOutput = table.length;
+        fTransition = new int[table.length * fClassCount];
+        fOutput = new int[table.length][];
+        for (int state = 0; state < table.length; state++) {
+            for (int charClass = 0; charClass < fClassCount; charClass++) {
+                fTransition[number[state] * fClassCount + charClass] = number[table[state][charClass]]
+                        * fClassCount;
+            }
+            final List<Integer> output = outputList.get(state);
+            fOutput[number[state]] = new int[output.size()];
+            for (int index = 0; index < output.size(); index++) {
+                fOutput[number[state]][index] = output.get(index);
+            }
+            if (output.isEmpty() == false) {
+                firstOutput = Math.min(firstOutput, number[state]);
+            }
+        }
+        fFirstOutput = firstOutput * fClassCount;
+    }
+
+    /**
+     * Creates a row of the transition table with no transitions.
+     *
+     * @param argClassCount
+     *            Number of the character classes.
+     * @return A row.
+     */
+    private static int[] newRow(final int argClassCount) {
+        final int[] row = new int[argClassCount];
+        Arrays.fill(row, -1);
+        return row;
+    }
+
+    /**
+     * Adds a rule to the map of keywords.
+     *
+     * @param argKeywordMap
+     *            Map from a keyword to its rules.
+     * @param argRule
+     *            A rule.
+     */
+    private static void addRule(final Map<String, List<Rule>> argKeywordMap,
+            final Rule argRule) {
+        List<Rule> ruleList = argKeywordMap.get(argRule.fKeyword);
+        if (ruleList == null) {
+            ruleList = new ArrayList<Rule>();
+            argKeywordMap.put(argRule.fKeyword, ruleList);
+        }
+        ruleList.add(argRule);
+    }
+
+    /**
+     * Classifies a line.
+     *
+     * @param argLine
+     *            A line with spaces before and after removed.
+     * @return A combination of BEGIN and END, or 0.
+     */
+    int classify(final String argLine) {
+        final int length = argLine.length();
+        int orderedPriority = Integer.MAX_VALUE;
+        int orderedAction = 0;
+        int additionalAction = 0;
+
+        final int[] transition = fTransition;
+        final int[] charClass = fCharClass;
+        final int firstOutput = fFirstOutput;
+        int state = 0;
+        for (int index = 0; index < length; index++) {
+            final char ch = argLine.charAt(index);
+            // No keyword contains a non-ASCII character.
+            state = transition[state + (ch < ALPHABET ? charClass[ch] : 0)];
+            if (state < firstOutput) {
+                continue;
+            }
+
+            for (int keyword : fOutput[state / fClassCount]) {
+                final int start = index + 1 - fKeywordLength[keyword];
+                for (Rule rule : fKeywordRules[keyword]) {
+                    if (rule.fPriority >= orderedPriority
+                            || rule.matches(argLine, start, index + 1) == false) {
+                        continue;
+                    }
+                    if (rule.fPriority == Rule.ADDITIONAL) {
+                        additionalAction |= rule.fAction;
+                    } else {
+                        orderedPriority = rule.fPriority;
+                        orderedAction = rule.fAction;
+                    }
+                }
+            }
+        }
+        return orderedAction | additionalAction;
+    }
+
+    /**
+     * Creates a rule that matches a line starting with the keyword.
+     *
+     * @param argKeyword
+     *            A keyword.
+     * @param argAction
+     *            A combination of BEGIN and END.
+     * @return A rule.
+     */
+    static Rule prefix(final String argKeyword, final int argAction) {
+        return new Rule(argKeyword, KIND_PREFIX, argAction, 0);
+    }
+
+    /**
+     * Creates a rule that matches a line equal to the keyword.
+     *
+     * @param argKeyword
+     *            A keyword.
+     * @param argAction
+     *            A combination of BEGIN and END.
+     * @return A rule.
+     */
+    static Rule equalsTo(final String argKeyword, final int argAction) {
+        return new Rule(argKeyword, KIND_EQUALS, argAction, 0);
+    }
+
+    /**
+     * Creates a rule that matches a line containing the keyword.
+     *
+     * @param argKeyword
+     *            A keyword.
+     * @param argAction
+     *            A combination of BEGIN and END.
+     * @return A rule.
+     */
+    static Rule contains(final String argKeyword, final int argAction) {
+        return new Rule(argKeyword, KIND_CONTAINS, argAction, 0);
+    }
+
+    /**
+     * Creates a rule that matches a line containing the keyword as a whole word.
+     *
+     * @param argKeyword
+     *            A keyword.
+     * @param argAction
+     *            A combination of BEGIN and END.
+     * @return A rule.
+     */
+    static Rule word(final String argKeyword, final int argAction) {
+        return new Rule(argKeyword, KIND_WORD, argAction, 0);
+    }
+
+    /**
+     * A rule of the classifier.
+     */
+    static final class Rule {
+        /**
+         * Priority of the additional rules.
+         */
+        private static final int ADDITIONAL = -1;
+
+        /**
+         * Keyword.
+         */
+        private final String fKeyword;
+
+        /**
+         * How the keyword matches the line.
+         */
+        private final int fKind;
+
+        /**
+         * A combination of BEGIN and END.
+         */
+        private final int fAction;
+
+        /**
+         * Position in the ordered rules, or ADDITIONAL.
+         */
+        private final int fPriority;
+
+        Rule(final String argKeyword, final int argKind, final int argAction,
+                final int argPriority) {
+            if (argKeyword == null || argKeyword.length() == 0) {
+                throw new IllegalArgumentException(
+                        "BlancoCgLineClassifier: a keyword must not be empty.");
+            }
+            for (int index = 0; index < argKeyword.length(); index++) {
+                if (argKeyword.charAt(index) >= ALPHABET) {
+                    throw new IllegalArgumentException(
+                            "BlancoCgLineClassifier: a keyword must consist of ASCII characters: "
+                                    + argKeyword);
+                }
+            }
+            fKeyword = argKeyword;
+            fKind = argKind;
+            fAction = argAction;
+            fPriority = argPriority;
+        }
+
+        /**
+         * Creates a copy of this rule with the given priority.
+         *
+         * @param argPriority
+         *            Priority.
+         * @return A rule.
+         */
+        Rule withPriority(final int argPriority) {
+            return new Rule(fKeyword, fKind, fAction, argPriority);
+        }
+
+        /**
+         * Checks whether the keyword found in the line satisfies this rule.
+         *
+         * @param argLine
+         *            A line.
+         * @param argStart
+         *            Start position of the keyword.
+         * @param argEnd
+         *            End position (exclusive) of the keyword.
+         * @return True if matches.
+         */
+        boolean matches(final String argLine, final int argStart,
+                final int argEnd) {
+            switch (fKind) {
+            case KIND_PREFIX:
+                return argStart == 0;
+            case KIND_EQUALS:
+                return argStart == 0 && argEnd == argLine.length();
+            case KIND_WORD:
+                return (argStart == 0 || isWordChar(argLine.charAt(argStart - 1)) == false)
+                        && (argEnd == argLine.length() || isWordChar(argLine
+                                .charAt(argEnd)) == false);
+            default:
+                return true;
+            }
+        }
+
+        /**
+         * Checks whether a character is a word character, in the same way as \b of java.util.regex.
+         *
+         * @param argChar
+         *            A character.
+         * @return True if it is a word character.
+         */
+        private static boolean isWordChar(final char argChar) {
+            return Character.isLetterOrDigit(argChar) || argChar == '_';
+        }
+    }
+}
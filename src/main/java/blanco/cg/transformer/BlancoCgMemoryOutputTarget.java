@@ -0,0 +1,65 @@
+/*
+ * blanco Framework
+ * Copyright (C) 2004-2017 IGA Tosiki
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ */
+/*
+ * Copyright 2017 Toshiki Iga
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package blanco.cg.transformer;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * An output target that keeps source files in memory.
+ *
+ * The map is sorted by the path, so the iteration order does not depend on the order of generation.<br>
+ * Source files may be written from several threads.
+ */
+public class BlancoCgMemoryOutputTarget implements BlancoCgOutputTarget {
+    /**
+     * Map from a relative path to the content of the source file.
+     */
+    private final Map<String, byte[]> fFileMap = Collections
+            .synchronizedMap(new TreeMap<String, byte[]>());
+
+    public int write(final String argPath, final byte[] argContent) {
+        final byte[] previous = fFileMap.put(argPath, argContent.clone());
+        if (previous == null) {
+            return CREATE;
+        }
+        return Arrays.equals(previous, argContent) ? SKIP : UPDATE;
+    }
+
+    public String getLocation(final String argPath) {
+        return "memory:" + argPath;
+    }
+
+    /**
+     * Gets the source files written so far.
+     *
+     * @return A map from a relative path separated by a slash to the content. Synchronize on the map while iterating.
+     */
+    public Map<String, byte[]> getFileMap() {
+        return fFileMap;
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * blanco Framework
+ * Copyright (C) 2004-2017 IGA Tosiki
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ */
+/*
+ * Copyright 2017 Toshiki Iga
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package blanco.cg.transformer;
+
+import java.io.IOException;
+
+/**
+ * A destination of generated source files.
+ *
+ * A transformer converts the package of a source file into a relative path such as "blanco/cg/Foo.java", and passes the
+ * path and the encoded content to the output target.<br>
+ * The path is always separated by a slash, regardless of the platform.
+ */
+public interface BlancoCgOutputTarget {
+    /**
+     * The content was the same as the existing one, so nothing was written.
+     */
+    int SKIP = 0;
+
+    /**
+     * A new file was created.
+     */
+    int CREATE = 1;
+
+    /**
+     * An existing file was updated.
+     */
+    int UPDATE = 2;
+
+    /**
+     * Writes a source file.
+     *
+     * @param argPath
+     *            A relative path of the source file, separated by a slash.
+     * @param argContent
+     *            The encoded content of the source file.
+     * @return One of SKIP, CREATE and UPDATE.
+     * @throws IOException
+     *             If an I/O exception occurs.
+     */
+    int write(String argPath, byte[] argContent) throws IOException;
+
+    /**
+     * Writes a source file whose content may have been spilled to a temporary file.
+     *
+     * The default implementation reads the whole content into memory. An output target on a file system overrides it to
+     * compare and copy the content a buffer at a time.
+     *
+     * @param argPath
+     *            A relative path of the source file, separated by a slash.
+     * @param argContent
+     *            The encoded content of the source file. It is deleted by the caller.
+     * @return One of SKIP, CREATE and UPDATE.
+     * @throws IOException
+     *             If an I/O exception occurs.
+     */
+    default int write(final String argPath,
+            final BlancoCgSpillOutputStream argContent) throws IOException {
+        return write(argPath, argContent.toByteArray());
+    }
+
+    /**
+     * Gets the location of a source file to be displayed on the command line.
+     *
+     * @param argPath
+     *            A relative path of the source file, separated by a slash.
+     * @return A location, such as an absolute path.
+     */
+    String getLocation(String argPath);
+
+    /**
+     * Reports a source file written to this output target.
+     *
+     * The default implementation prints the message to the standard output. An output target running inside a tool,
+     * such as an annotation processor, overrides it to report through the tool.
+     *
+     * @param argMessage
+     *            A message such as "cg: create: " followed by the location.
+     */
+    default void report(final String argMessage) {
+        System.out.println(argMessage);
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * blanco Framework
+ * Copyright (C) 2004-2017 IGA Tosiki
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ */
+/*
+ * Copyright 2017 Toshiki Iga
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package blanco.cg.transformer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import blanco.cg.valueobject.BlancoCgSourceFile;
+
+/**
+ * Expands the members of a class (methods, fields, enumerations) concurrently.
+ *
+ * A list of members is split into contiguous chunks in the order of the list. Each chunk is expanded into its own
+ * fragment of source lines, with a copy of the source file whose import list is its own, so no lock is taken while
+ * expanding. The fragments and the imports are then added in the order of the chunks, so the result is the same as
+ * the sequential expansion.<br>
+ * A list shorter than the threshold is expanded sequentially. The threshold is given by the system property
+ * blanco.cg.parallel.threshold, and 0 (the default) disables the concurrent expansion.<br>
+ * An expander given here must touch only its member, the source lines and the import list of the source file.<br>
+ * A runtime exception or an error thrown in a chunk is rethrown as it is.
+ */
+public final class BlancoCgParallelExpander {
+    /**
+     * System property of the minimum number of members to expand concurrently. 0 or less disables it.
+     */
+    public static final String THRESHOLD_PROPERTY = "blanco.cg.parallel.threshold";
+
+    /**
+     * Expander of a member.
+     *
+     * @param <T>
+     *            Type of the member.
+     */
+    public interface MemberExpander<T> {
+        /**
+         * Expands a member.
+         *
+         * @param argMember
+         *            A member.
+         * @param argSourceFile
+         *            Source file.
+         * @param argSourceLines
+         *            A source code line list.
+         */
+        void expand(T argMember, BlancoCgSourceFile argSourceFile,
+                List<java.lang.String> argSourceLines);
+    }
+
+    private BlancoCgParallelExpander() {
+    }
+
+    /**
+     * Gets the minimum number of members to expand concurrently.
+     *
+     * @return Threshold. 0 or less if disabled.
+     */
+    public static int getThreshold() {
+        return Integer.getInteger(THRESHOLD_PROPERTY, 0).intValue();
+    }
+
+    /**
+     * Expands the members, concurrently if there are as many as the threshold.
+     *
+     * @param <T>
+     *            Type of the member.
+     * @param argMemberList
+     *            Members.
+     * @param argSourceFile
+     *            Source file.
+     * @param argSourceLines
+     *            A source code line list.
+     * @param argExpander
+     *            Expander of a member.
+     */
+    public static <T> void expand(final List<T> argMemberList,
+            final BlancoCgSourceFile argSourceFile,
+            final List<java.lang.String> argSourceLines,
+            final MemberExpander<T> argExpander) {
+        final int threshold = getThreshold();
+        if (threshold <= 0 || argMemberList.size() < threshold) {
+            for (T member : argMemberList) {
+                argExpander.expand(member, argSourceFile, argSourceLines);
+            }
+            return;
+        }
+
+        final ForkJoinPool pool = ForkJoinPool.commonPool();
+        final int chunkCount = Math.min(argMemberList.size(),
+                pool.getParallelism() * 4);
+        final List<BlancoCgSourceFile> shadowList = new ArrayList<BlancoCgSourceFile>();
+        final List<BlancoCgSourceLineList> fragmentList = new ArrayList<BlancoCgSourceLineList>();
+        final List<Future<?>> futureList = new ArrayList<Future<?>>();
+        // The pool may hand a copy of an exception to the caller, so each chunk keeps the original itself.
+        final Throwable[] failures = new Throwable[chunkCount];
+        for (int chunk = 0; chunk < chunkCount; chunk++) {
+            final int chunkIndex = chunk;
+            final List<T> memberList = argMemberList.subList(
+                    argMemberList.size() * chunk / chunkCount,
+                    argMemberList.size() * (chunk + 1) / chunkCount);
+            final BlancoCgSourceFile shadow = new BlancoCgSourceFile();
+            argSourceFile.copyTo(shadow);
+            shadow.setImportList(new ArrayList<java.lang.String>());
+            final BlancoCgSourceLineList fragment = new BlancoCgSourceLineList();
+            shadowList.add(shadow);
+            fragmentList.add(fragment);
+            futureList.add(pool.submit(() -> {
+                try {
+                    for (T member : memberList) {
+                        argExpander.expand(member, shadow, fragment);
+                    }
+                } catch (RuntimeException | Error ex) {
+                    failures[chunkIndex] = ex;
+                }
+            }));
+        }
+
+        for (int chunk = 0; chunk < chunkCount; chunk++) {
+            try {
+                futureList.get(chunk).get();
+            } catch (ExecutionException ex) {
+                throw new IllegalArgumentException(
+                        "BlancoCgParallelExpander: failed to expand a member. "
+                                + ex.getCause().toString());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalArgumentException(
+                        "BlancoCgParallelExpander: interrupted.");
+            }
+            if (failures[chunk] instanceof RuntimeException) {
+                throw (RuntimeException) failures[chunk];
+            }
+            if (failures[chunk] instanceof Error) {
+                throw (Error) failures[chunk];
+            }
+            argSourceFile.getImportList().addAll(
+                    shadowList.get(chunk).getImportList());
+            BlancoCgSourceLineList.addFragment(argSourceLines, fragmentList
+                    .get(chunk));
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * blanco Framework
+ * Copyright (C) 2004-2017 IGA Tosiki
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ */
+/*
+ * Copyright 2017 Toshiki Iga
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package blanco.cg.transformer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * An output target that writes source files under a java.nio.file.Path.
+ *
+ * Any file system can be used, such as the file system of a zip file (zipfs) or an in-memory file system.<br>
+ * A file is rewritten only if its content has changed.
+ */
+public class BlancoCgPathOutputTarget implements BlancoCgOutputTarget {
+    /**
+     * An output destination root directory.
+     */
+    private final Path fOutputDirectory;
+
+    /**
+     * Constructor.
+     *
+     * @param argOutputDirectory
+     *            An output destination root directory. It is created when the first file is written.
+     */
+    public BlancoCgPathOutputTarget(final Path argOutputDirectory) {
+        if (argOutputDirectory == null) {
+            throw new IllegalArgumentException(
+                    "An output destination root directory was given as null. Aborts the process.");
+        }
+        fOutputDirectory = argOutputDirectory;
+    }
+
+    public int write(final String argPath, final byte[] argContent)
+            throws IOException {
+        final Path target = resolve(argPath);
+        if (Files.exists(target)) {
+            if (Arrays.equals(Files.readAllBytes(target), argContent)) {
+                return SKIP;
+            }
+            Files.write(target, argContent);
+            return UPDATE;
+        }
+
+        final Path parent = target.getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Files.write(target, argContent);
+        return CREATE;
+    }
+
+    @Override
+    public int write(final String argPath,
+            final BlancoCgSpillOutputStream argContent) throws IOException {
+        final Path target = resolve(argPath);
+        if (Files.exists(target)) {
+            if (argContent.contentEquals(target)) {
+                return SKIP;
+            }
+            argContent.copyTo(target);
+            return UPDATE;
+        }
+
+        final Path parent = target.getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        argContent.copyTo(target);
+        return CREATE;
+    }
+
+    public String getLocation(final String argPath) {
+        return resolve(argPath).toUri().toString();
+    }
+
+    /**
+     * Resolves a relative path against the root directory.
+     *
+     * @param argPath
+     *            A relative path separated by a slash.
+     * @return A path on the file system of the root directory.
+     */
+    private Path resolve(final String argPath) {
+        Path target = fOutputDirectory;
+        for (String name : argPath.split("/")) {
+            if (name.length() > 0) {
+                target = target.resolve(name);
+            }
+        }
+        return target;
+    }
+}
@@ -0,0 +1,298 @@
+/*
+ * blanco Framework
+ * Copyright (C) 2004-2017 IGA Tosiki
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ */
+/*
+ * Copyright 2017 Toshiki Iga
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package blanco.cg.transformer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import blanco.cg.valueobject.BlancoCgVerbatimFile;
+
+/**
+ * A list of unformatted source code lines used in the middle of the expansion.
+ *
+ * In addition to ordinary lines, this list can hold lazy line sources (such as BlancoCgMethod#getLineSource()).<br>
+ * A lazy line source is represented by a single marker line and is consumed only once, when the source code is output to the writer.
+ * Therefore, the lines supplied by the line source are never fully resident in memory.<br>
+ * Likewise, a pre-formatted file (BlancoCgVerbatimFile) is represented by a single marker line and is copied to the output as it is.
+ */
+public class BlancoCgSourceLineList extends ArrayList<java.lang.String> {
+    /**
+     * Serial version.
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The content of a marker line. The marker is identified by the identity of the instance, not by its content.
+     */
+    private static final String LINE_SOURCE_MARKER = "/* blancoCg: line source */";
+
+    /**
+     * The content of a marker line of a pre-formatted file.
+     */
+    private static final String VERBATIM_FILE_MARKER = "/* blancoCg: verbatim file */";
+
+    /**
+     * Map from a marker line to the lazy line source it represents.
+     */
+    private final Map<java.lang.String, Iterator<java.lang.String>> fLineSourceMap = new IdentityHashMap<java.lang.String, Iterator<java.lang.String>>();
+
+    /**
+     * Map from a marker line to the pre-formatted file it represents.
+     */
+    private final Map<java.lang.String, BlancoCgVerbatimFile> fVerbatimFileMap = new IdentityHashMap<java.lang.String, BlancoCgVerbatimFile>();
+
+    /**
+     * Adds a lazy line source to the end of the list.
+     *
+     * @param argLineSource
+     *            A line source to be consumed at output.
+     */
+    public void addLineSource(final Iterator<java.lang.String> argLineSource) {
+        // Creates a new instance on purpose, so that the marker can be identified by its identity.
+        final String marker = new String(LINE_SOURCE_MARKER);
+        fLineSourceMap.put(marker, argLineSource);
+        add(marker);
+    }
+
+    /**
+     * Gets the lazy line source represented by the given line.
+     *
+     * @param argLine
+     *            A line contained in this list.
+     * @return A line source, or null if the line is an ordinary line.
+     */
+    public Iterator<java.lang.String> getLineSource(final String argLine) {
+        if (fLineSourceMap.isEmpty()) {
+            return null;
+        }
+        return fLineSourceMap.get(argLine);
+    }
+
+    /**
+     * Adds a pre-formatted file to the end of the list.
+     *
+     * @param argVerbatimFile
+     *            A file to be copied at output.
+     */
+    public void addVerbatimFile(final BlancoCgVerbatimFile argVerbatimFile) {
+        final String marker = new String(VERBATIM_FILE_MARKER);
+        fVerbatimFileMap.put(marker, argVerbatimFile);
+        add(marker);
+    }
+
+    /**
+     * Gets the pre-formatted file represented by the given line.
+     *
+     * @param argLine
+     *            A line contained in this list.
+     * @return A pre-formatted file, or null if the line is an ordinary line.
+     */
+    public BlancoCgVerbatimFile getVerbatimFile(final String argLine) {
+        if (fVerbatimFileMap.isEmpty()) {
+            return null;
+        }
+        return fVerbatimFileMap.get(argLine);
+    }
+
+    /**
+     * Checks whether this list holds any lazy line source or pre-formatted file.
+     *
+     * @return True if a line source or a pre-formatted file is contained.
+     */
+    public boolean hasLineSource() {
+        return fLineSourceMap.isEmpty() == false
+                || fVerbatimFileMap.isEmpty() == false;
+    }
+
+    /**
+     * Adds a lazy line source to the given list of source lines.
+     *
+     * If the list is not a BlancoCgSourceLineList, the line source is consumed here and its lines are added directly.
+     *
+     * @param argSourceLines
+     *            A list of source lines.
+     * @param argLineSource
+     *            A line source. Nothing is done if null is given.
+     */
+    public static void addLineSource(final List<java.lang.String> argSourceLines,
+            final Iterator<java.lang.String> argLineSource) {
+        if (argLineSource == null) {
+            return;
+        }
+        if (argSourceLines instanceof BlancoCgSourceLineList) {
+            ((BlancoCgSourceLineList) argSourceLines).addLineSource(argLineSource);
+            return;
+        }
+        while (argLineSource.hasNext()) {
+            argSourceLines.add(argLineSource.next());
+        }
+    }
+
+    /**
+     * Adds a pre-formatted file to the given list of source lines.
+     *
+     * If the list is not a BlancoCgSourceLineList, the file is read here and its lines are added directly.
+     *
+     * @param argSourceLines
+     *            A list of source lines.
+     * @param argVerbatimFile
+     *            A pre-formatted file. Nothing is done if null is given.
+     */
+    public static void addVerbatimFile(
+            final List<java.lang.String> argSourceLines,
+            final BlancoCgVerbatimFile argVerbatimFile) {
+        if (argVerbatimFile == null) {
+            return;
+        }
+        if (argSourceLines instanceof BlancoCgSourceLineList) {
+            ((BlancoCgSourceLineList) argSourceLines)
+                    .addVerbatimFile(argVerbatimFile);
+            return;
+        }
+        readVerbatimFile(argVerbatimFile, argSourceLines);
+    }
+
+    /**
+     * Rejects pre-formatted files given to an expander of a language that does not support them.
+     *
+     * Only the expanders that place plain text (the Java and TypeScript classes and TypeScript interfaces) know where
+     * a pre-formatted file goes, so the others fail here rather than dropping the files silently.
+     *
+     * @param argVerbatimFileList
+     *            A list of pre-formatted files. Nothing is done if null or empty.
+     * @param argLangName
+     *            Name of the language, used in the message.
+     */
+    public static void rejectVerbatimFiles(
+            final List<BlancoCgVerbatimFile> argVerbatimFileList,
+            final String argLangName) {
+        if (argVerbatimFileList == null || argVerbatimFileList.isEmpty()) {
+            return;
+        }
+        throw new IllegalArgumentException("In " + argLangName
+                + ", verbatim files are not supported: "
+                + argVerbatimFileList.get(0).getPath());
+    }
+
+    /**
+     * Adds the lines of a fragment expanded separately to the end of the given list of source lines.
+     *
+     * The lazy line sources and pre-formatted files of the fragment are moved with their marker lines.
+     * If the list is not a BlancoCgSourceLineList, they are consumed here and their lines are added directly.
+     *
+     * @param argSourceLines
+     *            A list of source lines.
+     * @param argFragment
+     *            A fragment. It must not be used after this call.
+     */
+    public static void addFragment(final List<java.lang.String> argSourceLines,
+            final BlancoCgSourceLineList argFragment) {
+        if (argSourceLines instanceof BlancoCgSourceLineList == false) {
+            materialize(argFragment);
+            argSourceLines.addAll(argFragment);
+            return;
+        }
+        final BlancoCgSourceLineList lineList = (BlancoCgSourceLineList) argSourceLines;
+        lineList.fLineSourceMap.putAll(argFragment.fLineSourceMap);
+        lineList.fVerbatimFileMap.putAll(argFragment.fVerbatimFileMap);
+        lineList.addAll(argFragment);
+    }
+
+    /**
+     * Replaces every marker line in the given list with the lines of its line source or pre-formatted file.
+     *
+     * This is used by formatters that need the whole source code at once (e.g. ktfmt for Kotlin).<br>
+     * A pre-formatted file whose charset is not specified is read with the default charset of the platform.
+     *
+     * @param argSourceLines
+     *            A list of source lines.
+     */
+    public static void materialize(final List<java.lang.String> argSourceLines) {
+        if (argSourceLines instanceof BlancoCgSourceLineList == false) {
+            return;
+        }
+        final BlancoCgSourceLineList lineList = (BlancoCgSourceLineList) argSourceLines;
+        if (lineList.hasLineSource() == false) {
+            return;
+        }
+
+        final List<java.lang.String> work = new ArrayList<java.lang.String>(lineList);
+        lineList.clear();
+        for (String line : work) {
+            final BlancoCgVerbatimFile verbatimFile = lineList.fVerbatimFileMap.remove(line);
+            if (verbatimFile != null) {
+                readVerbatimFile(verbatimFile, lineList);
+                continue;
+            }
+            final Iterator<java.lang.String> lineSource = lineList.fLineSourceMap.remove(line);
+            if (lineSource == null) {
+                lineList.add(line);
+                continue;
+            }
+            while (lineSource.hasNext()) {
+                lineList.add(lineSource.next());
+            }
+        }
+    }
+
+    /**
+     * Reads a pre-formatted file and adds its lines to the given list.
+     *
+     * @param argVerbatimFile
+     *            A pre-formatted file.
+     * @param argSourceLines
+     *            A list of source lines.
+     */
+    private static void readVerbatimFile(
+            final BlancoCgVerbatimFile argVerbatimFile,
+            final List<java.lang.String> argSourceLines) {
+        final Charset charset = BlancoCgSourceWriter.getVerbatimCharset(
+                argVerbatimFile, Charset.defaultCharset());
+        try {
+            final BufferedReader reader = Files.newBufferedReader(Paths
+                    .get(argVerbatimFile.getPath()), charset);
+            try {
+                for (String line = reader.readLine(); line != null; line = reader
+                        .readLine()) {
+                    argSourceLines.add(line);
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (IOException ex) {
+            throw new IllegalArgumentException(
+                    "An exception occurred in the process of reading the verbatim file ["
+                            + argVerbatimFile.getPath() + "]." + ex.toString());
+        }
+    }
+}
@@ -0,0 +1,326 @@
+/*
+ * blanco Framework
+ * Copyright (C) 2004-2017 IGA Tosiki
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ */
+/*
+ * Copyright 2017 Toshiki Iga
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package blanco.cg.transformer;
+
+import java.io.BufferedWriter;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.UnsupportedEncodingException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.UnsupportedCharsetException;
+
+import blanco.cg.valueobject.BlancoCgVerbatimFile;
+import blanco.commons.util.BlancoStringUtil;
+
+/**
+ * A writer that outputs the source code to a byte stream.
+ *
+ * In addition to ordinary characters, this writer can copy a pre-formatted file (BlancoCgVerbatimFile) to the output.<br>
+ * If the encoding of the file is the same as the output, the file is transferred with FileChannel#transferTo without being decoded.
+ * Otherwise, the file is converted to the output encoding while being streamed.
+ */
+public class BlancoCgSourceWriter extends BufferedWriter {
+    /**
+     * Output destination byte stream.
+     */
+    private final OutputStream fOutStream;
+
+    /**
+     * Encoding of the output.
+     */
+    private final Charset fCharset;
+
+    /**
+     * Constructor.
+     *
+     * @param argOutStream
+     *            Output destination byte stream.
+     * @param argEncoding
+     *            Encoding of the output. If null or blank is given, the default charset of the platform is used.
+     * @throws UnsupportedEncodingException
+     *             If the encoding is not supported.
+     */
+    public BlancoCgSourceWriter(final OutputStream argOutStream,
+            final String argEncoding) throws UnsupportedEncodingException {
+        this(argOutStream, toCharset(argEncoding));
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param argOutStream
+     *            Output destination byte stream.
+     * @param argCharset
+     *            Encoding of the output.
+     */
+    private BlancoCgSourceWriter(final OutputStream argOutStream,
+            final Charset argCharset) {
+        super(new OutputStreamWriter(argOutStream, argCharset));
+        fOutStream = argOutStream;
+        fCharset = argCharset;
+    }
+
+    /**
+     * Gets the encoding of the output.
+     *
+     * @return Encoding of the output.
+     */
+    public Charset getCharset() {
+        return fCharset;
+    }
+
+    /**
+     * Copies a pre-formatted file to the output as it is.
+     *
+     * @param argVerbatimFile
+     *            A pre-formatted file.
+     * @return True if the file is empty or ends with a line break.
+     * @throws IOException
+     *             If an I/O exception occurs.
+     */
+    public boolean writeVerbatim(final BlancoCgVerbatimFile argVerbatimFile)
+            throws IOException {
+        final Charset charset = getVerbatimCharset(argVerbatimFile, fCharset);
+        if (charset.equals(fCharset) == false) {
+            // Since the encoding differs, converts it while streaming.
+            return copyVerbatim(argVerbatimFile, charset, this);
+        }
+
+        // Outputs the characters buffered so far before transferring the bytes.
+        flush();
+
+        final FileInputStream inStream = new FileInputStream(argVerbatimFile
+                .getPath());
+        try {
+            final FileChannel inChannel = inStream.getChannel();
+            final long size = inChannel.size();
+            if (size == 0) {
+                return true;
+            }
+
+            // Does not close this channel, since it would close the output stream.
+            final WritableByteChannel outChannel = Channels
+                    .newChannel(fOutStream);
+            for (long position = 0; position < size;) {
+                position += inChannel.transferTo(position, size - position,
+                        outChannel);
+            }
+
+            return isLineTerminated(inChannel, size, fCharset);
+        } finally {
+            inStream.close();
+        }
+    }
+
+    /**
+     * Checks whether the file ends with a line break, by decoding its tail with its encoding.
+     *
+     * A line break is not a single byte in every encoding (UTF-16 for example), so the last byte is not enough.<br>
+     * The tail is a multiple of 4 bytes long, so it starts at a character boundary of UTF-16 and UTF-32. If the file
+     * starts with a byte order mark, the mark is decoded before the tail, so the tail is read in the byte order of the
+     * file.
+     *
+     * @param argChannel
+     *            Channel of the file.
+     * @param argSize
+     *            Size of the file. It must be more than 0.
+     * @param argCharset
+     *            Encoding of the file.
+     * @return True if the file ends with a line break.
+     * @throws IOException
+     *             If an I/O exception occurs.
+     */
+    static boolean isLineTerminated(final FileChannel argChannel,
+            final long argSize, final Charset argCharset) throws IOException {
+        final int tailLength = (int) Math.min(argSize, 16);
+        final ByteBuffer buf = ByteBuffer.allocate(4 + tailLength);
+        if (argSize > tailLength) {
+            final ByteBuffer head = ByteBuffer.allocate(4);
+            readFully(argChannel, head, 0);
+            final int bomLength = getBomLength(head.array());
+            buf.put(head.array(), 0, bomLength);
+        }
+        buf.limit(buf.position() + tailLength);
+        readFully(argChannel, buf, argSize - tailLength);
+        buf.flip();
+
+        final String tail = argCharset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE).decode(buf)
+                .toString();
+        if (tail.length() == 0) {
+            return false;
+        }
+        final char lastChar = tail.charAt(tail.length() - 1);
+        return lastChar == '\n' || lastChar == '\r';
+    }
+
+    /**
+     * Gets the length of the byte order mark at the head of a file.
+     *
+     * @param argHead
+     *            The first 4 bytes of the file.
+     * @return Length of the byte order mark. 0 if there is none.
+     */
+    private static int getBomLength(final byte[] argHead) {
+        if ((argHead[0] == 0 && argHead[1] == 0 && argHead[2] == (byte) 0xFE
+                && argHead[3] == (byte) 0xFF)
+                || (argHead[0] == (byte) 0xFF && argHead[1] == (byte) 0xFE
+                        && argHead[2] == 0 && argHead[3] == 0)) {
+            // UTF-32.
+            return 4;
+        }
+        if (argHead[0] == (byte) 0xEF && argHead[1] == (byte) 0xBB
+                && argHead[2] == (byte) 0xBF) {
+            // UTF-8.
+            return 3;
+        }
+        if ((argHead[0] == (byte) 0xFE && argHead[1] == (byte) 0xFF)
+                || (argHead[0] == (byte) 0xFF && argHead[1] == (byte) 0xFE)) {
+            // UTF-16.
+            return 2;
+        }
+        return 0;
+    }
+
+    /**
+     * Reads bytes from a channel until the buffer is full.
+     *
+     * @param argChannel
+     *            Channel of the file.
+     * @param argBuf
+     *            Buffer to fill up to its limit.
+     * @param argPosition
+     *            Position in the file to read from.
+     * @throws IOException
+     *             If an I/O exception occurs, or the file ends before the buffer is full.
+     */
+    private static void readFully(final FileChannel argChannel,
+            final ByteBuffer argBuf, final long argPosition)
+            throws IOException {
+        long position = argPosition;
+        while (argBuf.hasRemaining()) {
+            final int length = argChannel.read(argBuf, position);
+            if (length < 0) {
+                throw new IOException("The file ended while reading its tail.");
+            }
+            position += length;
+        }
+    }
+
+    /**
+     * Copies a pre-formatted file to the given writer as characters.
+     *
+     * This is used when the file cannot be transferred as bytes.
+     *
+     * @param argVerbatimFile
+     *            A pre-formatted file.
+     * @param argCharset
+     *            Encoding of the file.
+     * @param argWriter
+     *            Output destination writer.
+     * @return True if the file is empty or ends with a line break.
+     * @throws IOException
+     *             If an I/O exception occurs.
+     */
+    static boolean copyVerbatim(final BlancoCgVerbatimFile argVerbatimFile,
+            final Charset argCharset, final Writer argWriter)
+            throws IOException {
+        final Reader reader = new InputStreamReader(new FileInputStream(
+                argVerbatimFile.getPath()), argCharset);
+        try {
+            final char[] buf = new char[8192];
+            char lastChar = '\n';
+            for (int length = reader.read(buf); length >= 0; length = reader
+                    .read(buf)) {
+                if (length == 0) {
+                    continue;
+                }
+                argWriter.write(buf, 0, length);
+                lastChar = buf[length - 1];
+            }
+            return lastChar == '\n' || lastChar == '\r';
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Gets the encoding of a pre-formatted file.
+     *
+     * @param argVerbatimFile
+     *            A pre-formatted file.
+     * @param argDefaultCharset
+     *            Encoding used when the file does not specify one.
+     * @return Encoding of the file.
+     */
+    static Charset getVerbatimCharset(
+            final BlancoCgVerbatimFile argVerbatimFile,
+            final Charset argDefaultCharset) {
+        if (argVerbatimFile.getPath() == null) {
+            throw new IllegalArgumentException(
+                    "The path of the verbatim file was given as null. Aborts the process.");
+        }
+        if (BlancoStringUtil.null2Blank(argVerbatimFile.getCharset())
+                .length() == 0) {
+            return argDefaultCharset;
+        }
+        return Charset.forName(argVerbatimFile.getCharset());
+    }
+
+    /**
+     * Converts an encoding name to a charset.
+     *
+     * @param argEncoding
+     *            Encoding name. If null or blank is given, the default charset of the platform is used.
+     * @return Charset.
+     * @throws UnsupportedEncodingException
+     *             If the encoding is not supported.
+     */
+    public static Charset toCharset(final String argEncoding)
+            throws UnsupportedEncodingException {
+        if (BlancoStringUtil.null2Blank(argEncoding).length() == 0) {
+            return Charset.defaultCharset();
+        }
+        try {
+            return Charset.forName(argEncoding);
+        } catch (IllegalCharsetNameException ex) {
+            throw new UnsupportedEncodingException(argEncoding);
+        } catch (UnsupportedCharsetException ex) {
+            throw new UnsupportedEncodingException(argEncoding);
+        }
+    }
+}
@@ -0,0 +1,270 @@
+/*
+ * blanco Framework
+ * Copyright (C) 2004-2017 IGA Tosiki
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ */
+/*
+ * Copyright 2017 Toshiki Iga
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package blanco.cg.transformer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * An output stream that holds the content of a generated file in memory up to a threshold, and spills the rest to a temporary file.
+ *
+ * The heap used for the encoded content of a file is therefore bounded by the threshold, regardless of the size of the file.<br>
+ * The temporary file is deleted by delete(), which must be called after the content has been consumed.
+ */
+public class BlancoCgSpillOutputStream extends OutputStream {
+    /**
+     * System property of the size in bytes above which the content is spilled to a temporary file. 0 or less disables it.
+     */
+    public static final String THRESHOLD_PROPERTY = "blanco.cg.spill.threshold";
+
+    /**
+     * Size of the buffer to compare the contents.
+     */
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * Size in bytes above which the content is spilled. 0 or less if never spilled.
+     */
+    private final long fThreshold;
+
+    /**
+     * Content held in memory. null after the content is spilled.
+     */
+    private ByteArrayOutputStream fMemory = new ByteArrayOutputStream();
+
+    /**
+     * Temporary file of the spilled content. null unless spilled.
+     */
+    private Path fSpillFile = null;
+
+    /**
+     * Stream to the temporary file. null unless spilled, or after closed.
+     */
+    private OutputStream fSpillStream = null;
+
+    /**
+     * Size of the content written so far.
+     */
+    private long fSize = 0;
+
+    /**
+     * Constructor.
+     *
+     * @param argThreshold
+     *            Size in bytes above which the content is spilled. 0 or less to never spill.
+     */
+    public BlancoCgSpillOutputStream(final long argThreshold) {
+        fThreshold = argThreshold;
+    }
+
+    /**
+     * Gets the threshold given by the system property.
+     *
+     * @return Threshold. 0 or less if disabled.
+     */
+    public static long getThreshold() {
+        return Long.getLong(THRESHOLD_PROPERTY, 0).longValue();
+    }
+
+    @Override
+    public void write(final int argByte) throws IOException {
+        write(new byte[] { (byte) argByte }, 0, 1);
+    }
+
+    @Override
+    public void write(final byte[] argBytes, final int argOffset,
+            final int argLength) throws IOException {
+        if (fMemory != null && fThreshold > 0
+                && fSize + argLength > fThreshold) {
+            spill();
+        }
+        if (fMemory != null) {
+            fMemory.write(argBytes, argOffset, argLength);
+        } else {
+            if (fSpillStream == null) {
+                throw new IOException("The stream has already been closed.");
+            }
+            fSpillStream.write(argBytes, argOffset, argLength);
+        }
+        fSize += argLength;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (fSpillStream != null) {
+            fSpillStream.flush();
+        }
+    }
+
+    /**
+     * Closes the stream. The temporary file is kept until delete() is called.
+     */
+    @Override
+    public void close() throws IOException {
+        if (fSpillStream != null) {
+            fSpillStream.close();
+            fSpillStream = null;
+        }
+    }
+
+    /**
+     * Closes the stream and deletes the temporary file, if any.
+     *
+     * @throws IOException
+     *             If the temporary file cannot be deleted.
+     */
+    public void delete() throws IOException {
+        close();
+        if (fSpillFile != null) {
+            Files.deleteIfExists(fSpillFile);
+            fSpillFile = null;
+        }
+    }
+
+    /**
+     * Checks whether the content has been spilled to a temporary file.
+     *
+     * @return True if spilled.
+     */
+    public boolean isSpilled() {
+        return fMemory == null;
+    }
+
+    /**
+     * Gets the size of the content written so far.
+     *
+     * @return Size in bytes.
+     */
+    public long size() {
+        return fSize;
+    }
+
+    /**
+     * Gets the content as an array of bytes.
+     *
+     * If the content has been spilled, the whole temporary file is read into memory. Use openInputStream() for a large content.
+     *
+     * @return Content.
+     * @throws IOException
+     *             If the temporary file cannot be read.
+     */
+    public byte[] toByteArray() throws IOException {
+        if (fMemory != null) {
+            return fMemory.toByteArray();
+        }
+        close();
+        return Files.readAllBytes(fSpillFile);
+    }
+
+    /**
+     * Opens a stream to read the content.
+     *
+     * @return An input stream. The caller must close it.
+     * @throws IOException
+     *             If the temporary file cannot be opened.
+     */
+    public InputStream openInputStream() throws IOException {
+        if (fMemory != null) {
+            return new ByteArrayInputStream(fMemory.toByteArray());
+        }
+        close();
+        return Files.newInputStream(fSpillFile);
+    }
+
+    /**
+     * Checks whether the content is the same as the content of a file, reading both a buffer at a time.
+     *
+     * @param argFile
+     *            An existing file.
+     * @return True if the contents are the same.
+     * @throws IOException
+     *             If a file cannot be read.
+     */
+    public boolean contentEquals(final Path argFile) throws IOException {
+        if (Files.size(argFile) != fSize) {
+            return false;
+        }
+        final InputStream thisStream = new BufferedInputStream(
+                openInputStream(), BUFFER_SIZE);
+        try {
+            final InputStream fileStream = new BufferedInputStream(
+                    Files.newInputStream(argFile), BUFFER_SIZE);
+            try {
+                for (;;) {
+                    final int thisByte = thisStream.read();
+                    if (thisByte != fileStream.read()) {
+                        return false;
+                    }
+                    if (thisByte < 0) {
+                        return true;
+                    }
+                }
+            } finally {
+                fileStream.close();
+            }
+        } finally {
+            thisStream.close();
+        }
+    }
+
+    /**
+     * Writes the content to a file, replacing it if it exists.
+     *
+     * @param argFile
+     *            A file whose parent directory exists.
+     * @throws IOException
+     *             If the file cannot be written.
+     */
+    public void copyTo(final Path argFile) throws IOException {
+        if (fMemory != null) {
+            Files.write(argFile, fMemory.toByteArray());
+            return;
+        }
+        close();
+        Files.copy(fSpillFile, argFile, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Moves the content held in memory to a temporary file.
+     *
+     * @throws IOException
+     *             If the temporary file cannot be created.
+     */
+    private void spill() throws IOException {
+        fSpillFile = Files.createTempFile("blanco-cg-", ".spill");
+        fSpillStream = new BufferedOutputStream(
+                Files.newOutputStream(fSpillFile), BUFFER_SIZE);
+        fMemory.writeTo(fSpillStream);
+        fMemory = null;
+    }
+}
@@ -0,0 +1,305 @@
+/*
+ * blanco Framework
+ * Copyright (C) 2004-2017 IGA Tosiki
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ */
+/*
+ * Copyright 2017 Toshiki Iga
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package blanco.cg.transformer;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import blanco.cg.BlancoCgTransformer;
+import blanco.cg.valueobject.BlancoCgSourceFile;
+
+/**
+ * A publisher of the source files generated from source file value objects.
+ *
+ * A source file value object is taken from the iterable and rendered only when the subscriber requests an item, so a
+ * slow subscriber holds back the rendering (backpressure). The source files are published in the order of the value
+ * objects. The iterable is not asked for the next value object before an item is requested either, so the completion
+ * after the last source file is signaled on the next request.<br>
+ * The messages of the transformation are reported to the output target, and dropped if no output target is given.<br>
+ * Since a value object is modified by the transformation, a publisher accepts only one subscriber.
+ * Rendering runs on the executor, which is the common fork-join pool by default. A failure of the transformation is
+ * signaled by onError, and ends the subscription.
+ */
+public class BlancoCgTransformPublisher implements
+        Flow.Publisher<BlancoCgGeneratedFile> {
+    /**
+     * Source file value objects.
+     */
+    private final Iterable<BlancoCgSourceFile> fSourceFiles;
+
+    /**
+     * Language defined in BlancoCgSupportedLang.
+     */
+    private final int fLang;
+
+    /**
+     * Output target to write the source files into as well, or null not to write.
+     */
+    private final BlancoCgOutputTarget fOutputTarget;
+
+    /**
+     * Executor to render on.
+     */
+    private final Executor fExecutor;
+
+    /**
+     * Whether a subscriber has subscribed.
+     */
+    private final AtomicBoolean fIsSubscribed = new AtomicBoolean(false);
+
+    /**
+     * Constructor.
+     *
+     * @param argSourceFiles
+     *            Source file value objects. It may create them lazily.
+     * @param argLang
+     *            Language defined in BlancoCgSupportedLang.
+     */
+    public BlancoCgTransformPublisher(
+            final Iterable<BlancoCgSourceFile> argSourceFiles, final int argLang) {
+        this(argSourceFiles, argLang, null, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param argSourceFiles
+     *            Source file value objects. It may create them lazily.
+     * @param argLang
+     *            Language defined in BlancoCgSupportedLang.
+     * @param argOutputTarget
+     *            Output target to write the source files into as well, or null not to write.
+     * @param argExecutor
+     *            Executor to render on.
+     */
+    public BlancoCgTransformPublisher(
+            final Iterable<BlancoCgSourceFile> argSourceFiles,
+            final int argLang, final BlancoCgOutputTarget argOutputTarget,
+            final Executor argExecutor) {
+        if (argSourceFiles == null) {
+            throw new IllegalArgumentException(
+                    "BlancoCgTransformPublisher: the source files were given as null.");
+        }
+        if (argExecutor == null) {
+            throw new IllegalArgumentException(
+                    "BlancoCgTransformPublisher: the executor was given as null.");
+        }
+        // Fails here for an unsupported language, not in the subscription.
+        BlancoCgTransformerFactory.getSourceTransformer(argLang);
+        fSourceFiles = argSourceFiles;
+        fLang = argLang;
+        fOutputTarget = argOutputTarget;
+        fExecutor = argExecutor;
+    }
+
+    public void subscribe(
+            final Flow.Subscriber<? super BlancoCgGeneratedFile> argSubscriber) {
+        if (argSubscriber == null) {
+            throw new NullPointerException(
+                    "BlancoCgTransformPublisher: the subscriber was given as null.");
+        }
+        if (fIsSubscribed.compareAndSet(false, true) == false) {
+            argSubscriber.onSubscribe(new Flow.Subscription() {
+                public void request(final long argCount) {
+                }
+
+                public void cancel() {
+                }
+            });
+            argSubscriber.onError(new IllegalStateException(
+                    "BlancoCgTransformPublisher: only one subscriber is accepted."));
+            return;
+        }
+        final TransformSubscription subscription = new TransformSubscription(
+                argSubscriber);
+        argSubscriber.onSubscribe(subscription);
+    }
+
+    /**
+     * Renders a source file value object.
+     *
+     * @param argSourceFile
+     *            Source file value object.
+     * @return Generated source file.
+     */
+    private BlancoCgGeneratedFile render(final BlancoCgSourceFile argSourceFile) {
+        final BlancoCgGeneratedFile[] result = new BlancoCgGeneratedFile[1];
+        final BlancoCgOutputTarget captureTarget = new BlancoCgOutputTarget() {
+            public int write(final String argPath, final byte[] argContent)
+                    throws IOException {
+                final int status = (fOutputTarget == null) ? CREATE
+                        : fOutputTarget.write(argPath, argContent);
+                result[0] = new BlancoCgGeneratedFile(argPath, fLang,
+                        argContent, status);
+                return status;
+            }
+
+            public String getLocation(final String argPath) {
+                return (fOutputTarget == null) ? "publisher:" + argPath
+                        : fOutputTarget.getLocation(argPath);
+            }
+
+            @Override
+            public void report(final String argMessage) {
+                if (fOutputTarget != null) {
+                    fOutputTarget.report(argMessage);
+                }
+            }
+        };
+        final BlancoCgTransformer transformer = BlancoCgTransformerFactory
+                .getSourceTransformer(fLang);
+        if (BlancoCgTransformerFactory.transform(transformer, argSourceFile,
+                captureTarget) == false) {
+            throw new IllegalArgumentException(
+                    "BlancoCgTransformPublisher: the transformer of the language ("
+                            + fLang + ") does not support output targets.");
+        }
+        return result[0];
+    }
+
+    /**
+     * Subscription that renders as many source files as requested.
+     */
+    private class TransformSubscription implements Flow.Subscription {
+        /**
+         * Subscriber.
+         */
+        private final Flow.Subscriber<? super BlancoCgGeneratedFile> fSubscriber;
+
+        /**
+         * Number of the items requested and not published yet.
+         */
+        private final AtomicLong fDemand = new AtomicLong();
+
+        /**
+         * Number of the drains scheduled. Only one drain runs at a time.
+         */
+        private final AtomicInteger fWorkInProgress = new AtomicInteger();
+
+        /**
+         * Whether the subscription has been cancelled or ended.
+         */
+        private volatile boolean fIsDone = false;
+
+        /**
+         * Source file value objects. Created in the first drain.
+         */
+        private Iterator<BlancoCgSourceFile> fIterator;
+
+        /**
+         * Error of an invalid request, signaled in the drain.
+         */
+        private volatile Throwable fRequestError;
+
+        TransformSubscription(
+                final Flow.Subscriber<? super BlancoCgGeneratedFile> argSubscriber) {
+            fSubscriber = argSubscriber;
+        }
+
+        public void request(final long argCount) {
+            if (argCount <= 0) {
+                fRequestError = new IllegalArgumentException(
+                        "BlancoCgTransformPublisher: the number of the items requested must be positive: "
+                                + argCount);
+            } else {
+                fDemand.getAndUpdate(demand -> demand + argCount < 0 ? Long.MAX_VALUE
+                        : demand + argCount);
+            }
+            schedule();
+        }
+
+        public void cancel() {
+            fIsDone = true;
+        }
+
+        /**
+         * Schedules a drain unless one is running.
+         */
+        private void schedule() {
+            if (fWorkInProgress.getAndIncrement() == 0) {
+                fExecutor.execute(this::drain);
+            }
+        }
+
+        /**
+         * Renders and publishes the source files as many as requested.
+         */
+        private void drain() {
+            int missed = 1;
+            while (true) {
+                try {
+                    drainOnce();
+                } catch (Throwable ex) {
+                    fIsDone = true;
+                    fSubscriber.onError(ex);
+                }
+                missed = fWorkInProgress.addAndGet(-missed);
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Publishes the source files for the current demand.
+         */
+        private void drainOnce() {
+            if (fIsDone) {
+                return;
+            }
+            if (fRequestError != null) {
+                fIsDone = true;
+                fSubscriber.onError(fRequestError);
+                return;
+            }
+            if (fIterator == null) {
+                fIterator = fSourceFiles.iterator();
+            }
+            while (fIsDone == false) {
+                // Pulls from the source files only on demand.
+                if (fDemand.get() == 0) {
+                    return;
+                }
+                if (fIterator.hasNext() == false) {
+                    fIsDone = true;
+                    fSubscriber.onComplete();
+                    return;
+                }
+                final BlancoCgGeneratedFile generatedFile = render(fIterator
+                        .next());
+                if (fDemand.get() != Long.MAX_VALUE) {
+                    fDemand.decrementAndGet();
+                }
+                fSubscriber.onNext(generatedFile);
+            }
+        }
+    }
+}
@@ -24,6 +24,10 @@
  */
 package blanco.cg.transformer;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.ServiceLoader;
+
 import blanco.cg.BlancoCgSupportedLang;
 import blanco.cg.BlancoCgTransformer;
 import blanco.cg.transformer.cpp11.BlancoCgCpp11SourceTransformer;
@@ -39,12 +43,15 @@ import blanco.cg.transformer.ruby.BlancoCgRubySourceTransformer;
 import blanco.cg.transformer.swift.BlancoCgSwiftSourceTransformer;
 import blanco.cg.transformer.ts.BlancoCgTsSourceTransformer;
 import blanco.cg.transformer.vb.BlancoCgVbSourceTransformer;
+import blanco.cg.valueobject.BlancoCgSourceFile;
 
 /**
  * A factory to get the BlancoCgTransformer.
  *
  * BlancoCgTransformer converts blancoCg value objects to source code.
- * Note that in the current specification, the source code conversion can only be performed once, since the contents of the value object are updated during the conversion.
+ * Note that in the current specification, the source code conversion can only be performed once, since the contents of the value object are updated during the conversion.<br>
+ * A built-in backend is loaded by the JVM only when its language is requested.
+ * Backends of other languages are discovered through java.util.ServiceLoader (see BlancoCgTransformerProvider) when such a language is requested for the first time.
  *
  * @author IGA Tosiki
  */
@@ -52,8 +59,10 @@ public class BlancoCgTransformerFactory {
     /**
      * Gets a transformer corresponding to the specified programming language.
      *
+     * If the language is not built in, the backend registered through ServiceLoader is used.
+     *
      * @param targetLang
-     *            A programming language of the transformer you want to get, specified by BlancoCgSupportedLang.
+     *            A programming language of the transformer you want to get, specified by BlancoCgSupportedLang or by the provider.
      * @return A transformer for source code conversion.
      */
     public static final BlancoCgTransformer getSourceTransformer(
@@ -86,12 +95,42 @@ public class BlancoCgTransformerFactory {
         case BlancoCgSupportedLang.PHP8:
             return BlancoCgTransformerFactory.getPhp8SourceTransformer();
         default:
+            final BlancoCgTransformerProvider provider = ProviderRegistry.PROVIDER_MAP
+                    .get(Integer.valueOf(targetLang));
+            if (provider != null) {
+                return provider.createTransformer();
+            }
             throw new IllegalArgumentException(
                     "BlancoCgTransformerFactory.getSourceTransformer: An unsupported programming language ("
                             + targetLang + ") was specified.");
         }
     }
 
+    /**
+     * Converts the source file value object with the transformer and outputs it to the output target.
+     *
+     * The built-in transformers support output targets. A transformer added by a provider may not, and then nothing
+     * is done here, so that the caller can fall back on BlancoCgTransformer#transform(sourceFile, File).
+     *
+     * @param argTransformer
+     *            A transformer got from this factory.
+     * @param argSourceFile
+     *            Source file value object.
+     * @param argOutputTarget
+     *            An output target.
+     * @return True if converted, false if the transformer does not support output targets.
+     */
+    public static boolean transform(final BlancoCgTransformer argTransformer,
+            final BlancoCgSourceFile argSourceFile,
+            final BlancoCgOutputTarget argOutputTarget) {
+        if (argTransformer instanceof AbstractBlancoCgTransformer == false) {
+            return false;
+        }
+        ((AbstractBlancoCgTransformer) argTransformer).transform(argSourceFile,
+                argOutputTarget);
+        return true;
+    }
+
     /**
      * Gets a transformer that generates the Java source code.
      *
@@ -210,4 +249,38 @@ public class BlancoCgTransformerFactory {
     public static BlancoCgTransformer getPhp8SourceTransformer() {
         return new BlancoCgPhp8SourceTransformer();
     }
+
+    /**
+     * Registry of the language backends provided through ServiceLoader.
+     *
+     * The registry is built when this class is initialized, that is, when a language that is not built in is requested for the first time.
+     * Therefore, a run that uses only the built-in languages does not pay for ServiceLoader.
+     */
+    private static class ProviderRegistry {
+        /**
+         * Map from a programming language to its provider.
+         */
+        static final Map<Integer, BlancoCgTransformerProvider> PROVIDER_MAP = loadProviders();
+
+        /**
+         * Discovers the providers.
+         *
+         * If more than one provider supports the same language, the first one found is used.
+         *
+         * @return Map from a programming language to its provider.
+         */
+        private static Map<Integer, BlancoCgTransformerProvider> loadProviders() {
+            final Map<Integer, BlancoCgTransformerProvider> providerMap = new HashMap<Integer, BlancoCgTransformerProvider>();
+            for (BlancoCgTransformerProvider provider : ServiceLoader.load(
+                    BlancoCgTransformerProvider.class,
+                    BlancoCgTransformerProvider.class.getClassLoader())) {
+                final Integer lang = Integer.valueOf(provider
+                        .getSupportedLang());
+                if (providerMap.containsKey(lang) == false) {
+                    providerMap.put(lang, provider);
+                }
+            }
+            return providerMap;
+        }
+    }
 }
@@ -0,0 +1,51 @@
+/*
+ * blanco Framework
+ * Copyright (C) 2004-2017 IGA Tosiki
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ */
+/*
+ * Copyright 2017 Toshiki Iga
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package blanco.cg.transformer;
+
+import blanco.cg.BlancoCgTransformer;
+
+/**
+ * A service provider of a language backend that is not built in blancoCg.
+ *
+ * Providers are discovered through java.util.ServiceLoader and registered in BlancoCgTransformerFactory by the programming language they support.<br>
+ * A provider must be listed in META-INF/services/blanco.cg.transformer.BlancoCgTransformerProvider and have a public constructor with no arguments.
+ * The provider itself should be lightweight, since every provider is instantiated when the registry is built.
+ * The transformer, and the formatters it depends on, should be loaded only when createTransformer() is called.
+ */
+public interface BlancoCgTransformerProvider {
+    /**
+     * Gets the programming language supported by this provider.
+     *
+     * @return A programming language, specified by BlancoCgSupportedLang.
+     */
+    int getSupportedLang();
+
+    /**
+     * Creates a new transformer.
+     *
+     * @return A transformer for source code conversion.
+     */
+    BlancoCgTransformer createTransformer();
+}
@@ -0,0 +1,91 @@
+/*
+ * blanco Framework
+ * Copyright (C) 2004-2017 IGA Tosiki
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ */
+/*
+ * Copyright 2017 Toshiki Iga
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package blanco.cg.transformer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * An output target that streams source files into a zip file, such as a .srcjar.
+ *
+ * Each source file becomes an entry as soon as it is written, so no file is created on the disk.<br>
+ * All entries have the same fixed time so that the same models always give the same archive. A path can be written
+ * only once. Call close() after all source files are written.<br>
+ * Source files may be written from several threads; the entries are written one at a time.
+ */
+public class BlancoCgZipOutputTarget implements BlancoCgOutputTarget, Closeable {
+    /**
+     * Time of every entry: 1980-01-01 00:00 in the local time, the earliest time of the zip format.
+     */
+    private static final long ENTRY_TIME = new java.util.GregorianCalendar(
+            1980, 0, 1).getTimeInMillis();
+
+    /**
+     * Zip stream to be written.
+     */
+    private final ZipOutputStream fZipStream;
+
+    /**
+     * Constructor.
+     *
+     * @param argOutStream
+     *            A stream to write the zip file. It is closed by close().
+     */
+    public BlancoCgZipOutputTarget(final OutputStream argOutStream) {
+        if (argOutStream == null) {
+            throw new IllegalArgumentException(
+                    "An output stream was given as null. Aborts the process.");
+        }
+        fZipStream = new ZipOutputStream(argOutStream);
+    }
+
+    public synchronized int write(final String argPath, final byte[] argContent)
+            throws IOException {
+        final ZipEntry entry = new ZipEntry(argPath);
+        entry.setTime(ENTRY_TIME);
+        // A duplicate path is reported as a ZipException by the stream.
+        fZipStream.putNextEntry(entry);
+        fZipStream.write(argContent);
+        fZipStream.closeEntry();
+        return CREATE;
+    }
+
+    public String getLocation(final String argPath) {
+        return "zip:" + argPath;
+    }
+
+    /**
+     * Finishes the zip file and closes the stream.
+     *
+     * @throws IOException
+     *             If an I/O exception occurs.
+     */
+    public synchronized void close() throws IOException {
+        fZipStream.close();
+    }
+}
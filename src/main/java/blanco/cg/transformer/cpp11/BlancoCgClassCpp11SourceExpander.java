@@ -26,6 +26,7 @@ package blanco.cg.transformer.cpp11;
 
 import java.util.List;
 
+import blanco.cg.transformer.BlancoCgSourceLineList;
 import blanco.cg.valueobject.BlancoCgClass;
 import blanco.cg.valueobject.BlancoCgEnum;
 import blanco.cg.valueobject.BlancoCgField;
@@ -54,18 +55,23 @@ class BlancoCgClassCpp11SourceExpander {
     public void transformClass(final BlancoCgClass cgClass,
             final BlancoCgSourceFile argSourceFile,
             final List<java.lang.String> argSourceLines) {
-        // First, it expands the class information into a LangDoc.
-        if (cgClass.getLangDoc() == null) {
-            // If LangDoc is not specified, creates an instance here.
-            cgClass.setLangDoc(new BlancoCgLangDoc());
-        }
-        if (cgClass.getLangDoc().getTitle() == null) {
-            cgClass.getLangDoc().setTitle(cgClass.getDescription());
-        }
+        BlancoCgSourceLineList.rejectVerbatimFiles(cgClass.getVerbatimFileList(),
+                "C++11");
+
+        if (argSourceFile.getIsLean() == false) {
+            // First, it expands the class information into a LangDoc.
+            if (cgClass.getLangDoc() == null) {
+                // If LangDoc is not specified, creates an instance here.
+                cgClass.setLangDoc(new BlancoCgLangDoc());
+            }
+            if (cgClass.getLangDoc().getTitle() == null) {
+                cgClass.getLangDoc().setTitle(cgClass.getDescription());
+            }
 
-        // Next, it expands LangDoc into source code format.
-        new BlancoCgLangDocCpp11SourceExpander().transformLangDoc(cgClass
-                .getLangDoc(), argSourceLines);
+            // Next, it expands LangDoc into source code format.
+            new BlancoCgLangDocCpp11SourceExpander().transformLangDoc(cgClass
+                    .getLangDoc(), argSourceLines);
+        }
 
         // Expands annotations.
         expandAnnotationList(cgClass, argSourceLines);
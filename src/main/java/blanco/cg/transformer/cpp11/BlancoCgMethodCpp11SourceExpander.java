@@ -28,6 +28,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import blanco.cg.BlancoCgSupportedLang;
+import blanco.cg.transformer.BlancoCgSourceLineList;
 import blanco.cg.util.BlancoCgLineUtil;
 import blanco.cg.valueobject.BlancoCgException;
 import blanco.cg.valueobject.BlancoCgLangDoc;
@@ -79,9 +80,11 @@ class BlancoCgMethodCpp11SourceExpander {
 
         // Now that we have a complete set of information, performs the actual expansion of the source code.
 
-        // Next, it expands LangDoc into source code format.
-        new BlancoCgLangDocCpp11SourceExpander().transformLangDoc(cgMethod
-                .getLangDoc(), argSourceLines);
+        if (argSourceFile.getIsLean() == false) {
+            // Next, it expands LangDoc into source code format.
+            new BlancoCgLangDocCpp11SourceExpander().transformLangDoc(cgMethod
+                    .getLangDoc(), argSourceLines);
+        }
 
         // Expands annotations.
         expandAnnotationList(cgMethod, argSourceLines);
@@ -101,21 +104,23 @@ class BlancoCgMethodCpp11SourceExpander {
      */
     private void prepareExpand(final BlancoCgMethod cgMethod,
             final BlancoCgSourceFile argSourceFile) {
-        // First, it expands the method information into LangDoc.
-        if (cgMethod.getLangDoc() == null) {
-            // Creates an instance here if LangDoc is not specified.
-            cgMethod.setLangDoc(new BlancoCgLangDoc());
-        }
-        if (cgMethod.getLangDoc().getParameterList() == null) {
-            cgMethod.getLangDoc().setParameterList(
-                    new ArrayList<blanco.cg.valueobject.BlancoCgParameter>());
-        }
-        if (cgMethod.getLangDoc().getThrowList() == null) {
-            cgMethod.getLangDoc().setThrowList(
-                    new ArrayList<blanco.cg.valueobject.BlancoCgException>());
-        }
-        if (cgMethod.getLangDoc().getTitle() == null) {
-            cgMethod.getLangDoc().setTitle(cgMethod.getDescription());
+        if (argSourceFile.getIsLean() == false) {
+            // First, it expands the method information into LangDoc.
+            if (cgMethod.getLangDoc() == null) {
+                // Creates an instance here if LangDoc is not specified.
+                cgMethod.setLangDoc(new BlancoCgLangDoc());
+            }
+            if (cgMethod.getLangDoc().getParameterList() == null) {
+                cgMethod.getLangDoc().setParameterList(
+                        new ArrayList<blanco.cg.valueobject.BlancoCgParameter>());
+            }
+            if (cgMethod.getLangDoc().getThrowList() == null) {
+                cgMethod.getLangDoc().setThrowList(
+                        new ArrayList<blanco.cg.valueobject.BlancoCgException>());
+            }
+            if (cgMethod.getLangDoc().getTitle() == null) {
+                cgMethod.getLangDoc().setTitle(cgMethod.getDescription());
+            }
         }
 
         for (int indexParameter = 0; indexParameter < cgMethod
@@ -126,8 +131,10 @@ class BlancoCgMethodCpp11SourceExpander {
             // Adds a type to the import statement.
             argSourceFile.getImportList().add(cgParameter.getType().getName());
 
-            // Adds a parameter to the language document.
-            cgMethod.getLangDoc().getParameterList().add(cgParameter);
+            if (argSourceFile.getIsLean() == false) {
+                // Adds a parameter to the language document.
+                cgMethod.getLangDoc().getParameterList().add(cgParameter);
+            }
         }
 
         if (cgMethod.getReturn() != null) {
@@ -135,8 +142,10 @@ class BlancoCgMethodCpp11SourceExpander {
             argSourceFile.getImportList().add(
                     cgMethod.getReturn().getType().getName());
 
-            // Adds return to the language document.
-            cgMethod.getLangDoc().setReturn(cgMethod.getReturn());
+            if (argSourceFile.getIsLean() == false) {
+                // Adds return to the language document.
+                cgMethod.getLangDoc().setReturn(cgMethod.getReturn());
+            }
         }
 
         // Expands to LangDoc structure for exceptions.
@@ -147,8 +156,10 @@ class BlancoCgMethodCpp11SourceExpander {
             // Adds a type to the import statement.
             argSourceFile.getImportList().add(cgException.getType().getName());
 
-            // Adds an exception to the language document.
-            cgMethod.getLangDoc().getThrowList().add(cgException);
+            if (argSourceFile.getIsLean() == false) {
+                // Adds an exception to the language document.
+                cgMethod.getLangDoc().getThrowList().add(cgException);
+            }
         }
     }
 
@@ -351,6 +362,10 @@ class BlancoCgMethodCpp11SourceExpander {
             final String strLine = cgMethod.getLineList().get(indexLine);
             argSourceLines.add(strLine);
         }
+
+        // Adds the lazy line source. It is consumed only when the source code is output.
+        BlancoCgSourceLineList.addLineSource(argSourceLines, cgMethod
+                .getLineSource());
     }
 
     /**
@@ -24,6 +24,8 @@
  */
 package blanco.cg.transformer.cpp11;
 
+import blanco.cg.BlancoCgSupportedLang;
+import blanco.cg.util.BlancoCgLangProfile;
 import blanco.cg.valueobject.BlancoCgType;
 import blanco.commons.util.BlancoNameUtil;
 import blanco.commons.util.BlancoStringUtil;
@@ -36,13 +38,6 @@ import blanco.commons.util.BlancoStringUtil;
  * @author IGA Tosiki
  */
 class BlancoCgTypeCpp11SourceExpander {
-    /**
-     * A list of reserved words for programming languages.
-     */
-    private static final String[] LANGUAGE_RESERVED_KEYWORD = { "void", "byte",
-            "short", "int", "long", "char", "float", "double", "decimal",
-            "bool", "string" };
-
     /**
      * Converts blancoCg type to a concrete string.
      * 
@@ -84,14 +79,7 @@ class BlancoCgTypeCpp11SourceExpander {
      * @return Whether or not it corresponded to a reserved word.
      */
     public static boolean isLanguageReservedKeyword(final String argCheck) {
-        for (int index = 0; index < LANGUAGE_RESERVED_KEYWORD.length; index++) {
-            if (LANGUAGE_RESERVED_KEYWORD[index].equals(argCheck)) {
-                // This string is a reserved word.
-                return true;
-            }
-        }
-
-        // Does not match for the keywords. This string is not a reserved word.
-        return false;
+        return BlancoCgLangProfile.getProfile(BlancoCgSupportedLang.CPP11)
+                .isReservedKeyword(argCheck);
     }
 }
@@ -73,18 +73,20 @@ class BlancoCgFieldCsSourceExpander {
         // Adds a line break inevitably.
         argSourceLines.add("");
 
-        // First, it expands the field information into LangDoc.
-        if (cgField.getLangDoc() == null) {
-            // Creates an instance here if LangDoc is not specified.
-            cgField.setLangDoc(new BlancoCgLangDoc());
-        }
-        if (cgField.getLangDoc().getTitle() == null) {
-            cgField.getLangDoc().setTitle(cgField.getDescription());
-        }
+        if (argSourceFile.getIsLean() == false) {
+            // First, it expands the field information into LangDoc.
+            if (cgField.getLangDoc() == null) {
+                // Creates an instance here if LangDoc is not specified.
+                cgField.setLangDoc(new BlancoCgLangDoc());
+            }
+            if (cgField.getLangDoc().getTitle() == null) {
+                cgField.getLangDoc().setTitle(cgField.getDescription());
+            }
 
-        // Next, it expands LangDoc into source code format.
-        new BlancoCgLangDocCsSourceExpander().transformLangDoc(cgField
-                .getLangDoc(), argSourceLines);
+            // Next, it expands LangDoc into source code format.
+            new BlancoCgLangDocCsSourceExpander().transformLangDoc(cgField
+                    .getLangDoc(), argSourceLines);
+        }
 
         final StringBuffer buf = new StringBuffer();
 
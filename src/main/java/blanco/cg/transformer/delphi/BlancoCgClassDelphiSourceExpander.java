@@ -27,6 +27,7 @@ package blanco.cg.transformer.delphi;
 import java.util.ArrayList;
 import java.util.List;
 
+import blanco.cg.transformer.BlancoCgSourceLineList;
 import blanco.cg.valueobject.BlancoCgClass;
 import blanco.cg.valueobject.BlancoCgEnum;
 import blanco.cg.valueobject.BlancoCgField;
@@ -55,18 +56,23 @@ class BlancoCgClassDelphiSourceExpander {
     public void transformClass(final BlancoCgClass cgClass,
             final BlancoCgSourceFile argSourceFile,
             final List<java.lang.String> argSourceLines) {
-        // First, it expands the class information into a LangDoc.
-        if (cgClass.getLangDoc() == null) {
-            // If LangDoc is not specified, creates an instance here.
-            cgClass.setLangDoc(new BlancoCgLangDoc());
-        }
-        if (cgClass.getLangDoc().getTitle() == null) {
-            cgClass.getLangDoc().setTitle(cgClass.getDescription());
-        }
+        BlancoCgSourceLineList.rejectVerbatimFiles(cgClass.getVerbatimFileList(),
+                "Delphi");
+
+        if (argSourceFile.getIsLean() == false) {
+            // First, it expands the class information into a LangDoc.
+            if (cgClass.getLangDoc() == null) {
+                // If LangDoc is not specified, creates an instance here.
+                cgClass.setLangDoc(new BlancoCgLangDoc());
+            }
+            if (cgClass.getLangDoc().getTitle() == null) {
+                cgClass.getLangDoc().setTitle(cgClass.getDescription());
+            }
 
-        // Next, it expands LangDoc into source code format.
-        new BlancoCgLangDocDelphiSourceExpander().transformLangDoc(cgClass
-                .getLangDoc(), argSourceLines);
+            // Next, it expands LangDoc into source code format.
+            new BlancoCgLangDocDelphiSourceExpander().transformLangDoc(cgClass
+                    .getLangDoc(), argSourceLines);
+        }
 
         // Expands annotations.
         expandAnnotationList(cgClass, argSourceLines);
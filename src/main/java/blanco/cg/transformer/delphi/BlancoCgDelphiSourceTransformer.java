@@ -65,11 +65,8 @@ public class BlancoCgDelphiSourceTransformer extends
         final List<java.lang.String> sourceLines = new BlancoCgSourceFileDelphiSourceExpander()
                 .transformSourceFile(argSourceFile);
 
-        // Formats the source code.
-        formatSource(sourceLines);
-
-        // Outputs the source code to the writer.
-        source2Writer(sourceLines, argWriter);
+        // Formats the source code and outputs it to the writer.
+        formatSource2Writer(sourceLines, argWriter);
 
         // Performs a flush to be sure.
         argWriter.flush();
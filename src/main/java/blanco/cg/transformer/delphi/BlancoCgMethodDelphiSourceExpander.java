@@ -28,6 +28,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import blanco.cg.BlancoCgSupportedLang;
+import blanco.cg.transformer.BlancoCgSourceLineList;
 import blanco.cg.util.BlancoCgLineUtil;
 import blanco.cg.valueobject.BlancoCgException;
 import blanco.cg.valueobject.BlancoCgLangDoc;
@@ -81,9 +82,11 @@ class BlancoCgMethodDelphiSourceExpander {
 
         // Now that we have a complete set of information, performs the actual expansion of the source code.
 
-        // Next, it expands LangDoc into source code format.
-        // new BlancoCgLangDocCsSourceExpander().transformLangDoc(cgMethod
-        // .getLangDoc(), argSourceLines);
+        if (argSourceFile.getIsLean() == false) {
+            // Next, it expands LangDoc into source code format.
+            // new BlancoCgLangDocCsSourceExpander().transformLangDoc(cgMethod
+            // .getLangDoc(), argSourceLines);
+        }
 
         // Expands annotations.
         expandAnnotationList(cgMethod, argSourceLines);
@@ -111,7 +114,6 @@ class BlancoCgMethodDelphiSourceExpander {
             final BlancoCgSourceFile argSourceFile,
             final List<java.lang.String> argSourceLines,
             final boolean argIsInterface) {
-
         if (BlancoStringUtil.null2Blank(cgMethod.getName()).length() == 0) {
             throw new IllegalArgumentException("The method name is not set to an appropriate value.");
         }
@@ -126,9 +128,11 @@ class BlancoCgMethodDelphiSourceExpander {
 
         // Now that we have a complete set of information, performs the actual expansion of the source code.
 
-        // Next, it expands LangDoc into source code format.
-        // new BlancoCgLangDocCsSourceExpander().transformLangDoc(cgMethod
-        // .getLangDoc(), argSourceLines);
+        if (argSourceFile.getIsLean() == false) {
+            // Next, it expands LangDoc into source code format.
+            // new BlancoCgLangDocCsSourceExpander().transformLangDoc(cgMethod
+            // .getLangDoc(), argSourceLines);
+        }
 
         // Expands annotations.
         expandAnnotationList(cgMethod, argSourceLines);
@@ -148,21 +152,23 @@ class BlancoCgMethodDelphiSourceExpander {
      */
     private void prepareExpand(final BlancoCgMethod cgMethod,
             final BlancoCgSourceFile argSourceFile) {
-        // First, it expands the method information into LangDoc.
-        if (cgMethod.getLangDoc() == null) {
-            // Creates an instance here if LangDoc is not specified.
-            cgMethod.setLangDoc(new BlancoCgLangDoc());
-        }
-        if (cgMethod.getLangDoc().getParameterList() == null) {
-            cgMethod.getLangDoc().setParameterList(
-                    new ArrayList<blanco.cg.valueobject.BlancoCgParameter>());
-        }
-        if (cgMethod.getLangDoc().getThrowList() == null) {
-            cgMethod.getLangDoc().setThrowList(
-                    new ArrayList<blanco.cg.valueobject.BlancoCgException>());
-        }
-        if (cgMethod.getLangDoc().getTitle() == null) {
-            cgMethod.getLangDoc().setTitle(cgMethod.getDescription());
+        if (argSourceFile.getIsLean() == false) {
+            // First, it expands the method information into LangDoc.
+            if (cgMethod.getLangDoc() == null) {
+                // Creates an instance here if LangDoc is not specified.
+                cgMethod.setLangDoc(new BlancoCgLangDoc());
+            }
+            if (cgMethod.getLangDoc().getParameterList() == null) {
+                cgMethod.getLangDoc().setParameterList(
+                        new ArrayList<blanco.cg.valueobject.BlancoCgParameter>());
+            }
+            if (cgMethod.getLangDoc().getThrowList() == null) {
+                cgMethod.getLangDoc().setThrowList(
+                        new ArrayList<blanco.cg.valueobject.BlancoCgException>());
+            }
+            if (cgMethod.getLangDoc().getTitle() == null) {
+                cgMethod.getLangDoc().setTitle(cgMethod.getDescription());
+            }
         }
 
         for (int indexParameter = 0; indexParameter < cgMethod
@@ -173,8 +179,10 @@ class BlancoCgMethodDelphiSourceExpander {
             // Adds a type to the import statement.
             // argSourceFile.getImportList().add(cgParameter.getType().getName());
 
-            // Adds a parameter to the language document.
-            cgMethod.getLangDoc().getParameterList().add(cgParameter);
+            if (argSourceFile.getIsLean() == false) {
+                // Adds a parameter to the language document.
+                cgMethod.getLangDoc().getParameterList().add(cgParameter);
+            }
         }
 
         if (cgMethod.getReturn() != null) {
@@ -182,8 +190,10 @@ class BlancoCgMethodDelphiSourceExpander {
             // argSourceFile.getImportList().add(
             //        cgMethod.getReturn().getType().getName());
 
-            // Adds return to the language document.
-            cgMethod.getLangDoc().setReturn(cgMethod.getReturn());
+            if (argSourceFile.getIsLean() == false) {
+                // Adds return to the language document.
+                cgMethod.getLangDoc().setReturn(cgMethod.getReturn());
+            }
         }
 
         // Expands to LangDoc structure for exceptions.
@@ -194,8 +204,10 @@ class BlancoCgMethodDelphiSourceExpander {
             // Adds a type to the import statement.
             // argSourceFile.getImportList().add(cgException.getType().getName());
 
-            // Adds an exception to the language document.
-            cgMethod.getLangDoc().getThrowList().add(cgException);
+            if (argSourceFile.getIsLean() == false) {
+                // Adds an exception to the language document.
+                cgMethod.getLangDoc().getThrowList().add(cgException);
+            }
         }
     }
 
@@ -594,6 +606,10 @@ class BlancoCgMethodDelphiSourceExpander {
             final String strLine = cgMethod.getLineList().get(indexLine);
             argSourceLines.add(strLine);
         }
+
+        // Adds the lazy line source. It is consumed only when the source code is output.
+        BlancoCgSourceLineList.addLineSource(argSourceLines, cgMethod
+                .getLineSource());
     }
 
     /**
@@ -24,10 +24,10 @@
  */
 package blanco.cg.transformer.delphi;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import blanco.cg.BlancoCgSupportedLang;
+import blanco.cg.transformer.BlancoCgSourceLineList;
 import blanco.cg.util.BlancoCgLineUtil;
 import blanco.cg.util.BlancoCgSourceFileUtil;
 import blanco.cg.valueobject.BlancoCgClass;
@@ -70,7 +70,7 @@ class BlancoCgSourceFileDelphiSourceExpander {
     public List<java.lang.String> transformSourceFile(
             final BlancoCgSourceFile argSourceFile) {
         // Definitely initializes the list of source lines.
-        fSourceLines = new ArrayList<java.lang.String>();
+        fSourceLines = new BlancoCgSourceLineList();
 
         fCgSourceFile = argSourceFile;
 
@@ -139,6 +139,10 @@ class BlancoCgSourceFileDelphiSourceExpander {
      * Outputs the file headers of the source file.
      */
     private void expandSourceFileHeader() {
+        if (fCgSourceFile.getIsLean()) {
+            // In lean mode, the file comment is not output.
+            return;
+        }
         // Two slashes are considered appropriate for comments in the source file header.
 
         if (BlancoStringUtil.null2Blank(fCgSourceFile.getDescription())
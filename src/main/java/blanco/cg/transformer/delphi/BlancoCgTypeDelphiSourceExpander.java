@@ -24,6 +24,8 @@
  */
 package blanco.cg.transformer.delphi;
 
+import blanco.cg.BlancoCgSupportedLang;
+import blanco.cg.util.BlancoCgLangProfile;
 import blanco.cg.valueobject.BlancoCgType;
 import blanco.commons.util.BlancoStringUtil;
 
@@ -35,13 +37,6 @@ import blanco.commons.util.BlancoStringUtil;
  * @author IGA Tosiki
  */
 class BlancoCgTypeDelphiSourceExpander {
-    /**
-     * A list of reserved words for programming languages.
-     */
-    private static final String[] LANGUAGE_RESERVED_KEYWORD = { "void", "byte",
-            "short", "int", "long", "char", "float", "double", "decimal",
-            "bool", "string" };
-
     /**
      * Converts blancoCg type to a concrete string.
      * 
@@ -83,14 +78,7 @@ class BlancoCgTypeDelphiSourceExpander {
      * @return Whether or not it corresponded to a reserved word.
      */
     public static boolean isLanguageReservedKeyword(final String argCheck) {
-        for (int index = 0; index < LANGUAGE_RESERVED_KEYWORD.length; index++) {
-            if (LANGUAGE_RESERVED_KEYWORD[index].equals(argCheck)) {
-                // This string is a reserved word.
-                return true;
-            }
-        }
-
-        // Does not match for the keywords. This string is not a reserved word.
-        return false;
+        return BlancoCgLangProfile.getProfile(BlancoCgSupportedLang.DELPHI)
+                .isReservedKeyword(argCheck);
     }
 }
@@ -26,14 +26,14 @@ package blanco.cg.transformer.java;
 
 import java.util.List;
 
+import blanco.cg.transformer.BlancoCgParallelExpander;
+import blanco.cg.transformer.BlancoCgSourceLineList;
 import blanco.cg.util.BlancoCgSourceUtil;
 import blanco.cg.valueobject.BlancoCgClass;
-import blanco.cg.valueobject.BlancoCgEnum;
-import blanco.cg.valueobject.BlancoCgField;
 import blanco.cg.valueobject.BlancoCgLangDoc;
-import blanco.cg.valueobject.BlancoCgMethod;
 import blanco.cg.valueobject.BlancoCgSourceFile;
 import blanco.cg.valueobject.BlancoCgType;
+import blanco.cg.valueobject.BlancoCgVerbatimFile;
 import blanco.commons.util.BlancoStringUtil;
 
 /**
@@ -56,18 +56,20 @@ class BlancoCgClassJavaSourceExpander {
     public void transformClass(final BlancoCgClass cgClass,
             final BlancoCgSourceFile argSourceFile,
             final List<java.lang.String> argSourceLines) {
-        // First, it expands the class information into a LangDoc.
-        if (cgClass.getLangDoc() == null) {
-            // If LangDoc is not specified, creates an instance here.
-            cgClass.setLangDoc(new BlancoCgLangDoc());
-        }
-        if (cgClass.getLangDoc().getTitle() == null) {
-            cgClass.getLangDoc().setTitle(cgClass.getDescription());
-        }
+        if (argSourceFile.getIsLean() == false) {
+            // First, it expands the class information into a LangDoc.
+            if (cgClass.getLangDoc() == null) {
+                // If LangDoc is not specified, creates an instance here.
+                cgClass.setLangDoc(new BlancoCgLangDoc());
+            }
+            if (cgClass.getLangDoc().getTitle() == null) {
+                cgClass.getLangDoc().setTitle(cgClass.getDescription());
+            }
 
-        // Next, it expands LangDoc into source code format.
-        new BlancoCgLangDocJavaSourceExpander().transformLangDoc(cgClass
-                .getLangDoc(), argSourceLines);
+            // Next, it expands LangDoc into source code format.
+            new BlancoCgLangDocJavaSourceExpander().transformLangDoc(cgClass
+                    .getLangDoc(), argSourceLines);
+        }
 
         // Expands annotations.
         expandAnnotationList(cgClass, argSourceLines);
@@ -206,10 +208,11 @@ class BlancoCgClassJavaSourceExpander {
             return;
         }
 
-        for (BlancoCgEnum cgEnum : cgClass.getEnumList()) {
-            new BlancoCgEnumJavaSourceExpander().transformEnum(cgEnum,
-                    argSourceFile, argSourceLines);
-        }
+        BlancoCgParallelExpander.expand(cgClass.getEnumList(), argSourceFile,
+                argSourceLines, (cgEnum, sourceFile, sourceLines) -> {
+                    new BlancoCgEnumJavaSourceExpander().transformEnum(cgEnum,
+                            sourceFile, sourceLines);
+                });
     }
 
     /**
@@ -234,16 +237,19 @@ class BlancoCgClassJavaSourceExpander {
             throw new IllegalArgumentException("A null was given for the list of fields.");
         }
 
-        for (BlancoCgField cgField : cgClass.getFieldList()) {
-            // Expands as a field of the class.
-            new BlancoCgFieldJavaSourceExpander().transformField(cgField,
-                    argSourceFile, argSourceLines, false);
-        }
+        BlancoCgParallelExpander.expand(cgClass.getFieldList(), argSourceFile,
+                argSourceLines, (cgField, sourceFile, sourceLines) -> {
+                    // Expands as a field of the class.
+                    new BlancoCgFieldJavaSourceExpander().transformField(
+                            cgField, sourceFile, sourceLines, false);
+                });
     }
 
     /**
      * Expands each method contained in the class.
      * 
+     * The methods of a large class are expanded concurrently (see BlancoCgParallelExpander).
+     * 
      * @param cgClass
      *            The class being processed.
      * @param argSourceFile
@@ -257,11 +263,13 @@ class BlancoCgClassJavaSourceExpander {
         if (cgClass.getMethodList() == null) {
             throw new IllegalArgumentException("A null was given for the list of method.");
         }
-        for (BlancoCgMethod cgMethod : cgClass.getMethodList()) {
-            // Expands as a method of the class.
-            new BlancoCgMethodJavaSourceExpander().transformMethod(cgMethod,
-                    argSourceFile, argSourceLines, false);
-        }
+        BlancoCgParallelExpander.expand(cgClass.getMethodList(),
+                argSourceFile, argSourceLines, (cgMethod, sourceFile,
+                        sourceLines) -> {
+                    // Expands as a method of the class.
+                    new BlancoCgMethodJavaSourceExpander().transformMethod(
+                            cgMethod, sourceFile, sourceLines, false);
+                });
     }
 
     /**
@@ -281,6 +289,15 @@ class BlancoCgClassJavaSourceExpander {
         for (String planText : plainTextList) {
             argSourceLines.add(planText);
         }
+
+        // Adds the lazy plain text source. It is consumed only when the source code is output.
+        BlancoCgSourceLineList.addLineSource(argSourceLines, cgClass
+                .getPlainTextSource());
+
+        // Adds the pre-formatted files. They are copied to the output as they are.
+        for (BlancoCgVerbatimFile verbatimFile : cgClass.getVerbatimFileList()) {
+            BlancoCgSourceLineList.addVerbatimFile(argSourceLines, verbatimFile);
+        }
     }
 
 }
@@ -57,18 +57,20 @@ class BlancoCgEnumClassJavaSourceExpander {
     public void transformEnumClass(final BlancoCgEnum cgEnumClass,
             final BlancoCgSourceFile argSourceFile,
             final List<String> argSourceLines) {
-        // First, it expands the class information into a LangDoc.
-        if (cgEnumClass.getLangDoc() == null) {
-            // If LangDoc is not specified, creates an instance here.
-            cgEnumClass.setLangDoc(new BlancoCgLangDoc());
-        }
-        if (cgEnumClass.getLangDoc().getTitle() == null) {
-            cgEnumClass.getLangDoc().setTitle(cgEnumClass.getDescription());
-        }
+        if (argSourceFile.getIsLean() == false) {
+            // First, it expands the class information into a LangDoc.
+            if (cgEnumClass.getLangDoc() == null) {
+                // If LangDoc is not specified, creates an instance here.
+                cgEnumClass.setLangDoc(new BlancoCgLangDoc());
+            }
+            if (cgEnumClass.getLangDoc().getTitle() == null) {
+                cgEnumClass.getLangDoc().setTitle(cgEnumClass.getDescription());
+            }
 
-        // Next, it expands LangDoc into source code format.
-        new BlancoCgLangDocJavaSourceExpander().transformLangDoc(cgEnumClass
-                .getLangDoc(), argSourceLines);
+            // Next, it expands LangDoc into source code format.
+            new BlancoCgLangDocJavaSourceExpander().transformLangDoc(cgEnumClass
+                    .getLangDoc(), argSourceLines);
+        }
 
         // Expands annotations.
         // Not support annotations yet.
@@ -140,7 +142,8 @@ class BlancoCgEnumClassJavaSourceExpander {
                 argSourceLines.add(buf.toString());
                 buf.setLength(0);
             }
-            if (BlancoStringUtil.null2Blank(element.getDescription()).length() > 0) {
+            if (argSourceFile.getIsLean() == false
+                    && BlancoStringUtil.null2Blank(element.getDescription()).length() > 0) {
                 buf.append(" /** "
                         + BlancoCgSourceUtil.escapeStringAsLangDoc(TARGET_LANG,
                         element.getDescription()) + " */");
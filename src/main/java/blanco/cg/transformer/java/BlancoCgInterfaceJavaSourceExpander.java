@@ -26,6 +26,7 @@ package blanco.cg.transformer.java;
 
 import java.util.List;
 
+import blanco.cg.transformer.BlancoCgSourceLineList;
 import blanco.cg.util.BlancoCgSourceUtil;
 import blanco.cg.valueobject.BlancoCgField;
 import blanco.cg.valueobject.BlancoCgInterface;
@@ -55,20 +56,25 @@ class BlancoCgInterfaceJavaSourceExpander {
     public void transformInterface(final BlancoCgInterface cgInterface,
             final BlancoCgSourceFile argSourceFile,
             final List<java.lang.String> argSourceLines) {
+        BlancoCgSourceLineList.rejectVerbatimFiles(cgInterface.getVerbatimFileList(),
+                "Java");
+
         // In the case of an interface, "public" is excluded from fields and methods.
 
-        // First, it expands the interface information into LangDoc.
-        if (cgInterface.getLangDoc() == null) {
-            // If LangDoc is not specified, creates an instance here.
-            cgInterface.setLangDoc(new BlancoCgLangDoc());
-        }
-        if (cgInterface.getLangDoc().getTitle() == null) {
-            cgInterface.getLangDoc().setTitle(cgInterface.getDescription());
-        }
+        if (argSourceFile.getIsLean() == false) {
+            // First, it expands the interface information into LangDoc.
+            if (cgInterface.getLangDoc() == null) {
+                // If LangDoc is not specified, creates an instance here.
+                cgInterface.setLangDoc(new BlancoCgLangDoc());
+            }
+            if (cgInterface.getLangDoc().getTitle() == null) {
+                cgInterface.getLangDoc().setTitle(cgInterface.getDescription());
+            }
 
-        // Next, it expands LangDoc into source code format.
-        new BlancoCgLangDocJavaSourceExpander().transformLangDoc(cgInterface
-                .getLangDoc(), argSourceLines);
+            // Next, it expands LangDoc into source code format.
+            new BlancoCgLangDocJavaSourceExpander().transformLangDoc(cgInterface
+                    .getLangDoc(), argSourceLines);
+        }
 
         // Expands annotations.
         expandAnnotationList(cgInterface, argSourceLines);
@@ -28,6 +28,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import blanco.cg.BlancoCgSupportedLang;
+import blanco.cg.transformer.BlancoCgSourceLineList;
 import blanco.cg.util.BlancoCgLineUtil;
 import blanco.cg.util.BlancoCgSourceUtil;
 import blanco.cg.valueobject.*;
@@ -77,9 +78,11 @@ class BlancoCgMethodJavaSourceExpander {
 
         // Now that we have a complete set of information, performs the actual expansion of the source code.
 
-        // Next, it expands LangDoc into source code format.
-        new BlancoCgLangDocJavaSourceExpander().transformLangDoc(cgMethod
-                .getLangDoc(), argSourceLines);
+        if (argSourceFile.getIsLean() == false) {
+            // Next, it expands LangDoc into source code format.
+            new BlancoCgLangDocJavaSourceExpander().transformLangDoc(cgMethod
+                    .getLangDoc(), argSourceLines);
+        }
 
         // Expands annotations.
         expandAnnotationList(cgMethod, argSourceLines);
@@ -98,21 +101,23 @@ class BlancoCgMethodJavaSourceExpander {
      */
     private void prepareExpand(final BlancoCgMethod cgMethod,
             final BlancoCgSourceFile argSourceFile) {
-        // First, it expands the method information into LangDoc.
-        if (cgMethod.getLangDoc() == null) {
-            // Creates an instance here if LangDoc is not specified.
-            cgMethod.setLangDoc(new BlancoCgLangDoc());
-        }
-        if (cgMethod.getLangDoc().getParameterList() == null) {
-            cgMethod.getLangDoc().setParameterList(
-                    new ArrayList<blanco.cg.valueobject.BlancoCgParameter>());
-        }
-        if (cgMethod.getLangDoc().getThrowList() == null) {
-            cgMethod.getLangDoc().setThrowList(
-                    new ArrayList<blanco.cg.valueobject.BlancoCgException>());
-        }
-        if (cgMethod.getLangDoc().getTitle() == null) {
-            cgMethod.getLangDoc().setTitle(cgMethod.getDescription());
+        if (argSourceFile.getIsLean() == false) {
+            // First, it expands the method information into LangDoc.
+            if (cgMethod.getLangDoc() == null) {
+                // Creates an instance here if LangDoc is not specified.
+                cgMethod.setLangDoc(new BlancoCgLangDoc());
+            }
+            if (cgMethod.getLangDoc().getParameterList() == null) {
+                cgMethod.getLangDoc().setParameterList(
+                        new ArrayList<blanco.cg.valueobject.BlancoCgParameter>());
+            }
+            if (cgMethod.getLangDoc().getThrowList() == null) {
+                cgMethod.getLangDoc().setThrowList(
+                        new ArrayList<blanco.cg.valueobject.BlancoCgException>());
+            }
+            if (cgMethod.getLangDoc().getTitle() == null) {
+                cgMethod.getLangDoc().setTitle(cgMethod.getDescription());
+            }
         }
 
         for (BlancoCgParameter cgParameter : cgMethod.getParameterList()) {
@@ -123,12 +128,15 @@ class BlancoCgMethodJavaSourceExpander {
             // Adds a type to the import statement.
             BlancoCgSourceFileJavaSourceExpander.typeToImport(cgType, argSourceFile);
 
-            // Adds a parameter to the language document.
-            cgMethod.getLangDoc().getParameterList().add(cgParameter);
+            if (argSourceFile.getIsLean() == false) {
+                // Adds a parameter to the language document.
+                cgMethod.getLangDoc().getParameterList().add(cgParameter);
+            }
         }
 
         // Adds virtual parameter (generic) to langDoc.
-        if (cgMethod.getVirtualParameterList() != null && cgMethod.getVirtualParameterList().size() > 0) {
+        if (argSourceFile.getIsLean() == false
+                && cgMethod.getVirtualParameterList() != null && cgMethod.getVirtualParameterList().size() > 0) {
             cgMethod.getLangDoc().getVirtualParameterList().addAll(cgMethod.getVirtualParameterList());
         }
 
@@ -139,8 +147,10 @@ class BlancoCgMethodJavaSourceExpander {
             // Adds a type to the import statement.
             BlancoCgSourceFileJavaSourceExpander.typeToImport(cgMethod.getReturn().getType(), argSourceFile);
 
-            // Adds return to the language document.
-            cgMethod.getLangDoc().setReturn(cgMethod.getReturn());
+            if (argSourceFile.getIsLean() == false) {
+                // Adds return to the language document.
+                cgMethod.getLangDoc().setReturn(cgMethod.getReturn());
+            }
         }
 
         // Expands to LangDoc structure for exceptions.
@@ -148,8 +158,10 @@ class BlancoCgMethodJavaSourceExpander {
             // Adds a type to the import statement.
             argSourceFile.getImportList().add(cgException.getType().getName());
 
-            // Adds an exception to the language document.
-            cgMethod.getLangDoc().getThrowList().add(cgException);
+            if (argSourceFile.getIsLean() == false) {
+                // Adds an exception to the language document.
+                cgMethod.getLangDoc().getThrowList().add(cgException);
+            }
         }
     }
 
@@ -377,5 +389,9 @@ class BlancoCgMethodJavaSourceExpander {
         for (String strLine : cgMethod.getLineList()) {
             argSourceLines.add(strLine);
         }
+
+        // Adds the lazy line source. It is consumed only when the source code is output.
+        BlancoCgSourceLineList.addLineSource(argSourceLines, cgMethod
+                .getLineSource());
     }
 }
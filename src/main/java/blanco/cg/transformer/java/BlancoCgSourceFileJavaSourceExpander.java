@@ -24,10 +24,10 @@
  */
 package blanco.cg.transformer.java;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import blanco.cg.BlancoCgSupportedLang;
+import blanco.cg.transformer.BlancoCgSourceLineList;
 import blanco.cg.util.BlancoCgLineUtil;
 import blanco.cg.util.BlancoCgSourceUtil;
 import blanco.cg.valueobject.*;
@@ -68,7 +68,7 @@ class BlancoCgSourceFileJavaSourceExpander {
     public List<java.lang.String> transformSourceFile(
             final BlancoCgSourceFile argSourceFile) {
         // Definitely initializes the list of source lines.
-        fSourceLines = new ArrayList<java.lang.String>();
+        fSourceLines = new BlancoCgSourceLineList();
 
         fCgSourceFile = argSourceFile;
 
@@ -129,6 +129,10 @@ class BlancoCgSourceFileJavaSourceExpander {
      * Outputs the file headers of the source file.
      */
     private void expandSourceFileHeader() {
+        if (fCgSourceFile.getIsLean()) {
+            // In lean mode, the file comment is not output.
+            return;
+        }
         if (BlancoStringUtil.null2Blank(fCgSourceFile.getDescription()).length() == 0
                 && BlancoStringUtil.null2Blank(fCgSourceFile.getLangDoc().getTitle()).length() == 0
                 && fCgSourceFile.getLangDoc().getDescriptionList().size() == 0
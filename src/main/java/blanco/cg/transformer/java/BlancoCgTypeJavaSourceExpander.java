@@ -26,6 +26,7 @@ package blanco.cg.transformer.java;
 
 import blanco.cg.BlancoCgObjectFactory;
 import blanco.cg.BlancoCgSupportedLang;
+import blanco.cg.util.BlancoCgLangProfile;
 import blanco.cg.util.BlancoCgSourceUtil;
 import blanco.cg.valueobject.BlancoCgSourceFile;
 import blanco.cg.valueobject.BlancoCgType;
@@ -40,12 +41,6 @@ import blanco.commons.util.BlancoStringUtil;
  * @author IGA Tosiki
  */
 class BlancoCgTypeJavaSourceExpander {
-    /**
-     * A list of reserved words for programming languages.
-     */
-    private static final String[] LANGUAGE_RESERVED_KEYWORD = { "void", "byte",
-            "short", "int", "long", "char", "float", "double", "boolean" };
-
     /**
      * Converts blancoCg type to a concrete string.
      * 
@@ -73,14 +68,7 @@ class BlancoCgTypeJavaSourceExpander {
      *      Edition)</a>
      */
     public static boolean isLanguageReservedKeyword(final String argCheck) {
-        for (int index = 0; index < LANGUAGE_RESERVED_KEYWORD.length; index++) {
-            if (LANGUAGE_RESERVED_KEYWORD[index].equals(argCheck)) {
-                // This string is a reserved word.
-                return true;
-            }
-        }
-
-        // Does not match for the keywords. This string is not a reserved word.
-        return false;
+        return BlancoCgLangProfile.getProfile(BlancoCgSupportedLang.JAVA)
+                .isReservedKeyword(argCheck);
     }
 }
@@ -27,6 +27,7 @@ package blanco.cg.transformer.js;
 import java.util.List;
 
 import blanco.cg.BlancoCgObjectFactory;
+import blanco.cg.transformer.BlancoCgSourceLineList;
 import blanco.cg.valueobject.BlancoCgClass;
 import blanco.cg.valueobject.BlancoCgLangDoc;
 import blanco.cg.valueobject.BlancoCgMethod;
@@ -52,18 +53,23 @@ class BlancoCgClassJsSourceExpander {
     public void transformClass(final BlancoCgClass cgClass,
             final BlancoCgSourceFile argSourceFile,
             final List<java.lang.String> argSourceLines) {
-        // First, it expands the class information into a LangDoc.
-        if (cgClass.getLangDoc() == null) {
-            // If LangDoc is not specified, creates an instance here.
-            cgClass.setLangDoc(new BlancoCgLangDoc());
-        }
-        if (cgClass.getLangDoc().getTitle() == null) {
-            cgClass.getLangDoc().setTitle(cgClass.getDescription());
-        }
+        BlancoCgSourceLineList.rejectVerbatimFiles(cgClass.getVerbatimFileList(),
+                "JavaScript");
+
+        if (argSourceFile.getIsLean() == false) {
+            // First, it expands the class information into a LangDoc.
+            if (cgClass.getLangDoc() == null) {
+                // If LangDoc is not specified, creates an instance here.
+                cgClass.setLangDoc(new BlancoCgLangDoc());
+            }
+            if (cgClass.getLangDoc().getTitle() == null) {
+                cgClass.getLangDoc().setTitle(cgClass.getDescription());
+            }
 
-        // Next, it expands LangDoc into source code format.
-        // new BlancoCgLangDocJsSourceExpander().transformLangDoc(cgClass
-        // .getLangDoc(), argSourceLines);
+            // Next, it expands LangDoc into source code format.
+            // new BlancoCgLangDocJsSourceExpander().transformLangDoc(cgClass
+            // .getLangDoc(), argSourceLines);
+        }
 
         // Expands annotations.
         expandAnnotationList(cgClass, argSourceLines);
@@ -75,35 +75,37 @@ class BlancoCgFieldJsSourceExpander {
         // Adds a line break inevitably.
         argSourceLines.add("");
 
-        // First, it expands the field information into LangDoc.
-        if (cgField.getLangDoc() == null) {
-            // Creates an instance here if LangDoc is not specified.
-            cgField.setLangDoc(new BlancoCgLangDoc());
-        }
-        if (cgField.getLangDoc().getTitle() == null) {
-            cgField.getLangDoc().setTitle(cgField.getDescription());
-        }
+        if (argSourceFile.getIsLean() == false) {
+            // First, it expands the field information into LangDoc.
+            if (cgField.getLangDoc() == null) {
+                // Creates an instance here if LangDoc is not specified.
+                cgField.setLangDoc(new BlancoCgLangDoc());
+            }
+            if (cgField.getLangDoc().getTitle() == null) {
+                cgField.getLangDoc().setTitle(cgField.getDescription());
+            }
 
-        if (BlancoStringUtil.null2Blank(cgField.getAccess()).equals("private")
-                || BlancoStringUtil.null2Blank(cgField.getAccess()).equals(
-                        "protected")) {
-            // Expands the scope expression only if it is protected or private.
-            cgField.getLangDoc().getTagList().add(
-                    BlancoCgObjectFactory.getInstance().createLangDocTag(
-                            cgField.getAccess(), null, ""));
-        }
+            if (BlancoStringUtil.null2Blank(cgField.getAccess()).equals("private")
+                    || BlancoStringUtil.null2Blank(cgField.getAccess()).equals(
+                            "protected")) {
+                // Expands the scope expression only if it is protected or private.
+                cgField.getLangDoc().getTagList().add(
+                        BlancoCgObjectFactory.getInstance().createLangDocTag(
+                                cgField.getAccess(), null, ""));
+            }
 
-        if (BlancoStringUtil.null2Blank(cgField.getType().getName()).length() > 0
-                || BlancoStringUtil.null2Blank(cgField.getType().getName())
-                        .equals("void") == false) {
-            cgField.getLangDoc().getTagList().add(
-                    BlancoCgObjectFactory.getInstance().createLangDocTag(
-                            "type", null, cgField.getType().getName()));
-        }
+            if (BlancoStringUtil.null2Blank(cgField.getType().getName()).length() > 0
+                    || BlancoStringUtil.null2Blank(cgField.getType().getName())
+                            .equals("void") == false) {
+                cgField.getLangDoc().getTagList().add(
+                        BlancoCgObjectFactory.getInstance().createLangDocTag(
+                                "type", null, cgField.getType().getName()));
+            }
 
-        // Next, it expands LangDoc into source code format.
-        new BlancoCgLangDocJsSourceExpander().transformLangDoc(cgField
-                .getLangDoc(), argSourceLines);
+            // Next, it expands LangDoc into source code format.
+            new BlancoCgLangDocJsSourceExpander().transformLangDoc(cgField
+                    .getLangDoc(), argSourceLines);
+        }
 
         final StringBuffer buf = new StringBuffer();
 
@@ -29,6 +29,7 @@ import java.util.List;
 
 import blanco.cg.BlancoCgObjectFactory;
 import blanco.cg.BlancoCgSupportedLang;
+import blanco.cg.transformer.BlancoCgSourceLineList;
 import blanco.cg.util.BlancoCgLineUtil;
 import blanco.cg.valueobject.BlancoCgClass;
 import blanco.cg.valueobject.BlancoCgException;
@@ -80,9 +81,11 @@ class BlancoCgMethodJsSourceExpander {
 
         // Now that we have a complete set of information, performs the actual expansion of the source code.
 
-        // Next, expands LangDoc into source code format.
-        new BlancoCgLangDocJsSourceExpander().transformLangDoc(cgMethod
-                .getLangDoc(), argSourceLines);
+        if (argSourceFile.getIsLean() == false) {
+            // Next, expands LangDoc into source code format.
+            new BlancoCgLangDocJsSourceExpander().transformLangDoc(cgMethod
+                    .getLangDoc(), argSourceLines);
+        }
 
         // Expands annotations.
         expandAnnotationList(cgMethod, argSourceLines);
@@ -134,42 +137,44 @@ class BlancoCgMethodJsSourceExpander {
     private void prepareExpand(final BlancoCgClass cgClass,
             final BlancoCgMethod cgMethod,
             final BlancoCgSourceFile argSourceFile) {
-        // First, it expands the method information into LangDoc.
-        if (cgMethod.getLangDoc() == null) {
-            // Creates an instance here if LangDoc is not specified.
-            cgMethod.setLangDoc(new BlancoCgLangDoc());
-        }
-        if (cgMethod.getLangDoc().getParameterList() == null) {
-            cgMethod.getLangDoc().setParameterList(
-                    new ArrayList<blanco.cg.valueobject.BlancoCgParameter>());
-        }
-        if (cgMethod.getLangDoc().getThrowList() == null) {
-            cgMethod.getLangDoc().setThrowList(
-                    new ArrayList<blanco.cg.valueobject.BlancoCgException>());
-        }
-        if (cgMethod.getLangDoc().getTitle() == null) {
-            cgMethod.getLangDoc().setTitle(cgMethod.getDescription());
-        }
+        if (argSourceFile.getIsLean() == false) {
+            // First, it expands the method information into LangDoc.
+            if (cgMethod.getLangDoc() == null) {
+                // Creates an instance here if LangDoc is not specified.
+                cgMethod.setLangDoc(new BlancoCgLangDoc());
+            }
+            if (cgMethod.getLangDoc().getParameterList() == null) {
+                cgMethod.getLangDoc().setParameterList(
+                        new ArrayList<blanco.cg.valueobject.BlancoCgParameter>());
+            }
+            if (cgMethod.getLangDoc().getThrowList() == null) {
+                cgMethod.getLangDoc().setThrowList(
+                        new ArrayList<blanco.cg.valueobject.BlancoCgException>());
+            }
+            if (cgMethod.getLangDoc().getTitle() == null) {
+                cgMethod.getLangDoc().setTitle(cgMethod.getDescription());
+            }
 
-        if (cgMethod.getConstructor()) {
-            // Expands the function name itself into a LangDoc.
-            cgMethod.getLangDoc().getTagList().add(
-                    BlancoCgObjectFactory.getInstance().createLangDocTag(
-                            "class", null, cgClass.getDescription()));
-
-            cgMethod.getLangDoc().getTagList().add(
-                    BlancoCgObjectFactory.getInstance().createLangDocTag(
-                            "constructor", null, ""));
-        } else {
-            cgMethod.getLangDoc().getTagList().add(
-                    BlancoCgObjectFactory.getInstance().createLangDocTag(
-                            "addon", null, ""));
-        }
+            if (cgMethod.getConstructor()) {
+                // Expands the function name itself into a LangDoc.
+                cgMethod.getLangDoc().getTagList().add(
+                        BlancoCgObjectFactory.getInstance().createLangDocTag(
+                                "class", null, cgClass.getDescription()));
+
+                cgMethod.getLangDoc().getTagList().add(
+                        BlancoCgObjectFactory.getInstance().createLangDocTag(
+                                "constructor", null, ""));
+            } else {
+                cgMethod.getLangDoc().getTagList().add(
+                        BlancoCgObjectFactory.getInstance().createLangDocTag(
+                                "addon", null, ""));
+            }
 
-        if (BlancoStringUtil.null2Blank(cgMethod.getAccess()).equals("private")) {
-            cgMethod.getLangDoc().getTagList().add(
-                    BlancoCgObjectFactory.getInstance().createLangDocTag(
-                            "private", null, ""));
+            if (BlancoStringUtil.null2Blank(cgMethod.getAccess()).equals("private")) {
+                cgMethod.getLangDoc().getTagList().add(
+                        BlancoCgObjectFactory.getInstance().createLangDocTag(
+                                "private", null, ""));
+            }
         }
 
         for (int indexParameter = 0; indexParameter < cgMethod
@@ -180,8 +185,10 @@ class BlancoCgMethodJsSourceExpander {
             // Adds a type to the import statement.
             argSourceFile.getImportList().add(cgParameter.getType().getName());
 
-            // Adds a parameter to the language document.
-            cgMethod.getLangDoc().getParameterList().add(cgParameter);
+            if (argSourceFile.getIsLean() == false) {
+                // Adds a parameter to the language document.
+                cgMethod.getLangDoc().getParameterList().add(cgParameter);
+            }
         }
 
         if (cgMethod.getReturn() != null) {
@@ -189,8 +196,10 @@ class BlancoCgMethodJsSourceExpander {
             argSourceFile.getImportList().add(
                     cgMethod.getReturn().getType().getName());
 
-            // Adds return to the language document.
-            cgMethod.getLangDoc().setReturn(cgMethod.getReturn());
+            if (argSourceFile.getIsLean() == false) {
+                // Adds return to the language document.
+                cgMethod.getLangDoc().setReturn(cgMethod.getReturn());
+            }
         }
 
         // Expands to LangDoc structure for exceptions.
@@ -201,8 +210,10 @@ class BlancoCgMethodJsSourceExpander {
             // Adds a type to the import statement.
             argSourceFile.getImportList().add(cgException.getType().getName());
 
-            // Adds an exception to the language document.
-            cgMethod.getLangDoc().getThrowList().add(cgException);
+            if (argSourceFile.getIsLean() == false) {
+                // Adds an exception to the language document.
+                cgMethod.getLangDoc().getThrowList().add(cgException);
+            }
         }
     }
 
@@ -419,5 +430,9 @@ class BlancoCgMethodJsSourceExpander {
             final String strLine = cgMethod.getLineList().get(indexLine);
             argSourceLines.add(strLine);
         }
+
+        // Adds the lazy line source. It is consumed only when the source code is output.
+        BlancoCgSourceLineList.addLineSource(argSourceLines, cgMethod
+                .getLineSource());
     }
 }
@@ -24,11 +24,11 @@
  */
 package blanco.cg.transformer.js;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import blanco.cg.BlancoCgObjectFactory;
 import blanco.cg.resourcebundle.BlancoCgResourceBundle;
+import blanco.cg.transformer.BlancoCgSourceLineList;
 import blanco.cg.util.BlancoCgSourceFileUtil;
 import blanco.cg.valueobject.BlancoCgClass;
 import blanco.cg.valueobject.BlancoCgSourceFile;
@@ -69,7 +69,7 @@ class BlancoCgSourceFileJsSourceExpander {
     public List<java.lang.String> transformSourceFile(
             final BlancoCgSourceFile argSourceFile) {
         // Definitely initializes the list of source lines.
-        fSourceLines = new ArrayList<java.lang.String>();
+        fSourceLines = new BlancoCgSourceLineList();
 
         fCgSourceFile = argSourceFile;
 
@@ -130,6 +130,10 @@ class BlancoCgSourceFileJsSourceExpander {
      * Outputs the file headers of the source file.
      */
     private void expandSourceFileHeader() {
+        if (fCgSourceFile.getIsLean()) {
+            // In lean mode, the file comment is not output.
+            return;
+        }
         fSourceLines.add("/*");
         if (BlancoStringUtil.null2Blank(fCgSourceFile.getDescription())
                 .length() > 0) {
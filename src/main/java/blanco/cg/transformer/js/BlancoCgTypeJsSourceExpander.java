@@ -24,6 +24,8 @@
  */
 package blanco.cg.transformer.js;
 
+import blanco.cg.BlancoCgSupportedLang;
+import blanco.cg.util.BlancoCgLangProfile;
 import blanco.cg.valueobject.BlancoCgType;
 import blanco.commons.util.BlancoNameUtil;
 import blanco.commons.util.BlancoStringUtil;
@@ -36,13 +38,6 @@ import blanco.commons.util.BlancoStringUtil;
  * @author IGA Tosiki
  */
 class BlancoCgTypeJsSourceExpander {
-    /**
-     * A list of reserved words for programming languages.
-     */
-    private static final String[] LANGUAGE_RESERVED_KEYWORD = { "void", "byte",
-            "short", "int", "long", "char", "float", "double", "boolean",
-            "string" };
-
     /**
      * Converts blancoCg type to a concrete string.
      * 
@@ -78,14 +73,7 @@ class BlancoCgTypeJsSourceExpander {
      * @return Whether or not it corresponded to a reserved word.
      */
     public static boolean isLanguageReservedKeyword(final String argCheck) {
-        for (int index = 0; index < LANGUAGE_RESERVED_KEYWORD.length; index++) {
-            if (LANGUAGE_RESERVED_KEYWORD[index].equals(argCheck)) {
-                // This string is a reserved word.
-                return true;
-            }
-        }
-
-        // Does not match for the keywords. This string is not a reserved word.
-        return false;
+        return BlancoCgLangProfile.getProfile(BlancoCgSupportedLang.JS)
+                .isReservedKeyword(argCheck);
     }
 }
@@ -26,6 +26,7 @@
 package blanco.cg.transformer.kotlin;
 
 import blanco.cg.BlancoCgSupportedLang;
+import blanco.cg.transformer.BlancoCgSourceLineList;
 import blanco.cg.util.BlancoCgLineUtil;
 import blanco.cg.util.BlancoCgSourceUtil;
 import blanco.cg.valueobject.*;
@@ -57,18 +58,23 @@ class BlancoCgClassKotlinSourceExpander {
     public void transformClass(final BlancoCgClass cgClass,
             final BlancoCgSourceFile argSourceFile,
             final List<java.lang.String> argSourceLines) {
-        // First, it expands the class information into a LangDoc.
-        if (cgClass.getLangDoc() == null) {
-            // If LangDoc is not specified, creates an instance here.
-            cgClass.setLangDoc(new BlancoCgLangDoc());
-        }
-        if (cgClass.getLangDoc().getTitle() == null) {
-            cgClass.getLangDoc().setTitle(cgClass.getDescription());
-        }
+        BlancoCgSourceLineList.rejectVerbatimFiles(cgClass.getVerbatimFileList(),
+                "Kotlin");
+
+        if (argSourceFile.getIsLean() == false) {
+            // First, it expands the class information into a LangDoc.
+            if (cgClass.getLangDoc() == null) {
+                // If LangDoc is not specified, creates an instance here.
+                cgClass.setLangDoc(new BlancoCgLangDoc());
+            }
+            if (cgClass.getLangDoc().getTitle() == null) {
+                cgClass.getLangDoc().setTitle(cgClass.getDescription());
+            }
 
-        // Next, it expands LangDoc into source code format.
-        new BlancoCgLangDocKotlinSourceExpander().transformLangDoc(cgClass
-                .getLangDoc(), argSourceLines);
+            // Next, it expands LangDoc into source code format.
+            new BlancoCgLangDocKotlinSourceExpander().transformLangDoc(cgClass
+                    .getLangDoc(), argSourceLines);
+        }
 
         // Expands annotations.
         BlancoCgLineUtil.expandAnnotationList(BlancoCgSupportedLang.KOTLIN, cgClass.getAnnotationList(), argSourceLines);
@@ -175,17 +181,19 @@ class BlancoCgClassKotlinSourceExpander {
                 argBuf.delete(0, argBuf.length());
             }
 
-        // First, it expands the class information into a LangDoc.
-        if (constField.getLangDoc() == null) {
-            // If LangDoc is not specified, creates an instance here.
-                constField.setLangDoc(new BlancoCgLangDoc());
-            }
-            if (constField.getLangDoc().getTitle() == null) {
-                constField.getLangDoc().setTitle(constField.getDescription());
-            }
+            if (argSourceFile.getIsLean() == false) {
+                // First, it expands the class information into a LangDoc.
+                if (constField.getLangDoc() == null) {
+                    // If LangDoc is not specified, creates an instance here.
+                    constField.setLangDoc(new BlancoCgLangDoc());
+                }
+                if (constField.getLangDoc().getTitle() == null) {
+                    constField.getLangDoc().setTitle(constField.getDescription());
+                }
 
-            // Next, it expands LangDoc into source code format.
-            new BlancoCgLangDocKotlinSourceExpander().transformLangDoc(constField.getLangDoc(), argSourceLines);
+                // Next, it expands LangDoc into source code format.
+                new BlancoCgLangDocKotlinSourceExpander().transformLangDoc(constField.getLangDoc(), argSourceLines);
+            }
 
             // Expands annotations.
             BlancoCgLineUtil.expandAnnotationList(BlancoCgSupportedLang.KOTLIN, constField.getAnnotationList(), argSourceLines);
@@ -245,7 +253,10 @@ class BlancoCgClassKotlinSourceExpander {
         for (int index = 0; index < cgClass.getExtendClassList().size(); index++) {
             final BlancoCgType orgType = cgClass.getExtendClassList().get(index);
             final BlancoCgType type = BlancoCgSourceUtil.parseTypeWithGenerics(orgType);
-            type.setConstructorArgs(orgType.getConstructorArgs());
+            if (type != orgType) {
+                // The original type may be shared by the interning factory, so only a parsed copy is changed.
+                type.setConstructorArgs(orgType.getConstructorArgs());
+            }
             final String constractorArg = type.getConstructorArgs();
 
             // Adds a type to the import statement.
@@ -57,18 +57,20 @@ class BlancoCgEnumKotlinSourceExpander {
     public void transformEnum(final BlancoCgEnum argCgEnum,
             final BlancoCgSourceFile argSourceFile,
             final List<String> argSourceLines) {
-        // First, it expands the class information into a LangDoc.
-        if (argCgEnum.getLangDoc() == null) {
-            // If LangDoc is not specified, creates an instance here.
-            argCgEnum.setLangDoc(new BlancoCgLangDoc());
-        }
-        if (argCgEnum.getLangDoc().getTitle() == null) {
-            argCgEnum.getLangDoc().setTitle(argCgEnum.getDescription());
-        }
+        if (argSourceFile.getIsLean() == false) {
+            // First, it expands the class information into a LangDoc.
+            if (argCgEnum.getLangDoc() == null) {
+                // If LangDoc is not specified, creates an instance here.
+                argCgEnum.setLangDoc(new BlancoCgLangDoc());
+            }
+            if (argCgEnum.getLangDoc().getTitle() == null) {
+                argCgEnum.getLangDoc().setTitle(argCgEnum.getDescription());
+            }
 
-        // Next, it expands LangDoc into source code format.
-        new BlancoCgLangDocKotlinSourceExpander().transformLangDoc(argCgEnum
-                .getLangDoc(), argSourceLines);
+            // Next, it expands LangDoc into source code format.
+            new BlancoCgLangDocKotlinSourceExpander().transformLangDoc(argCgEnum
+                    .getLangDoc(), argSourceLines);
+        }
 
         // Expands annotations.
         BlancoCgLineUtil.expandAnnotationList(BlancoCgSupportedLang.KOTLIN, argCgEnum.getAnnotationList(), argSourceLines);
@@ -141,17 +143,19 @@ class BlancoCgEnumKotlinSourceExpander {
                 argBuf.delete(0, argBuf.length());
             }
 
-        // First, it expands the class information into a LangDoc.
-        if (constField.getLangDoc() == null) {
-            // If LangDoc is not specified, creates an instance here.
-                constField.setLangDoc(new BlancoCgLangDoc());
-            }
-            if (constField.getLangDoc().getTitle() == null) {
-                constField.getLangDoc().setTitle(constField.getDescription());
-            }
+            if (argSourceFile.getIsLean() == false) {
+                // First, it expands the class information into a LangDoc.
+                if (constField.getLangDoc() == null) {
+                    // If LangDoc is not specified, creates an instance here.
+                    constField.setLangDoc(new BlancoCgLangDoc());
+                }
+                if (constField.getLangDoc().getTitle() == null) {
+                    constField.getLangDoc().setTitle(constField.getDescription());
+                }
 
-            // Next, it expands LangDoc into source code format.
-            new BlancoCgLangDocKotlinSourceExpander().transformLangDoc(constField.getLangDoc(), argSourceLines);
+                // Next, it expands LangDoc into source code format.
+                new BlancoCgLangDocKotlinSourceExpander().transformLangDoc(constField.getLangDoc(), argSourceLines);
+            }
 
             // Expands annotations.
             BlancoCgLineUtil.expandAnnotationList(BlancoCgSupportedLang.KOTLIN, constField.getAnnotationList(), argSourceLines);
@@ -232,7 +236,8 @@ class BlancoCgEnumKotlinSourceExpander {
                 argSourceLines.add(buf.toString());
                 buf.setLength(0);
             }
-            if (BlancoStringUtil.null2Blank(element.getDescription()).length() > 0) {
+            if (argSourceFile.getIsLean() == false
+                    && BlancoStringUtil.null2Blank(element.getDescription()).length() > 0) {
                 buf.append(" /** "
                         + BlancoCgSourceUtil.escapeStringAsLangDoc(TARGET_LANG,
                         element.getDescription()) + " */");
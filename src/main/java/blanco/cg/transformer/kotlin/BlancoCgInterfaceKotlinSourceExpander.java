@@ -29,6 +29,7 @@ import java.util.Arrays;
 import java.util.List;
 
 import blanco.cg.BlancoCgSupportedLang;
+import blanco.cg.transformer.BlancoCgSourceLineList;
 import blanco.cg.util.BlancoCgLineUtil;
 import blanco.cg.util.BlancoCgSourceUtil;
 import blanco.cg.valueobject.*;
@@ -55,20 +56,25 @@ class BlancoCgInterfaceKotlinSourceExpander {
     public void transformInterface(final BlancoCgInterface cgInterface,
             final BlancoCgSourceFile argSourceFile,
             final List<java.lang.String> argSourceLines) {
+        BlancoCgSourceLineList.rejectVerbatimFiles(cgInterface.getVerbatimFileList(),
+                "Kotlin");
+
         // In the case of an interface, "public" is excluded from fields and methods.
 
-        // First, it expands the interface information into LangDoc.
-        if (cgInterface.getLangDoc() == null) {
-            // If LangDoc is not specified, creates an instance here.
-            cgInterface.setLangDoc(new BlancoCgLangDoc());
-        }
-        if (cgInterface.getLangDoc().getTitle() == null) {
-            cgInterface.getLangDoc().setTitle(cgInterface.getDescription());
-        }
+        if (argSourceFile.getIsLean() == false) {
+            // First, it expands the interface information into LangDoc.
+            if (cgInterface.getLangDoc() == null) {
+                // If LangDoc is not specified, creates an instance here.
+                cgInterface.setLangDoc(new BlancoCgLangDoc());
+            }
+            if (cgInterface.getLangDoc().getTitle() == null) {
+                cgInterface.getLangDoc().setTitle(cgInterface.getDescription());
+            }
 
-        // Next, it expands LangDoc into source code format.
-        new BlancoCgLangDocKotlinSourceExpander().transformLangDoc(cgInterface
-                .getLangDoc(), argSourceLines);
+            // Next, it expands LangDoc into source code format.
+            new BlancoCgLangDocKotlinSourceExpander().transformLangDoc(cgInterface
+                    .getLangDoc(), argSourceLines);
+        }
 
         // Expands annotations.
         BlancoCgLineUtil.expandAnnotationList(BlancoCgSupportedLang.KOTLIN, cgInterface.getAnnotationList(), argSourceLines);
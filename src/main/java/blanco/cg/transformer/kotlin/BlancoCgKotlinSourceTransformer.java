@@ -29,6 +29,7 @@ import java.io.IOException;
 import java.util.List;
 
 import blanco.cg.transformer.AbstractBlancoCgJavaStyleTransformer;
+import blanco.cg.transformer.BlancoCgSourceLineList;
 import blanco.cg.valueobject.BlancoCgSourceFile;
 import com.facebook.ktfmt.format.Formatter;
 
@@ -78,11 +79,18 @@ public class BlancoCgKotlinSourceTransformer extends
 
     @Override
     protected void formatSource(final List<java.lang.String> argSourceLines) {
+        // ktfmt needs the whole source code, so the lazy line sources are consumed here.
+        BlancoCgSourceLineList.materialize(argSourceLines);
+
         String LF = System.getProperty("line.separator", "\n");
         String strSourceLines = String.join(LF, argSourceLines);
         String strFormatted = "";
         try {
-            strFormatted = Formatter.format(strSourceLines);
+            strFormatted = KtfmtFormatter.format(strSourceLines);
+        } catch (NoClassDefFoundError e) {
+            throw new IllegalArgumentException(
+                    "ktfmt (com.facebook:ktfmt) is required to generate Kotlin source code, but it was not found in the class path. "
+                            + e.toString());
         } catch (Exception e) {
             e.printStackTrace();
             return;
@@ -102,4 +110,24 @@ public class BlancoCgKotlinSourceTransformer extends
     protected String getSourceFileExt() {
         return ".kt";
     }
+
+    /**
+     * Calls ktfmt.
+     *
+     * ktfmt and the Kotlin compiler it depends on are loaded only when this class is used, that is, when Kotlin source code is actually formatted.
+     */
+    private static class KtfmtFormatter {
+        /**
+         * Formats Kotlin source code.
+         *
+         * @param argSource
+         *            Kotlin source code.
+         * @return Formatted source code.
+         * @throws Exception
+         *             If ktfmt fails to format.
+         */
+        static String format(final String argSource) throws Exception {
+            return Formatter.format(argSource);
+        }
+    }
 }
@@ -25,6 +25,7 @@
 package blanco.cg.transformer.kotlin;
 
 import blanco.cg.BlancoCgSupportedLang;
+import blanco.cg.transformer.BlancoCgSourceLineList;
 import blanco.cg.util.BlancoCgLineUtil;
 import blanco.cg.util.BlancoCgSourceUtil;
 import blanco.cg.valueobject.*;
@@ -76,9 +77,11 @@ class BlancoCgMethodKotlinSourceExpander {
 
         // Now that we have a complete set of information, performs the actual expansion of the source code.
 
-        // Next, it expands LangDoc into source code format.
-        new BlancoCgLangDocKotlinSourceExpander().transformLangDoc(cgMethod
-                .getLangDoc(), argSourceLines);
+        if (argSourceFile.getIsLean() == false) {
+            // Next, it expands LangDoc into source code format.
+            new BlancoCgLangDocKotlinSourceExpander().transformLangDoc(cgMethod
+                    .getLangDoc(), argSourceLines);
+        }
 
         // Expands annotations.
         BlancoCgLineUtil.expandAnnotationList(BlancoCgSupportedLang.KOTLIN, cgMethod.getAnnotationList(), argSourceLines);
@@ -97,21 +100,23 @@ class BlancoCgMethodKotlinSourceExpander {
      */
     private void prepareExpand(final BlancoCgMethod cgMethod,
             final BlancoCgSourceFile argSourceFile) {
-        // First, it expands the method information into LangDoc.
-        if (cgMethod.getLangDoc() == null) {
-            // Creates an instance here if LangDoc is not specified.
-            cgMethod.setLangDoc(new BlancoCgLangDoc());
-        }
-        if (cgMethod.getLangDoc().getParameterList() == null) {
-            cgMethod.getLangDoc().setParameterList(
-                    new ArrayList<blanco.cg.valueobject.BlancoCgParameter>());
-        }
-        if (cgMethod.getLangDoc().getThrowList() == null) {
-            cgMethod.getLangDoc().setThrowList(
-                    new ArrayList<blanco.cg.valueobject.BlancoCgException>());
-        }
-        if (cgMethod.getLangDoc().getTitle() == null) {
-            cgMethod.getLangDoc().setTitle(cgMethod.getDescription());
+        if (argSourceFile.getIsLean() == false) {
+            // First, it expands the method information into LangDoc.
+            if (cgMethod.getLangDoc() == null) {
+                // Creates an instance here if LangDoc is not specified.
+                cgMethod.setLangDoc(new BlancoCgLangDoc());
+            }
+            if (cgMethod.getLangDoc().getParameterList() == null) {
+                cgMethod.getLangDoc().setParameterList(
+                        new ArrayList<blanco.cg.valueobject.BlancoCgParameter>());
+            }
+            if (cgMethod.getLangDoc().getThrowList() == null) {
+                cgMethod.getLangDoc().setThrowList(
+                        new ArrayList<blanco.cg.valueobject.BlancoCgException>());
+            }
+            if (cgMethod.getLangDoc().getTitle() == null) {
+                cgMethod.getLangDoc().setTitle(cgMethod.getDescription());
+            }
         }
 
         for (BlancoCgParameter cgParameter : cgMethod.getParameterList()) {
@@ -122,12 +127,15 @@ class BlancoCgMethodKotlinSourceExpander {
             // Adds a type to the import statement.
             BlancoCgSourceFileKotlinSourceExpander.typeToImport(cgType, argSourceFile);
 
-            // Adds a parameter to the language document.
-            cgMethod.getLangDoc().getParameterList().add(cgParameter);
+            if (argSourceFile.getIsLean() == false) {
+                // Adds a parameter to the language document.
+                cgMethod.getLangDoc().getParameterList().add(cgParameter);
+            }
         }
 
         // Adds virtual parameter (generic) to langDoc.
-        if (cgMethod.getVirtualParameterList() != null && cgMethod.getVirtualParameterList().size() > 0) {
+        if (argSourceFile.getIsLean() == false
+                && cgMethod.getVirtualParameterList() != null && cgMethod.getVirtualParameterList().size() > 0) {
             cgMethod.getLangDoc().getVirtualParameterList().addAll(cgMethod.getVirtualParameterList());
         }
 
@@ -138,8 +146,10 @@ class BlancoCgMethodKotlinSourceExpander {
             // Adds a type to the import statement.
             BlancoCgSourceFileKotlinSourceExpander.typeToImport(cgType, argSourceFile);
 
-            // Adds return to the language document.
-            cgMethod.getLangDoc().setReturn(cgMethod.getReturn());
+            if (argSourceFile.getIsLean() == false) {
+                // Adds return to the language document.
+                cgMethod.getLangDoc().setReturn(cgMethod.getReturn());
+            }
         }
 
         // Expands to LangDoc structure for exceptions.
@@ -149,8 +159,10 @@ class BlancoCgMethodKotlinSourceExpander {
                 argSourceFile.getImportList().add(cgException.getType().getName());
             }
 
-            // Adds an exception to the language document.
-            cgMethod.getLangDoc().getThrowList().add(cgException);
+            if (argSourceFile.getIsLean() == false) {
+                // Adds an exception to the language document.
+                cgMethod.getLangDoc().getThrowList().add(cgException);
+            }
         }
     }
 
@@ -283,7 +295,8 @@ class BlancoCgMethodKotlinSourceExpander {
             // If there is no method body, it does not add "{}".
             boolean hasBody = false;
             if (BlancoStringUtil.null2Blank(cgMethod.getSuperclassInvocation()).length() > 0 ||
-                    cgMethod.getLineList().size() > 0
+                    cgMethod.getLineList().size() > 0 ||
+                    cgMethod.getLineSource() != null
             ) {
                 // The start of a method block.
                 buf.append(" {");
@@ -326,5 +339,9 @@ class BlancoCgMethodKotlinSourceExpander {
         for (String strLine : cgMethod.getLineList()) {
             argSourceLines.add(strLine);
         }
+
+        // Adds the lazy line source. It is consumed only when the source code is output.
+        BlancoCgSourceLineList.addLineSource(argSourceLines, cgMethod
+                .getLineSource());
     }
 }
@@ -25,12 +25,12 @@
 package blanco.cg.transformer.kotlin;
 
 import blanco.cg.BlancoCgSupportedLang;
+import blanco.cg.transformer.BlancoCgSourceLineList;
 import blanco.cg.util.BlancoCgLineUtil;
 import blanco.cg.util.BlancoCgSourceUtil;
 import blanco.cg.valueobject.*;
 import blanco.commons.util.BlancoStringUtil;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -68,7 +68,7 @@ class BlancoCgSourceFileKotlinSourceExpander {
     public List<java.lang.String> transformSourceFile(
             final BlancoCgSourceFile argSourceFile) {
         // Definitely initializes the list of source lines.
-        fSourceLines = new ArrayList<java.lang.String>();
+        fSourceLines = new BlancoCgSourceLineList();
 
         fCgSourceFile = argSourceFile;
 
@@ -131,6 +131,10 @@ class BlancoCgSourceFileKotlinSourceExpander {
      * Outputs the file headers of the source file.
      */
     private void expandSourceFileHeader() {
+        if (fCgSourceFile.getIsLean()) {
+            // In lean mode, the file comment is not output.
+            return;
+        }
         if (BlancoStringUtil.null2Blank(fCgSourceFile.getDescription()).length() == 0
                 && BlancoStringUtil.null2Blank(fCgSourceFile.getLangDoc().getTitle()).length() == 0
                 && fCgSourceFile.getLangDoc().getDescriptionList().size() == 0
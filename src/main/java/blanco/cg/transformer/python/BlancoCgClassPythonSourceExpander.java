@@ -26,6 +26,7 @@ package blanco.cg.transformer.python;
 
 import java.util.List;
 
+import blanco.cg.transformer.BlancoCgSourceLineList;
 import blanco.cg.valueobject.BlancoCgClass;
 import blanco.cg.valueobject.BlancoCgField;
 import blanco.cg.valueobject.BlancoCgLangDoc;
@@ -53,13 +54,18 @@ class BlancoCgClassPythonSourceExpander {
     public void transformClass(final BlancoCgClass cgClass,
             final BlancoCgSourceFile argSourceFile,
             final List<java.lang.String> argSourceLines) {
-        // First, it expands the class information into a LangDoc.
-        if (cgClass.getLangDoc() == null) {
-            // If LangDoc is not specified, creates an instance here.
-            cgClass.setLangDoc(new BlancoCgLangDoc());
-        }
-        if (cgClass.getLangDoc().getTitle() == null) {
-            cgClass.getLangDoc().setTitle(cgClass.getDescription());
+        BlancoCgSourceLineList.rejectVerbatimFiles(cgClass.getVerbatimFileList(),
+                "Python");
+
+        if (argSourceFile.getIsLean() == false) {
+            // First, it expands the class information into a LangDoc.
+            if (cgClass.getLangDoc() == null) {
+                // If LangDoc is not specified, creates an instance here.
+                cgClass.setLangDoc(new BlancoCgLangDoc());
+            }
+            if (cgClass.getLangDoc().getTitle() == null) {
+                cgClass.getLangDoc().setTitle(cgClass.getDescription());
+            }
         }
 
         final StringBuffer buf = new StringBuffer();
@@ -83,9 +89,14 @@ class BlancoCgClassPythonSourceExpander {
         // Finalizes the lines and performs the export.
         argSourceLines.add(buf.toString());
 
-        // Next, it expands LangDoc into source code format.
-        new BlancoCgLangDocPythonSourceExpander().transformLangDoc(cgClass
-                .getLangDoc(), argSourceLines);
+        if (argSourceFile.getIsLean() == false) {
+            // Next, it expands LangDoc into source code format.
+            new BlancoCgLangDocPythonSourceExpander().transformLangDoc(cgClass
+                    .getLangDoc(), argSourceLines);
+        } else {
+            // The docstring may be the only statement of the block, so a no-op statement takes its place.
+            argSourceLines.add("pass");
+        }
 
         // Expands the field here.
         expandFieldList(cgClass, argSourceFile, argSourceLines);
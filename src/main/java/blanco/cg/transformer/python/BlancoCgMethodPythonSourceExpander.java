@@ -29,6 +29,7 @@ import java.util.List;
 
 import blanco.cg.BlancoCgObjectFactory;
 import blanco.cg.BlancoCgSupportedLang;
+import blanco.cg.transformer.BlancoCgSourceLineList;
 import blanco.cg.util.BlancoCgLineUtil;
 import blanco.cg.valueobject.BlancoCgException;
 import blanco.cg.valueobject.BlancoCgLangDoc;
@@ -85,7 +86,7 @@ class BlancoCgMethodPythonSourceExpander {
         expandAnnotationList(cgMethod, argSourceLines);
 
         // Expands the body part of the method.
-        expandMethodBody(cgMethod, argSourceLines, argIsInterface);
+        expandMethodBody(cgMethod, argSourceFile, argSourceLines, argIsInterface);
     }
 
     /**
@@ -102,21 +103,23 @@ class BlancoCgMethodPythonSourceExpander {
         final BlancoCgObjectFactory cgFactory = BlancoCgObjectFactory
                 .getInstance();
 
-        // First, it expands the method information into LangDoc.
-        if (cgMethod.getLangDoc() == null) {
-            // Creates an instance here if LangDoc is not specified.
-            cgMethod.setLangDoc(new BlancoCgLangDoc());
-        }
-        if (cgMethod.getLangDoc().getParameterList() == null) {
-            cgMethod.getLangDoc().setParameterList(
-                    new ArrayList<blanco.cg.valueobject.BlancoCgParameter>());
-        }
-        if (cgMethod.getLangDoc().getThrowList() == null) {
-            cgMethod.getLangDoc().setThrowList(
-                    new ArrayList<blanco.cg.valueobject.BlancoCgException>());
-        }
-        if (cgMethod.getLangDoc().getTitle() == null) {
-            cgMethod.getLangDoc().setTitle(cgMethod.getDescription());
+        if (argSourceFile.getIsLean() == false) {
+            // First, it expands the method information into LangDoc.
+            if (cgMethod.getLangDoc() == null) {
+                // Creates an instance here if LangDoc is not specified.
+                cgMethod.setLangDoc(new BlancoCgLangDoc());
+            }
+            if (cgMethod.getLangDoc().getParameterList() == null) {
+                cgMethod.getLangDoc().setParameterList(
+                        new ArrayList<blanco.cg.valueobject.BlancoCgParameter>());
+            }
+            if (cgMethod.getLangDoc().getThrowList() == null) {
+                cgMethod.getLangDoc().setThrowList(
+                        new ArrayList<blanco.cg.valueobject.BlancoCgException>());
+            }
+            if (cgMethod.getLangDoc().getTitle() == null) {
+                cgMethod.getLangDoc().setTitle(cgMethod.getDescription());
+            }
         }
 
         // Adds self as the first parameter.
@@ -135,8 +138,10 @@ class BlancoCgMethodPythonSourceExpander {
             // Adds a type to the import statement.
             argSourceFile.getImportList().add(cgParameter.getType().getName());
 
-            // Adds a parameter to the language document.
-            cgMethod.getLangDoc().getParameterList().add(cgParameter);
+            if (argSourceFile.getIsLean() == false) {
+                // Adds a parameter to the language document.
+                cgMethod.getLangDoc().getParameterList().add(cgParameter);
+            }
         }
 
         if (cgMethod.getReturn() != null) {
@@ -144,8 +149,10 @@ class BlancoCgMethodPythonSourceExpander {
             argSourceFile.getImportList().add(
                     cgMethod.getReturn().getType().getName());
 
-            // Adds return to the language document.
-            cgMethod.getLangDoc().setReturn(cgMethod.getReturn());
+            if (argSourceFile.getIsLean() == false) {
+                // Adds return to the language document.
+                cgMethod.getLangDoc().setReturn(cgMethod.getReturn());
+            }
         }
 
         // Expands to LangDoc structure for exceptions.
@@ -156,8 +163,10 @@ class BlancoCgMethodPythonSourceExpander {
             // Adds a type to the import statement.
             argSourceFile.getImportList().add(cgException.getType().getName());
 
-            // Adds an exception to the language document.
-            cgMethod.getLangDoc().getThrowList().add(cgException);
+            if (argSourceFile.getIsLean() == false) {
+                // Adds an exception to the language document.
+                cgMethod.getLangDoc().getThrowList().add(cgException);
+            }
         }
     }
 
@@ -166,12 +175,15 @@ class BlancoCgMethodPythonSourceExpander {
      * 
      * @param cgMethod
      *            A method object.
+     * @param argSourceFile
+     *            A source file.
      * @param argSourceLines
      *            Source code.
      * @param argIsInterface
      *            Whether it is an instance or not.
      */
     private void expandMethodBody(final BlancoCgMethod cgMethod,
+            final BlancoCgSourceFile argSourceFile,
             final List<java.lang.String> argSourceLines,
             final boolean argIsInterface) {
         final StringBuffer buf = new StringBuffer();
@@ -255,9 +267,14 @@ class BlancoCgMethodPythonSourceExpander {
         // Fixes the line.
         argSourceLines.add(buf.toString());
 
-        // Next, expands LangDoc into source code format.
-        new BlancoCgLangDocPythonSourceExpander().transformLangDoc(cgMethod
-                .getLangDoc(), argSourceLines);
+        if (argSourceFile.getIsLean() == false) {
+            // Next, expands LangDoc into source code format.
+            new BlancoCgLangDocPythonSourceExpander().transformLangDoc(cgMethod
+                    .getLangDoc(), argSourceLines);
+        } else {
+            // The docstring may be the only statement of the block, so a no-op statement takes its place.
+            argSourceLines.add("pass");
+        }
 
         // Expands parent class method execution function.
         if (BlancoStringUtil.null2Blank(cgMethod.getSuperclassInvocation())
@@ -373,5 +390,9 @@ class BlancoCgMethodPythonSourceExpander {
             final String strLine = cgMethod.getLineList().get(indexLine);
             argSourceLines.add(strLine);
         }
+
+        // Adds the lazy line source. It is consumed only when the source code is output.
+        BlancoCgSourceLineList.addLineSource(argSourceLines, cgMethod
+                .getLineSource());
     }
 }
@@ -70,18 +70,20 @@ class BlancoCgEnumSwiftSourceExpander {
         // Adds a line break inevitably.
         argSourceLines.add("");
 
-        // First, it expands the enum information into LangDoc.
-        if (cgEnum.getLangDoc() == null) {
-            // Creates an instance here if LangDoc is not specified.
-            cgEnum.setLangDoc(new BlancoCgLangDoc());
-        }
-        if (cgEnum.getLangDoc().getTitle() == null) {
-            cgEnum.getLangDoc().setTitle(cgEnum.getDescription());
-        }
+        if (argSourceFile.getIsLean() == false) {
+            // First, it expands the enum information into LangDoc.
+            if (cgEnum.getLangDoc() == null) {
+                // Creates an instance here if LangDoc is not specified.
+                cgEnum.setLangDoc(new BlancoCgLangDoc());
+            }
+            if (cgEnum.getLangDoc().getTitle() == null) {
+                cgEnum.getLangDoc().setTitle(cgEnum.getDescription());
+            }
 
-        // Next, it expands LangDoc into source code format.
-        new BlancoCgLangDocSwiftSourceExpander().transformLangDoc(cgEnum
-                .getLangDoc(), argSourceLines);
+            // Next, it expands LangDoc into source code format.
+            new BlancoCgLangDocSwiftSourceExpander().transformLangDoc(cgEnum
+                    .getLangDoc(), argSourceLines);
+        }
 
         final StringBuffer buf = new StringBuffer();
 
@@ -108,7 +110,8 @@ class BlancoCgEnumSwiftSourceExpander {
                 buf.append(" = " + element.getDefault());
             }
 
-            if (BlancoStringUtil.null2Blank(element.getDescription()).length() > 0) {
+            if (argSourceFile.getIsLean() == false
+                    && BlancoStringUtil.null2Blank(element.getDescription()).length() > 0) {
                 buf.append(" /* "
                         + BlancoCgSourceUtil.escapeStringAsLangDoc(TARGET_LANG,
                                 element.getDescription()) + " */");
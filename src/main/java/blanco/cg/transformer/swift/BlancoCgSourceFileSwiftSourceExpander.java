@@ -24,10 +24,10 @@
  */
 package blanco.cg.transformer.swift;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import blanco.cg.BlancoCgSupportedLang;
+import blanco.cg.transformer.BlancoCgSourceLineList;
 import blanco.cg.util.BlancoCgSourceFileUtil;
 import blanco.cg.valueobject.BlancoCgClass;
 import blanco.cg.valueobject.BlancoCgEnum;
@@ -70,7 +70,7 @@ class BlancoCgSourceFileSwiftSourceExpander {
     public List<java.lang.String> transformSourceFile(
             final BlancoCgSourceFile argSourceFile) {
         // Definitely initializes the list of source lines.
-        fSourceLines = new ArrayList<java.lang.String>();
+        fSourceLines = new BlancoCgSourceLineList();
 
         fCgSourceFile = argSourceFile;
 
@@ -127,6 +127,10 @@ class BlancoCgSourceFileSwiftSourceExpander {
      * Swift seems to use "//" format for source file comments.
      */
     private void expandSourceFileHeader() {
+        if (fCgSourceFile.getIsLean()) {
+            // In lean mode, the file comment is not output.
+            return;
+        }
         fSourceLines.add("//");
 
         if (BlancoStringUtil.null2Blank(fCgSourceFile.getDescription())
@@ -25,6 +25,7 @@
  */
 package blanco.cg.transformer.ts;
 
+import blanco.cg.transformer.BlancoCgSourceLineList;
 import blanco.cg.valueobject.*;
 import blanco.commons.util.BlancoStringUtil;
 
@@ -53,18 +54,20 @@ class BlancoCgClassTsSourceExpander {
         // Check class style or not
         boolean isClassStyle = !cgClass.getNoClassDeclare();
         if (isClassStyle) {
-            // First, it expands the class information into a LangDoc.
-            if (cgClass.getLangDoc() == null) {
-                // If LangDoc is not specified, creates an instance here.
-                cgClass.setLangDoc(new BlancoCgLangDoc());
-            }
-            if (cgClass.getLangDoc().getTitle() == null) {
-                cgClass.getLangDoc().setTitle(cgClass.getDescription());
-            }
+            if (argSourceFile.getIsLean() == false) {
+                // First, it expands the class information into a LangDoc.
+                if (cgClass.getLangDoc() == null) {
+                    // If LangDoc is not specified, creates an instance here.
+                    cgClass.setLangDoc(new BlancoCgLangDoc());
+                }
+                if (cgClass.getLangDoc().getTitle() == null) {
+                    cgClass.getLangDoc().setTitle(cgClass.getDescription());
+                }
 
-            // Next, it expands LangDoc into source code format.
-            new BlancoCgLangDocTsSourceExpander().transformLangDoc(cgClass
-                    .getLangDoc(), argSourceLines);
+                // Next, it expands LangDoc into source code format.
+                new BlancoCgLangDocTsSourceExpander().transformLangDoc(cgClass
+                        .getLangDoc(), argSourceLines);
+            }
 
             // Expands annotations.
             expandAnnotationList(cgClass, argSourceLines);
@@ -140,6 +143,15 @@ class BlancoCgClassTsSourceExpander {
         for (String planText : plainTextList) {
             argSourceLines.add(planText);
         }
+
+        // Adds the lazy plain text source. It is consumed only when the source code is output.
+        BlancoCgSourceLineList.addLineSource(argSourceLines, cgClass
+                .getPlainTextSource());
+
+        // Adds the pre-formatted files. They are copied to the output as they are.
+        for (BlancoCgVerbatimFile verbatimFile : cgClass.getVerbatimFileList()) {
+            BlancoCgSourceLineList.addVerbatimFile(argSourceLines, verbatimFile);
+        }
     }
 
     /**
@@ -60,18 +60,20 @@ class BlancoCgEnumTsSourceExpander {
     public void transformEnum(final BlancoCgEnum argCgEnum,
                               final BlancoCgSourceFile argSourceFile,
                               final List<String> argSourceLines) {
-        // First, it expands the class information into a LangDoc.
-        if (argCgEnum.getLangDoc() == null) {
-            // If LangDoc is not specified, creates an instance here.
-            argCgEnum.setLangDoc(new BlancoCgLangDoc());
-        }
-        if (argCgEnum.getLangDoc().getTitle() == null) {
-            argCgEnum.getLangDoc().setTitle(argCgEnum.getDescription());
-        }
+        if (argSourceFile.getIsLean() == false) {
+            // First, it expands the class information into a LangDoc.
+            if (argCgEnum.getLangDoc() == null) {
+                // If LangDoc is not specified, creates an instance here.
+                argCgEnum.setLangDoc(new BlancoCgLangDoc());
+            }
+            if (argCgEnum.getLangDoc().getTitle() == null) {
+                argCgEnum.getLangDoc().setTitle(argCgEnum.getDescription());
+            }
 
-        // Next, it expands LangDoc into source code format.
-        new BlancoCgLangDocTsSourceExpander().transformLangDoc(argCgEnum
-                .getLangDoc(), argSourceLines);
+            // Next, it expands LangDoc into source code format.
+            new BlancoCgLangDocTsSourceExpander().transformLangDoc(argCgEnum
+                    .getLangDoc(), argSourceLines);
+        }
 
         // Expands annotations.
 //        expandAnnotationList(argCgEnumClass, argSourceLines);
@@ -111,7 +113,8 @@ class BlancoCgEnumTsSourceExpander {
                 argSourceLines.add(buf.toString());
                 buf.setLength(0);
             }
-            if (BlancoStringUtil.null2Blank(element.getDescription()).length() > 0) {
+            if (argSourceFile.getIsLean() == false
+                    && BlancoStringUtil.null2Blank(element.getDescription()).length() > 0) {
                 buf.append(" /** "
                         + BlancoCgSourceUtil.escapeStringAsLangDoc(TARGET_LANG,
                         element.getDescription()) + " */");
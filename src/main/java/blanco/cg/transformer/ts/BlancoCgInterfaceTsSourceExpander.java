@@ -24,6 +24,7 @@
  */
 package blanco.cg.transformer.ts;
 
+import blanco.cg.transformer.BlancoCgSourceLineList;
 import blanco.cg.valueobject.*;
 import blanco.commons.util.BlancoStringUtil;
 
@@ -51,18 +52,20 @@ class BlancoCgInterfaceTsSourceExpander {
             final List<String> argSourceLines) {
         // In the case of an interface, "public" is excluded from fields and methods.
 
-        // First, it expands the interface information into LangDoc.
-        if (cgInterface.getLangDoc() == null) {
-            // If LangDoc is not specified, creates an instance here.
-            cgInterface.setLangDoc(new BlancoCgLangDoc());
-        }
-        if (cgInterface.getLangDoc().getTitle() == null) {
-            cgInterface.getLangDoc().setTitle(cgInterface.getDescription());
-        }
+        if (argSourceFile.getIsLean() == false) {
+            // First, it expands the interface information into LangDoc.
+            if (cgInterface.getLangDoc() == null) {
+                // If LangDoc is not specified, creates an instance here.
+                cgInterface.setLangDoc(new BlancoCgLangDoc());
+            }
+            if (cgInterface.getLangDoc().getTitle() == null) {
+                cgInterface.getLangDoc().setTitle(cgInterface.getDescription());
+            }
 
-        // Next, it expands LangDoc into source code format.
-        new BlancoCgLangDocTsSourceExpander().transformLangDoc(cgInterface
-                .getLangDoc(), argSourceLines);
+            // Next, it expands LangDoc into source code format.
+            new BlancoCgLangDocTsSourceExpander().transformLangDoc(cgInterface
+                    .getLangDoc(), argSourceLines);
+        }
 
         // Expands annotations.
         expandAnnotationList(cgInterface, argSourceLines);
@@ -122,6 +125,11 @@ class BlancoCgInterfaceTsSourceExpander {
         for (String planText : plainTextList) {
             argSourceLines.add(planText);
         }
+
+        // Adds the pre-formatted files. They are copied to the output as they are.
+        for (BlancoCgVerbatimFile verbatimFile : cgInterface.getVerbatimFileList()) {
+            BlancoCgSourceLineList.addVerbatimFile(argSourceLines, verbatimFile);
+        }
     }
 
     /**
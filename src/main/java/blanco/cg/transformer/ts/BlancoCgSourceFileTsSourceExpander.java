@@ -25,13 +25,13 @@
 package blanco.cg.transformer.ts;
 
 import blanco.cg.BlancoCgSupportedLang;
+import blanco.cg.transformer.BlancoCgSourceLineList;
 import blanco.cg.valueobject.BlancoCgClass;
 import blanco.cg.valueobject.BlancoCgEnum;
 import blanco.cg.valueobject.BlancoCgInterface;
 import blanco.cg.valueobject.BlancoCgSourceFile;
 import blanco.commons.util.BlancoStringUtil;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -69,7 +69,7 @@ class BlancoCgSourceFileTsSourceExpander {
     public List<String> transformSourceFile(
             final BlancoCgSourceFile argSourceFile) {
         // Definitely initializes the list of source lines.
-        fSourceLines = new ArrayList<String>();
+        fSourceLines = new BlancoCgSourceLineList();
 
         fCgSourceFile = argSourceFile;
 
@@ -148,6 +148,10 @@ class BlancoCgSourceFileTsSourceExpander {
      * Outputs the file headers of the source file.
      */
     private void expandSourceFileHeader() {
+        if (fCgSourceFile.getIsLean()) {
+            // In lean mode, the file comment is not output.
+            return;
+        }
         if (BlancoStringUtil.null2Blank(fCgSourceFile.getDescription()).length() == 0
                 && BlancoStringUtil.null2Blank(fCgSourceFile.getLangDoc().getTitle()).length() == 0
                 && fCgSourceFile.getLangDoc().getDescriptionList().size() == 0
@@ -67,11 +67,8 @@ public class BlancoCgTsSourceTransformer extends
 
         // Sets the number of tabs in the source code.
         this.setTabs(argSourceFile.getTabs());
-        // Formats the source code.
-        formatSource(sourceLines);
-
-        // Outputs the source code to the writer.
-        source2Writer(sourceLines, argWriter);
+        // Formats the source code and outputs it to the writer.
+        formatSource2Writer(sourceLines, argWriter);
 
         // Performs a flush to be sure.
         argWriter.flush();
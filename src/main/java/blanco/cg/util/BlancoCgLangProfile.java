@@ -0,0 +1,418 @@
+/*
+ * blanco Framework
+ * Copyright (C) 2004-2017 IGA Tosiki
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ */
+/*
+ * Copyright 2017 Toshiki Iga
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package blanco.cg.util;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import blanco.cg.BlancoCgSupportedLang;
+
+/**
+ * The syntax of a programming language used by blancoCg.
+ *
+ * A profile is created once for each supported programming language and is never changed.<br>
+ * BlancoCgLineUtil and BlancoCgStatementUtil look up the syntax through the profile instead of switching on the
+ * language code on every call. A syntax that the language does not support is represented by null.
+ */
+public final class BlancoCgLangProfile {
+    /**
+     * Profiles indexed by the language code.
+     */
+    private static final BlancoCgLangProfile[] PROFILES = new BlancoCgLangProfile[BlancoCgSupportedLang.PHP8 + 1];
+
+    static {
+        final String[] cStyleTypes = { "void", "byte", "short", "int", "long",
+                "char", "float", "double", "decimal", "bool", "string" };
+        final String[] javaStyleTypes = { "void", "byte", "short", "int",
+                "long", "char", "float", "double", "boolean" };
+
+        BlancoCgLangProfile profile = create(BlancoCgSupportedLang.JAVA, ";",
+                "// ", "\"", "+", "", javaStyleTypes);
+        profile.setBlocks("if (", ") {", "}", "}", "break", "return ");
+
+        profile = create(BlancoCgSupportedLang.CS, ";", "// ", "\"", "+", "",
+                cStyleTypes);
+        profile.setBlocks("if (", ") {", "}", "}", "break", "return ");
+
+        profile = create(BlancoCgSupportedLang.JS, ";", "// ", "\"", "+", "",
+                new String[] { "void", "byte", "short", "int", "long", "char",
+                        "float", "double", "boolean", "string" });
+        profile.setBlocks("if (", ") {", "}", "}", "break", "return ");
+
+        profile = create(BlancoCgSupportedLang.VB, "", "' ", "\"", "+", "",
+                new String[] { "Void", "Byte", "Short", "Integer", "Long",
+                        "Single", "Double", "Decimal", "Boolean", "Date",
+                        "Char", "String", "Variant" });
+        // The loop variable is omitted from "Next".
+        profile.setBlocks("If (", ") Then", "End If", "Next", "Exit For",
+                "Return ");
+
+        profile = create(BlancoCgSupportedLang.PHP, ";", "// ", "'", ".", "$",
+                new String[] { "boolean", "integer", "float", "double",
+                        "string", "array", "object", "resource", "NULL",
+                        "null"/* Correct: NULL */});
+        profile.setBlocks("if (", ") {", "}", "}", "break", "return ");
+
+        profile = create(BlancoCgSupportedLang.RUBY, "", "# ", "'", "+", "",
+                javaStyleTypes);
+        profile.setBlocks("if ", "", "end", "end", "break", "return ");
+
+        profile = create(BlancoCgSupportedLang.PYTHON, "", "# ", "'", "+", "",
+                javaStyleTypes);
+        profile.setBlocks("if ", ":", "#end", "#end", "break", "return ");
+
+        profile = create(BlancoCgSupportedLang.DELPHI, ";", "// ", "'", "+",
+                "", cStyleTypes);
+        profile.setBlocks("if ", " then begin", "end;", "end;", "break",
+                "return ");
+
+        create(BlancoCgSupportedLang.CPP11, null, null, null, null, "",
+                cStyleTypes);
+
+        create(BlancoCgSupportedLang.SWIFT, "", "// ", null, null, "",
+                cStyleTypes);
+
+        profile = create(BlancoCgSupportedLang.KOTLIN, "", "// ", "\"", "+",
+                "", new String[] { "void", "byte", "short", "int", "long",
+                        "char", "float", "double", "boolean", "Int", "Long",
+                        "Float", "Double", "Number", "String" });
+        profile.setBlocks("if (", ") {", "}", "}", "break", "return ");
+
+        profile = create(BlancoCgSupportedLang.TS, ";", "// ", "\"", "+", "",
+                new String[] { "void", "byte", "short", "int", "long", "char",
+                        "float", "double", "boolean", "number", "string",
+                        "Array", "any", "null", "undefined", "never", "object" });
+        profile.setBlocks("if (", ") {", "}", "}", "break", null);
+
+        profile = create(BlancoCgSupportedLang.PHP8, ";", "// ", "\"", ".",
+                "$", new String[] { "boolean", "bool", "integer", "int",
+                        "float", "double", "string", "array", "object",
+                        "resource", "NULL", "null"/* Correct: NULL */});
+        profile.setBlocks("if (", ") {", "}", "}", "break", "return ");
+    }
+
+    /**
+     * The language code.
+     */
+    private final int fTargetLang;
+
+    /**
+     * A character indicating the end of a statement.
+     */
+    private String fTerminator;
+
+    /**
+     * A string indicating the start of an inline comment, followed by a space.
+     */
+    private String fSingleLineCommentPrefix;
+
+    /**
+     * A string enclosing a string literal.
+     */
+    private String fStringLiteralEnclosure;
+
+    /**
+     * An operator to concatenate strings.
+     */
+    private String fStringConcatenationOperator;
+
+    /**
+     * A prefix of a variable.
+     */
+    private String fVariablePrefix;
+
+    /**
+     * A string before the conditional expression of the "if" statement.
+     */
+    private String fIfBeginPrefix;
+
+    /**
+     * A string after the conditional expression of the "if" statement.
+     */
+    private String fIfBeginSuffix;
+
+    /**
+     * A string indicating the end of the "if" statement.
+     */
+    private String fIfEnd;
+
+    /**
+     * A string indicating the end of the "for" statement.
+     */
+    private String fForEnd;
+
+    /**
+     * A statement that exits the "for" statement.
+     */
+    private String fForExit;
+
+    /**
+     * A string before the expression of the "return" statement.
+     */
+    private String fReturnPrefix;
+
+    /**
+     * Reserved words of the types of the language.
+     */
+    private Set<String> fReservedKeywordSet;
+
+    /**
+     * Constructor.
+     *
+     * @param argTargetLang
+     *            The language code.
+     */
+    private BlancoCgLangProfile(final int argTargetLang) {
+        fTargetLang = argTargetLang;
+    }
+
+    /**
+     * Creates a profile and registers it.
+     *
+     * @param argTargetLang
+     *            The language code.
+     * @param argTerminator
+     *            A character indicating the end of a statement.
+     * @param argSingleLineCommentPrefix
+     *            A string indicating the start of an inline comment.
+     * @param argStringLiteralEnclosure
+     *            A string enclosing a string literal.
+     * @param argStringConcatenationOperator
+     *            An operator to concatenate strings.
+     * @param argVariablePrefix
+     *            A prefix of a variable.
+     * @param argReservedKeywords
+     *            Reserved words of the types.
+     * @return The created profile.
+     */
+    private static BlancoCgLangProfile create(final int argTargetLang,
+            final String argTerminator,
+            final String argSingleLineCommentPrefix,
+            final String argStringLiteralEnclosure,
+            final String argStringConcatenationOperator,
+            final String argVariablePrefix, final String[] argReservedKeywords) {
+        final BlancoCgLangProfile profile = new BlancoCgLangProfile(
+                argTargetLang);
+        profile.fTerminator = argTerminator;
+        profile.fSingleLineCommentPrefix = argSingleLineCommentPrefix;
+        profile.fStringLiteralEnclosure = argStringLiteralEnclosure;
+        profile.fStringConcatenationOperator = argStringConcatenationOperator;
+        profile.fVariablePrefix = argVariablePrefix;
+        profile.fReservedKeywordSet = Collections
+                .unmodifiableSet(new HashSet<String>(Arrays
+                        .asList(argReservedKeywords)));
+        PROFILES[argTargetLang] = profile;
+        return profile;
+    }
+
+    /**
+     * Sets the syntax of the blocks. Used only while the profiles are created.
+     *
+     * @param argIfBeginPrefix
+     *            A string before the conditional expression of the "if" statement.
+     * @param argIfBeginSuffix
+     *            A string after the conditional expression of the "if" statement.
+     * @param argIfEnd
+     *            A string indicating the end of the "if" statement.
+     * @param argForEnd
+     *            A string indicating the end of the "for" statement.
+     * @param argForExit
+     *            A statement that exits the "for" statement.
+     * @param argReturnPrefix
+     *            A string before the expression of the "return" statement.
+     */
+    private void setBlocks(final String argIfBeginPrefix,
+            final String argIfBeginSuffix, final String argIfEnd,
+            final String argForEnd, final String argForExit,
+            final String argReturnPrefix) {
+        fIfBeginPrefix = argIfBeginPrefix;
+        fIfBeginSuffix = argIfBeginSuffix;
+        fIfEnd = argIfEnd;
+        fForEnd = argForEnd;
+        fForExit = argForExit;
+        fReturnPrefix = argReturnPrefix;
+    }
+
+    /**
+     * Gets the profile of a programming language.
+     *
+     * @param argTargetLang
+     *            The programming language of the output target.
+     * @return The profile of the language.
+     */
+    public static BlancoCgLangProfile getProfile(final int argTargetLang) {
+        final BlancoCgLangProfile profile = findProfile(argTargetLang);
+        if (profile == null) {
+            throw new IllegalArgumentException(
+                    "BlancoCgLangProfile: An unsupported programming language ("
+                            + argTargetLang + ") has been given.");
+        }
+        return profile;
+    }
+
+    /**
+     * Finds the profile of a programming language.
+     *
+     * @param argTargetLang
+     *            The programming language of the output target.
+     * @return The profile of the language, or null if the language is not supported.
+     */
+    static BlancoCgLangProfile findProfile(final int argTargetLang) {
+        if (argTargetLang < 0 || argTargetLang >= PROFILES.length) {
+            return null;
+        }
+        return PROFILES[argTargetLang];
+    }
+
+    /**
+     * Gets the language code.
+     *
+     * @return The language code.
+     */
+    public int getTargetLang() {
+        return fTargetLang;
+    }
+
+    /**
+     * Gets a character indicating the end of a statement.
+     *
+     * @return A character indicating the end of a statement, or null if not supported.
+     */
+    public String getTerminator() {
+        return fTerminator;
+    }
+
+    /**
+     * Gets a string indicating the start of an inline comment, followed by a space.
+     *
+     * @return A string indicating the start of an inline comment, or null if not supported.
+     */
+    public String getSingleLineCommentPrefix() {
+        return fSingleLineCommentPrefix;
+    }
+
+    /**
+     * Gets a string enclosing a string literal.
+     *
+     * @return A string enclosing a string literal, or null if not supported.
+     */
+    public String getStringLiteralEnclosure() {
+        return fStringLiteralEnclosure;
+    }
+
+    /**
+     * Gets an operator to concatenate strings.
+     *
+     * @return An operator to concatenate strings, or null if not supported.
+     */
+    public String getStringConcatenationOperator() {
+        return fStringConcatenationOperator;
+    }
+
+    /**
+     * Gets a prefix of a variable.
+     *
+     * @return A prefix of a variable. A zero-length string if no prefix is required.
+     */
+    public String getVariablePrefix() {
+        return fVariablePrefix;
+    }
+
+    /**
+     * Gets a string before the conditional expression of the "if" statement.
+     *
+     * @return A string such as "if (", or null if not supported.
+     */
+    public String getIfBeginPrefix() {
+        return fIfBeginPrefix;
+    }
+
+    /**
+     * Gets a string after the conditional expression of the "if" statement.
+     *
+     * @return A string such as ") {", or null if not supported.
+     */
+    public String getIfBeginSuffix() {
+        return fIfBeginSuffix;
+    }
+
+    /**
+     * Gets a string indicating the end of the "if" statement.
+     *
+     * @return A string indicating the end of the "if" statement, or null if not supported.
+     */
+    public String getIfEnd() {
+        return fIfEnd;
+    }
+
+    /**
+     * Gets a string indicating the end of the "for" statement.
+     *
+     * @return A string indicating the end of the "for" statement, or null if not supported.
+     */
+    public String getForEnd() {
+        return fForEnd;
+    }
+
+    /**
+     * Gets a statement that exits the "for" statement.
+     *
+     * @return "break" or "Exit For", or null if not supported.
+     */
+    public String getForExit() {
+        return fForExit;
+    }
+
+    /**
+     * Gets a string before the expression of the "return" statement.
+     *
+     * @return "return " or "Return ", or null if not supported.
+     */
+    public String getReturnPrefix() {
+        return fReturnPrefix;
+    }
+
+    /**
+     * Checks if the given string is a reserved word of the types of the language.
+     *
+     * @param argCheck
+     *            A string to be checked.
+     * @return Whether or not it corresponded to a reserved word.
+     */
+    public boolean isReservedKeyword(final String argCheck) {
+        return fReservedKeywordSet.contains(argCheck);
+    }
+
+    /**
+     * Gets the reserved words of the types of the language.
+     *
+     * @return An unmodifiable set of the reserved words.
+     */
+    public Set<String> getReservedKeywordSet() {
+        return fReservedKeywordSet;
+    }
+}
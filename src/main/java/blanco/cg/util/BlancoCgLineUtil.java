@@ -51,27 +51,14 @@ public class BlancoCgLineUtil {
      */
     public static final String getSingleLineCommentPrefix(
             final int argTargetLang) {
-        switch (argTargetLang) {
-        case BlancoCgSupportedLang.JAVA:
-        case BlancoCgSupportedLang.CS:
-        case BlancoCgSupportedLang.JS:
-        case BlancoCgSupportedLang.PHP:
-        case BlancoCgSupportedLang.DELPHI:
-        case BlancoCgSupportedLang.SWIFT:
-        case BlancoCgSupportedLang.KOTLIN:
-        case BlancoCgSupportedLang.TS:
-        case BlancoCgSupportedLang.PHP8:
-            return "// ";
-        case BlancoCgSupportedLang.VB:
-            return "' ";
-        case BlancoCgSupportedLang.RUBY:
-        case BlancoCgSupportedLang.PYTHON:
-            return "# ";
-        default:
+        final BlancoCgLangProfile profile = BlancoCgLangProfile
+                .findProfile(argTargetLang);
+        if (profile == null || profile.getSingleLineCommentPrefix() == null) {
             throw new IllegalArgumentException(
                     "BlancoCgLineUtil: An unsupported programming language (" + argTargetLang
                             + ") has been given.");
         }
+        return profile.getSingleLineCommentPrefix();
     }
 
     /**
@@ -84,25 +71,14 @@ public class BlancoCgLineUtil {
      * @return A string enclosing a string literal.
      */
     public static final String getStringLiteralEnclosure(final int argTargetLang) {
-        switch (argTargetLang) {
-        case BlancoCgSupportedLang.JAVA:
-        case BlancoCgSupportedLang.CS:
-        case BlancoCgSupportedLang.JS:
-        case BlancoCgSupportedLang.VB:
-        case BlancoCgSupportedLang.KOTLIN:
-        case BlancoCgSupportedLang.TS:
-        case BlancoCgSupportedLang.PHP8:
-            return "\"";
-        case BlancoCgSupportedLang.PHP:
-        case BlancoCgSupportedLang.RUBY:
-        case BlancoCgSupportedLang.PYTHON:
-        case BlancoCgSupportedLang.DELPHI:
-            return "'";
-        default:
+        final BlancoCgLangProfile profile = BlancoCgLangProfile
+                .findProfile(argTargetLang);
+        if (profile == null || profile.getStringLiteralEnclosure() == null) {
             throw new IllegalArgumentException(
                     "BlancoCgLineUtil: An unsupported programming language (" + argTargetLang
                             + ") has been given.");
         }
+        return profile.getStringLiteralEnclosure();
     }
 
     /**
@@ -114,25 +90,14 @@ public class BlancoCgLineUtil {
      */
     public static final String getStringConcatenationOperator(
             final int argTargetLang) {
-        switch (argTargetLang) {
-        case BlancoCgSupportedLang.JAVA:
-        case BlancoCgSupportedLang.CS:
-        case BlancoCgSupportedLang.JS:
-        case BlancoCgSupportedLang.VB:
-        case BlancoCgSupportedLang.RUBY:
-        case BlancoCgSupportedLang.PYTHON:
-        case BlancoCgSupportedLang.DELPHI:
-        case BlancoCgSupportedLang.KOTLIN:
-        case BlancoCgSupportedLang.TS:
-            return "+";
-        case BlancoCgSupportedLang.PHP:
-        case BlancoCgSupportedLang.PHP8:
-            return ".";
-        default:
+        final BlancoCgLangProfile profile = BlancoCgLangProfile
+                .findProfile(argTargetLang);
+        if (profile == null || profile.getStringConcatenationOperator() == null) {
             throw new IllegalArgumentException(
                     "BlancoCgLineUtil: An unsupported programming language (" + argTargetLang
                             + ") has been given.");
         }
+        return profile.getStringConcatenationOperator();
     }
 
     /**
@@ -147,13 +112,12 @@ public class BlancoCgLineUtil {
      * @return A prefix of a local variable.
      */
     public static final String getVariablePrefix(final int argTargetLang) {
-        switch (argTargetLang) {
-        case BlancoCgSupportedLang.PHP:
-        case BlancoCgSupportedLang.PHP8:
-            return "$";
-        default:
+        final BlancoCgLangProfile profile = BlancoCgLangProfile
+                .findProfile(argTargetLang);
+        if (profile == null) {
             return "";
         }
+        return profile.getVariablePrefix();
     }
 
     /**
@@ -30,6 +30,7 @@ import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.List;
 
+import blanco.cg.BlancoCgInternedType;
 import blanco.cg.BlancoCgObjectFactory;
 import blanco.cg.BlancoCgSupportedLang;
 import blanco.cg.valueobject.BlancoCgType;
@@ -278,6 +279,10 @@ public class BlancoCgSourceUtil {
 //            System.out.println("cg: parseTypeWithGenerics remainedGenerics = " + remainedGenerics);
 
             cgType = argCgFactory.createType(simpleType);
+            if (remainedGenerics.length() > 0 && cgType instanceof BlancoCgInternedType) {
+                // A shared type cannot hold the generics tree.
+                cgType = ((BlancoCgInternedType) cgType).toMutable();
+            }
             String [] genericsList = divideGenerics(remainedGenerics);
             for ( ; genericsList[0].length() > 0; ) {
 //                System.out.println("divided : first = " + genericsList[0]);
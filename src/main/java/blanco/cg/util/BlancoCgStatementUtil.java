@@ -48,28 +48,14 @@ public class BlancoCgStatementUtil {
      */
     public static final String getIfBegin(final int argTargetLang,
             final String argExpr) {
-        switch (argTargetLang) {
-        case BlancoCgSupportedLang.JAVA:
-        case BlancoCgSupportedLang.CS:
-        case BlancoCgSupportedLang.JS:
-        case BlancoCgSupportedLang.PHP:
-        case BlancoCgSupportedLang.KOTLIN:
-        case BlancoCgSupportedLang.TS:
-        case BlancoCgSupportedLang.PHP8:
-            return "if (" + argExpr + ") {";
-        case BlancoCgSupportedLang.VB:
-            return "If (" + argExpr + ") Then";
-        case BlancoCgSupportedLang.RUBY:
-            return "if " + argExpr;
-        case BlancoCgSupportedLang.PYTHON:
-            return "if " + argExpr + ":";
-        case BlancoCgSupportedLang.DELPHI:
-            return "if " + argExpr + " then begin";
-        default:
+        final BlancoCgLangProfile profile = BlancoCgLangProfile
+                .findProfile(argTargetLang);
+        if (profile == null || profile.getIfBeginPrefix() == null) {
             throw new IllegalArgumentException(
                     "BlancoCgStatementUtil: An unsupported programming language (" + argTargetLang
                             + ") has been given.");
         }
+        return profile.getIfBeginPrefix() + argExpr + profile.getIfBeginSuffix();
     }
 
     /**
@@ -83,28 +69,14 @@ public class BlancoCgStatementUtil {
      * @return A string indicating the end of the "if" statement.
      */
     public static final String getIfEnd(final int argTargetLang) {
-        switch (argTargetLang) {
-        case BlancoCgSupportedLang.JAVA:
-        case BlancoCgSupportedLang.CS:
-        case BlancoCgSupportedLang.JS:
-        case BlancoCgSupportedLang.PHP:
-        case BlancoCgSupportedLang.KOTLIN:
-        case BlancoCgSupportedLang.TS:
-        case BlancoCgSupportedLang.PHP8:
-            return "}";
-        case BlancoCgSupportedLang.VB:
-            return "End If";
-        case BlancoCgSupportedLang.RUBY:
-            return "end";
-        case BlancoCgSupportedLang.DELPHI:
-            return "end;";
-        case BlancoCgSupportedLang.PYTHON:
-            return "#end";
-        default:
+        final BlancoCgLangProfile profile = BlancoCgLangProfile
+                .findProfile(argTargetLang);
+        if (profile == null || profile.getIfEnd() == null) {
             throw new IllegalArgumentException(
                     "BlancoCgStatementUtil: An unsupported programming language (" + argTargetLang
                             + ") has been given.");
         }
+        return profile.getIfEnd();
     }
 
     /**
@@ -303,29 +275,14 @@ public class BlancoCgStatementUtil {
      * @return A string indicating the end of the "for" statement.
      */
     public static final String getForEnd(final int argTargetLang) {
-        switch (argTargetLang) {
-        case BlancoCgSupportedLang.JAVA:
-        case BlancoCgSupportedLang.CS:
-        case BlancoCgSupportedLang.JS:
-        case BlancoCgSupportedLang.PHP:
-        case BlancoCgSupportedLang.KOTLIN:
-        case BlancoCgSupportedLang.TS:
-        case BlancoCgSupportedLang.PHP8:
-            return "}";
-        case BlancoCgSupportedLang.VB:
-            // The loop variable is omitted.
-            return "Next";
-        case BlancoCgSupportedLang.RUBY:
-            return "end";
-        case BlancoCgSupportedLang.PYTHON:
-            return "#end";
-        case BlancoCgSupportedLang.DELPHI:
-            return "end;";
-        default:
+        final BlancoCgLangProfile profile = BlancoCgLangProfile
+                .findProfile(argTargetLang);
+        if (profile == null || profile.getForEnd() == null) {
             throw new IllegalArgumentException(
-                    "BlancoCgStatementUtil: An unsupported programming language ("
-                            + argTargetLang + ") has been given.");
+                    "BlancoCgStatementUtil: An unsupported programming language (" + argTargetLang
+                            + ") has been given.");
         }
+        return profile.getForEnd();
     }
 
     /**
@@ -338,25 +295,14 @@ public class BlancoCgStatementUtil {
      * @return A string indicating the statement that exits the "for" statement.
      */
     public static final String getForExit(final int argTargetLang) {
-        switch (argTargetLang) {
-        case BlancoCgSupportedLang.JAVA:
-        case BlancoCgSupportedLang.CS:
-        case BlancoCgSupportedLang.JS:
-        case BlancoCgSupportedLang.PHP:
-        case BlancoCgSupportedLang.RUBY:
-        case BlancoCgSupportedLang.PYTHON:
-        case BlancoCgSupportedLang.DELPHI:
-        case BlancoCgSupportedLang.KOTLIN:
-        case BlancoCgSupportedLang.TS:
-        case BlancoCgSupportedLang.PHP8:
-            return "break";
-        case BlancoCgSupportedLang.VB:
-            return "Exit For";
-        default:
+        final BlancoCgLangProfile profile = BlancoCgLangProfile
+                .findProfile(argTargetLang);
+        if (profile == null || profile.getForExit() == null) {
             throw new IllegalArgumentException(
-                    "BlancoCgStatementUtil: An unsupported programming language ("
-                            + argTargetLang + ") has been given.");
+                    "BlancoCgStatementUtil: An unsupported programming language (" + argTargetLang
+                            + ") has been given.");
         }
+        return profile.getForExit();
     }
 
     /**
@@ -490,26 +436,14 @@ public class BlancoCgStatementUtil {
      * @return A character indicating the end of a statement.
      */
     public static final String getTerminator(final int argTargetLang) {
-        switch (argTargetLang) {
-        case BlancoCgSupportedLang.JAVA:
-        case BlancoCgSupportedLang.CS:
-        case BlancoCgSupportedLang.JS:
-        case BlancoCgSupportedLang.PHP:
-        case BlancoCgSupportedLang.DELPHI:
-        case BlancoCgSupportedLang.TS:
-        case BlancoCgSupportedLang.PHP8:
-            return ";";
-        case BlancoCgSupportedLang.VB:
-        case BlancoCgSupportedLang.RUBY:
-        case BlancoCgSupportedLang.PYTHON:
-        case BlancoCgSupportedLang.SWIFT:
-        case BlancoCgSupportedLang.KOTLIN:
-            return "";
-        default:
+        final BlancoCgLangProfile profile = BlancoCgLangProfile
+                .findProfile(argTargetLang);
+        if (profile == null || profile.getTerminator() == null) {
             throw new IllegalArgumentException(
-                    "BlancoCgStatementUtil: An unsupported programming language ("
-                            + argTargetLang + ") has been given.");
+                    "BlancoCgStatementUtil: An unsupported programming language (" + argTargetLang
+                            + ") has been given.");
         }
+        return profile.getTerminator();
     }
 
     /**
@@ -525,26 +459,15 @@ public class BlancoCgStatementUtil {
      */
     public static final String getReturn(final int argTargetLang,
             final String argExpr) {
-        switch (argTargetLang) {
-        case BlancoCgSupportedLang.JAVA:
-        case BlancoCgSupportedLang.CS:
-        case BlancoCgSupportedLang.JS:
-        case BlancoCgSupportedLang.PHP:
-        case BlancoCgSupportedLang.RUBY:
-        case BlancoCgSupportedLang.PYTHON:
-        case BlancoCgSupportedLang.DELPHI:
-        case BlancoCgSupportedLang.KOTLIN:
-        case BlancoCgSupportedLang.PHP8:
-            // Note: Semicolons are not included.
-            return "return " + argExpr;
-        case BlancoCgSupportedLang.VB:
-            // The loop variables are omitted.
-            return "Return " + argExpr;
-        default:
+        final BlancoCgLangProfile profile = BlancoCgLangProfile
+                .findProfile(argTargetLang);
+        if (profile == null || profile.getReturnPrefix() == null) {
             throw new IllegalArgumentException(
-                    "BlancoCgStatementUtil: An unsupported programming language ("
-                            + argTargetLang + ") has been given.");
+                    "BlancoCgStatementUtil: An unsupported programming language (" + argTargetLang
+                            + ") has been given.");
         }
+        // Note: Semicolons are not included.
+        return profile.getReturnPrefix() + argExpr;
     }
 
 }
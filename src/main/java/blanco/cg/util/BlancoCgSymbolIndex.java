@@ -0,0 +1,408 @@
+/*
+ * blanco Framework
+ * Copyright (C) 2004-2017 IGA Tosiki
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ */
+/*
+ * Copyright 2017 Toshiki Iga
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package blanco.cg.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import blanco.cg.BlancoCgSupportedLang;
+import blanco.cg.valueobject.BlancoCgClass;
+import blanco.cg.valueobject.BlancoCgEnum;
+import blanco.cg.valueobject.BlancoCgException;
+import blanco.cg.valueobject.BlancoCgField;
+import blanco.cg.valueobject.BlancoCgInterface;
+import blanco.cg.valueobject.BlancoCgMethod;
+import blanco.cg.valueobject.BlancoCgParameter;
+import blanco.cg.valueobject.BlancoCgSourceFile;
+import blanco.cg.valueobject.BlancoCgType;
+import blanco.commons.util.BlancoNameUtil;
+import blanco.commons.util.BlancoStringUtil;
+
+/**
+ * A project-level index of the classes, interfaces and enums defined in a set of source files.
+ *
+ * A symbol can be looked up by its qualified name, or by its simple name if no other symbol has the same simple name.<br>
+ * The index is built once and is not modified afterwards, so it can be shared by threads expanding different source files.<br>
+ * Only the top-level classes, interfaces and enums are indexed.
+ */
+public class BlancoCgSymbolIndex {
+    /**
+     * Map from a qualified name to the source file defining the symbol.
+     */
+    private final Map<String, BlancoCgSourceFile> fQualifiedMap = new HashMap<String, BlancoCgSourceFile>();
+
+    /**
+     * Map from a simple name to the qualified name of the symbol.
+     *
+     * A simple name shared by several symbols is mapped to null.
+     */
+    private final Map<String, String> fSimpleMap = new HashMap<String, String>();
+
+    /**
+     * Creates an index of the symbols defined in the given source files.
+     *
+     * @param argSourceFileList
+     *            A list of source files.
+     */
+    public BlancoCgSymbolIndex(final List<BlancoCgSourceFile> argSourceFileList) {
+        if (argSourceFileList == null) {
+            throw new IllegalArgumentException(
+                    "The list of source files has been given a null value.");
+        }
+        for (BlancoCgSourceFile cgSourceFile : argSourceFileList) {
+            for (BlancoCgClass cgClass : cgSourceFile.getClassList()) {
+                addSymbol(cgClass.getName(), cgSourceFile);
+            }
+            for (BlancoCgInterface cgInterface : cgSourceFile
+                    .getInterfaceList()) {
+                addSymbol(cgInterface.getName(), cgSourceFile);
+            }
+            for (BlancoCgEnum cgEnum : cgSourceFile.getEnumList()) {
+                addSymbol(cgEnum.getName(), cgSourceFile);
+            }
+        }
+    }
+
+    /**
+     * Gets the number of the symbols in this index.
+     *
+     * @return Number of the symbols.
+     */
+    public int size() {
+        return fQualifiedMap.size();
+    }
+
+    /**
+     * Gets the qualified name of a symbol.
+     *
+     * @param argName
+     *            A qualified name or a simple name.
+     * @return The qualified name, or null if the symbol is unknown or its simple name is ambiguous.
+     */
+    public String getQualifiedName(final String argName) {
+        if (argName == null) {
+            return null;
+        }
+        if (fQualifiedMap.containsKey(argName)) {
+            return argName;
+        }
+        return fSimpleMap.get(argName);
+    }
+
+    /**
+     * Gets the source file defining a symbol.
+     *
+     * @param argName
+     *            A qualified name or a simple name.
+     * @return The source file, or null if the symbol is unknown or its simple name is ambiguous.
+     */
+    public BlancoCgSourceFile getSourceFile(final String argName) {
+        final String qualifiedName = getQualifiedName(argName);
+        if (qualifiedName == null) {
+            return null;
+        }
+        return fQualifiedMap.get(qualifiedName);
+    }
+
+    /**
+     * Checks whether a simple name is shared by several symbols.
+     *
+     * @param argSimpleName
+     *            A simple name.
+     * @return True if the simple name is ambiguous.
+     */
+    public boolean isAmbiguous(final String argSimpleName) {
+        return fSimpleMap.containsKey(argSimpleName)
+                && fSimpleMap.get(argSimpleName) == null;
+    }
+
+    /**
+     * Adds the imports of the symbols of this index that are referenced by the given source file.
+     *
+     * The types of the extended classes, implemented interfaces, fields, parameters, return values and exceptions are resolved with this index.<br>
+     * For Java and Kotlin, the qualified name of a symbol in another, non-default package is added to the import list.<br>
+     * For TypeScript, an import statement with the relative path of the defining file is added to the header list, unless the same line is already there.<br>
+     * The symbols defined in the given source file itself are never imported.
+     *
+     * @param argSourceFile
+     *            A source file to be updated.
+     * @param argTargetLang
+     *            A target language.
+     */
+    public void resolveImports(final BlancoCgSourceFile argSourceFile,
+            final int argTargetLang) {
+        if (argSourceFile == null) {
+            throw new IllegalArgumentException(
+                    "Source file was given as null. Aborts the process.");
+        }
+        if (argTargetLang != BlancoCgSupportedLang.JAVA
+                && argTargetLang != BlancoCgSupportedLang.KOTLIN
+                && argTargetLang != BlancoCgSupportedLang.TS) {
+            throw new IllegalArgumentException(
+                    "Resolving the imports is not supported in the language ["
+                            + new BlancoCgSupportedLang()
+                                    .convertToString(argTargetLang) + "].");
+        }
+
+        final List<BlancoCgType> cgTypeList = new ArrayList<BlancoCgType>();
+        for (BlancoCgClass cgClass : argSourceFile.getClassList()) {
+            cgTypeList.addAll(cgClass.getExtendClassList());
+            cgTypeList.addAll(cgClass.getImplementInterfaceList());
+            collectFieldTypes(cgClass.getFieldList(), cgTypeList);
+            collectFieldTypes(cgClass.getConstructorArgList(), cgTypeList);
+            collectMethodTypes(cgClass.getMethodList(), cgTypeList);
+        }
+        for (BlancoCgInterface cgInterface : argSourceFile.getInterfaceList()) {
+            cgTypeList.addAll(cgInterface.getExtendClassList());
+            collectFieldTypes(cgInterface.getFieldList(), cgTypeList);
+            collectMethodTypes(cgInterface.getMethodList(), cgTypeList);
+        }
+
+        // Keeps the order of the first references, so that the output is stable.
+        final Set<String> qualifiedNameSet = new HashSet<String>();
+        final List<String> qualifiedNameList = new ArrayList<String>();
+        for (int index = 0; index < cgTypeList.size(); index++) {
+            final BlancoCgType cgType = cgTypeList.get(index);
+            if (cgType == null) {
+                continue;
+            }
+            // The generics tree is traversed by appending to the list being iterated. A type created from a string such
+            // as java.util.List<Foo> has only the generics string until it is expanded, so it is parsed into a new type
+            // here, and the model is left as it is.
+            cgTypeList.addAll(BlancoCgSourceUtil.parseTypeWithGenerics(cgType)
+                    .getGenericsTree());
+
+            final String qualifiedName = getQualifiedName(trimArraySuffix(trimWildcard(
+                    cgType.getName())));
+            if (qualifiedName != null
+                    && fQualifiedMap.get(qualifiedName) != argSourceFile
+                    && qualifiedNameSet.add(qualifiedName)) {
+                qualifiedNameList.add(qualifiedName);
+            }
+        }
+
+        for (String qualifiedName : qualifiedNameList) {
+            final BlancoCgSourceFile cgSourceFile = fQualifiedMap
+                    .get(qualifiedName);
+            if (argTargetLang == BlancoCgSupportedLang.TS) {
+                final String strImport = "import {"
+                        + BlancoNameUtil.trimJavaPackage(qualifiedName)
+                        + "} from \""
+                        + getRelativePath(argSourceFile.getPackage(),
+                                cgSourceFile) + "\"";
+                if (argSourceFile.getHeaderList().contains(strImport) == false) {
+                    argSourceFile.getHeaderList().add(strImport);
+                }
+            } else {
+                final String packageName = BlancoStringUtil
+                        .null2Blank(cgSourceFile.getPackage());
+                // A symbol in the default package cannot be imported.
+                if (packageName.length() > 0
+                        && packageName.equals(BlancoStringUtil
+                                .null2Blank(argSourceFile.getPackage())) == false) {
+                    argSourceFile.getImportList().add(qualifiedName);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds a symbol to this index.
+     *
+     * @param argName
+     *            A simple name of the symbol. Nothing is done if it is blank.
+     * @param argSourceFile
+     *            A source file defining the symbol.
+     */
+    private void addSymbol(final String argName,
+            final BlancoCgSourceFile argSourceFile) {
+        if (BlancoStringUtil.null2Blank(argName).length() == 0) {
+            return;
+        }
+        final String packageName = BlancoStringUtil.null2Blank(argSourceFile
+                .getPackage());
+        final String qualifiedName = packageName.length() == 0 ? argName
+                : packageName + "." + argName;
+        fQualifiedMap.put(qualifiedName, argSourceFile);
+
+        if (fSimpleMap.containsKey(argName)
+                && qualifiedName.equals(fSimpleMap.get(argName)) == false) {
+            // Same simple name in another package.
+            fSimpleMap.put(argName, null);
+        } else {
+            fSimpleMap.put(argName, qualifiedName);
+        }
+    }
+
+    /**
+     * Collects the types of the given fields.
+     *
+     * @param argFieldList
+     *            A list of fields.
+     * @param argTypeList
+     *            A list of types to be added to.
+     */
+    private static void collectFieldTypes(final List<BlancoCgField> argFieldList,
+            final List<BlancoCgType> argTypeList) {
+        for (BlancoCgField cgField : argFieldList) {
+            argTypeList.add(cgField.getType());
+        }
+    }
+
+    /**
+     * Collects the types of the parameters, return values and exceptions of the given methods.
+     *
+     * @param argMethodList
+     *            A list of methods.
+     * @param argTypeList
+     *            A list of types to be added to.
+     */
+    private static void collectMethodTypes(
+            final List<BlancoCgMethod> argMethodList,
+            final List<BlancoCgType> argTypeList) {
+        for (BlancoCgMethod cgMethod : argMethodList) {
+            for (BlancoCgParameter cgParameter : cgMethod.getParameterList()) {
+                argTypeList.add(cgParameter.getType());
+            }
+            if (cgMethod.getReturn() != null) {
+                argTypeList.add(cgMethod.getReturn().getType());
+            }
+            for (BlancoCgException cgException : cgMethod.getThrowList()) {
+                argTypeList.add(cgException.getType());
+            }
+        }
+    }
+
+    /**
+     * Trims the wildcard of a type argument, e.g. "? extends Foo" to "Foo".
+     *
+     * @param argName
+     *            A type name.
+     * @return The bound of the wildcard, or the type name as it is.
+     */
+    private static String trimWildcard(final String argName) {
+        if (argName == null || argName.startsWith("?") == false) {
+            return argName;
+        }
+        final String bound = argName.substring(1).trim();
+        for (String keyword : new String[] { "extends ", "super " }) {
+            if (bound.startsWith(keyword)) {
+                return bound.substring(keyword.length()).trim();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Removes the array representation attached to the end of a type name.
+     *
+     * @param argName
+     *            A type name.
+     * @return A type name without "[]".
+     */
+    private static String trimArraySuffix(final String argName) {
+        String name = argName;
+        while (name != null && name.endsWith("[]")) {
+            name = name.substring(0, name.length() - 2);
+        }
+        return name;
+    }
+
+    /**
+     * Gets the path of a TypeScript module relative to the directory of a package.
+     *
+     * The package is converted to a directory in the same way as the transformer does.
+     *
+     * @param argFromPackage
+     *            A package of the importing source file.
+     * @param argSourceFile
+     *            A source file to be imported.
+     * @return A relative path without extension, such as "./Foo" or "../bar/Foo".
+     */
+    private static String getRelativePath(final String argFromPackage,
+            final BlancoCgSourceFile argSourceFile) {
+        final String[] from = splitPackage(argFromPackage);
+        final String[] to = splitPackage(argSourceFile.getPackage());
+        int common = 0;
+        while (common < from.length && common < to.length
+                && from[common].equals(to[common])) {
+            common++;
+        }
+
+        final StringBuilder buf = new StringBuilder();
+        if (common == from.length) {
+            buf.append("./");
+        }
+        for (int index = common; index < from.length; index++) {
+            buf.append("../");
+        }
+        for (int index = common; index < to.length; index++) {
+            buf.append(to[index]).append('/');
+        }
+        buf.append(getFileName(argSourceFile));
+        return buf.toString();
+    }
+
+    /**
+     * Splits a package into its elements.
+     *
+     * @param argPackage
+     *            A package, or null.
+     * @return Elements of the package.
+     */
+    private static String[] splitPackage(final String argPackage) {
+        final String packageName = BlancoStringUtil.null2Blank(argPackage);
+        if (packageName.length() == 0) {
+            return new String[0];
+        }
+        return packageName.split("\\.");
+    }
+
+    /**
+     * Gets the file name of a source file, without modifying it.
+     *
+     * If the file name is not set, it is derived from the class, interface or enum name in the same way as the transformer does.
+     *
+     * @param argSourceFile
+     *            A source file.
+     * @return A file name without extension.
+     */
+    private static String getFileName(final BlancoCgSourceFile argSourceFile) {
+        if (argSourceFile.getName() != null) {
+            return argSourceFile.getName();
+        }
+        if (argSourceFile.getClassList().size() > 0) {
+            return argSourceFile.getClassList().get(0).getName();
+        }
+        if (argSourceFile.getInterfaceList().size() > 0) {
+            return argSourceFile.getInterfaceList().get(0).getName();
+        }
+        return argSourceFile.getEnumList().get(0).getName();
+    }
+}
@@ -0,0 +1,362 @@
+/*
+ * blanco Framework
+ * Copyright (C) 2004-2017 IGA Tosiki
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ */
+/*
+ * Copyright 2017 Toshiki Iga
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package blanco.cg.validator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import blanco.cg.BlancoCgSupportedLang;
+import blanco.cg.valueobject.BlancoCgClass;
+import blanco.cg.valueobject.BlancoCgEnum;
+import blanco.cg.valueobject.BlancoCgField;
+import blanco.cg.valueobject.BlancoCgInterface;
+import blanco.cg.valueobject.BlancoCgMethod;
+import blanco.cg.valueobject.BlancoCgParameter;
+import blanco.cg.valueobject.BlancoCgSourceFile;
+import blanco.commons.util.BlancoStringUtil;
+
+/**
+ * Validates source file value objects for a target language before rendering.
+ *
+ * The transformers throw IllegalArgumentException at the first invalid part of a model, in the middle of rendering.
+ * This validator checks the same conditions up front, without modifying the model, and reports every violation of a
+ * whole model set at once. The source files are validated in parallel.<br>
+ * Checked are the names of the members, the types of the fields and the parameters, the lists that must not be null,
+ * the single inheritance of the languages that require it, and the restrictions of JavaScript and TypeScript.
+ */
+public class BlancoCgModelValidator {
+    /**
+     * Target language.
+     */
+    private final int fLang;
+
+    /**
+     * Constructor.
+     *
+     * @param argLang
+     *            Target language defined in BlancoCgSupportedLang.
+     */
+    public BlancoCgModelValidator(final int argLang) {
+        fLang = argLang;
+    }
+
+    /**
+     * Validates source file value objects in parallel.
+     *
+     * @param argSourceFileList
+     *            Source file value objects.
+     * @return Violations in the order of the source files. Empty if valid.
+     */
+    public List<BlancoCgViolation> validate(
+            final List<BlancoCgSourceFile> argSourceFileList) {
+        return argSourceFileList.parallelStream().map(this::validate).flatMap(
+                List::stream).collect(Collectors.toList());
+    }
+
+    /**
+     * Validates a source file value object.
+     *
+     * @param argSourceFile
+     *            Source file value object.
+     * @return Violations. Empty if valid.
+     */
+    public List<BlancoCgViolation> validate(
+            final BlancoCgSourceFile argSourceFile) {
+        final List<BlancoCgViolation> violationList = new ArrayList<BlancoCgViolation>();
+        final String packageName = BlancoStringUtil.null2Blank(argSourceFile
+                .getPackage());
+        final String location = (packageName.length() > 0 ? packageName + "."
+                : "")
+                + BlancoStringUtil.null2Blank(argSourceFile.getName());
+
+        if (argSourceFile.getImportList() == null) {
+            violationList.add(new BlancoCgViolation(location,
+                    "The list of imports has been given a null value."));
+        }
+        if (argSourceFile.getClassList() == null
+                || argSourceFile.getInterfaceList() == null
+                || argSourceFile.getEnumList() == null) {
+            violationList.add(new BlancoCgViolation(location,
+                    "The list of classes, interfaces or enumerations has been given a null value."));
+            return violationList;
+        }
+        if (argSourceFile.getName() == null
+                && argSourceFile.getClassList().isEmpty()
+                && argSourceFile.getInterfaceList().isEmpty()
+                && argSourceFile.getEnumList().isEmpty()) {
+            violationList.add(new BlancoCgViolation(location,
+                    "The file name is not set, and there is no class, interface or enumeration to derive it from."));
+        }
+        if (fLang == BlancoCgSupportedLang.JS
+                && argSourceFile.getInterfaceList().isEmpty() == false) {
+            violationList.add(new BlancoCgViolation(location,
+                    "There are no interfaces in JavaScript."));
+        }
+
+        for (BlancoCgClass cgClass : argSourceFile.getClassList()) {
+            final String classLocation = typeLocation(packageName, cgClass
+                    .getName());
+            if (isBlank(cgClass.getName())) {
+                violationList.add(new BlancoCgViolation(classLocation,
+                        "The class name is not set to an appropriate value."));
+            }
+            if (cgClass.getExtendClassList().size() > 1
+                    && isSingleClassInheritance()) {
+                violationList.add(new BlancoCgViolation(classLocation,
+                        "In " + getLangName()
+                                + ", inheritance can only be performed once."));
+            }
+            validateEnums(cgClass.getEnumList(), classLocation, violationList);
+            validateFields(cgClass.getFieldList(), classLocation, false,
+                    violationList);
+            validateMethods(cgClass.getMethodList(), classLocation,
+                    violationList);
+        }
+        for (BlancoCgInterface cgInterface : argSourceFile.getInterfaceList()) {
+            final String interfaceLocation = typeLocation(packageName,
+                    cgInterface.getName());
+            if (isBlank(cgInterface.getName())) {
+                violationList.add(new BlancoCgViolation(interfaceLocation,
+                        "The interface name is not set to an appropriate value."));
+            }
+            if (cgInterface.getExtendClassList().size() > 1
+                    && isSingleInterfaceInheritance()) {
+                violationList.add(new BlancoCgViolation(interfaceLocation,
+                        "In " + getLangName()
+                                + ", inheritance can only be performed once."));
+            }
+            validateFields(cgInterface.getFieldList(), interfaceLocation,
+                    true, violationList);
+            validateMethods(cgInterface.getMethodList(), interfaceLocation,
+                    violationList);
+        }
+        validateEnums(argSourceFile.getEnumList(), typeLocation(packageName,
+                null), violationList);
+        return violationList;
+    }
+
+    /**
+     * Validates the enumerations.
+     *
+     * @param argEnumList
+     *            Enumerations.
+     * @param argLocation
+     *            Location of the owner.
+     * @param argViolationList
+     *            List to add the violations to.
+     */
+    private void validateEnums(final List<BlancoCgEnum> argEnumList,
+            final String argLocation,
+            final List<BlancoCgViolation> argViolationList) {
+        if (argEnumList == null) {
+            argViolationList.add(new BlancoCgViolation(argLocation,
+                    "The list of enum has been given a null value."));
+            return;
+        }
+        for (BlancoCgEnum cgEnum : argEnumList) {
+            final String location = argLocation + "#"
+                    + BlancoStringUtil.null2Blank(cgEnum.getName());
+            if (isBlank(cgEnum.getName())) {
+                argViolationList.add(new BlancoCgViolation(location,
+                        "The enumeration name is not set to an appropriate value."));
+            }
+            if (cgEnum.getElementList() == null) {
+                argViolationList.add(new BlancoCgViolation(location,
+                        "At least 1 element is required."));
+            }
+        }
+    }
+
+    /**
+     * Validates the fields.
+     *
+     * @param argFieldList
+     *            Fields.
+     * @param argLocation
+     *            Location of the owner.
+     * @param argIsInterface
+     *            True if the owner is an interface.
+     * @param argViolationList
+     *            List to add the violations to.
+     */
+    private void validateFields(final List<BlancoCgField> argFieldList,
+            final String argLocation, final boolean argIsInterface,
+            final List<BlancoCgViolation> argViolationList) {
+        if (argFieldList == null) {
+            argViolationList.add(new BlancoCgViolation(argLocation,
+                    "A null was given for the list of fields."));
+            return;
+        }
+        for (BlancoCgField cgField : argFieldList) {
+            final String location = argLocation + "#"
+                    + BlancoStringUtil.null2Blank(cgField.getName());
+            if (isBlank(cgField.getName())) {
+                argViolationList.add(new BlancoCgViolation(location,
+                        "The field name is not set to an appropriate value."));
+            }
+            if (cgField.getType() == null || isBlank(cgField.getType().getName())) {
+                argViolationList.add(new BlancoCgViolation(location,
+                        "The type of the field is not set to an appropriate value."));
+            }
+            if (argIsInterface && fLang == BlancoCgSupportedLang.TS) {
+                if (isBlank(cgField.getAccess()) == false
+                        && "public".equals(cgField.getAccess()) == false) {
+                    argViolationList.add(new BlancoCgViolation(location,
+                            "TypeScript does not allow to set accessors on Interface."));
+                }
+                if (cgField.getStatic()) {
+                    argViolationList.add(new BlancoCgViolation(location,
+                            "TypeScript does not allow to set static field on Interface."));
+                }
+                if (isBlank(cgField.getDefault()) == false) {
+                    argViolationList.add(new BlancoCgViolation(location,
+                            "TypeScript does not allow to set default values on Interface."));
+                }
+            }
+        }
+    }
+
+    /**
+     * Validates the methods.
+     *
+     * @param argMethodList
+     *            Methods.
+     * @param argLocation
+     *            Location of the owner.
+     * @param argViolationList
+     *            List to add the violations to.
+     */
+    private void validateMethods(final List<BlancoCgMethod> argMethodList,
+            final String argLocation,
+            final List<BlancoCgViolation> argViolationList) {
+        if (argMethodList == null) {
+            argViolationList.add(new BlancoCgViolation(argLocation,
+                    "A null was given for the list of method."));
+            return;
+        }
+        for (BlancoCgMethod cgMethod : argMethodList) {
+            final String location = argLocation + "#"
+                    + BlancoStringUtil.null2Blank(cgMethod.getName());
+            if (isBlank(cgMethod.getName())) {
+                argViolationList.add(new BlancoCgViolation(location,
+                        "The method name is not set to an appropriate value."));
+            }
+            for (BlancoCgParameter cgParameter : cgMethod.getParameterList()) {
+                if (isBlank(cgParameter.getName())) {
+                    argViolationList.add(new BlancoCgViolation(location,
+                            "The parameter name is not set to an appropriate value."));
+                }
+                if (cgParameter.getType() == null
+                        || isBlank(cgParameter.getType().getName())) {
+                    argViolationList.add(new BlancoCgViolation(location,
+                            "The parameter ["
+                                    + BlancoStringUtil.null2Blank(cgParameter
+                                            .getName())
+                                    + "] has been given a null type."));
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks whether a class of the target language can extend only one class.
+     *
+     * @return True if only one.
+     */
+    private boolean isSingleClassInheritance() {
+        switch (fLang) {
+        case BlancoCgSupportedLang.JAVA:
+        case BlancoCgSupportedLang.KOTLIN:
+        case BlancoCgSupportedLang.PHP:
+        case BlancoCgSupportedLang.PHP8:
+        case BlancoCgSupportedLang.RUBY:
+        case BlancoCgSupportedLang.TS:
+            return true;
+        default:
+            return false;
+        }
+    }
+
+    /**
+     * Checks whether an interface of the target language can extend only one interface.
+     *
+     * @return True if only one.
+     */
+    private boolean isSingleInterfaceInheritance() {
+        switch (fLang) {
+        case BlancoCgSupportedLang.JAVA:
+        case BlancoCgSupportedLang.PHP:
+        case BlancoCgSupportedLang.PHP8:
+        case BlancoCgSupportedLang.PYTHON:
+        case BlancoCgSupportedLang.RUBY:
+            return true;
+        default:
+            return false;
+        }
+    }
+
+    /**
+     * Gets the name of the target language.
+     *
+     * @return Language name, or the number for the languages not defined in BlancoCgSupportedLang.
+     */
+    private String getLangName() {
+        if (fLang < BlancoCgSupportedLang.JAVA
+                || fLang > BlancoCgSupportedLang.PHP8) {
+            return String.valueOf(fLang);
+        }
+        return new BlancoCgSupportedLang().convertToString(fLang);
+    }
+
+    /**
+     * Gets the location of a class, an interface or an enumeration.
+     *
+     * @param argPackageName
+     *            Package name, or a zero-length string.
+     * @param argName
+     *            Name of the type, or null.
+     * @return Location.
+     */
+    private static String typeLocation(final String argPackageName,
+            final String argName) {
+        final String name = BlancoStringUtil.null2Blank(argName);
+        if (argPackageName.length() == 0) {
+            return name;
+        }
+        return argPackageName + (name.length() > 0 ? "." + name : "");
+    }
+
+    /**
+     * Checks whether a string is null or empty.
+     *
+     * @param argValue
+     *            String.
+     * @return True if null or empty.
+     */
+    private static boolean isBlank(final String argValue) {
+        return BlancoStringUtil.null2Blank(argValue).length() == 0;
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * blanco Framework
+ * Copyright (C) 2004-2017 IGA Tosiki
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ */
+/*
+ * Copyright 2017 Toshiki Iga
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package blanco.cg.validator;
+
+/**
+ * A violation found by BlancoCgModelValidator.
+ */
+public final class BlancoCgViolation {
+    /**
+     * Location in the model, such as "myprog.Foo#getName".
+     */
+    private final String fLocation;
+
+    /**
+     * Message.
+     */
+    private final String fMessage;
+
+    BlancoCgViolation(final String argLocation, final String argMessage) {
+        fLocation = argLocation;
+        fMessage = argMessage;
+    }
+
+    /**
+     * Gets the location of the violation in the model.
+     *
+     * @return Location such as "myprog.Foo", "myprog.Foo#getName" or "myprog.Foo#fName".
+     */
+    public String getLocation() {
+        return fLocation;
+    }
+
+    /**
+     * Gets the message of the violation.
+     *
+     * @return Message.
+     */
+    public String getMessage() {
+        return fMessage;
+    }
+
+    @Override
+    public String toString() {
+        return fLocation + ": " + fMessage;
+    }
+}
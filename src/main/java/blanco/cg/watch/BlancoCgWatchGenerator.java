@@ -0,0 +1,53 @@
+/*
+ * blanco Framework
+ * Copyright (C) 2004-2017 IGA Tosiki
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ */
+/*
+ * Copyright 2017 Toshiki Iga
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package blanco.cg.watch;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import blanco.cg.valueobject.BlancoCgSourceFile;
+
+/**
+ * A generator kept resident by BlancoCgWatcher.
+ *
+ * The generator maps an input file (e.g. a metadata file under meta/program) to the source file value objects
+ * derived from it. Only the value objects of the changed input files are rendered again.
+ */
+public interface BlancoCgWatchGenerator {
+    /**
+     * Creates the source file value objects derived from an input file.
+     *
+     * This is called for every file in the watched directories, so a file that is not an input of this generator must
+     * be ignored by returning an empty list.
+     *
+     * @param argInputFile
+     *            An input file.
+     * @return Source file value objects. They are modified by the transformation, so new instances must be returned.
+     * @throws IOException
+     *             If the input file cannot be read.
+     */
+    List<BlancoCgSourceFile> generate(File argInputFile) throws IOException;
+}
@@ -0,0 +1,536 @@
+/*
+ * blanco Framework
+ * Copyright (C) 2004-2017 IGA Tosiki
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ */
+/*
+ * Copyright 2017 Toshiki Iga
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package blanco.cg.watch;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import blanco.cg.BlancoCgSupportedLang;
+import blanco.cg.BlancoCgTransformer;
+import blanco.cg.transformer.BlancoCgFileOutputTarget;
+import blanco.cg.transformer.BlancoCgOutputTarget;
+import blanco.cg.transformer.BlancoCgSpillOutputStream;
+import blanco.cg.transformer.BlancoCgTransformerFactory;
+import blanco.cg.valueobject.BlancoCgSourceFile;
+
+/**
+ * Watch mode: keeps a generator resident and renders again only the value objects of the input files changed.
+ *
+ * The watched directories are observed by java.nio.file.WatchService, including the subdirectories created later.
+ * The events of a save (an editor often writes a file more than once) are gathered until no event comes for the
+ * settle time, and each changed file is then given to the generator once.<br>
+ * Usage: java blanco.cg.watch.BlancoCgWatcher [-lang java] -out dir generatorClass directory...<br>
+ * The generator class implements BlancoCgWatchGenerator and has a public constructor without arguments.
+ *
+ * Notes:
+ * <UL>
+ * <LI>A failure of an input file (e.g. a file saved in the middle of editing) is reported, and the watch continues.
+ * <LI>The source files no longer rendered from any input file, because the input file was deleted or no longer
+ * generates them, are reported as orphaned after each run, but not deleted.
+ * <LI>The output directory must not contain a watched directory. An output directory inside a watched one is ignored,
+ * so that the rendered source files do not trigger the watch again.
+ * </UL>
+ */
+public class BlancoCgWatcher implements Closeable {
+    /**
+     * Message prefix to display on the command line.
+     */
+    private static final String CMDLINE_PREFIX = "cg: watch: ";
+
+    /**
+     * Generator.
+     */
+    private final BlancoCgWatchGenerator fGenerator;
+
+    /**
+     * Target language.
+     */
+    private final int fLang;
+
+    /**
+     * Output target.
+     */
+    private final BlancoCgOutputTarget fOutputTarget;
+
+    /**
+     * Watch service.
+     */
+    private final WatchService fWatchService;
+
+    /**
+     * Map from a watch key to its directory.
+     */
+    private final Map<WatchKey, Path> fDirectoryMap = new HashMap<WatchKey, Path>();
+
+    /**
+     * Map from an input file to the paths of the source files rendered from it.
+     */
+    private final Map<Path, Set<String>> fOutputMap = new HashMap<Path, Set<String>>();
+
+    /**
+     * Paths of the source files no longer rendered from any input file.
+     */
+    private final Set<String> fOrphanSet = new TreeSet<String>();
+
+    /**
+     * Directories whose events are ignored.
+     */
+    private final List<Path> fIgnoreList = new ArrayList<Path>();
+
+    /**
+     * Time to wait for the following events of a save, in milliseconds.
+     */
+    private long fSettleMillis = 20;
+
+    /**
+     * Constructor.
+     *
+     * @param argGenerator
+     *            Generator.
+     * @param argLang
+     *            Target language defined in BlancoCgSupportedLang.
+     * @param argOutputTarget
+     *            Output target.
+     * @throws IOException
+     *             If the watch service cannot be created.
+     */
+    public BlancoCgWatcher(final BlancoCgWatchGenerator argGenerator,
+            final int argLang, final BlancoCgOutputTarget argOutputTarget)
+            throws IOException {
+        if (argGenerator == null) {
+            throw new IllegalArgumentException(
+                    "BlancoCgWatcher: the generator was given as null.");
+        }
+        if (argOutputTarget == null) {
+            throw new IllegalArgumentException(
+                    "BlancoCgWatcher: the output target was given as null.");
+        }
+        fGenerator = argGenerator;
+        fLang = argLang;
+        fOutputTarget = argOutputTarget;
+        fWatchService = FileSystems.getDefault().newWatchService();
+    }
+
+    /**
+     * Sets the time to wait for the following events of a save.
+     *
+     * @param argSettleMillis
+     *            Time in milliseconds. 0 or more.
+     */
+    public void setSettleMillis(final long argSettleMillis) {
+        if (argSettleMillis < 0) {
+            throw new IllegalArgumentException(
+                    "BlancoCgWatcher: the settle time must be 0 or more: "
+                            + argSettleMillis);
+        }
+        fSettleMillis = argSettleMillis;
+    }
+
+    /**
+     * Ignores a directory inside the watched directories, such as the output directory.
+     *
+     * @param argDirectory
+     *            Directory. Its subdirectories are also ignored.
+     */
+    public void ignore(final File argDirectory) {
+        fIgnoreList.add(argDirectory.toPath().toAbsolutePath().normalize());
+    }
+
+    /**
+     * Gets the paths of the source files no longer rendered from any input file.
+     *
+     * @return Paths relative to the output target, in the order of the paths.
+     */
+    public Set<String> getOrphanSet() {
+        return new TreeSet<String>(fOrphanSet);
+    }
+
+    /**
+     * Starts watching a directory and its subdirectories.
+     *
+     * @param argDirectory
+     *            Directory.
+     * @throws IOException
+     *             If the directory cannot be watched.
+     */
+    public void register(final File argDirectory) throws IOException {
+        if (argDirectory.isDirectory() == false) {
+            throw new IllegalArgumentException("BlancoCgWatcher: the directory ["
+                    + argDirectory.getAbsolutePath() + "] does not exist.");
+        }
+        registerTree(argDirectory.toPath().toAbsolutePath().normalize());
+    }
+
+    /**
+     * Renders the value objects of all files in the watched directories.
+     *
+     * @return Number of the source files rendered.
+     * @throws IOException
+     *             If a directory cannot be read.
+     */
+    public int renderAll() throws IOException {
+        int count = 0;
+        for (Path directory : new TreeSet<Path>(fDirectoryMap.values())) {
+            for (Path file : listFiles(directory)) {
+                count += render(file);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Waits for the changes of the input files, and renders the value objects of the changed files.
+     *
+     * @param argTimeoutMillis
+     *            Time to wait for the first event in milliseconds.
+     * @return Number of the source files rendered. 0 if no file has changed in the time.
+     * @throws IOException
+     *             If a directory cannot be read.
+     * @throws InterruptedException
+     *             If interrupted while waiting.
+     */
+    public int poll(final long argTimeoutMillis) throws IOException,
+            InterruptedException {
+        WatchKey key = fWatchService.poll(argTimeoutMillis,
+                TimeUnit.MILLISECONDS);
+        if (key == null) {
+            return 0;
+        }
+
+        // Gathers the events until the save settles.
+        final Set<Path> changedSet = new LinkedHashSet<Path>();
+        final Set<Path> deletedSet = new LinkedHashSet<Path>();
+        for (; key != null; key = fWatchService.poll(fSettleMillis,
+                TimeUnit.MILLISECONDS)) {
+            final Path directory = fDirectoryMap.get(key);
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (directory == null
+                        || event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    continue;
+                }
+                final Path path = directory.resolve((Path) event.context());
+                if (isIgnored(path)) {
+                    continue;
+                }
+                if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+                    changedSet.remove(path);
+                    deletedSet.add(path);
+                } else {
+                    deletedSet.remove(path);
+                    changedSet.add(path);
+                }
+            }
+            if (key.reset() == false) {
+                fDirectoryMap.remove(key);
+            }
+        }
+
+        int count = 0;
+        for (Path path : changedSet) {
+            if (Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+                // A new directory. Its files may have been created before it was watched.
+                registerTree(path);
+                for (Path file : listFiles(path)) {
+                    count += render(file);
+                }
+            } else if (Files.isRegularFile(path)) {
+                count += render(path);
+            }
+        }
+        for (Path path : deletedSet) {
+            reportOrphans(fOutputMap.remove(path));
+        }
+        return count;
+    }
+
+    /**
+     * Keeps rendering the changed files until the watcher is closed.
+     *
+     * @throws IOException
+     *             If a directory cannot be read.
+     * @throws InterruptedException
+     *             If interrupted while waiting.
+     */
+    public void watch() throws IOException, InterruptedException {
+        try {
+            while (true) {
+                poll(Long.MAX_VALUE);
+            }
+        } catch (ClosedWatchServiceException ex) {
+            // Closed by close().
+        }
+    }
+
+    /**
+     * Stops watching.
+     *
+     * @throws IOException
+     *             If the watch service cannot be closed.
+     */
+    public void close() throws IOException {
+        fWatchService.close();
+    }
+
+    /**
+     * Renders the value objects derived from an input file.
+     *
+     * @param argFile
+     *            Input file.
+     * @return Number of the source files rendered.
+     */
+    private int render(final Path argFile) {
+        final long startTime = System.nanoTime();
+        final Set<String> outputSet = new TreeSet<String>();
+        final BlancoCgOutputTarget recordingTarget = new BlancoCgOutputTarget() {
+            public int write(final String argPath, final byte[] argContent)
+                    throws IOException {
+                outputSet.add(argPath);
+                return fOutputTarget.write(argPath, argContent);
+            }
+
+            @Override
+            public int write(final String argPath,
+                    final BlancoCgSpillOutputStream argContent)
+                    throws IOException {
+                // Delegates as it is, so a large file is not read into memory.
+                outputSet.add(argPath);
+                return fOutputTarget.write(argPath, argContent);
+            }
+
+            public String getLocation(final String argPath) {
+                return fOutputTarget.getLocation(argPath);
+            }
+
+            @Override
+            public void report(final String argMessage) {
+                fOutputTarget.report(argMessage);
+            }
+        };
+
+        final List<BlancoCgSourceFile> cgSourceFileList;
+        try {
+            cgSourceFileList = fGenerator.generate(argFile.toFile());
+            for (BlancoCgSourceFile cgSourceFile : cgSourceFileList) {
+                final BlancoCgTransformer transformer = BlancoCgTransformerFactory
+                        .getSourceTransformer(fLang);
+                if (BlancoCgTransformerFactory.transform(transformer,
+                        cgSourceFile, recordingTarget) == false) {
+                    throw new IllegalArgumentException(
+                            "BlancoCgWatcher: the transformer of the language ("
+                                    + fLang
+                                    + ") does not support output targets.");
+                }
+            }
+        } catch (IOException | RuntimeException ex) {
+            System.out.println(CMDLINE_PREFIX + "failed: " + argFile + ": "
+                    + ex.toString());
+            return 0;
+        }
+        fOrphanSet.removeAll(outputSet);
+        if (cgSourceFileList.isEmpty()) {
+            reportOrphans(fOutputMap.remove(argFile));
+            return 0;
+        }
+        final Set<String> previousSet = fOutputMap.put(argFile, outputSet);
+        System.out.println(CMDLINE_PREFIX + "rendered: " + argFile + " ("
+                + cgSourceFileList.size() + " files, "
+                + (System.nanoTime() - startTime) / 1000000 + " ms)");
+        if (previousSet != null) {
+            previousSet.removeAll(outputSet);
+            reportOrphans(previousSet);
+        }
+        return cgSourceFileList.size();
+    }
+
+    /**
+     * Reports the source files no longer rendered from any input file.
+     *
+     * @param argOutputSet
+     *            Paths of the source files no longer rendered from an input file, or null.
+     */
+    private void reportOrphans(final Set<String> argOutputSet) {
+        if (argOutputSet == null) {
+            return;
+        }
+        for (String output : argOutputSet) {
+            boolean isRendered = false;
+            for (Set<String> outputSet : fOutputMap.values()) {
+                if (outputSet.contains(output)) {
+                    isRendered = true;
+                    break;
+                }
+            }
+            if (isRendered == false && fOrphanSet.add(output)) {
+                System.out.println(CMDLINE_PREFIX + "orphaned: "
+                        + fOutputTarget.getLocation(output));
+            }
+        }
+    }
+
+    /**
+     * Checks whether a path is in an ignored directory.
+     *
+     * @param argPath
+     *            Absolute path.
+     * @return True if ignored.
+     */
+    private boolean isIgnored(final Path argPath) {
+        for (Path ignored : fIgnoreList) {
+            if (argPath.startsWith(ignored)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Watches a directory and its subdirectories.
+     *
+     * @param argDirectory
+     *            Directory.
+     * @throws IOException
+     *             If a directory cannot be watched.
+     */
+    private void registerTree(final Path argDirectory) throws IOException {
+        final List<Path> directoryList;
+        final Stream<Path> stream = Files.walk(argDirectory);
+        try {
+            directoryList = stream.filter(
+                    path -> Files.isDirectory(path) && isIgnored(path) == false)
+                    .collect(Collectors.toList());
+        } finally {
+            stream.close();
+        }
+        for (Path directory : directoryList) {
+            if (fDirectoryMap.containsValue(directory)) {
+                continue;
+            }
+            fDirectoryMap.put(directory.register(fWatchService,
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY,
+                    StandardWatchEventKinds.ENTRY_DELETE), directory);
+        }
+    }
+
+    /**
+     * Lists the regular files directly in a directory, in the order of the names.
+     *
+     * @param argDirectory
+     *            Directory.
+     * @return Files.
+     * @throws IOException
+     *             If the directory cannot be read.
+     */
+    private static List<Path> listFiles(final Path argDirectory)
+            throws IOException {
+        final List<Path> fileList = new ArrayList<Path>();
+        final Stream<Path> stream = Files.list(argDirectory);
+        try {
+            stream.filter(path -> Files.isRegularFile(path)).sorted().forEach(
+                    fileList::add);
+        } finally {
+            stream.close();
+        }
+        return fileList;
+    }
+
+    /**
+     * Entry point.
+     *
+     * @param args
+     *            Command-line arguments.
+     * @throws Exception
+     *             If the generator cannot be created, or a directory cannot be watched.
+     */
+    public static void main(final String[] args) throws Exception {
+        int lang = BlancoCgSupportedLang.JAVA;
+        File outputDirectory = null;
+        final List<String> argList = new ArrayList<String>();
+        for (int index = 0; index < args.length; index++) {
+            if ("-lang".equals(args[index]) && index + 1 < args.length) {
+                lang = new BlancoCgSupportedLang().convertToInt(args[++index]
+                        .toLowerCase());
+            } else if ("-out".equals(args[index]) && index + 1 < args.length) {
+                outputDirectory = new File(args[++index]);
+            } else {
+                argList.add(args[index]);
+            }
+        }
+        if (argList.size() < 2 || outputDirectory == null
+                || lang == BlancoCgSupportedLang.NOT_DEFINED) {
+            System.err.println("usage: java blanco.cg.watch.BlancoCgWatcher [-lang java] -out dir generatorClass directory...");
+            System.exit(2);
+            return;
+        }
+        final Path outputPath = outputDirectory.toPath().toAbsolutePath()
+                .normalize();
+        for (String directory : argList.subList(1, argList.size())) {
+            if (new File(directory).toPath().toAbsolutePath().normalize()
+                    .startsWith(outputPath)) {
+                System.err.println("BlancoCgWatcher: the output directory ["
+                        + outputPath + "] contains the watched directory ["
+                        + directory + "]. Give -out outside it.");
+                System.exit(2);
+                return;
+            }
+        }
+
+        final BlancoCgWatchGenerator generator = (BlancoCgWatchGenerator) Class
+                .forName(argList.get(0)).getConstructor().newInstance();
+        final BlancoCgWatcher watcher = new BlancoCgWatcher(generator, lang,
+                new BlancoCgFileOutputTarget(outputDirectory));
+        try {
+            watcher.ignore(outputDirectory);
+            for (String directory : argList.subList(1, argList.size())) {
+                watcher.register(new File(directory));
+            }
+            watcher.renderAll();
+            System.out.println(CMDLINE_PREFIX + "watching. Press Ctrl-C to stop.");
+            watcher.watch();
+        } finally {
+            watcher.close();
+        }
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * blanco Framework
+ * Copyright (C) 2004-2006 IGA Tosiki
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ */
+package blanco.cg;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import blanco.cg.batch.BlancoCgBatch;
+import blanco.cg.batch.BlancoCgModelSerializer;
+import blanco.cg.valueobject.BlancoCgSourceFile;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test of the sharded generation by several local processes.
+ */
+public class BlancoCgBatchShardTest {
+    private static final int SHARDS = 3;
+
+    private static final int FILES = 20;
+
+    @Test
+    public void testShards() throws Exception {
+        final File modelDirectory = new File("./tmp/batch/shard-model");
+        modelDirectory.mkdirs();
+        final File reportDirectory = new File("./tmp/batch/shard-report");
+        reportDirectory.mkdirs();
+        final File outputDirectory = new File("./tmp/batch/shard-out");
+        if (outputDirectory.exists()) {
+            Files.walk(outputDirectory.toPath())
+                    .sorted(Comparator.reverseOrder())
+                    .forEach(path -> path.toFile().delete());
+        }
+
+        final List<BlancoCgSourceFile> cgSourceFileList = new ArrayList<BlancoCgSourceFile>();
+        for (int index = 0; index < FILES; index++) {
+            cgSourceFileList.add(BlancoCgTestModel.createNamedClass(
+                    "myprog.shard", "MyShard" + index));
+        }
+        final OutputStream outStream = new FileOutputStream(new File(
+                modelDirectory, "models.xml"));
+        try {
+            BlancoCgModelSerializer.write(cgSourceFileList, outStream);
+        } finally {
+            outStream.close();
+        }
+
+        BlancoCgBatch.Summary summary = runShards(modelDirectory,
+                outputDirectory, reportDirectory);
+        assertEquals(FILES, summary.getModelCount());
+        assertEquals(FILES, summary.getGeneratedCount());
+        assertEquals(FILES, summary.getCreatedCount());
+        assertEquals(0, summary.getFailureCount());
+        for (int index = 0; index < FILES; index++) {
+            assertTrue(new File(outputDirectory, "myprog/shard/MyShard"
+                    + index + ".java").isFile());
+        }
+        for (int shard = 0; shard < SHARDS; shard++) {
+            assertTrue(new File(outputDirectory, ".blanco-cg-batch-files.shard-"
+                    + shard + "-of-" + SHARDS + ".properties").isFile());
+        }
+
+        // Runs again with the same slices. Nothing is rewritten.
+        summary = runShards(modelDirectory, outputDirectory, reportDirectory);
+        assertEquals(FILES, summary.getGeneratedCount());
+        assertEquals(0, summary.getCreatedCount());
+        assertEquals(FILES, summary.getUnchangedCount());
+
+        // Only the summaries of every shard of one run are merged.
+        final File shard0 = new File(reportDirectory, "shard0.json");
+        final File shard1 = new File(reportDirectory, "shard1.json");
+        final File shard2 = new File(reportDirectory, "shard2.json");
+        assertThrows(IllegalArgumentException.class, () -> merge(shard0,
+                shard1));
+        assertThrows(IllegalArgumentException.class, () -> merge(shard0,
+                shard1, shard1));
+        final File tsShard2 = new File(reportDirectory, "shard2-ts.json");
+        Files.write(tsShard2.toPath(), new String(Files.readAllBytes(shard2
+                .toPath()), StandardCharsets.UTF_8).replace("\"java\"",
+                "\"ts\"").getBytes(StandardCharsets.UTF_8));
+        assertThrows(IllegalArgumentException.class, () -> merge(shard0,
+                shard1, tsShard2));
+        assertEquals(FILES, merge(shard2, shard0, shard1).getModelCount());
+    }
+
+    /**
+     * Merges the summary files.
+     */
+    private static BlancoCgBatch.Summary merge(final File... argSummaryFiles)
+            throws Exception {
+        final List<String> mergeArgs = new ArrayList<String>();
+        mergeArgs.add("-merge");
+        for (File summaryFile : argSummaryFiles) {
+            mergeArgs.add(summaryFile.getPath());
+        }
+        final BlancoCgBatch batch = new BlancoCgBatch();
+        batch.parseArgs(mergeArgs.toArray(new String[mergeArgs.size()]));
+        return batch.run();
+    }
+
+    /**
+     * Runs the shards in separate processes at the same time, and merges their summaries.
+     */
+    private static BlancoCgBatch.Summary runShards(final File argModelDirectory,
+            final File argOutputDirectory, final File argReportDirectory)
+            throws Exception {
+        final String java = System.getProperty("java.home") + File.separator
+                + "bin" + File.separator + "java";
+        final List<Process> processList = new ArrayList<Process>();
+        final List<String> mergeArgs = new ArrayList<String>();
+        mergeArgs.add("-merge");
+        for (int shard = 0; shard < SHARDS; shard++) {
+            final File report = new File(argReportDirectory, "shard" + shard
+                    + ".json");
+            report.delete();
+            mergeArgs.add(report.getPath());
+            final ProcessBuilder builder = new ProcessBuilder(java, "-cp",
+                    System.getProperty("java.class.path"),
+                    BlancoCgBatch.class.getName(), "-shard", shard + "/"
+                            + SHARDS, "-threads", "2", "-prune",
+                    "-out", argOutputDirectory.getPath(),
+                    "-summary", report.getPath(), argModelDirectory.getPath());
+            builder.redirectErrorStream(true);
+            builder.redirectOutput(new File(argReportDirectory, "shard"
+                    + shard + ".log"));
+            processList.add(builder.start());
+        }
+        for (Process process : processList) {
+            assertEquals(0, process.waitFor());
+        }
+
+        mergeArgs.add("-summary");
+        mergeArgs.add(new File(argReportDirectory, "merged.json").getPath());
+        final BlancoCgBatch batch = new BlancoCgBatch();
+        batch.parseArgs(mergeArgs.toArray(new String[mergeArgs.size()]));
+        return batch.run();
+    }
+}
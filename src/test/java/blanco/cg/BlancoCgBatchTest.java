@@ -0,0 +1,182 @@
+/*
+ * blanco Framework
+ * Copyright (C) 2004-2006 IGA Tosiki
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ */
+package blanco.cg;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import blanco.cg.batch.BlancoCgBatch;
+import blanco.cg.batch.BlancoCgModelSerializer;
+import blanco.cg.valueobject.BlancoCgSourceFile;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test of the batch command-line driver.
+ */
+public class BlancoCgBatchTest {
+    @Test
+    public void testBatch(@TempDir final File argTempDir) throws Exception {
+        final File modelDirectory = new File(argTempDir, "model");
+        modelDirectory.mkdirs();
+        final File outputDirectory = new File(argTempDir, "out");
+
+        final List<BlancoCgSourceFile> cgSourceFileList = new ArrayList<BlancoCgSourceFile>();
+        cgSourceFileList.add(BlancoCgTestModel.createNamedClass(
+                "myprog.batch", "MyBatchA"));
+        cgSourceFileList.add(BlancoCgTestModel.createNamedClass(
+                "myprog.batch", "MyBatchB"));
+        final OutputStream outStream = new FileOutputStream(new File(
+                modelDirectory, "models.xml"));
+        try {
+            BlancoCgModelSerializer.write(cgSourceFileList, outStream);
+        } finally {
+            outStream.close();
+        }
+
+        // The round trip keeps the model.
+        final List<BlancoCgSourceFile> readList = BlancoCgModelSerializer
+                .read(new FileInputStream(new File(modelDirectory,
+                        "models.xml")));
+        assertEquals(2, readList.size());
+        assertEquals("MyBatchB", readList.get(1).getClassList().get(0)
+                .getName());
+
+        final String[] args = new String[] { "-lang", "java,TS", "-threads",
+                "2", "-out", outputDirectory.getPath(), "-incremental",
+                modelDirectory.getPath() };
+        BlancoCgBatch batch = new BlancoCgBatch();
+        batch.parseArgs(args);
+        BlancoCgBatch.Summary summary = batch.run();
+        assertEquals(1, summary.getSourceCount());
+        assertEquals(2, summary.getModelCount());
+        assertEquals(4, summary.getGeneratedCount());
+        assertEquals(0, summary.getFailureCount());
+        assertTrue(new File(outputDirectory, "myprog/batch/MyBatchA.java")
+                .isFile());
+        assertTrue(new File(outputDirectory, "myprog/batch/MyBatchB.ts")
+                .isFile());
+        assertTrue(summary.toJson().startsWith(
+                "{\"languages\":[\"java\",\"ts\"],\"threads\":2,\"sources\":1,"));
+
+        // The unchanged input is skipped.
+        batch = new BlancoCgBatch();
+        batch.parseArgs(args);
+        summary = batch.run();
+        assertEquals(1, summary.getSkippedCount());
+        assertEquals(0, summary.getGeneratedCount());
+
+        assertThrows(IllegalArgumentException.class, () -> new BlancoCgBatch()
+                .parseArgs(new String[] { "-lang", "cobol", "x" }));
+    }
+
+    @Test
+    public void testPrune(@TempDir final File argTempDir) throws Exception {
+        final File modelDirectory = new File(argTempDir, "prune-model");
+        modelDirectory.mkdirs();
+        final File outputDirectory = new File(argTempDir, "prune-out");
+        final File modelFile = new File(modelDirectory, "models.xml");
+
+        final List<BlancoCgSourceFile> cgSourceFileList = new ArrayList<BlancoCgSourceFile>();
+        cgSourceFileList.add(BlancoCgTestModel.createNamedClass(
+                "myprog.batch", "MyPruneA"));
+        cgSourceFileList.add(BlancoCgTestModel.createNamedClass(
+                "myprog.batch.pruned", "MyPruneB"));
+        writeModels(cgSourceFileList, modelFile);
+
+        final String[] args = new String[] { "-lang", "java,ts", "-out",
+                outputDirectory.getPath(), "-incremental", "-prune",
+                modelDirectory.getPath() };
+        BlancoCgBatch batch = new BlancoCgBatch();
+        batch.parseArgs(args);
+        BlancoCgBatch.Summary summary = batch.run();
+        assertEquals(4, summary.getGeneratedCount());
+        assertEquals(0, summary.getStaleCount());
+        final File fileB = new File(outputDirectory, "myprog/batch/pruned/MyPruneB.java");
+        assertTrue(fileB.isFile());
+
+        // The unchanged input is skipped, and its files are not stale.
+        batch = new BlancoCgBatch();
+        batch.parseArgs(args);
+        summary = batch.run();
+        assertEquals(1, summary.getSkippedCount());
+        assertEquals(0, summary.getStaleCount());
+        assertTrue(fileB.isFile());
+
+        // The files of the removed class are only reported first, then deleted.
+        cgSourceFileList.remove(1);
+        writeModels(cgSourceFileList, modelFile);
+        batch = new BlancoCgBatch();
+        batch.parseArgs(new String[] { "-lang", "java,ts", "-out",
+                outputDirectory.getPath(), "-incremental", "-prune-report",
+                modelDirectory.getPath() });
+        summary = batch.run();
+        assertEquals(2, summary.getStaleCount());
+        assertEquals(0, summary.getPrunedCount());
+        assertTrue(fileB.isFile());
+
+        batch = new BlancoCgBatch();
+        batch.parseArgs(args);
+        summary = batch.run();
+        assertEquals(2, summary.getStaleCount());
+        assertEquals(2, summary.getPrunedCount());
+        assertFalse(fileB.exists());
+        // The emptied directory is deleted as well.
+        assertFalse(new File(outputDirectory, "myprog/batch/pruned").exists());
+        assertTrue(new File(outputDirectory, "myprog/batch/MyPruneA.ts")
+                .isFile());
+
+        // Nothing is stale any more.
+        batch = new BlancoCgBatch();
+        batch.parseArgs(args);
+        summary = batch.run();
+        assertEquals(0, summary.getStaleCount());
+    }
+
+    @Test
+    public void testUntrustedXml() throws Exception {
+        // XMLDecoder would call these constructors and methods, so the document is rejected before decoding.
+        final String[] documents = new String[] {
+                "<java><object class=\"java.lang.ProcessBuilder\"><void method=\"start\"/></object></java>",
+                "<java><object class=\"blanco.cg.valueobject.BlancoCgClass\"><void property=\"class\">"
+                        + "<void property=\"classLoader\"/></void></object></java>",
+                "<java><object class=\"blanco.cg.valueobject.BlancoCgClass\"><void method=\"wait\"/></object></java>",
+                "<!DOCTYPE java [<!ENTITY x SYSTEM \"file:///etc/passwd\">]><java><string>&x;</string></java>" };
+        for (String document : documents) {
+            assertThrows(IllegalArgumentException.class,
+                    () -> BlancoCgModelSerializer
+                            .read(new ByteArrayInputStream(document
+                                    .getBytes(StandardCharsets.UTF_8))));
+        }
+    }
+
+    private static void writeModels(
+            final List<BlancoCgSourceFile> argSourceFileList,
+            final File argFile) throws Exception {
+        final OutputStream outStream = new FileOutputStream(argFile);
+        try {
+            BlancoCgModelSerializer.write(argSourceFileList, outStream);
+        } finally {
+            outStream.close();
+        }
+    }
+}
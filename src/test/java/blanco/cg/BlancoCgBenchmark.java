@@ -0,0 +1,92 @@
+/*
+ * blanco Framework
+ * Copyright (C) 2004-2006 IGA Tosiki
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ */
+package blanco.cg;
+
+/**
+ * Measurement shared by the benchmarks.
+ *
+ * The benchmarks are the classes named *Benchmark. They are not run by the ordinary build, but by the benchmark
+ * profile: mvn -Pbenchmark test
+ */
+final class BlancoCgBenchmark {
+    /**
+     * A task to measure.
+     *
+     * @param <T>
+     *            Type of the input of the task.
+     */
+    interface Task<T> {
+        /**
+         * Prepares the input of a run. This is not measured.
+         *
+         * @return Input of the run.
+         * @throws Exception
+         *             If an exception occurs.
+         */
+        T prepare() throws Exception;
+
+        /**
+         * Runs the task once.
+         *
+         * @param argInput
+         *            Input prepared for this run.
+         * @throws Exception
+         *             If an exception occurs.
+         */
+        void run(T argInput) throws Exception;
+    }
+
+    private BlancoCgBenchmark() {
+    }
+
+    /**
+     * Runs a task as many times to warm up, then as many times again, and gets the best time of the latter.
+     *
+     * @param <T>
+     *            Type of the input of the task.
+     * @param argRunCount
+     *            Number of the runs to warm up, and of the runs to measure.
+     * @param argTask
+     *            A task.
+     * @return The best time in nanoseconds.
+     * @throws Exception
+     *             If the task throws an exception.
+     */
+    static <T> long measure(final int argRunCount, final Task<T> argTask)
+            throws Exception {
+        for (int index = 0; index < argRunCount; index++) {
+            argTask.run(argTask.prepare());
+        }
+        long best = Long.MAX_VALUE;
+        for (int index = 0; index < argRunCount; index++) {
+            final T input = argTask.prepare();
+            final long start = System.nanoTime();
+            argTask.run(input);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+
+    /**
+     * Prints a result of a benchmark.
+     *
+     * @param argName
+     *            Name of the benchmark.
+     * @param argNanos
+     *            Time in nanoseconds.
+     * @param argNote
+     *            What was measured.
+     */
+    static void report(final String argName, final long argNanos,
+            final String argNote) {
+        System.out.println("benchmark: " + argName + " " + (argNanos / 1000)
+                + " us (" + argNote + ")");
+    }
+}
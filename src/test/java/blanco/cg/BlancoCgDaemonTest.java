@@ -0,0 +1,260 @@
+/*
+ * blanco Framework
+ * Copyright (C) 2004-2006 IGA Tosiki
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ */
+package blanco.cg;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Arrays;
+import java.util.HashSet;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import blanco.cg.daemon.BlancoCgDaemon;
+import blanco.cg.daemon.BlancoCgDaemonClient;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test of the generation daemon.
+ */
+public class BlancoCgDaemonTest {
+    /**
+     * Number of times the job has been run.
+     */
+    private static int fJobCount = 0;
+
+    /**
+     * A generator run as a job.
+     */
+    public static class Job {
+        public static void main(final String[] args) {
+            fJobCount++;
+            System.out.println("job: " + args.length);
+            if (args.length > 0 && "fail".equals(args[0])) {
+                throw new IllegalArgumentException("failed as requested");
+            }
+        }
+    }
+
+    /**
+     * A generator that ends the JVM.
+     */
+    public static class ExitingJob {
+        public static void main(final String[] args) {
+            System.exit(3);
+        }
+    }
+
+    /**
+     * A generator that ends the JVM through another class.
+     */
+    public static class IndirectExitingJob {
+        public static void main(final String[] args) {
+            if (args.length == 0) {
+                Terminator.terminate();
+            }
+        }
+    }
+
+    /**
+     * A class that ends the JVM.
+     */
+    public static class Terminator {
+        static void terminate() {
+            Runtime.getRuntime().halt(3);
+        }
+    }
+
+    @Test
+    public void testDaemon(@TempDir final Path argTempDir) throws Exception {
+        final Path tokenFile = argTempDir.resolve("daemon.token");
+        final BlancoCgDaemon daemon = new BlancoCgDaemon(0, tokenFile,
+                new HashSet<String>(Arrays.asList(Job.class.getName(),
+                        ExitingJob.class.getName(), IndirectExitingJob.class
+                                .getName())));
+        final String token = new String(Files.readAllBytes(tokenFile),
+                StandardCharsets.UTF_8);
+        if (Files.getFileAttributeView(tokenFile,
+                PosixFileAttributeView.class) != null) {
+            // Only the owner can read the token.
+            assertEquals("rw-------", PosixFilePermissions.toString(Files
+                    .getPosixFilePermissions(tokenFile)));
+        }
+        daemon.warmUp();
+        final Thread thread = new Thread(() -> {
+            try {
+                daemon.serve();
+            } catch (Exception ex) {
+                ex.printStackTrace();
+            }
+        });
+        thread.start();
+
+        final BlancoCgDaemonClient client = new BlancoCgDaemonClient(daemon
+                .getPort(), tokenFile);
+        assertTrue(client.ping());
+
+        // A request without the token is rejected.
+        final String directory = new File(".").getAbsolutePath();
+        assertEquals("REJECT", rawRequest(daemon.getPort(), "RUN\twrong\t"
+                + directory + "\t" + Job.class.getName()));
+        assertFalse(new BlancoCgDaemonClient(daemon.getPort(), argTempDir
+                .resolve("missing.token")).ping());
+
+        // A class out of the allow-list, or a class that ends the JVM, is not run on the daemon.
+        assertEquals("REJECT", rawRequest(daemon.getPort(), "RUN\t" + token
+                + "\t" + directory + "\t" + BlancoCgDaemonTest.class.getName()));
+        assertEquals("REJECT", rawRequest(daemon.getPort(), "RUN\t" + token
+                + "\t" + directory + "\t" + ExitingJob.class.getName()));
+        assertEquals("REJECT", rawRequest(daemon.getPort(), "RUN\t" + token
+                + "\t" + directory + "\t"
+                + IndirectExitingJob.class.getName()));
+        assertTrue(client.ping());
+
+        // An idle connection is closed after the request timeout, and does not hold back the other jobs.
+        daemon.setRequestTimeout(500);
+        final Socket idleSocket = new Socket(InetAddress.getLoopbackAddress(),
+                daemon.getPort());
+        try {
+            assertTrue(client.ping());
+            assertEquals(-1, idleSocket.getInputStream().read());
+        } finally {
+            idleSocket.close();
+        }
+
+        // Runs on the daemon.
+        final int count = fJobCount;
+        assertEquals(0, client.run(Job.class.getName(), new String[] { "a\tb",
+                "c" }));
+        assertEquals(count + 1, fJobCount);
+
+        // A failure of the job is reported as the exit code.
+        assertEquals(1, client.run(Job.class.getName(),
+                new String[] { "fail" }));
+
+        // An unknown class is rejected by the daemon, then fails in process.
+        assertThrows(IllegalArgumentException.class, () -> client.run(
+                "blanco.cg.NoSuchGenerator", new String[0]));
+
+        assertTrue(client.stopDaemon());
+        thread.join(10000);
+        assertFalse(client.ping());
+        assertFalse(Files.exists(tokenFile));
+
+        // Runs in process when the daemon is absent.
+        assertEquals(0, client.run(Job.class.getName(), new String[0]));
+        assertEquals(count + 3, fJobCount);
+    }
+
+    @Test
+    public void testConnectionLost(@TempDir final Path argTempDir)
+            throws Exception {
+        final Path tokenFile = argTempDir.resolve("daemon.token");
+        Files.write(tokenFile, "token".getBytes(StandardCharsets.UTF_8));
+        final ServerSocket serverSocket = new ServerSocket(0, 50, InetAddress
+                .getLoopbackAddress());
+        try {
+            final BlancoCgDaemonClient client = new BlancoCgDaemonClient(
+                    serverSocket.getLocalPort(), tokenFile);
+
+            // Lost before the job is accepted, the job runs in process.
+            final int count = fJobCount;
+            final Thread beforeAccept = dropConnection(serverSocket, false);
+            assertEquals(0, client.run(Job.class.getName(), new String[0]));
+            beforeAccept.join(10000);
+            assertEquals(count + 1, fJobCount);
+
+            // Lost after the job is accepted, the job is not run again.
+            final Thread afterAccept = dropConnection(serverSocket, true);
+            assertThrows(IllegalArgumentException.class, () -> client.run(Job.class
+                    .getName(), new String[0]));
+            afterAccept.join(10000);
+            assertEquals(count + 1, fJobCount);
+        } finally {
+            serverSocket.close();
+        }
+    }
+
+    /**
+     * Accepts a connection on a thread, and drops it after reading the request.
+     *
+     * @param argServerSocket
+     *            Server socket.
+     * @param argIsAccepted
+     *            Whether to acknowledge the job before dropping.
+     * @return Thread.
+     */
+    private static Thread dropConnection(final ServerSocket argServerSocket,
+            final boolean argIsAccepted) {
+        final Thread thread = new Thread(() -> {
+            try {
+                final Socket socket = argServerSocket.accept();
+                try {
+                    new BufferedReader(new InputStreamReader(socket
+                            .getInputStream(), StandardCharsets.UTF_8))
+                            .readLine();
+                    if (argIsAccepted) {
+                        socket.getOutputStream().write(
+                                "ACCEPT\nOUT\tpartial\n"
+                                        .getBytes(StandardCharsets.UTF_8));
+                        socket.getOutputStream().flush();
+                    }
+                } finally {
+                    socket.close();
+                }
+            } catch (Exception ex) {
+                ex.printStackTrace();
+            }
+        });
+        thread.start();
+        return thread;
+    }
+
+    /**
+     * Sends a request line to the daemon directly.
+     *
+     * @param argPort
+     *            Port number of the daemon.
+     * @param argRequestLine
+     *            Request line.
+     * @return The kind of the first response line.
+     */
+    private static String rawRequest(final int argPort,
+            final String argRequestLine) throws Exception {
+        final Socket socket = new Socket(InetAddress.getLoopbackAddress(),
+                argPort);
+        try {
+            final Writer writer = new OutputStreamWriter(socket
+                    .getOutputStream(), StandardCharsets.UTF_8);
+            writer.write(argRequestLine + "\n");
+            writer.flush();
+            final String line = new BufferedReader(new InputStreamReader(socket
+                    .getInputStream(), StandardCharsets.UTF_8)).readLine();
+            return line.split("\t")[0];
+        } finally {
+            socket.close();
+        }
+    }
+}
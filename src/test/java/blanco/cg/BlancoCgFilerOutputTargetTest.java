@@ -0,0 +1,194 @@
+/*
+ * blanco Framework
+ * Copyright (C) 2004-2006 IGA Tosiki
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ */
+package blanco.cg;
+
+import java.io.File;
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.junit.jupiter.api.Test;
+
+import blanco.cg.transformer.BlancoCgFilerOutputTarget;
+import blanco.cg.transformer.BlancoCgTransformerFactory;
+import blanco.cg.valueobject.BlancoCgClass;
+import blanco.cg.valueobject.BlancoCgMethod;
+import blanco.cg.valueobject.BlancoCgSourceFile;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test of generating source files from an annotation processor through the Filer.
+ */
+public class BlancoCgFilerOutputTargetTest {
+    @Test
+    public void testProcessor() throws Exception {
+        final File baseDirectory = new File("./tmp/filer");
+        final File sourceDirectory = new File(baseDirectory, "src");
+        final File generatedDirectory = new File(baseDirectory, "generated");
+        final File kotlinDirectory = new File(baseDirectory, "kotlin");
+        final File classDirectory = new File(baseDirectory, "classes");
+        for (File directory : new File[] { sourceDirectory,
+                generatedDirectory, kotlinDirectory, classDirectory }) {
+            directory.mkdirs();
+        }
+        // The Kotlin source file of the last run would be skipped, and not reported.
+        Files.deleteIfExists(new File(kotlinDirectory,
+                "myprog/filer/MyFilerGenerated.kt").toPath());
+
+        // A hand-written source file that uses the class generated in the same compilation.
+        final File sourceFile = new File(sourceDirectory, "MyFilerUser.java");
+        Files.write(sourceFile.toPath(), ("package myprog.filer;\n"
+                + "public class MyFilerUser {\n"
+                + "    public String name() {\n"
+                + "        return MyFilerGenerated.name();\n" + "    }\n"
+                + "}\n").getBytes(StandardCharsets.UTF_8));
+
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
+        final StandardJavaFileManager fileManager = compiler
+                .getStandardFileManager(diagnostics, null,
+                        StandardCharsets.UTF_8);
+        try {
+            final JavaCompiler.CompilationTask task = compiler.getTask(null,
+                    fileManager, diagnostics, Arrays.asList("-encoding",
+                            "UTF-8", "-d",
+                            classDirectory.getPath(), "-s", generatedDirectory
+                                    .getPath(), "-A"
+                                    + BlancoCgFilerOutputTarget.KAPT_KOTLIN_GENERATED_OPTION
+                                    + "=" + kotlinDirectory.getPath()), null,
+                    fileManager.getJavaFileObjects(sourceFile));
+            task.setProcessors(Collections.singletonList(new MyProcessor()));
+            assertTrue(task.call(), diagnostics.getDiagnostics().toString());
+        } finally {
+            fileManager.close();
+        }
+
+        // The generated Java source file was compiled with the hand-written one.
+        assertTrue(new File(generatedDirectory,
+                "myprog/filer/MyFilerGenerated.java").exists());
+        assertTrue(new File(classDirectory,
+                "myprog/filer/MyFilerGenerated.class").exists());
+        assertTrue(new File(classDirectory, "myprog/filer/MyFilerUser.class")
+                .exists());
+        // A Kotlin source file is written for kapt, and others are resources.
+        assertTrue(new File(kotlinDirectory,
+                "myprog/filer/MyFilerGenerated.kt").exists());
+        assertTrue(new File(generatedDirectory,
+                "myprog/filer/MyFilerGenerated.js").exists());
+
+        // The model in Windows-31J is written in the encoding of the compilation.
+        assertTrue(new String(Files.readAllBytes(new File(generatedDirectory,
+                "myprog/filer/MyFilerGenerated.java").toPath()),
+                StandardCharsets.UTF_8).contains("return \"生成\";"));
+        // The Kotlin source file is written in UTF-8 all the same.
+        assertTrue(new String(Files.readAllBytes(new File(kotlinDirectory,
+                "myprog/filer/MyFilerGenerated.kt").toPath()),
+                StandardCharsets.UTF_8).contains("return \"生成\""));
+
+        // The writes are reported through the Messager once per target, not per file.
+        final List<String> noteList = new ArrayList<String>();
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics
+                .getDiagnostics()) {
+            if (diagnostic.getKind() == Diagnostic.Kind.NOTE
+                    && diagnostic.getMessage(null).startsWith("cg: ")) {
+                noteList.add(diagnostic.getMessage(null));
+            }
+        }
+        assertEquals(Arrays.asList(
+                "cg: 2 file(s) written through the Filer.",
+                "cg: 1 file(s) written through the Filer."), noteList);
+    }
+
+    /**
+     * An annotation processor that generates source files from a model.
+     */
+    @SupportedAnnotationTypes("*")
+    public static class MyProcessor extends AbstractProcessor {
+        @Override
+        public SourceVersion getSupportedSourceVersion() {
+            return SourceVersion.latestSupported();
+        }
+
+        @Override
+        public boolean process(final Set<? extends TypeElement> annotations,
+                final RoundEnvironment roundEnv) {
+            // Generates only in the round of the hand-written source file, not in the round of the generated one.
+            final Element userElement = processingEnv.getElementUtils()
+                    .getTypeElement("myprog.filer.MyFilerUser");
+            if (roundEnv.getRootElements().contains(userElement) == false) {
+                return false;
+            }
+            try {
+                final BlancoCgFilerOutputTarget target = new BlancoCgFilerOutputTarget(
+                        processingEnv, "Windows-31J", userElement);
+                BlancoCgTransformerFactory.transform(BlancoCgTransformerFactory
+                        .getJavaSourceTransformer(), createModel("Windows-31J"),
+                        target);
+                BlancoCgTransformerFactory.transform(BlancoCgTransformerFactory
+                        .getKotlinSourceTransformer(), createModel("Windows-31J"),
+                        target);
+                target.reportSummary();
+                // No originating element is given.
+                final BlancoCgFilerOutputTarget jsTarget = new BlancoCgFilerOutputTarget(
+                        processingEnv, "UTF-8", (Element[]) null);
+                BlancoCgTransformerFactory.transform(BlancoCgTransformerFactory
+                        .getJsSourceTransformer(), createModel("UTF-8"),
+                        jsTarget);
+                jsTarget.reportSummary();
+                jsTarget.reportSummary();
+            } catch (UnsupportedEncodingException ex) {
+                throw new IllegalStateException(ex);
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Creates a model of a class.
+     *
+     * @param argEncoding
+     *            Encoding of the source file.
+     * @return A source file.
+     */
+    private static BlancoCgSourceFile createModel(final String argEncoding) {
+        final BlancoCgObjectFactory cgOf = BlancoCgObjectFactory.getInstance();
+        final BlancoCgSourceFile cgSourceFile = BlancoCgTestModel.createClass(
+                "myprog.filer", "MyFilerGenerated");
+        cgSourceFile.setEncoding(argEncoding);
+        final BlancoCgClass cgClass = cgSourceFile.getClassList().get(0);
+        final BlancoCgMethod cgMethod = cgOf.createMethod("name",
+                "Gets the name.");
+        cgMethod.setStatic(true);
+        cgMethod.setReturn(cgOf.createReturn("java.lang.String", "The name."));
+        cgMethod.getLineList().add("return \"生成\";");
+        cgClass.getMethodList().add(cgMethod);
+        return cgSourceFile;
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * blanco Framework
+ * Copyright (C) 2004-2006 IGA Tosiki
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ */
+package blanco.cg;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import blanco.cg.compiler.BlancoCgJavaCompileResult;
+import blanco.cg.compiler.BlancoCgJavaCompiler;
+import blanco.cg.transformer.BlancoCgMemoryOutputTarget;
+import blanco.cg.valueobject.BlancoCgClass;
+import blanco.cg.valueobject.BlancoCgMethod;
+import blanco.cg.valueobject.BlancoCgSourceFile;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test of the in-process compilation of the generated Java source code.
+ */
+public class BlancoCgJavaCompilerTest {
+    @Test
+    public void testCompile() throws Exception {
+        final List<BlancoCgSourceFile> cgSourceFileList = new ArrayList<BlancoCgSourceFile>();
+        cgSourceFileList.add(createModel("MyCompiledA", "return \"A\" + MyCompiledB.name();"));
+        cgSourceFileList.add(createModel("MyCompiledB", "return \"B\";"));
+
+        final BlancoCgJavaCompiler compiler = new BlancoCgJavaCompiler();
+        final BlancoCgMemoryOutputTarget classTarget = new BlancoCgMemoryOutputTarget();
+        compiler.setClassOutputTarget(classTarget);
+        final BlancoCgJavaCompileResult result = compiler.compile(cgSourceFileList);
+        assertTrue(result.isSuccess(), result.formatDiagnostics().toString());
+        assertEquals(2, result.getClassFileMap().size());
+        assertTrue(classTarget.getFileMap().containsKey(
+                "myprog/compiled/MyCompiledA.class"));
+
+        // The compiled classes can be used at once.
+        final Class<?> clazz = result.createClassLoader(
+                getClass().getClassLoader()).loadClass(
+                "myprog.compiled.MyCompiledA");
+        final Method method = clazz.getMethod("name");
+        assertEquals("AB", method.invoke(null));
+    }
+
+    @Test
+    public void testDiagnostics() throws Exception {
+        final List<BlancoCgSourceFile> cgSourceFileList = new ArrayList<BlancoCgSourceFile>();
+        cgSourceFileList.add(createModel("MyBrokenA", "return \"A\";"));
+        cgSourceFileList.add(createModel("MyBrokenB", "return undefinedName;"));
+
+        final BlancoCgJavaCompileResult result = new BlancoCgJavaCompiler()
+                .compile(cgSourceFileList);
+        assertFalse(result.isSuccess());
+        assertTrue(result.getClassFileMap().isEmpty());
+        assertTrue(result.getDiagnosticList("myprog/compiled/MyBrokenA.java")
+                .isEmpty());
+        assertEquals(1, result.getDiagnosticList(
+                "myprog/compiled/MyBrokenB.java").size());
+        assertTrue(result.formatDiagnostics().get(0).startsWith(
+                "myprog/compiled/MyBrokenB.java:"));
+    }
+
+    private static BlancoCgSourceFile createModel(final String argName,
+            final String argLine) {
+        final BlancoCgObjectFactory cgOf = BlancoCgObjectFactory.getInstance();
+        final BlancoCgSourceFile cgSourceFile = BlancoCgTestModel.createClass(
+                "myprog.compiled", argName);
+        final BlancoCgClass cgClass = cgSourceFile.getClassList().get(0);
+        final BlancoCgMethod cgMethod = cgOf.createMethod("name",
+                "Gets the name.");
+        cgMethod.setStatic(true);
+        cgMethod.setReturn(cgOf.createReturn("java.lang.String", "The name."));
+        cgMethod.getLineList().add(argLine);
+        cgClass.getMethodList().add(cgMethod);
+        return cgSourceFile;
+    }
+}
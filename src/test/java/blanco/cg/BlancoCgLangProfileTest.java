@@ -0,0 +1,61 @@
+/*
+ * blanco Framework
+ * Copyright (C) 2004-2006 IGA Tosiki
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ */
+package blanco.cg;
+
+import org.junit.jupiter.api.Test;
+
+import blanco.cg.util.BlancoCgLangProfile;
+import blanco.cg.util.BlancoCgLineUtil;
+import blanco.cg.util.BlancoCgStatementUtil;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test of the language profiles.
+ */
+public class BlancoCgLangProfileTest {
+    @Test
+    public void testLookup() throws Exception {
+        assertEquals(";", BlancoCgLineUtil.getTerminator(BlancoCgSupportedLang.JAVA));
+        assertEquals("", BlancoCgLineUtil.getTerminator(BlancoCgSupportedLang.SWIFT));
+        assertEquals("' ", BlancoCgLineUtil
+                .getSingleLineCommentPrefix(BlancoCgSupportedLang.VB));
+        assertEquals(".", BlancoCgLineUtil
+                .getStringConcatenationOperator(BlancoCgSupportedLang.PHP8));
+        assertEquals("$", BlancoCgLineUtil.getVariablePrefix(BlancoCgSupportedLang.PHP));
+        assertEquals("", BlancoCgLineUtil.getVariablePrefix(99));
+        assertEquals("if a then begin", BlancoCgStatementUtil.getIfBegin(
+                BlancoCgSupportedLang.DELPHI, "a"));
+        assertEquals("Return a", BlancoCgStatementUtil.getReturn(
+                BlancoCgSupportedLang.VB, "a"));
+
+        final BlancoCgLangProfile profile = BlancoCgLangProfile
+                .getProfile(BlancoCgSupportedLang.TS);
+        assertTrue(profile.isReservedKeyword("undefined"));
+        assertFalse(profile.isReservedKeyword("Date"));
+        assertFalse(profile.isReservedKeyword(null));
+    }
+
+    @Test
+    public void testUnsupported() throws Exception {
+        // A syntax that a language does not have is reported as before.
+        assertThrows(IllegalArgumentException.class, () -> BlancoCgLineUtil
+                .getTerminator(BlancoCgSupportedLang.CPP11));
+        assertThrows(IllegalArgumentException.class, () -> BlancoCgStatementUtil
+                .getReturn(BlancoCgSupportedLang.TS, "a"));
+        assertThrows(IllegalArgumentException.class, () -> BlancoCgStatementUtil
+                .getIfEnd(BlancoCgSupportedLang.NOT_DEFINED));
+        assertThrows(IllegalArgumentException.class,
+                () -> BlancoCgLangProfile.getProfile(0));
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * blanco Framework
+ * Copyright (C) 2004-2006 IGA Tosiki
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ */
+package blanco.cg;
+
+import org.junit.jupiter.api.Test;
+
+import blanco.cg.valueobject.BlancoCgSourceFile;
+
+/**
+ * Benchmark of the lean output mode against the full output, in every language.
+ */
+public class BlancoCgLeanBenchmark {
+    @Test
+    public void benchmarkLean() throws Exception {
+        for (int lang : BlancoCgLeanTest.LANGS) {
+            final String langName = new BlancoCgSupportedLang()
+                    .convertToString(lang);
+            for (final boolean isLean : new boolean[] { false, true }) {
+                // The transformer modifies the model, so a new model is used every time.
+                final long nanos = BlancoCgBenchmark.measure(10,
+                        new BlancoCgBenchmark.Task<BlancoCgSourceFile>() {
+                            public BlancoCgSourceFile prepare() {
+                                return BlancoCgLeanTest.createModel(isLean, 500);
+                            }
+
+                            public void run(final BlancoCgSourceFile argInput)
+                                    throws Exception {
+                                BlancoCgLeanTest.transform(lang, argInput);
+                            }
+                        });
+                BlancoCgBenchmark.report("lean " + langName, nanos,
+                        isLean ? "lean" : "full");
+            }
+        }
+    }
+}
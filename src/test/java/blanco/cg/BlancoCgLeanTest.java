@@ -0,0 +1,126 @@
+/*
+ * blanco Framework
+ * Copyright (C) 2004-2006 IGA Tosiki
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ */
+package blanco.cg;
+
+import java.io.BufferedWriter;
+import java.io.StringWriter;
+
+import org.junit.jupiter.api.Test;
+
+import blanco.cg.transformer.BlancoCgTransformerFactory;
+import blanco.cg.valueobject.BlancoCgClass;
+import blanco.cg.valueobject.BlancoCgEnum;
+import blanco.cg.valueobject.BlancoCgField;
+import blanco.cg.valueobject.BlancoCgMethod;
+import blanco.cg.valueobject.BlancoCgSourceFile;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test of the lean output mode, which skips the expansion of documentation.
+ */
+public class BlancoCgLeanTest {
+    /**
+     * A text contained in every description of the model.
+     */
+    private static final String MARKER = "Leandoc";
+
+    /**
+     * Every language supported by the transformers.
+     */
+    static final int[] LANGS = { BlancoCgSupportedLang.JAVA,
+            BlancoCgSupportedLang.CS, BlancoCgSupportedLang.JS,
+            BlancoCgSupportedLang.VB, BlancoCgSupportedLang.PHP,
+            BlancoCgSupportedLang.RUBY, BlancoCgSupportedLang.PYTHON,
+            BlancoCgSupportedLang.DELPHI, BlancoCgSupportedLang.CPP11,
+            BlancoCgSupportedLang.SWIFT, BlancoCgSupportedLang.KOTLIN,
+            BlancoCgSupportedLang.TS, BlancoCgSupportedLang.PHP8 };
+
+    @Test
+    public void testLean() throws Exception {
+        for (int lang : LANGS) {
+            final String langName = new BlancoCgSupportedLang()
+                    .convertToString(lang);
+
+            final String full = transform(lang, createModel(false, 1));
+            final String lean = transform(lang, createModel(true, 1));
+            assertTrue(full.contains(MARKER), langName);
+            assertFalse(lean.contains(MARKER), langName);
+            assertTrue(lean.length() < full.length(), langName);
+            // The code itself is kept.
+            assertTrue(lean.contains("MyLeanClass"), langName);
+            assertTrue(lean.contains("runLean"), langName);
+
+            // The default is the full output.
+            final BlancoCgSourceFile cgSourceFile = createModel(false, 1);
+            assertFalse(cgSourceFile.getIsLean());
+            assertEquals(full, transform(lang, cgSourceFile));
+        }
+    }
+
+    static String transform(final int argTargetLang,
+            final BlancoCgSourceFile argSourceFile) throws Exception {
+        final StringWriter writer = new StringWriter();
+        final BufferedWriter bufferedWriter = new BufferedWriter(writer);
+        BlancoCgTransformerFactory.getSourceTransformer(argTargetLang)
+                .transform(argSourceFile, bufferedWriter);
+        bufferedWriter.flush();
+        return writer.toString();
+    }
+
+    /**
+     * Creates a model whose every element has a description.
+     *
+     * @param argIsLean
+     *            Whether to generate lean output.
+     * @param argMethodCount
+     *            The number of methods.
+     * @return A source file.
+     */
+    static BlancoCgSourceFile createModel(final boolean argIsLean,
+            final int argMethodCount) {
+        final BlancoCgObjectFactory cgOf = BlancoCgObjectFactory.getInstance();
+        final BlancoCgSourceFile cgSourceFile = cgOf.createSourceFile(
+                "myprog.lean", MARKER + " source file.");
+        cgSourceFile.setIsLean(argIsLean);
+
+        final BlancoCgClass cgClass = cgOf.createClass("MyLeanClass", MARKER
+                + " class.");
+        cgSourceFile.getClassList().add(cgClass);
+        cgClass.getLangDoc().getDescriptionList().add(MARKER
+                + " class description.");
+
+        final BlancoCgField cgField = cgOf.createField("fLeanField",
+                "java.lang.String", MARKER + " field.");
+        cgField.setAccess("public");
+        cgClass.getFieldList().add(cgField);
+
+        for (int index = 0; index < argMethodCount; index++) {
+            final BlancoCgMethod cgMethod = cgOf.createMethod(
+                    index == 0 ? "runLean" : "runLean" + index, MARKER
+                            + " method.");
+            cgClass.getMethodList().add(cgMethod);
+            cgMethod.getParameterList().add(cgOf.createParameter("argValue",
+                    "java.lang.String", MARKER + " parameter."));
+            cgMethod.setReturn(cgOf.createReturn("java.lang.String", MARKER
+                    + " return."));
+            cgMethod.getLineList().add("return argValue;");
+        }
+
+        final BlancoCgEnum cgEnum = cgOf.createEnum("MyLeanEnum", MARKER
+                + " enum.");
+        cgEnum.getElementList().add(cgOf.createEnumElement("FIRST", MARKER
+                + " element."));
+        cgSourceFile.getEnumList().add(cgEnum);
+        return cgSourceFile;
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * blanco Framework
+ * Copyright (C) 2004-2006 IGA Tosiki
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ */
+package blanco.cg;
+
+import java.io.BufferedWriter;
+import java.io.StringWriter;
+
+import org.junit.jupiter.api.Test;
+
+import blanco.cg.transformer.BlancoCgTransformerFactory;
+import blanco.cg.valueobject.BlancoCgClass;
+import blanco.cg.valueobject.BlancoCgMethod;
+import blanco.cg.valueobject.BlancoCgSourceFile;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Benchmark of the line formatters of the Python, Ruby, VB and Delphi style transformers.
+ */
+public class BlancoCgLineFormatterBenchmark {
+    @Test
+    public void benchmarkFormatter() throws Exception {
+        // Every body opens and closes the same number of blocks. The skeleton of a method is not always balanced, so
+        // a single long method is used.
+        benchmark(BlancoCgSupportedLang.PYTHON, new String[] { "if a > 0:",
+                "for item in items:", "print(item)", "#end", "#end",
+                "total = total + count" });
+        benchmark(BlancoCgSupportedLang.RUBY, new String[] { "if a > 0",
+                "items.each do |item|", "puts item", "end", "end",
+                "total = total + count" });
+        benchmark(BlancoCgSupportedLang.VB, new String[] { "If a > 0 Then",
+                "For Each item In items", "Console.WriteLine(item)", "Next",
+                "End If", "total = total + count" });
+        benchmark(BlancoCgSupportedLang.DELPHI, new String[] { "if a > 0 then",
+                "WriteLn(a);", "end;", "total := total + count;" });
+    }
+
+    private static void benchmark(final int argTargetLang,
+            final String[] argBody) throws Exception {
+        // The transformer modifies the model, so a new model is used every time.
+        final long nanos = BlancoCgBenchmark.measure(5,
+                new BlancoCgBenchmark.Task<BlancoCgSourceFile>() {
+                    public BlancoCgSourceFile prepare() {
+                        return createModel(argBody, 1, 5000);
+                    }
+
+                    public void run(final BlancoCgSourceFile argInput)
+                            throws Exception {
+                        assertTrue(transform(argTargetLang, argInput) > 0);
+                    }
+                });
+        BlancoCgBenchmark.report("formatter "
+                + new BlancoCgSupportedLang().convertToString(argTargetLang),
+                nanos, argBody.length * 5000 + " body lines");
+    }
+
+    private static int transform(final int argTargetLang,
+            final BlancoCgSourceFile argSourceFile) throws Exception {
+        final StringWriter writer = new StringWriter();
+        final BufferedWriter bufferedWriter = new BufferedWriter(writer);
+        BlancoCgTransformerFactory.getSourceTransformer(argTargetLang)
+                .transform(argSourceFile, bufferedWriter);
+        bufferedWriter.flush();
+        return writer.getBuffer().length();
+    }
+
+    private static BlancoCgSourceFile createModel(final String[] argBody,
+            final int argMethodCount, final int argRepeat) {
+        final BlancoCgObjectFactory cgOf = BlancoCgObjectFactory.getInstance();
+        final BlancoCgSourceFile cgSourceFile = BlancoCgTestModel.createClass(
+                "myprog", "MyFormatterBench");
+        final BlancoCgClass cgClass = cgSourceFile.getClassList().get(0);
+        for (int index = 0; index < argMethodCount; index++) {
+            final BlancoCgMethod cgMethod = cgOf.createMethod("run" + index,
+                    "Runs the lines.");
+            cgClass.getMethodList().add(cgMethod);
+            for (int repeat = 0; repeat < argRepeat; repeat++) {
+                for (String line : argBody) {
+                    cgMethod.getLineList().add(line);
+                }
+            }
+        }
+        return cgSourceFile;
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * blanco Framework
+ * Copyright (C) 2004-2006 IGA Tosiki
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ */
+package blanco.cg;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import blanco.cg.batch.BlancoCgModelSerializer;
+import blanco.cg.valueobject.BlancoCgSourceFile;
+
+/**
+ * Benchmark of loading models from the XML format and from the compact binary format.
+ */
+public class BlancoCgModelBinaryBenchmark {
+    @Test
+    public void benchmarkLoad() throws Exception {
+        final List<BlancoCgSourceFile> cgSourceFileList = BlancoCgModelBinaryTest
+                .createModelList(200);
+        final ByteArrayOutputStream xml = new ByteArrayOutputStream();
+        BlancoCgModelSerializer.write(cgSourceFileList, xml);
+        final ByteArrayOutputStream binary = new ByteArrayOutputStream();
+        BlancoCgModelSerializer.writeBinary(cgSourceFileList, binary);
+
+        for (ByteArrayOutputStream form : new ByteArrayOutputStream[] { xml,
+                binary }) {
+            final byte[] bytes = form.toByteArray();
+            final long nanos = BlancoCgBenchmark.measure(3,
+                    new BlancoCgBenchmark.Task<byte[]>() {
+                        public byte[] prepare() {
+                            return bytes;
+                        }
+
+                        public void run(final byte[] argInput)
+                                throws Exception {
+                            BlancoCgModelSerializer
+                                    .read(new ByteArrayInputStream(argInput));
+                        }
+                    });
+            BlancoCgBenchmark.report("model load "
+                    + (form == xml ? "xml" : "binary"), nanos, bytes.length
+                    + " bytes, " + cgSourceFileList.size() + " models");
+        }
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * blanco Framework
+ * Copyright (C) 2004-2006 IGA Tosiki
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ */
+package blanco.cg;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import blanco.cg.batch.BlancoCgModelInput;
+import blanco.cg.batch.BlancoCgModelSerializer;
+import blanco.cg.transformer.BlancoCgTransformerFactory;
+import blanco.cg.valueobject.BlancoCgClass;
+import blanco.cg.valueobject.BlancoCgEnum;
+import blanco.cg.valueobject.BlancoCgField;
+import blanco.cg.valueobject.BlancoCgMethod;
+import blanco.cg.valueobject.BlancoCgSourceFile;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test of the compact binary format of models.
+ */
+public class BlancoCgModelBinaryTest {
+    /**
+     * Tags of the values in the binary format.
+     */
+    private static final byte TAG_STRING = 1;
+
+    private static final byte TAG_LIST = 5;
+
+    private static final byte TAG_OBJECT = 7;
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        final List<BlancoCgSourceFile> cgSourceFileList = new ArrayList<BlancoCgSourceFile>();
+        cgSourceFileList.add(createModel("MyBinaryA", 3));
+        cgSourceFileList.add(createModel("MyBinaryB", 3));
+
+        final ByteArrayOutputStream binary = new ByteArrayOutputStream();
+        BlancoCgModelSerializer.writeBinary(cgSourceFileList, binary);
+
+        // Models are read one by one.
+        final BlancoCgModelInput input = new BlancoCgModelInput(
+                new ByteArrayInputStream(binary.toByteArray()));
+        final List<BlancoCgSourceFile> readList = new ArrayList<BlancoCgSourceFile>();
+        readList.add(input.readModel());
+        readList.add(input.readModel());
+        assertNull(input.readModel());
+
+        // The whole graph is kept: compares the XML forms and the generated source code.
+        assertEquals(toXml(cgSourceFileList), toXml(readList));
+        assertEquals(toJava(createModel("MyBinaryA", 3)), toJava(readList
+                .get(0)));
+
+        // The format is detected by the serializer.
+        assertEquals(2, BlancoCgModelSerializer.read(
+                new ByteArrayInputStream(binary.toByteArray())).size());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new BlancoCgModelInput(new ByteArrayInputStream(
+                        "<?xml".getBytes("UTF-8"))));
+    }
+
+    @Test
+    public void testBrokenStream() throws Exception {
+        // A list or a string of a size far beyond the stream ends with the stream, rather than being allocated.
+        assertThrows(EOFException.class, () -> readModel(new byte[] { TAG_LIST,
+                (byte) 0xff, (byte) 0xff, (byte) 0xff, (byte) 0xff, 0x07 }));
+        final IOException tooLong = assertThrows(IOException.class,
+                () -> readModel(new byte[] { TAG_STRING, 0, (byte) 0xff,
+                        (byte) 0xff, (byte) 0xff, (byte) 0xff, 0x07 }));
+        assertTrue(tooLong.getMessage().contains("exceeds the limit"));
+        final IOException negative = assertThrows(IOException.class,
+                () -> readModel(new byte[] { TAG_LIST, (byte) 0xff,
+                        (byte) 0xff, (byte) 0xff, (byte) 0xff, 0x0f }));
+        assertTrue(negative.getMessage().contains("is negative"));
+
+        // A class of a subpackage is rejected, as by the XML format.
+        final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        final byte[] className = "blanco.cg.valueobject.sub.MyClass"
+                .getBytes("UTF-8");
+        body.write(new byte[] { TAG_OBJECT, 0, 0, (byte) className.length });
+        body.write(className);
+        assertThrows(IllegalArgumentException.class, () -> readModel(body
+                .toByteArray()));
+    }
+
+    /**
+     * Reads a model from a stream of the header and the given body.
+     *
+     * @param argBody
+     *            Bytes of the model after its marker.
+     */
+    private static void readModel(final byte[] argBody) throws Exception {
+        final ByteArrayOutputStream outStream = new ByteArrayOutputStream();
+        // The magic, the version 1 and the marker of a model.
+        outStream.write(new byte[] { 'B', 'C', 'G', 'M', 1, 1 });
+        outStream.write(argBody);
+        new BlancoCgModelInput(new ByteArrayInputStream(outStream
+                .toByteArray())).readModel();
+    }
+
+    @Test
+    public void testSize() throws Exception {
+        final List<BlancoCgSourceFile> cgSourceFileList = createModelList(20);
+        final ByteArrayOutputStream xml = new ByteArrayOutputStream();
+        BlancoCgModelSerializer.write(cgSourceFileList, xml);
+        final ByteArrayOutputStream binary = new ByteArrayOutputStream();
+        BlancoCgModelSerializer.writeBinary(cgSourceFileList, binary);
+        assertTrue(binary.size() * 4 < xml.size());
+    }
+
+    /**
+     * Creates models of 20 methods each.
+     *
+     * @param argCount
+     *            Number of the models.
+     * @return Source files.
+     */
+    static List<BlancoCgSourceFile> createModelList(final int argCount) {
+        final List<BlancoCgSourceFile> cgSourceFileList = new ArrayList<BlancoCgSourceFile>();
+        for (int index = 0; index < argCount; index++) {
+            cgSourceFileList.add(createModel("MyThroughput" + index, 20));
+        }
+        return cgSourceFileList;
+    }
+
+    private static String toXml(final List<BlancoCgSourceFile> argList)
+            throws Exception {
+        final ByteArrayOutputStream outStream = new ByteArrayOutputStream();
+        BlancoCgModelSerializer.write(argList, outStream);
+        return outStream.toString("UTF-8");
+    }
+
+    private static String toJava(final BlancoCgSourceFile argSourceFile)
+            throws Exception {
+        final StringWriter writer = new StringWriter();
+        final BufferedWriter bufferedWriter = new BufferedWriter(writer);
+        BlancoCgTransformerFactory.getSourceTransformer(
+                BlancoCgSupportedLang.JAVA).transform(argSourceFile,
+                bufferedWriter);
+        bufferedWriter.flush();
+        return writer.toString();
+    }
+
+    private static BlancoCgSourceFile createModel(final String argName,
+            final int argMethodCount) {
+        final BlancoCgObjectFactory cgOf = BlancoCgObjectFactory.getInstance();
+        final BlancoCgSourceFile cgSourceFile = BlancoCgTestModel.createClass(
+                "myprog.binary", argName);
+        cgSourceFile.getImportList().add("java.util.List");
+        final BlancoCgClass cgClass = cgSourceFile.getClassList().get(0);
+        cgClass.getLangDoc().getTagList().add(
+                cgOf.createLangDocTag("author", null, "tueda"));
+        cgClass.getExtendClassList().add(
+                cgOf.createType("java.util.ArrayList<java.lang.String>"));
+        cgClass.getDelegateMap().put("java.lang.Runnable", "fRunnable");
+
+        final BlancoCgEnum cgEnum = cgOf.createEnum("Color", "Colors.");
+        cgEnum.getElementList().add(cgOf.createEnumElement("RED", "Red."));
+        cgEnum.getElementList().add(cgOf.createEnumElement("BLUE", "Blue."));
+        cgClass.getEnumList().add(cgEnum);
+
+        final BlancoCgField cgField = cgOf.createField("fCount", "int",
+                "A counter.");
+        cgField.setDefault("-1");
+        cgClass.getFieldList().add(cgField);
+
+        for (int index = 0; index < argMethodCount; index++) {
+            final BlancoCgMethod cgMethod = cgOf.createMethod("count" + index,
+                    "Counts the items.");
+            cgClass.getMethodList().add(cgMethod);
+            cgMethod.getParameterList().add(
+                    cgOf.createParameter("argItemList",
+                            "java.util.List<java.lang.String>", "Items."));
+            cgMethod.setReturn(cgOf.createReturn("int", "Number of the items."));
+            cgMethod.getThrowList().add(
+                    cgOf.createException("java.io.IOException",
+                            "If an I/O exception occurs."));
+            cgMethod.getLineList().add("fCount = argItemList.size() + " + index + ";");
+            cgMethod.getLineList().add("return fCount;");
+        }
+        return cgSourceFile;
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * blanco Framework
+ * Copyright (C) 2004-2006 IGA Tosiki
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ */
+package blanco.cg;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import blanco.cg.batch.BlancoCgBatch;
+import blanco.cg.batch.BlancoCgModelSerializer;
+import blanco.cg.transformer.BlancoCgMemoryOutputTarget;
+import blanco.cg.transformer.BlancoCgTransformerFactory;
+import blanco.cg.validator.BlancoCgModelValidator;
+import blanco.cg.validator.BlancoCgViolation;
+import blanco.cg.valueobject.BlancoCgClass;
+import blanco.cg.valueobject.BlancoCgField;
+import blanco.cg.valueobject.BlancoCgInterface;
+import blanco.cg.valueobject.BlancoCgMethod;
+import blanco.cg.valueobject.BlancoCgSourceFile;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test of the up-front validation of models.
+ */
+public class BlancoCgModelValidatorTest {
+    @Test
+    public void testValidate() throws Exception {
+        final List<BlancoCgSourceFile> cgSourceFileList = new ArrayList<BlancoCgSourceFile>();
+        for (int index = 0; index < 20; index++) {
+            cgSourceFileList.add(createModel("MyValid" + index, false));
+        }
+        cgSourceFileList.add(createModel("MyInvalid", true));
+
+        assertTrue(new BlancoCgModelValidator(BlancoCgSupportedLang.JAVA)
+                .validate(createModel("MyValid", false)).isEmpty());
+
+        // Every violation is reported at once.
+        final List<BlancoCgViolation> javaList = new BlancoCgModelValidator(
+                BlancoCgSupportedLang.JAVA).validate(cgSourceFileList);
+        assertEquals(3, javaList.size());
+        assertEquals("myprog.validate.MyInvalid", javaList.get(0).getLocation());
+        assertEquals("In java, inheritance can only be performed once.",
+                javaList.get(0).getMessage());
+        assertEquals("myprog.validate.MyInvalid#", javaList.get(1)
+                .getLocation());
+        assertEquals(
+                "myprog.validate.MyInvalid#getName: The parameter [argName] has been given a null type.",
+                javaList.get(2).toString());
+
+        // The restrictions depend on the language.
+        final List<BlancoCgViolation> tsList = new BlancoCgModelValidator(
+                BlancoCgSupportedLang.TS).validate(cgSourceFileList);
+        assertEquals(4, tsList.size());
+        assertEquals("TypeScript does not allow to set default values on Interface.",
+                tsList.get(3).getMessage());
+        assertEquals(2, new BlancoCgModelValidator(BlancoCgSupportedLang.CS)
+                .validate(cgSourceFileList).size());
+    }
+
+    @Test
+    public void testKotlinInterface() throws Exception {
+        // An interface of Kotlin can extend several interfaces, as the expander does.
+        final BlancoCgObjectFactory cgOf = BlancoCgObjectFactory.getInstance();
+        final BlancoCgSourceFile cgSourceFile = cgOf.createSourceFile(
+                "myprog.validate", "Test of the validation.");
+        cgSourceFile.setEncoding("UTF-8");
+        final BlancoCgInterface cgInterface = cgOf.createInterface(
+                "MyKotlinInterface", "An interface.");
+        cgInterface.getExtendClassList().add(cgOf.createType("myprog.BaseA"));
+        cgInterface.getExtendClassList().add(cgOf.createType("myprog.BaseB"));
+        cgSourceFile.getInterfaceList().add(cgInterface);
+
+        assertTrue(new BlancoCgModelValidator(BlancoCgSupportedLang.KOTLIN)
+                .validate(cgSourceFile).isEmpty());
+        final BlancoCgMemoryOutputTarget target = new BlancoCgMemoryOutputTarget();
+        BlancoCgTransformerFactory.transform(BlancoCgTransformerFactory
+                .getSourceTransformer(BlancoCgSupportedLang.KOTLIN),
+                cgSourceFile, target);
+        assertTrue(new String(target.getFileMap().get(
+                "myprog/validate/MyKotlinInterface.kt"), "UTF-8")
+                .contains("interface MyKotlinInterface : BaseA, BaseB"));
+
+        assertEquals(1, new BlancoCgModelValidator(BlancoCgSupportedLang.JAVA)
+                .validate(cgSourceFile).size());
+    }
+
+    @Test
+    public void testBatch() throws Exception {
+        final File modelDirectory = new File("./tmp/batch/validate-model");
+        modelDirectory.mkdirs();
+        final File outputDirectory = new File("./tmp/batch/validate-out");
+        final List<BlancoCgSourceFile> cgSourceFileList = new ArrayList<BlancoCgSourceFile>();
+        cgSourceFileList.add(createModel("MyValidated", false));
+        cgSourceFileList.add(createModel("MyInvalid", true));
+        final OutputStream outStream = new FileOutputStream(new File(
+                modelDirectory, "models.xml"));
+        try {
+            BlancoCgModelSerializer.write(cgSourceFileList, outStream);
+        } finally {
+            outStream.close();
+        }
+
+        final BlancoCgBatch batch = new BlancoCgBatch();
+        batch.parseArgs(new String[] { "-lang", "java,ts", "-validate",
+                "-out", outputDirectory.getPath(), modelDirectory.getPath() });
+        final BlancoCgBatch.Summary summary = batch.run();
+        assertEquals(7, summary.getViolationCount());
+        assertEquals(0, summary.getGeneratedCount());
+        assertFalse(new File(outputDirectory,
+                "myprog/validate/MyValidated.java").exists());
+
+        // Each shard validates only its own slice, so the shards report every violation once in total.
+        int shardViolationCount = 0;
+        for (int shardIndex = 0; shardIndex < 2; shardIndex++) {
+            final BlancoCgBatch shardBatch = new BlancoCgBatch();
+            shardBatch.parseArgs(new String[] { "-lang", "java,ts",
+                    "-validate", "-shard", shardIndex + "/2", "-out",
+                    outputDirectory.getPath(), modelDirectory.getPath() });
+            shardViolationCount += shardBatch.run().getViolationCount();
+        }
+        assertEquals(7, shardViolationCount);
+    }
+
+    private static BlancoCgSourceFile createModel(final String argName,
+            final boolean argIsInvalid) {
+        final BlancoCgObjectFactory cgOf = BlancoCgObjectFactory.getInstance();
+        final BlancoCgSourceFile cgSourceFile = BlancoCgTestModel
+                .createNamedClass("myprog.validate", argName);
+        final BlancoCgClass cgClass = cgSourceFile.getClassList().get(0);
+        final BlancoCgMethod cgMethod = cgClass.getMethodList().get(0);
+        cgMethod.getParameterList().add(cgOf.createParameter("argName",
+                "java.lang.String", "A name."));
+        if (argIsInvalid == false) {
+            return cgSourceFile;
+        }
+
+        cgClass.getExtendClassList().add(cgOf.createType("myprog.BaseA"));
+        cgClass.getExtendClassList().add(cgOf.createType("myprog.BaseB"));
+        cgClass.getFieldList().add(cgOf.createField(null, "int",
+                "A field without a name."));
+        cgMethod.getParameterList().get(0).setType(null);
+
+        final BlancoCgInterface cgInterface = cgOf.createInterface(
+                "MyInvalidInterface", "An interface.");
+        final BlancoCgField cgField = cgOf.createField("fCount", "int",
+                "A count.");
+        cgField.setAccess("public");
+        cgField.setDefault("0");
+        cgInterface.getFieldList().add(cgField);
+        cgSourceFile.getInterfaceList().add(cgInterface);
+        return cgSourceFile;
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * blanco Framework
+ * Copyright (C) 2004-2006 IGA Tosiki
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ */
+package blanco.cg;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import blanco.cg.batch.BlancoCgModelSerializer;
+import blanco.cg.transformer.BlancoCgTransformerFactory;
+import blanco.cg.util.BlancoCgSourceUtil;
+import blanco.cg.valueobject.BlancoCgClass;
+import blanco.cg.valueobject.BlancoCgField;
+import blanco.cg.valueobject.BlancoCgMethod;
+import blanco.cg.valueobject.BlancoCgSourceFile;
+import blanco.cg.valueobject.BlancoCgType;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test of the interning object factory.
+ */
+public class BlancoCgObjectFactoryInternTest {
+    @Test
+    public void testIntern() throws Exception {
+        final BlancoCgObjectFactory cgOf = BlancoCgObjectFactory
+                .getInterningInstance(100);
+
+        // A non-generic type is shared and immutable.
+        final BlancoCgType stringType = cgOf.createField("fName",
+                "java.lang.String", "A name.").getType();
+        assertSame(stringType, cgOf.createParameter("argName",
+                "java.lang.String", "A name.").getType());
+        assertThrows(UnsupportedOperationException.class,
+                () -> stringType.setArray(true));
+        assertEquals(0, stringType.getGenericsTree().size());
+
+        // A generic type is not shared, but its name is.
+        final BlancoCgType listType = cgOf
+                .createType("java.util.List<java.lang.String>");
+        assertNotSame(listType, cgOf
+                .createType("java.util.List<java.lang.String>"));
+        assertSame(listType.getName(), cgOf.createType("java.util.List")
+                .getName());
+        listType.setArray(true);
+
+        // The generics tree is built on a copy of the shared type.
+        final BlancoCgType parsedType = BlancoCgSourceUtil
+                .parseTypeWithGenerics("java.util.Map<java.lang.String, java.util.List<java.lang.Integer>>",
+                        cgOf);
+        assertEquals(2, parsedType.getGenericsTree().size());
+        assertSame(stringType, parsedType.getGenericsTree().get(0));
+
+        // The ordinary factory never interns, so its types can be modified by every caller.
+        assertFalse(BlancoCgObjectFactory.getInstance().isInterning());
+        BlancoCgObjectFactory.getInstance().createField("fName",
+                "java.lang.String", "A name.").getType().setArray(true);
+
+        // The same source code is generated.
+        assertEquals(toJava(createModel(BlancoCgObjectFactory.getInstance(),
+                "MyIntern", 3)), toJava(createModel(cgOf, "MyIntern", 3)));
+
+        // Shared types are serialized as ordinary types.
+        final List<BlancoCgSourceFile> cgSourceFileList = new ArrayList<BlancoCgSourceFile>();
+        cgSourceFileList.add(createModel(cgOf, "MyIntern", 3));
+        final ByteArrayOutputStream xml = new ByteArrayOutputStream();
+        BlancoCgModelSerializer.write(cgSourceFileList, xml);
+        final ByteArrayOutputStream binary = new ByteArrayOutputStream();
+        BlancoCgModelSerializer.writeBinary(cgSourceFileList, binary);
+        final String expected = toJava(createModel(cgOf, "MyIntern", 3));
+        assertEquals(expected, toJava(BlancoCgModelSerializer.read(
+                new ByteArrayInputStream(xml.toByteArray())).get(0)));
+        assertEquals(expected, toJava(BlancoCgModelSerializer.read(
+                new ByteArrayInputStream(binary.toByteArray())).get(0)));
+    }
+
+    @Test
+    public void testBounded() {
+        final BlancoCgObjectFactory cgOf = BlancoCgObjectFactory
+                .getInterningInstance(2);
+        final BlancoCgType intType = cgOf.createType("int");
+        assertTrue(intType instanceof BlancoCgInternedType);
+        assertTrue(cgOf.createType("long") instanceof BlancoCgInternedType);
+        assertSame(intType, cgOf.createType("int"));
+        assertEquals(2, cgOf.getInternTable().getTypeCount());
+
+        // The table is full, so it starts over.
+        final BlancoCgType shortType = cgOf.createType("short");
+        assertTrue(shortType instanceof BlancoCgInternedType);
+        assertEquals(1, cgOf.getInternTable().getTypeCount());
+        assertSame(shortType, cgOf.createType("short"));
+        assertNotSame(intType, cgOf.createType("int"));
+        assertEquals("int", intType.getName());
+    }
+
+    @Test
+    public void testSharedNames() {
+        // The names are built at run time, so equal names are different instances unless interned.
+        final BlancoCgClass plainClass = createModel(BlancoCgObjectFactory
+                .getInstance(), "MyPlain", 2).getClassList().get(0);
+        assertNotSame(plainClass.getFieldList().get(0).getType().getName(),
+                plainClass.getFieldList().get(1).getType().getName());
+
+        final BlancoCgClass internClass = createModel(BlancoCgObjectFactory
+                .getInterningInstance(100), "MyShared", 2).getClassList()
+                .get(0);
+        assertSame(internClass.getFieldList().get(0).getType(), internClass
+                .getFieldList().get(1).getType());
+        assertSame(internClass.getMethodList().get(0).getParameterList().get(0)
+                .getName(), internClass.getMethodList().get(1)
+                .getParameterList().get(0).getName());
+    }
+
+    private static String toJava(final BlancoCgSourceFile argSourceFile)
+            throws Exception {
+        final StringWriter writer = new StringWriter();
+        final BufferedWriter bufferedWriter = new BufferedWriter(writer);
+        BlancoCgTransformerFactory.getSourceTransformer(
+                BlancoCgSupportedLang.JAVA).transform(argSourceFile,
+                bufferedWriter);
+        bufferedWriter.flush();
+        return writer.toString();
+    }
+
+    private static BlancoCgSourceFile createModel(
+            final BlancoCgObjectFactory argFactory, final String argName,
+            final int argCount) {
+        final BlancoCgSourceFile cgSourceFile = argFactory.createSourceFile(
+                "myprog.intern", "Test of the interning factory.");
+        final BlancoCgClass cgClass = argFactory.createClass(argName,
+                "A class with many fields.");
+        cgSourceFile.getClassList().add(cgClass);
+        for (int index = 0; index < argCount; index++) {
+            // Builds the names at run time, as a generator reading a spreadsheet does.
+            final BlancoCgField cgField = argFactory.createField(new String(
+                    "fValue" + (index % 50)) + index, new String(
+                    "java.lang.String"), "A value.");
+            cgClass.getFieldList().add(cgField);
+            final BlancoCgMethod cgMethod = argFactory.createMethod(
+                    "setValue" + index, "Sets the value.");
+            cgMethod.getParameterList().add(
+                    argFactory.createParameter(new String("argValue"),
+                            new String("java.lang.String"), "A value."));
+            cgMethod.getParameterList().add(
+                    argFactory.createParameter(new String("argList"),
+                            new String("java.util.List<java.lang.Integer>"),
+                            "A list."));
+            cgMethod.getLineList().add("fValue" + index + " = argValue;");
+            cgClass.getMethodList().add(cgMethod);
+        }
+        return cgSourceFile;
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * blanco Framework
+ * Copyright (C) 2004-2006 IGA Tosiki
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ */
+package blanco.cg;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.net.URI;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.junit.jupiter.api.Test;
+
+import blanco.cg.transformer.BlancoCgMemoryOutputTarget;
+import blanco.cg.transformer.BlancoCgOutputTarget;
+import blanco.cg.transformer.BlancoCgPathOutputTarget;
+import blanco.cg.transformer.BlancoCgTransformerFactory;
+import blanco.cg.transformer.BlancoCgZipOutputTarget;
+import blanco.cg.transformer.java.BlancoCgJavaSourceTransformer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Test of the output targets.
+ */
+public class BlancoCgOutputTargetTest {
+    @Test
+    public void testOutputTargets() throws Exception {
+        final BlancoCgJavaSourceTransformer transformer = (BlancoCgJavaSourceTransformer) BlancoCgTransformerFactory
+                .getSourceTransformer(BlancoCgSupportedLang.JAVA);
+
+        // The file output is the reference.
+        final File outputDirectory = new File("./tmp/blanco/target");
+        transformer.transform(BlancoCgTestModel.createNamedClass(
+                "myprog.target", "MyTarget"), outputDirectory);
+        final byte[] expected = Files.readAllBytes(new File(outputDirectory,
+                "myprog/target/MyTarget.java").toPath());
+
+        // In memory.
+        final BlancoCgMemoryOutputTarget memory = new BlancoCgMemoryOutputTarget();
+        transformer.transform(BlancoCgTestModel.createNamedClass(
+                "myprog.target", "MyTarget"), memory);
+        transformer.transform(BlancoCgTestModel.createNamedClass(null,
+                "MyRoot"), memory);
+        assertEquals(2, memory.getFileMap().size());
+        assertArrayEquals(expected, memory.getFileMap().get(
+                "myprog/target/MyTarget.java"));
+        assertEquals(BlancoCgOutputTarget.SKIP, memory.write(
+                "myprog/target/MyTarget.java", expected));
+
+        // Streaming zip.
+        final ByteArrayOutputStream zip = new ByteArrayOutputStream();
+        final BlancoCgZipOutputTarget zipTarget = new BlancoCgZipOutputTarget(zip);
+        transformer.transform(BlancoCgTestModel.createNamedClass(
+                "myprog.target", "MyTarget"), zipTarget);
+        assertThrows(IllegalArgumentException.class, () -> transformer
+                .transform(BlancoCgTestModel.createNamedClass("myprog.target",
+                        "MyTarget"), zipTarget));
+        zipTarget.close();
+        final ZipInputStream zipInput = new ZipInputStream(
+                new ByteArrayInputStream(zip.toByteArray()));
+        final ZipEntry entry = zipInput.getNextEntry();
+        assertEquals("myprog/target/MyTarget.java", entry.getName());
+        final ByteArrayOutputStream content = new ByteArrayOutputStream();
+        final byte[] buf = new byte[1024];
+        for (int read = zipInput.read(buf); read >= 0; read = zipInput.read(buf)) {
+            content.write(buf, 0, read);
+        }
+        assertArrayEquals(expected, content.toByteArray());
+        assertNull(zipInput.getNextEntry());
+
+        // A path of zipfs.
+        final File srcjar = new File("./tmp/blanco/target.srcjar");
+        srcjar.delete();
+        final FileSystem zipfs = FileSystems.newFileSystem(URI.create("jar:"
+                + srcjar.getAbsoluteFile().toURI()), Collections.singletonMap(
+                "create", "true"));
+        try {
+            final Path root = zipfs.getPath("/");
+            final BlancoCgPathOutputTarget pathTarget = new BlancoCgPathOutputTarget(root);
+            transformer.transform(BlancoCgTestModel.createNamedClass(
+                    "myprog.target", "MyTarget"), pathTarget);
+            assertEquals(BlancoCgOutputTarget.SKIP, pathTarget.write(
+                    "myprog/target/MyTarget.java", expected));
+            assertArrayEquals(expected, Files.readAllBytes(root
+                    .resolve("myprog/target/MyTarget.java")));
+        } finally {
+            zipfs.close();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * blanco Framework
+ * Copyright (C) 2004-2006 IGA Tosiki
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ */
+package blanco.cg;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import blanco.cg.transformer.BlancoCgMemoryOutputTarget;
+import blanco.cg.transformer.BlancoCgParallelExpander;
+import blanco.cg.transformer.java.BlancoCgJavaSourceTransformer;
+import blanco.cg.valueobject.BlancoCgClass;
+import blanco.cg.valueobject.BlancoCgEnum;
+import blanco.cg.valueobject.BlancoCgMethod;
+import blanco.cg.valueobject.BlancoCgSourceFile;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test of the concurrent expansion of the members of a large class.
+ */
+public class BlancoCgParallelExpanderTest {
+    private static final String PATH = "myprog/parallel/MyParallel.java";
+
+    @Test
+    public void testParallelExpansion() throws Exception {
+        final byte[] expected = transform(createModel(false), 0);
+        final byte[] actual = transform(createModel(false), 3);
+        assertArrayEquals(expected, actual);
+
+        final String source = new String(actual, "UTF-8");
+        assertTrue(source.contains("import java.math.BigDecimal;"));
+        assertTrue(source.contains("import java.io.IOException;"));
+        assertTrue(source.contains("lazy line 299"));
+
+        // An exception in a chunk is thrown as it is.
+        assertThrows(IllegalArgumentException.class, () -> transform(
+                createModel(true), 3));
+        // So is an error.
+        final StackOverflowError error = new StackOverflowError();
+        System.setProperty(BlancoCgParallelExpander.THRESHOLD_PROPERTY, "3");
+        try {
+            assertSame(error, assertThrows(StackOverflowError.class,
+                    () -> BlancoCgParallelExpander.expand(Arrays.asList("a",
+                            "b", "c", "d"), new BlancoCgSourceFile(),
+                            new ArrayList<String>(), (member, sourceFile,
+                                    sourceLines) -> {
+                                if ("c".equals(member)) {
+                                    throw error;
+                                }
+                            })));
+        } finally {
+            System.clearProperty(BlancoCgParallelExpander.THRESHOLD_PROPERTY);
+        }
+    }
+
+    private static byte[] transform(final BlancoCgSourceFile argSourceFile,
+            final int argThreshold) {
+        System.setProperty(BlancoCgParallelExpander.THRESHOLD_PROPERTY,
+                String.valueOf(argThreshold));
+        try {
+            final BlancoCgMemoryOutputTarget target = new BlancoCgMemoryOutputTarget();
+            new BlancoCgJavaSourceTransformer().transform(argSourceFile, target);
+            return target.getFileMap().get(PATH);
+        } finally {
+            System.clearProperty(BlancoCgParallelExpander.THRESHOLD_PROPERTY);
+        }
+    }
+
+    private static BlancoCgSourceFile createModel(final boolean argIsBroken) {
+        final BlancoCgObjectFactory cgOf = BlancoCgObjectFactory.getInstance();
+        final BlancoCgSourceFile cgSourceFile = BlancoCgTestModel.createClass(
+                "myprog.parallel", "MyParallel");
+        final BlancoCgClass cgClass = cgSourceFile.getClassList().get(0);
+
+        for (int index = 0; index < 10; index++) {
+            final BlancoCgEnum cgEnum = cgOf.createEnum("MyKind" + index,
+                    "A kind.");
+            cgEnum.getElementList().add(cgOf.createEnumElement("FIRST",
+                    "The first."));
+            cgClass.getEnumList().add(cgEnum);
+        }
+        for (int index = 0; index < 100; index++) {
+            cgClass.getFieldList().add(cgOf.createField("fValue" + index,
+                    index % 2 == 0 ? "java.math.BigDecimal"
+                            : "java.util.List<java.util.Date>",
+                    "A value."));
+        }
+        for (int index = 0; index < 300; index++) {
+            final BlancoCgMethod cgMethod = cgOf.createMethod("getValue"
+                    + index, "Gets a value.");
+            cgMethod.setReturn(cgOf.createReturn("java.lang.String",
+                    "The value."));
+            if (index % 7 == 0) {
+                cgMethod.getThrowList().add(cgOf.createException(
+                        "java.io.IOException", "If an I/O error occurs."));
+            }
+            if (index % 50 == 49) {
+                cgMethod.setLineSource(Arrays.asList(
+                        "// lazy line " + index, "return null;").iterator());
+            } else {
+                cgMethod.getLineList().add("return \"" + index + "\";");
+            }
+            cgClass.getMethodList().add(cgMethod);
+        }
+        if (argIsBroken) {
+            cgClass.getMethodList().get(150).setName(null);
+        }
+        return cgSourceFile;
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * blanco Framework
+ * Copyright (C) 2004-2006 IGA Tosiki
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ */
+package blanco.cg;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import blanco.cg.transformer.BlancoCgFileOutputTarget;
+import blanco.cg.transformer.BlancoCgMemoryOutputTarget;
+import blanco.cg.transformer.BlancoCgOutputTarget;
+import blanco.cg.transformer.BlancoCgSpillOutputStream;
+import blanco.cg.transformer.BlancoCgTransformerFactory;
+import blanco.cg.valueobject.BlancoCgEnum;
+import blanco.cg.valueobject.BlancoCgSourceFile;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test of spilling a large generated file to a temporary file.
+ */
+public class BlancoCgSpillOutputStreamTest {
+    @Test
+    public void testStream() throws Exception {
+        final byte[] content = new byte[1000];
+        for (int index = 0; index < content.length; index++) {
+            content[index] = (byte) index;
+        }
+        final Path file = Files.createTempFile("blanco-cg-test-", ".bin");
+        try {
+            final BlancoCgSpillOutputStream outStream = new BlancoCgSpillOutputStream(
+                    100);
+            outStream.write(content, 0, 50);
+            assertFalse(outStream.isSpilled());
+            outStream.write(content, 50, 950);
+            assertTrue(outStream.isSpilled());
+            assertEquals(1000, outStream.size());
+            assertArrayEquals(content, outStream.toByteArray());
+
+            outStream.copyTo(file);
+            assertArrayEquals(content, Files.readAllBytes(file));
+            assertTrue(outStream.contentEquals(file));
+            content[999] = 0;
+            Files.write(file, content);
+            assertFalse(outStream.contentEquals(file));
+            outStream.delete();
+
+            final BlancoCgSpillOutputStream memoryStream = new BlancoCgSpillOutputStream(
+                    0);
+            memoryStream.write(content, 0, content.length);
+            assertFalse(memoryStream.isSpilled());
+            assertTrue(memoryStream.contentEquals(file));
+            memoryStream.delete();
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testTransform() throws Exception {
+        // Generates the same file in memory, for comparison.
+        final BlancoCgMemoryOutputTarget memoryTarget = new BlancoCgMemoryOutputTarget();
+        BlancoCgTransformerFactory.transform(BlancoCgTransformerFactory
+                .getSourceTransformer(BlancoCgSupportedLang.JAVA),
+                createModel(), memoryTarget);
+        final byte[] expected = memoryTarget.getFileMap().get(
+                "myprog/spill/MySpillEnum.java");
+        assertTrue(expected.length > 100000);
+
+        final File outputDirectory = new File("./tmp/spill");
+        new File(outputDirectory, "myprog/spill/MySpillEnum.java").delete();
+        final List<Integer> resultList = new ArrayList<Integer>();
+        final BlancoCgOutputTarget target = new RecordingTarget(
+                new BlancoCgFileOutputTarget(outputDirectory), resultList);
+        System.setProperty(BlancoCgSpillOutputStream.THRESHOLD_PROPERTY,
+                "4096");
+        try {
+            for (int count = 0; count < 2; count++) {
+                BlancoCgTransformerFactory.transform(BlancoCgTransformerFactory
+                        .getSourceTransformer(BlancoCgSupportedLang.JAVA),
+                        createModel(), target);
+            }
+        } finally {
+            System.clearProperty(BlancoCgSpillOutputStream.THRESHOLD_PROPERTY);
+        }
+
+        // The spilled content is written once, and compared without a change the second time.
+        assertEquals(Arrays.asList(BlancoCgOutputTarget.CREATE,
+                BlancoCgOutputTarget.SKIP), resultList);
+        assertArrayEquals(expected, Files.readAllBytes(new File(
+                outputDirectory, "myprog/spill/MySpillEnum.java").toPath()));
+    }
+
+    /**
+     * Creates a model of a large enum.
+     *
+     * @return A source file.
+     */
+    private static BlancoCgSourceFile createModel() {
+        final BlancoCgObjectFactory cgOf = BlancoCgObjectFactory.getInstance();
+        final BlancoCgSourceFile cgSourceFile = cgOf.createSourceFile(
+                "myprog.spill", "Test of spilling a large file.");
+        cgSourceFile.setEncoding("UTF-8");
+        final BlancoCgEnum cgEnum = cgOf.createEnum("MySpillEnum",
+                "A large enum.");
+        for (int index = 0; index < 5000; index++) {
+            cgEnum.getElementList().add(cgOf.createEnumElement(
+                    "ELEMENT_" + index, "The element " + index + "."));
+        }
+        cgSourceFile.getEnumList().add(cgEnum);
+        return cgSourceFile;
+    }
+
+    /**
+     * An output target that records the results of the writes of spilled contents.
+     */
+    private static class RecordingTarget implements BlancoCgOutputTarget {
+        private final BlancoCgOutputTarget fTarget;
+
+        private final List<Integer> fResultList;
+
+        RecordingTarget(final BlancoCgOutputTarget argTarget,
+                final List<Integer> argResultList) {
+            fTarget = argTarget;
+            fResultList = argResultList;
+        }
+
+        public int write(final String argPath, final byte[] argContent)
+                throws IOException {
+            throw new IllegalStateException("The content was not spilled.");
+        }
+
+        @Override
+        public int write(final String argPath,
+                final BlancoCgSpillOutputStream argContent) throws IOException {
+            final int result = fTarget.write(argPath, argContent);
+            fResultList.add(result);
+            return result;
+        }
+
+        public String getLocation(final String argPath) {
+            return fTarget.getLocation(argPath);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * blanco Framework
+ * Copyright (C) 2004-2006 IGA Tosiki
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ */
+package blanco.cg;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import blanco.cg.transformer.BlancoCgMemoryOutputTarget;
+import blanco.cg.transformer.BlancoCgTransformerFactory;
+import blanco.cg.util.BlancoCgSymbolIndex;
+import blanco.cg.valueobject.BlancoCgClass;
+import blanco.cg.valueobject.BlancoCgInterface;
+import blanco.cg.valueobject.BlancoCgMethod;
+import blanco.cg.valueobject.BlancoCgSourceFile;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test of the cross-file symbol index.
+ */
+public class BlancoCgSymbolIndexTest {
+    @Test
+    public void testLookup() {
+        final List<BlancoCgSourceFile> cgSourceFileList = createModels();
+        final BlancoCgSymbolIndex index = new BlancoCgSymbolIndex(
+                cgSourceFileList);
+        assertEquals(7, index.size());
+        assertEquals("myprog.a.Foo", index.getQualifiedName("Foo"));
+        assertEquals("myprog.b.Bar", index.getQualifiedName("myprog.b.Bar"));
+        assertEquals(cgSourceFileList.get(1), index.getSourceFile("Bar"));
+        assertEquals(cgSourceFileList.get(1), index.getSourceFile("Mode"));
+
+        // The same simple name in two packages can be looked up only by the qualified name.
+        assertTrue(index.isAmbiguous("Dup"));
+        assertNull(index.getQualifiedName("Dup"));
+        assertEquals(cgSourceFileList.get(4), index.getSourceFile("myprog.b.Dup"));
+        assertFalse(index.isAmbiguous("Foo"));
+        assertNull(index.getSourceFile("Unknown"));
+    }
+
+    @Test
+    public void testResolveJava() {
+        final List<BlancoCgSourceFile> cgSourceFileList = createModels();
+        final BlancoCgSymbolIndex index = new BlancoCgSymbolIndex(
+                cgSourceFileList);
+        for (BlancoCgSourceFile cgSourceFile : cgSourceFileList) {
+            index.resolveImports(cgSourceFile, BlancoCgSupportedLang.JAVA);
+        }
+        assertEquals(Arrays.asList(), cgSourceFileList.get(0).getImportList());
+        assertEquals(Arrays.asList("myprog.a.Foo"), cgSourceFileList.get(1)
+                .getImportList());
+        // Foo is in the same package, Dup is ambiguous, and Root is in the default package.
+        assertEquals(Arrays.asList("myprog.b.Bar"), cgSourceFileList.get(2)
+                .getImportList());
+
+        assertThrows(IllegalArgumentException.class, () -> index
+                .resolveImports(cgSourceFileList.get(0),
+                        BlancoCgSupportedLang.CS));
+    }
+
+    @Test
+    public void testResolveTs() throws Exception {
+        final List<BlancoCgSourceFile> cgSourceFileList = createModels();
+        final BlancoCgSymbolIndex index = new BlancoCgSymbolIndex(
+                cgSourceFileList);
+        for (BlancoCgSourceFile cgSourceFile : cgSourceFileList) {
+            index.resolveImports(cgSourceFile, BlancoCgSupportedLang.TS);
+        }
+        assertEquals(Arrays.asList("import {Foo} from \"../a/Foo\""),
+                cgSourceFileList.get(1).getHeaderList());
+        assertEquals(Arrays.asList("import {Bar} from \"../b/Bar\"",
+                "import {Foo} from \"./Foo\"", "import {Root} from \"../../Root\""),
+                cgSourceFileList.get(2).getHeaderList());
+        assertEquals(Arrays.asList("import {Mode} from \"./myprog/b/Bar\""),
+                cgSourceFileList.get(3).getHeaderList());
+
+        // Resolving again does not duplicate the imports.
+        index.resolveImports(cgSourceFileList.get(1), BlancoCgSupportedLang.TS);
+        assertEquals(1, cgSourceFileList.get(1).getHeaderList().size());
+
+        final BlancoCgMemoryOutputTarget target = new BlancoCgMemoryOutputTarget();
+        BlancoCgTransformerFactory.transform(BlancoCgTransformerFactory
+                .getSourceTransformer(BlancoCgSupportedLang.TS),
+                cgSourceFileList.get(2), target);
+        final String content = new String(target.getFileMap().get(
+                "myprog/a/Baz.ts"), "UTF-8");
+        assertTrue(content.contains("import {Bar} from \"../b/Bar\";"));
+    }
+
+    @Test
+    public void testResolveGenerics() {
+        final List<BlancoCgSourceFile> cgSourceFileList = createModels();
+        final BlancoCgObjectFactory cgOf = BlancoCgObjectFactory.getInstance();
+        final BlancoCgSourceFile cgSourceFile = cgOf.createSourceFile(
+                "myprog.d", "Generics.");
+        final BlancoCgClass cgClass = cgOf.createClass("MyGenerics",
+                "Generics.");
+        cgClass.getExtendClassList().add(cgOf.createType(
+                "java.util.ArrayList<myprog.b.Bar>"));
+        cgClass.getFieldList().add(cgOf.createField("fMap",
+                "java.util.Map<String, java.util.List<? extends Foo>>",
+                "A map."));
+        cgSourceFile.getClassList().add(cgClass);
+        cgSourceFileList.add(cgSourceFile);
+
+        final BlancoCgSymbolIndex index = new BlancoCgSymbolIndex(
+                cgSourceFileList);
+        index.resolveImports(cgSourceFile, BlancoCgSupportedLang.JAVA);
+        assertEquals(Arrays.asList("myprog.b.Bar", "myprog.a.Foo"),
+                cgSourceFile.getImportList());
+        // The types of the model are not parsed in place.
+        assertTrue(cgClass.getFieldList().get(0).getType().getGenericsTree()
+                .isEmpty());
+    }
+
+    /**
+     * Creates models referring to each other.
+     *
+     * @return A list of source files.
+     */
+    private static List<BlancoCgSourceFile> createModels() {
+        final BlancoCgObjectFactory cgOf = BlancoCgObjectFactory.getInstance();
+        final List<BlancoCgSourceFile> cgSourceFileList = new ArrayList<BlancoCgSourceFile>();
+
+        final BlancoCgSourceFile fooFile = cgOf.createSourceFile("myprog.a",
+                "Foo.");
+        fooFile.getClassList().add(cgOf.createClass("Foo", "Foo."));
+        cgSourceFileList.add(fooFile);
+
+        // An interface and an enum in a file named after the interface.
+        final BlancoCgSourceFile barFile = cgOf.createSourceFile("myprog.b",
+                "Bar.");
+        final BlancoCgInterface cgInterface = cgOf.createInterface("Bar",
+                "Bar.");
+        final BlancoCgMethod cgMethod = cgOf.createMethod("getFoos",
+                "Gets Foos.");
+        cgMethod.getParameterList().add(cgOf.createParameter("argFoos",
+                "java.util.List<Foo>", "Foos."));
+        cgInterface.getMethodList().add(cgMethod);
+        barFile.getInterfaceList().add(cgInterface);
+        barFile.getEnumList().add(cgOf.createEnum("Mode", "Mode."));
+        cgSourceFileList.add(barFile);
+
+        final BlancoCgSourceFile bazFile = cgOf.createSourceFile("myprog.a",
+                "Baz.");
+        final BlancoCgClass cgClass = cgOf.createClass("Baz", "Baz.");
+        cgClass.getImplementInterfaceList().add(cgOf.createType("myprog.b.Bar"));
+        cgClass.getFieldList().add(cgOf.createField("fFoo", "Foo", "Foo."));
+        cgClass.getFieldList().add(cgOf.createField("fBars", "Bar[]", "Bars."));
+        cgClass.getFieldList().add(cgOf.createField("fDup", "Dup", "Dup."));
+        cgClass.getFieldList().add(cgOf.createField("fRoot", "Root", "Root."));
+        bazFile.getClassList().add(cgClass);
+        cgSourceFileList.add(bazFile);
+
+        final BlancoCgSourceFile rootFile = cgOf.createSourceFile(null,
+                "Root.");
+        final BlancoCgClass rootClass = cgOf.createClass("Root", "Root.");
+        rootClass.getFieldList().add(cgOf.createField("fMode", "Mode", "Mode."));
+        rootFile.getClassList().add(rootClass);
+        cgSourceFileList.add(rootFile);
+
+        for (String packageName : new String[] { "myprog.b", "myprog.c" }) {
+            final BlancoCgSourceFile dupFile = cgOf.createSourceFile(
+                    packageName, "Dup.");
+            dupFile.getClassList().add(cgOf.createClass("Dup", "Dup."));
+            cgSourceFileList.add(dupFile);
+        }
+        return cgSourceFileList;
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * blanco Framework
+ * Copyright (C) 2004-2006 IGA Tosiki
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ */
+package blanco.cg;
+
+import org.junit.jupiter.api.Test;
+
+import blanco.cg.template.BlancoCgTemplate;
+import blanco.cg.transformer.BlancoCgMemoryOutputTarget;
+import blanco.cg.transformer.BlancoCgTransformerFactory;
+
+/**
+ * Benchmark of rendering many source files from a compiled template against expanding each model from scratch.
+ */
+public class BlancoCgTemplateBenchmark {
+    /**
+     * Number of the files generated in a run.
+     */
+    private static final int COUNT = 2000;
+
+    @Test
+    public void benchmarkTemplate() throws Exception {
+        final long expandNanos = BlancoCgBenchmark.measure(3,
+                new BlancoCgBenchmark.Task<BlancoCgMemoryOutputTarget>() {
+                    public BlancoCgMemoryOutputTarget prepare() {
+                        return new BlancoCgMemoryOutputTarget();
+                    }
+
+                    public void run(final BlancoCgMemoryOutputTarget argInput) {
+                        for (int index = 0; index < COUNT; index++) {
+                            BlancoCgTransformerFactory.transform(
+                                    BlancoCgTransformerFactory
+                                            .getSourceTransformer(BlancoCgSupportedLang.JAVA),
+                                    BlancoCgTemplateTest.createModel(
+                                            "myprog.dto", "MyDto" + index,
+                                            "java.lang.String"), argInput);
+                        }
+                    }
+                });
+        BlancoCgBenchmark.report("template expand", expandNanos, COUNT
+                + " files");
+
+        final BlancoCgTemplate template = BlancoCgTemplate.compile(
+                BlancoCgSupportedLang.JAVA, BlancoCgTemplateTest.createModel(
+                        BlancoCgTemplate.hole("Package"), BlancoCgTemplate
+                                .hole("Name"), BlancoCgTemplate.hole("Type")));
+        final long renderNanos = BlancoCgBenchmark.measure(3,
+                new BlancoCgBenchmark.Task<BlancoCgMemoryOutputTarget>() {
+                    public BlancoCgMemoryOutputTarget prepare() {
+                        return new BlancoCgMemoryOutputTarget();
+                    }
+
+                    public void run(final BlancoCgMemoryOutputTarget argInput)
+                            throws Exception {
+                        for (int index = 0; index < COUNT; index++) {
+                            template.write(BlancoCgTemplateTest
+                                    .createBindingMap("myprog.dto", "MyDto"
+                                            + index, "String"), argInput);
+                        }
+                    }
+                });
+        BlancoCgBenchmark.report("template render", renderNanos, COUNT
+                + " files");
+    }
+}
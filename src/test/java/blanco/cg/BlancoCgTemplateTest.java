@@ -0,0 +1,172 @@
+/*
+ * blanco Framework
+ * Copyright (C) 2004-2006 IGA Tosiki
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ */
+package blanco.cg;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import blanco.cg.template.BlancoCgTemplate;
+import blanco.cg.transformer.BlancoCgMemoryOutputTarget;
+import blanco.cg.transformer.BlancoCgOutputTarget;
+import blanco.cg.transformer.BlancoCgTransformerFactory;
+import blanco.cg.valueobject.BlancoCgClass;
+import blanco.cg.valueobject.BlancoCgField;
+import blanco.cg.valueobject.BlancoCgMethod;
+import blanco.cg.valueobject.BlancoCgSourceFile;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Test of rendering many source files from a compiled template.
+ */
+public class BlancoCgTemplateTest {
+    @Test
+    public void testJava() throws Exception {
+        final BlancoCgTemplate template = BlancoCgTemplate.compile(
+                BlancoCgSupportedLang.JAVA, createModel(
+                        BlancoCgTemplate.hole("Package"), BlancoCgTemplate
+                                .hole("Name"), BlancoCgTemplate.hole("Type")));
+        assertEquals(Arrays.asList("Package", "Name", "Type"), template
+                .getHoleNameList());
+
+        final Map<String, String> bindingMap = createBindingMap("myprog.dto",
+                "MyDto", "String");
+        assertEquals("myprog/dto/MyDto.java", template.getPath(bindingMap));
+
+        // The rendered instance is the same as the one expanded from scratch.
+        final BlancoCgMemoryOutputTarget expected = new BlancoCgMemoryOutputTarget();
+        BlancoCgTransformerFactory.transform(BlancoCgTransformerFactory
+                .getSourceTransformer(BlancoCgSupportedLang.JAVA),
+                createModel("myprog.dto", "MyDto", "java.lang.String"),
+                expected);
+        final String expectedSource = new String(expected.getFileMap().get(
+                "myprog/dto/MyDto.java"), StandardCharsets.UTF_8);
+        assertEquals(expectedSource, template.render(bindingMap));
+
+        final BlancoCgMemoryOutputTarget target = new BlancoCgMemoryOutputTarget();
+        assertEquals(BlancoCgOutputTarget.CREATE, template.write(bindingMap,
+                target));
+        assertEquals(BlancoCgOutputTarget.SKIP, template.write(bindingMap,
+                target));
+        assertEquals(expectedSource, new String(target.getFileMap().get(
+                "myprog/dto/MyDto.java"), StandardCharsets.UTF_8));
+
+        // Every hole must be bound, and only the holes.
+        bindingMap.remove("Type");
+        assertThrows(IllegalArgumentException.class, () -> template
+                .render(bindingMap));
+        bindingMap.put("Type", "String");
+        bindingMap.put("Unknown", "String");
+        assertThrows(IllegalArgumentException.class, () -> template
+                .render(bindingMap));
+        assertThrows(IllegalArgumentException.class, () -> BlancoCgTemplate
+                .hole("my_hole"));
+    }
+
+    @Test
+    public void testTs() throws Exception {
+        final BlancoCgTemplate template = BlancoCgTemplate.compile(
+                BlancoCgSupportedLang.TS, createModel(BlancoCgTemplate
+                        .hole("Package"), BlancoCgTemplate.hole("Name"),
+                        BlancoCgTemplate.hole("Type")));
+        final Map<String, String> bindingMap = createBindingMap("myprog.dto",
+                "MyTsDto", "string");
+        assertEquals("myprog/dto/MyTsDto.ts", template.getPath(bindingMap));
+        final String source = template.render(bindingMap);
+        assertEquals(true, source.contains("class MyTsDto"));
+        assertEquals(true, source.contains(": string"));
+        assertEquals(false, source.contains("BlancoCgHole"));
+    }
+
+    @Test
+    public void testEveryLanguage() throws Exception {
+        for (int lang = BlancoCgSupportedLang.JAVA; lang <= BlancoCgSupportedLang.PHP8; lang++) {
+            if (lang == BlancoCgSupportedLang.KOTLIN) {
+                continue;
+            }
+            final BlancoCgTemplate template = BlancoCgTemplate.compile(lang,
+                    createModel(BlancoCgTemplate.hole("Package"),
+                            BlancoCgTemplate.hole("Name"), BlancoCgTemplate
+                                    .hole("Type")));
+            final String packageName = (lang == BlancoCgSupportedLang.PHP) ? "myprog\\dto"
+                    : "myprog.dto";
+
+            // Values shorter and longer than the holes render the same as a fresh expansion.
+            for (String name : new String[] { "MyDto",
+                    "MyDataTransferObjectWithAVeryLongNameToBeBoundToTheHole" }) {
+                final BlancoCgMemoryOutputTarget expected = new BlancoCgMemoryOutputTarget();
+                BlancoCgTransformerFactory.transform(BlancoCgTransformerFactory
+                        .getSourceTransformer(lang), createModel(packageName,
+                        name, "MyType"), expected);
+                final Map.Entry<String, byte[]> entry = expected.getFileMap()
+                        .entrySet().iterator().next();
+
+                // The languages without types have no hole of the type.
+                final Map<String, String> bindingMap = createBindingMap(
+                        packageName, name, "MyType");
+                bindingMap.keySet().retainAll(template.getHoleNameList());
+                assertEquals(entry.getKey(), template.getPath(bindingMap));
+                assertEquals(new String(entry.getValue(),
+                        StandardCharsets.UTF_8), template.render(bindingMap));
+            }
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> BlancoCgTemplate
+                .compile(BlancoCgSupportedLang.KOTLIN, createModel(
+                        BlancoCgTemplate.hole("Package"), BlancoCgTemplate
+                                .hole("Name"), BlancoCgTemplate.hole("Type"))));
+    }
+
+    static Map<String, String> createBindingMap(final String argPackage,
+            final String argName, final String argType) {
+        final Map<String, String> bindingMap = new HashMap<String, String>();
+        bindingMap.put("Package", argPackage);
+        bindingMap.put("Name", argName);
+        bindingMap.put("Type", argType);
+        return bindingMap;
+    }
+
+    /**
+     * Creates a model of a DTO.
+     *
+     * @param argPackage
+     *            Package name.
+     * @param argName
+     *            Class name.
+     * @param argType
+     *            Type of the fields.
+     * @return A source file.
+     */
+    static BlancoCgSourceFile createModel(final String argPackage,
+            final String argName, final String argType) {
+        final BlancoCgObjectFactory cgOf = BlancoCgObjectFactory.getInstance();
+        final BlancoCgSourceFile cgSourceFile = BlancoCgTestModel.createClass(
+                argPackage, argName);
+        final BlancoCgClass cgClass = cgSourceFile.getClassList().get(0);
+        for (String fieldName : new String[] { "code", "title" }) {
+            final BlancoCgField cgField = cgOf.createField(fieldName, argType,
+                    "A field.");
+            cgClass.getFieldList().add(cgField);
+
+            final BlancoCgMethod cgMethod = cgOf.createMethod("get"
+                    + Character.toUpperCase(fieldName.charAt(0))
+                    + fieldName.substring(1), "Gets the field.");
+            cgMethod.setReturn(cgOf.createReturn(argType, "The value."));
+            cgMethod.getLineList().add("return " + fieldName + ";");
+            cgClass.getMethodList().add(cgMethod);
+        }
+        return cgSourceFile;
+    }
+}
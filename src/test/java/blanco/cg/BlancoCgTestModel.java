@@ -0,0 +1,68 @@
+/*
+ * blanco Framework
+ * Copyright (C) 2004-2006 IGA Tosiki
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ */
+package blanco.cg;
+
+import blanco.cg.valueobject.BlancoCgClass;
+import blanco.cg.valueobject.BlancoCgMethod;
+import blanco.cg.valueobject.BlancoCgSourceFile;
+
+/**
+ * Models shared by the tests.
+ *
+ * A test adds what it needs to the class of the model.
+ */
+final class BlancoCgTestModel {
+    private BlancoCgTestModel() {
+    }
+
+    /**
+     * Creates a source file in UTF-8 with an empty class.
+     *
+     * @param argPackage
+     *            Package name.
+     * @param argName
+     *            Class name.
+     * @return A source file.
+     */
+    static BlancoCgSourceFile createClass(final String argPackage,
+            final String argName) {
+        final BlancoCgObjectFactory cgOf = BlancoCgObjectFactory.getInstance();
+        final BlancoCgSourceFile cgSourceFile = cgOf.createSourceFile(
+                argPackage, "A source file of a test.");
+        cgSourceFile.setEncoding("UTF-8");
+        cgSourceFile.getClassList().add(cgOf.createClass(argName,
+                "A class of a test."));
+        return cgSourceFile;
+    }
+
+    /**
+     * Creates a source file in UTF-8 with a class having the field fName and its getter getName.
+     *
+     * @param argPackage
+     *            Package name.
+     * @param argName
+     *            Class name.
+     * @return A source file.
+     */
+    static BlancoCgSourceFile createNamedClass(final String argPackage,
+            final String argName) {
+        final BlancoCgObjectFactory cgOf = BlancoCgObjectFactory.getInstance();
+        final BlancoCgSourceFile cgSourceFile = createClass(argPackage, argName);
+        final BlancoCgClass cgClass = cgSourceFile.getClassList().get(0);
+        cgClass.getFieldList().add(cgOf.createField("fName",
+                "java.lang.String", "A name."));
+        final BlancoCgMethod cgMethod = cgOf.createMethod("getName",
+                "Gets the name.");
+        cgMethod.setReturn(cgOf.createReturn("java.lang.String", "The name."));
+        cgMethod.getLineList().add("return fName;");
+        cgClass.getMethodList().add(cgMethod);
+        return cgSourceFile;
+    }
+}
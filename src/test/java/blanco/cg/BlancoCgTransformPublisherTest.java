@@ -0,0 +1,123 @@
+/*
+ * blanco Framework
+ * Copyright (C) 2004-2006 IGA Tosiki
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ */
+package blanco.cg;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Flow;
+
+import org.junit.jupiter.api.Test;
+
+import blanco.cg.transformer.BlancoCgGeneratedFile;
+import blanco.cg.transformer.BlancoCgMemoryOutputTarget;
+import blanco.cg.transformer.BlancoCgOutputTarget;
+import blanco.cg.transformer.BlancoCgTransformPublisher;
+import blanco.cg.valueobject.BlancoCgSourceFile;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test of the publisher of generated source files.
+ */
+public class BlancoCgTransformPublisherTest {
+    @Test
+    public void testBackpressure() throws Exception {
+        final int[] created = new int[1];
+        final int[] pulled = new int[1];
+        final Iterable<BlancoCgSourceFile> sourceFiles = () -> new Iterator<BlancoCgSourceFile>() {
+            public boolean hasNext() {
+                pulled[0]++;
+                return created[0] < 5;
+            }
+
+            public BlancoCgSourceFile next() {
+                return BlancoCgTestModel.createClass("myprog.publish",
+                        "MyPublished" + created[0]++);
+            }
+        };
+        final BlancoCgMemoryOutputTarget target = new BlancoCgMemoryOutputTarget();
+        final BlancoCgTransformPublisher publisher = new BlancoCgTransformPublisher(
+                sourceFiles, BlancoCgSupportedLang.JAVA, target, Runnable::run);
+        final RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher.subscribe(subscriber);
+        assertEquals(0, pulled[0]);
+
+        // Only the requested files are rendered, and the source is not asked beyond them.
+        subscriber.fSubscription.request(2);
+        assertEquals(2, created[0]);
+        assertEquals(2, pulled[0]);
+        assertEquals(2, subscriber.fFileList.size());
+        assertFalse(subscriber.fIsCompleted);
+        final BlancoCgGeneratedFile file = subscriber.fFileList.get(0);
+        assertEquals("myprog/publish/MyPublished0.java", file.getPath());
+        assertEquals(BlancoCgSupportedLang.JAVA, file.getLang());
+        assertEquals(BlancoCgOutputTarget.CREATE, file.getStatus());
+        assertArrayEquals(target.getFileMap().get(file.getPath()), file
+                .getContent());
+
+        subscriber.fSubscription.request(Long.MAX_VALUE);
+        assertEquals(5, subscriber.fFileList.size());
+        assertEquals("myprog/publish/MyPublished4.java", subscriber.fFileList
+                .get(4).getPath());
+        assertTrue(subscriber.fIsCompleted);
+
+        // Only one subscriber is accepted.
+        final RecordingSubscriber second = new RecordingSubscriber();
+        publisher.subscribe(second);
+        assertNotNull(second.fError);
+    }
+
+    @Test
+    public void testInvalidRequest() throws Exception {
+        final List<BlancoCgSourceFile> sourceFiles = new ArrayList<BlancoCgSourceFile>();
+        sourceFiles.add(BlancoCgTestModel.createClass("myprog.publish",
+                "MyPublishedA"));
+        final BlancoCgTransformPublisher publisher = new BlancoCgTransformPublisher(
+                sourceFiles, BlancoCgSupportedLang.TS, null, Runnable::run);
+        final RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher.subscribe(subscriber);
+        subscriber.fSubscription.request(0);
+        assertTrue(subscriber.fError instanceof IllegalArgumentException);
+        assertTrue(subscriber.fFileList.isEmpty());
+        assertFalse(subscriber.fIsCompleted);
+    }
+
+    private static class RecordingSubscriber implements
+            Flow.Subscriber<BlancoCgGeneratedFile> {
+        private Flow.Subscription fSubscription;
+
+        private final List<BlancoCgGeneratedFile> fFileList = new ArrayList<BlancoCgGeneratedFile>();
+
+        private boolean fIsCompleted = false;
+
+        private Throwable fError;
+
+        public void onSubscribe(final Flow.Subscription argSubscription) {
+            fSubscription = argSubscription;
+        }
+
+        public void onNext(final BlancoCgGeneratedFile argItem) {
+            fFileList.add(argItem);
+        }
+
+        public void onError(final Throwable argError) {
+            fError = argError;
+        }
+
+        public void onComplete() {
+            fIsCompleted = true;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * blanco Framework
+ * Copyright (C) 2004-2006 IGA Tosiki
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ */
+package blanco.cg;
+
+import org.junit.jupiter.api.Test;
+
+import blanco.cg.transformer.BlancoCgTransformerFactory;
+import blanco.cg.transformer.BlancoCgTransformerProvider;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Test of the language backends provided through ServiceLoader.
+ */
+public class BlancoCgTransformerFactoryTest {
+    /**
+     * A language that is not built in.
+     */
+    private static final int MY_LANG = 100;
+
+    /**
+     * A backend of MY_LANG, registered in src/test/resources/META-INF/services.
+     */
+    public static class MyLangProvider implements BlancoCgTransformerProvider {
+        public int getSupportedLang() {
+            return MY_LANG;
+        }
+
+        public BlancoCgTransformer createTransformer() {
+            // Uses the Java backend for testing.
+            return BlancoCgTransformerFactory.getJavaSourceTransformer();
+        }
+    }
+
+    @Test
+    public void testProvidedBackend() {
+        assertEquals(
+                BlancoCgTransformerFactory.getJavaSourceTransformer().getClass(),
+                BlancoCgTransformerFactory.getSourceTransformer(MY_LANG)
+                        .getClass());
+    }
+
+    @Test
+    public void testUnsupportedLang() {
+        assertThrows(IllegalArgumentException.class,
+                () -> BlancoCgTransformerFactory.getSourceTransformer(MY_LANG + 1));
+    }
+}
@@ -9,8 +9,12 @@
  */
 package blanco.cg;
 
+import java.io.BufferedWriter;
 import java.io.File;
+import java.io.StringWriter;
+import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 
 import org.junit.jupiter.api.Test;
@@ -27,6 +31,11 @@ import blanco.cg.valueobject.BlancoCgSourceFile;
 import blanco.cg.valueobject.BlancoCgType;
 import blanco.cg.valueobject.BlancoCgVirtualParameter;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
 /**
  * Generation test for Java.
  *
@@ -404,4 +413,145 @@ public class BlancoCgTransformerTest {
                 .getJavaSourceTransformer();
         cgTransformerJava.transform(cgSourceFile, new File("./tmp/blanco"));
     }
+
+    /**
+     * Expansion test of lazy line sources.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testTransformerLineSource() throws Exception {
+        final BlancoCgObjectFactory cgOf = BlancoCgObjectFactory.getInstance();
+
+        // Generates a source file.
+        final BlancoCgSourceFile cgSourceFile = cgOf.createSourceFile("myprog",
+                "Line source for testing");
+
+        // Generates the class.
+        final BlancoCgClass cgClass = cgOf.createClass("MyLineSource",
+                "This class is for testing.");
+        cgSourceFile.getClassList().add(cgClass);
+
+        // Plain text supplied lazily.
+        final List<String> plainTextList = new ArrayList<>();
+        plainTextList.add("private static final int LIMIT = 3;");
+        cgClass.setPlainTextSource(plainTextList.iterator());
+
+        // Method body supplied lazily, after the ordinary lines.
+        final BlancoCgMethod cgMethod = cgOf.createMethod("lookup",
+                "Testing lazy method body.");
+        cgClass.getMethodList().add(cgMethod);
+        cgMethod.setReturn(cgOf.createReturn("int", "Looked up value."));
+        cgMethod.getLineList().add("int result = 0;");
+        final List<String> bodyList = new ArrayList<>();
+        bodyList.add("if (result < LIMIT) {");
+        bodyList.add("result++;");
+        bodyList.add("}");
+        bodyList.add("return result;");
+        final Iterator<String> lineSource = bodyList.iterator();
+        cgMethod.setLineSource(lineSource);
+
+        final StringWriter stringWriter = new StringWriter();
+        final BufferedWriter writer = new BufferedWriter(stringWriter);
+        BlancoCgTransformerFactory.getJavaSourceTransformer().transform(
+                cgSourceFile, writer);
+        writer.flush();
+
+        final String source = stringWriter.toString();
+        assertFalse(lineSource.hasNext());
+        assertTrue(source.contains("    private static final int LIMIT = 3;"));
+        assertTrue(source.contains("        int result = 0;"));
+        assertTrue(source.contains("            result++;"));
+        assertTrue(source.contains("        return result;"));
+        assertFalse(source.contains("blancoCg: line source"));
+    }
+
+    @Test
+    public void testTransformerVerbatimFile() throws Exception {
+        final BlancoCgObjectFactory cgOf = BlancoCgObjectFactory.getInstance();
+
+        // Prepares pre-formatted files. The odd indentation must be kept as it is.
+        final File verbatimDirectory = new File("./tmp/verbatim");
+        verbatimDirectory.mkdirs();
+        final File utf8File = new File(verbatimDirectory, "Utf8Fragment.txt");
+        Files.write(utf8File.toPath(),
+                "  // 日本語\n  int   odd =  1;\n".getBytes("UTF-8"));
+        final File sjisFile = new File(verbatimDirectory, "SjisFragment.txt");
+        Files.write(sjisFile.toPath(),
+                "      // 変換\n      int other = 2;".getBytes("Windows-31J"));
+
+        // Generates a source file.
+        final BlancoCgSourceFile cgSourceFile = cgOf.createSourceFile("myprog",
+                "Verbatim file for testing");
+        cgSourceFile.setEncoding("UTF-8");
+
+        // Generates the class.
+        final BlancoCgClass cgClass = cgOf.createClass("MyVerbatim",
+                "This class is for testing.");
+        cgSourceFile.getClassList().add(cgClass);
+        cgClass.getVerbatimFileList().add(
+                cgOf.createVerbatimFile(utf8File.getPath(), null));
+        cgClass.getVerbatimFileList().add(
+                cgOf.createVerbatimFile(sjisFile.getPath(), "Windows-31J"));
+        cgClass.getFieldList().add(cgOf.createField("fCount", "int",
+                "Field after the verbatim files."));
+
+        BlancoCgTransformerFactory.getJavaSourceTransformer().transform(
+                cgSourceFile, new File("./tmp/blanco"));
+
+        // The generated lines end with the line separator of the platform, and the copied lines with "\n".
+        final String source = new String(Files.readAllBytes(new File(
+                "./tmp/blanco/myprog/MyVerbatim.java").toPath()), "UTF-8")
+                .replace("\r\n", "\n");
+        assertTrue(source.contains("\n  // 日本語\n  int   odd =  1;\n"
+                + "      // 変換\n      int other = 2;\n\n"));
+        assertTrue(source.contains("    private int fCount;"));
+        assertFalse(source.contains("blancoCg: verbatim file"));
+
+        // A TypeScript interface also copies the files after its plain text.
+        final BlancoCgSourceFile tsSourceFile = cgOf.createSourceFile(
+                "myprog", "Verbatim file for testing");
+        tsSourceFile.setEncoding("UTF-8");
+        final BlancoCgInterface cgInterface = cgOf.createInterface(
+                "MyVerbatimInterface", "This interface is for testing.");
+        tsSourceFile.getInterfaceList().add(cgInterface);
+        cgInterface.getVerbatimFileList().add(
+                cgOf.createVerbatimFile(utf8File.getPath(), null));
+        BlancoCgTransformerFactory.getTsSourceTransformer().transform(
+                tsSourceFile, new File("./tmp/blanco"));
+        final String tsSource = new String(Files.readAllBytes(new File(
+                "./tmp/blanco/myprog/MyVerbatimInterface.ts").toPath()),
+                "UTF-8").replace("\r\n", "\n");
+        assertTrue(tsSource.contains("\n  int   odd =  1;\n"));
+
+        // A line break of UTF-16 is two bytes, and the file is not followed by another one.
+        final File utf16File = new File(verbatimDirectory,
+                "Utf16Fragment.txt");
+        Files.write(utf16File.toPath(), "  // 幅の広い文字\n  int wide = 16;\n"
+                .getBytes("UTF-16LE"));
+        final BlancoCgSourceFile utf16SourceFile = cgOf.createSourceFile(
+                "myprog", "Verbatim file for testing");
+        utf16SourceFile.setEncoding("UTF-16LE");
+        final BlancoCgClass utf16Class = cgOf.createClass("MyVerbatimUtf16",
+                "This class is for testing.");
+        utf16SourceFile.getClassList().add(utf16Class);
+        utf16Class.getVerbatimFileList().add(
+                cgOf.createVerbatimFile(utf16File.getPath(), null));
+        utf16Class.getFieldList().add(cgOf.createField("fCount", "int",
+                "Field after the verbatim files."));
+        BlancoCgTransformerFactory.getJavaSourceTransformer().transform(
+                utf16SourceFile, new File("./tmp/blanco"));
+        final String utf16Source = new String(Files.readAllBytes(new File(
+                "./tmp/blanco/myprog/MyVerbatimUtf16.java").toPath()),
+                "UTF-16LE").replace("\r\n", "\n");
+        assertTrue(utf16Source.contains("\n  int wide = 16;\n\n    /**\n"));
+
+        // The other languages fail rather than dropping the files.
+        assertThrows(IllegalArgumentException.class,
+                () -> BlancoCgTransformerFactory.getKotlinSourceTransformer()
+                        .transform(cgSourceFile, new File("./tmp/blanco")));
+        assertThrows(IllegalArgumentException.class,
+                () -> BlancoCgTransformerFactory.getJavaSourceTransformer()
+                        .transform(tsSourceFile, new File("./tmp/blanco")));
+    }
 }
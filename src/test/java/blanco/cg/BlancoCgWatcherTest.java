@@ -0,0 +1,182 @@
+/*
+ * blanco Framework
+ * Copyright (C) 2004-2006 IGA Tosiki
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ */
+package blanco.cg;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import blanco.cg.transformer.BlancoCgFileOutputTarget;
+import blanco.cg.transformer.BlancoCgMemoryOutputTarget;
+import blanco.cg.transformer.BlancoCgSpillOutputStream;
+import blanco.cg.valueobject.BlancoCgClass;
+import blanco.cg.valueobject.BlancoCgSourceFile;
+import blanco.cg.watch.BlancoCgWatchGenerator;
+import blanco.cg.watch.BlancoCgWatcher;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test of the watch mode.
+ */
+public class BlancoCgWatcherTest {
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    @Test
+    public void testWatch() throws Exception {
+        final File inputDirectory = new File("./tmp/watch/meta");
+        inputDirectory.mkdirs();
+        for (File file : inputDirectory.listFiles()) {
+            file.delete();
+        }
+        final File inputA = new File(inputDirectory, "a.txt");
+        final File inputB = new File(inputDirectory, "b.txt");
+        Files.write(inputA.toPath(), "MyWatchA\n".getBytes(UTF8));
+        Files.write(inputB.toPath(), "MyWatchB\n".getBytes(UTF8));
+
+        final int[] spillCount = new int[1];
+        final BlancoCgMemoryOutputTarget target = new BlancoCgMemoryOutputTarget() {
+            @Override
+            public int write(final String argPath,
+                    final BlancoCgSpillOutputStream argContent)
+                    throws IOException {
+                spillCount[0]++;
+                return super.write(argPath, argContent);
+            }
+        };
+        final BlancoCgWatcher watcher = new BlancoCgWatcher(
+                new ClassListGenerator(), BlancoCgSupportedLang.JAVA, target);
+        try {
+            watcher.setSettleMillis(100);
+            watcher.register(inputDirectory);
+            // A spilled content is handed to the target as it is, not read into memory by the watcher.
+            System.setProperty(BlancoCgSpillOutputStream.THRESHOLD_PROPERTY,
+                    "1");
+            try {
+                assertEquals(2, watcher.renderAll());
+            } finally {
+                System.clearProperty(BlancoCgSpillOutputStream.THRESHOLD_PROPERTY);
+            }
+            assertEquals(2, spillCount[0]);
+            assertEquals(2, target.getFileMap().size());
+            target.getFileMap().clear();
+
+            // Only the value objects of the changed file are rendered.
+            Files.write(inputA.toPath(), "MyWatchA\nMyWatchC\n".getBytes(UTF8));
+            assertEquals(2, pollUntilRendered(watcher));
+            assertEquals(2, target.getFileMap().size());
+            assertTrue(target.getFileMap().containsKey(
+                    "myprog/watch/MyWatchC.java"));
+            assertNull(target.getFileMap().get("myprog/watch/MyWatchB.java"));
+
+            // A new file.
+            Files.write(new File(inputDirectory, "d.txt").toPath(),
+                    "MyWatchD\n".getBytes(UTF8));
+            assertEquals(1, pollUntilRendered(watcher));
+            assertTrue(target.getFileMap().containsKey(
+                    "myprog/watch/MyWatchD.java"));
+            assertTrue(watcher.getOrphanSet().isEmpty());
+
+            // The source files no longer rendered are reported after each run.
+            Files.write(inputA.toPath(), "MyWatchC\n".getBytes(UTF8));
+            assertEquals(1, pollUntilRendered(watcher));
+            assertEquals(Collections.singleton("myprog/watch/MyWatchA.java"),
+                    watcher.getOrphanSet());
+            Files.write(inputB.toPath(), "MyWatchA\nMyWatchB\n".getBytes(UTF8));
+            assertEquals(2, pollUntilRendered(watcher));
+            assertTrue(watcher.getOrphanSet().isEmpty());
+        } finally {
+            watcher.close();
+        }
+    }
+
+    @Test
+    public void testIgnoreOutput() throws Exception {
+        final File inputDirectory = new File("./tmp/watch/tree");
+        final File outputDirectory = new File(inputDirectory, "out");
+        outputDirectory.mkdirs();
+        final File input = new File(inputDirectory, "a.txt");
+        Files.write(input.toPath(), "MyWatchTree\n".getBytes(UTF8));
+
+        // The output directory is inside the watched one.
+        final ClassListGenerator generator = new ClassListGenerator();
+        final BlancoCgWatcher watcher = new BlancoCgWatcher(generator,
+                BlancoCgSupportedLang.JAVA, new BlancoCgFileOutputTarget(
+                        outputDirectory));
+        try {
+            watcher.setSettleMillis(100);
+            watcher.ignore(outputDirectory);
+            watcher.register(inputDirectory);
+            assertEquals(1, watcher.renderAll());
+            final int generateCount = generator.fGenerateCount;
+
+            // Rendering again writes the output directory, which does not trigger the watch.
+            Files.write(input.toPath(), "MyWatchTree\nMyWatchTree2\n"
+                    .getBytes(UTF8));
+            assertEquals(2, pollUntilRendered(watcher));
+            assertEquals(0, watcher.poll(500));
+            assertEquals(generateCount + 1, generator.fGenerateCount);
+            assertTrue(new File(outputDirectory,
+                    "myprog/watch/MyWatchTree2.java").isFile());
+        } finally {
+            watcher.close();
+        }
+    }
+
+    private static int pollUntilRendered(final BlancoCgWatcher argWatcher)
+            throws Exception {
+        for (int retry = 0; retry < 100; retry++) {
+            final int count = argWatcher.poll(100);
+            if (count > 0) {
+                return count;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * A generator that reads a class name from each line of a text file.
+     */
+    private static class ClassListGenerator implements BlancoCgWatchGenerator {
+        private int fGenerateCount = 0;
+
+        public List<BlancoCgSourceFile> generate(final File argInputFile)
+                throws IOException {
+            fGenerateCount++;
+            if (argInputFile.getName().endsWith(".txt") == false) {
+                return Collections.emptyList();
+            }
+            final BlancoCgObjectFactory cgOf = BlancoCgObjectFactory
+                    .getInstance();
+            final List<BlancoCgSourceFile> cgSourceFileList = new ArrayList<BlancoCgSourceFile>();
+            for (String line : Files.readAllLines(argInputFile.toPath(), UTF8)) {
+                if (line.trim().length() == 0) {
+                    continue;
+                }
+                final BlancoCgSourceFile cgSourceFile = cgOf.createSourceFile(
+                        "myprog.watch", "Test of the watch mode.");
+                cgSourceFile.setEncoding("UTF-8");
+                final BlancoCgClass cgClass = cgOf.createClass(line.trim(),
+                        "A class generated in the watch mode.");
+                cgSourceFile.getClassList().add(cgClass);
+                cgSourceFileList.add(cgSourceFile);
+            }
+            return cgSourceFileList;
+        }
+    }
+}